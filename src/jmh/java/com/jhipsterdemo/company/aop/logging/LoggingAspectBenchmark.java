@@ -0,0 +1,66 @@
+package com.jhipsterdemo.company.aop.logging;
+
+import com.jhipsterdemo.company.service.LoggedService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls a service through the proxies applying {@link LoggingAspect} and {@link TimingAspect}, with every call timed
+ * or none of them, and directly for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    private LoggedService service;
+
+    private LoggedService timedService;
+
+    private LoggedService sampledOutService;
+
+    @Setup
+    public void setUp() {
+        service = new LoggedService();
+        timedService = advise(service, 1);
+        sampledOutService = advise(service, 0);
+    }
+
+    private static LoggedService advise(LoggedService service, double sampleRate) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+        proxyFactory.addAspect(new LoggingAspect(new StandardEnvironment()));
+        proxyFactory.addAspect(new TimingAspect(new SimpleMeterRegistry(), sampleRate));
+        return proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public String direct() {
+        return service.greet("world");
+    }
+
+    @Benchmark
+    public String timed() {
+        return timedService.greet("world");
+    }
+
+    @Benchmark
+    public String sampledOut() {
+        return sampledOutService.greet("world");
+    }
+}
@@ -0,0 +1,65 @@
+package com.jhipsterdemo.company.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.EntityGraphs;
+import com.jhipsterdemo.company.domain.JobHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps entities to the documents sent to Elasticsearch with {@link ElasticsearchConfiguration.CustomEntityMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomEntityMapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int jobs;
+
+    private EntityMapper entityMapper;
+
+    private Employee employee;
+
+    private JobHistory jobHistory;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(new JavaTimeModule(), new Jdk8Module())
+            .build();
+        entityMapper = new ElasticsearchConfiguration(objectMapper).getEntityMapper();
+        employee = EntityGraphs.employee(jobs, 5);
+        jobHistory = EntityGraphs.jobHistory(jobs);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapEmployee() {
+        return entityMapper.mapObject(employee);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapJobHistory() {
+        return entityMapper.mapObject(jobHistory);
+    }
+}
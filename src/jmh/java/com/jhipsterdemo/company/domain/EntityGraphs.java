@@ -0,0 +1,77 @@
+package com.jhipsterdemo.company.domain;
+
+import com.jhipsterdemo.company.domain.enumeration.Language;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * Entity graphs shaped like the ones returned by the REST API, for the benchmarks.
+ */
+public final class EntityGraphs {
+
+    private EntityGraphs() {
+    }
+
+    /**
+     * Create an employee with its manager, its department and its jobs.
+     *
+     * @param jobs the number of jobs of the employee.
+     * @param tasksPerJob the number of tasks of each job.
+     * @return the employee.
+     */
+    public static Employee employee(int jobs, int tasksPerJob) {
+        Department department = department();
+        Employee manager = newEmployee().department(department);
+        Employee employee = newEmployee().manager(manager).department(department);
+        for (int i = 0; i < jobs; i++) {
+            Job job = new Job().jobTitle("Job " + i).minSalary(30000L).maxSalary(60000L);
+            job.setId(new ObjectId().toString());
+            for (int j = 0; j < tasksPerJob; j++) {
+                Task task = new Task().title("Task " + j).description("Description of task " + j + " of job " + i);
+                task.setId(new ObjectId().toString());
+                job.addTask(task);
+            }
+            employee.addJob(job);
+        }
+        return employee;
+    }
+
+    /**
+     * Create a job history with its employee, its job and its department.
+     *
+     * @param tasksPerJob the number of tasks of the job.
+     * @return the job history.
+     */
+    public static JobHistory jobHistory(int tasksPerJob) {
+        Employee employee = employee(1, tasksPerJob);
+        JobHistory jobHistory = new JobHistory()
+            .job(employee.getJobs().iterator().next())
+            .department(employee.getDepartment())
+            .employee(employee)
+            .language(Language.ENGLISH);
+        jobHistory.setId(new ObjectId().toString());
+        jobHistory.setStartDate(Instant.parse("2019-01-01T09:00:00Z"));
+        jobHistory.setEndDate(Instant.parse("2020-06-30T18:00:00Z"));
+        return jobHistory;
+    }
+
+    private static Department department() {
+        Department department = new Department().departmentName("Research and development");
+        department.setId(new ObjectId().toString());
+        return department;
+    }
+
+    private static Employee newEmployee() {
+        Employee employee = new Employee()
+            .firstName("Jane")
+            .lastName("Doe")
+            .email("jane.doe@example.com")
+            .phoneNumber("+33 1 23 45 67 89")
+            .hireDate(Instant.parse("2015-03-02T09:00:00Z"))
+            .salary(45000L)
+            .commissionPct(5L);
+        employee.setId(new ObjectId().toString());
+        return employee;
+    }
+}
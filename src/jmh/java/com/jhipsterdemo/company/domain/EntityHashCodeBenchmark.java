@@ -0,0 +1,84 @@
+package com.jhipsterdemo.company.domain;
+
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the relationship sets of an entity, whose elements all share the same constant hash code: with entities
+ * comparable by id, which the set keeps in a tree, and with entities it can only keep in a list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityHashCodeBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private List<Employee> employees;
+
+    private List<Employee> uncomparableEmployees;
+
+    @Setup
+    public void setUp() {
+        employees = new ArrayList<>(size);
+        uncomparableEmployees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String id = new ObjectId().toString();
+            Employee employee = new Employee();
+            employee.setId(id);
+            employees.add(employee);
+            Employee uncomparableEmployee = new UncomparableEmployee();
+            uncomparableEmployee.setId(id);
+            uncomparableEmployees.add(uncomparableEmployee);
+        }
+    }
+
+    @Benchmark
+    public Department comparable() {
+        return addEmployees(employees);
+    }
+
+    @Benchmark
+    public Department uncomparable() {
+        return addEmployees(uncomparableEmployees);
+    }
+
+    private Department addEmployees(List<Employee> departmentEmployees) {
+        Department department = new Department();
+        for (Employee employee : departmentEmployees) {
+            department.addEmployee(employee);
+        }
+        Set<Employee> set = department.getEmployees();
+        for (Employee employee : departmentEmployees) {
+            if (!set.contains(employee)) {
+                throw new IllegalStateException("Employee not found: " + employee.getId());
+            }
+        }
+        return department;
+    }
+
+    /**
+     * An employee which the sets don't compare: only a class declaring itself {@code Comparable} to itself is.
+     */
+    private static class UncomparableEmployee extends Employee {
+    }
+}
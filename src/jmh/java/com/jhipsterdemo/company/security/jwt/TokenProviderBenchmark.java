@@ -0,0 +1,83 @@
+package com.jhipsterdemo.company.security.jwt;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.security.AuthoritiesConstants;
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates JWT tokens and reads their authentication, as done by the JWT filter on each request, with and without
+ * the cache of authentications.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private TokenProvider tokenProvider;
+
+    private TokenProvider uncachedTokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(Base64.getEncoder().encodeToString(
+            "a secret long enough to sign the tokens of the benchmark with HS512".getBytes(StandardCharsets.UTF_8)));
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties());
+        tokenProvider.init();
+        ApplicationProperties uncachedProperties = new ApplicationProperties();
+        uncachedProperties.getTokenCache().setEnabled(false);
+        uncachedTokenProvider = new TokenProvider(jHipsterProperties, uncachedProperties);
+        uncachedTokenProvider.init();
+        Authentication authentication = new UsernamePasswordAuthenticationToken("admin", "admin",
+            Arrays.asList(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication validateTokenAndGetAuthentication() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null;
+    }
+
+    @Benchmark
+    public Authentication getValidAuthentication() {
+        return tokenProvider.getValidAuthentication(token).orElse(null);
+    }
+
+    @Benchmark
+    public Authentication getValidAuthenticationUncached() {
+        return uncachedTokenProvider.getValidAuthentication(token).orElse(null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.jhipsterdemo.company.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * A service matched by the pointcuts of {@link com.jhipsterdemo.company.aop.logging.LoggingAspect} and {@link com.jhipsterdemo.company.aop.logging.TimingAspect}, for the benchmarks.
+ */
+@Service
+public class LoggedService {
+
+    public String greet(String name) {
+        return "Hello " + name;
+    }
+}
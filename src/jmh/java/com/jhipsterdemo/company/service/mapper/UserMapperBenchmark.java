@@ -0,0 +1,92 @@
+package com.jhipsterdemo.company.service.mapper;
+
+import com.jhipsterdemo.company.domain.Authority;
+import com.jhipsterdemo.company.domain.User;
+import com.jhipsterdemo.company.security.AuthoritiesConstants;
+import com.jhipsterdemo.company.service.dto.UserDTO;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a page of users to their DTOs and back, as done by the user management endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private UserMapper userMapper;
+
+    private List<User> users;
+
+    private List<UserDTO> userDTOs;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapper();
+        users = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            User user = new User();
+            user.setId(new ObjectId().toString());
+            user.setLogin("user" + i);
+            user.setFirstName("First name " + i);
+            user.setLastName("Last name " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setImageUrl("http://placehold.it/50x50");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setCreatedBy("system");
+            user.setCreatedDate(Instant.now());
+            Set<Authority> authorities = new HashSet<>();
+            authorities.add(authority(AuthoritiesConstants.USER));
+            if (i % 5 == 0) {
+                authorities.add(authority(AuthoritiesConstants.ADMIN));
+            }
+            user.setAuthorities(authorities);
+            users.add(user);
+        }
+        userDTOs = userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public UserDTO userToUserDTO() {
+        return new UserDTO(users.get(0));
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<User> userDTOsToUsers() {
+        return userMapper.userDTOsToUsers(userDTOs);
+    }
+
+    private static Authority authority(String name) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        return authority;
+    }
+}
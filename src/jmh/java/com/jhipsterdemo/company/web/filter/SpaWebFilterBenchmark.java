@@ -0,0 +1,54 @@
+package com.jhipsterdemo.company.web.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters requests with {@link SpaWebFilter}: API calls, static resources, and client routes forwarded to
+ * {@code index.html}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpaWebFilterBenchmark {
+
+    @Param({"/api/employees", "/management/health", "/app/main.bundle.js", "/employee/5ee1e7bd1c9d440000a1b2c3/edit"})
+    private String path;
+
+    private SpaWebFilter filter;
+
+    private WebFilterChain chain;
+
+    private ServerWebExchange exchange;
+
+    @Setup
+    public void setUp() {
+        filter = new SpaWebFilter();
+        chain = filteredExchange -> Mono.empty();
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    @Benchmark
+    public Mono<Void> filter() {
+        return filter.filter(exchange, chain);
+    }
+}
@@ -0,0 +1,176 @@
+package com.jhipsterdemo.company.aop.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Aspect timing the repositories, services and Web REST endpoints matched by {@link LoggingAspect}.
+ * <p>
+ * The calls returning a {@link Mono} or a {@link Flux} are timed from the subscription until their completion, error
+ * or cancellation, not only while the publisher is assembled, and recorded before the subscriber gets that signal;
+ * only the first of these signals is recorded, a {@link Mono} being cancelled after its value by some operators.
+ * Only a {@code sampleRate} of the calls are timed, the others go straight to the method. The timers and loggers of
+ * each method are looked up once for each class of target.
+ * <p>
+ * A call is tagged with the class of its target, whatever class declares the method. The Spring Data repositories
+ * all share the same implementation, their calls are tagged with the repository interface instead.
+ */
+@Aspect
+public class TimingAspect {
+
+    static final String TIMER_NAME = "method.timed";
+
+    private final MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+
+    private final Map<Class<?>, Map<Method, MethodTimers>> timers = new ConcurrentHashMap<>();
+
+    public TimingAspect(MeterRegistry meterRegistry, double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Advice that times a sample of the method calls.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the method.
+     */
+    @Around("com.jhipsterdemo.company.aop.logging.LoggingAspect.applicationPackagePointcut()" +
+        " && com.jhipsterdemo.company.aop.logging.LoggingAspect.springBeanPointcut()")
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!isSampled()) {
+            return joinPoint.proceed();
+        }
+        Object target = joinPoint.getTarget();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers
+            .computeIfAbsent(target != null ? target.getClass() : method.getDeclaringClass(), targetClass -> new ConcurrentHashMap<>())
+            .computeIfAbsent(method, timedMethod -> new MethodTimers(getTimedClass(target, timedMethod), timedMethod));
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            methodTimers.record(start, SignalType.ON_ERROR);
+            throw e;
+        }
+        if (result instanceof Mono) {
+            Mono<?> mono = (Mono<?>) result;
+            return Mono.defer(() -> {
+                long subscribed = System.nanoTime();
+                AtomicBoolean recorded = new AtomicBoolean();
+                return mono
+                    .doOnSuccess(value -> methodTimers.recordOnce(recorded, subscribed, SignalType.ON_COMPLETE))
+                    .doOnError(e -> methodTimers.recordOnce(recorded, subscribed, SignalType.ON_ERROR))
+                    .doOnCancel(() -> methodTimers.recordOnce(recorded, subscribed, SignalType.CANCEL));
+            });
+        }
+        if (result instanceof Flux) {
+            Flux<?> flux = (Flux<?>) result;
+            return Flux.defer(() -> {
+                long subscribed = System.nanoTime();
+                AtomicBoolean recorded = new AtomicBoolean();
+                return flux
+                    .doOnComplete(() -> methodTimers.recordOnce(recorded, subscribed, SignalType.ON_COMPLETE))
+                    .doOnError(e -> methodTimers.recordOnce(recorded, subscribed, SignalType.ON_ERROR))
+                    .doOnCancel(() -> methodTimers.recordOnce(recorded, subscribed, SignalType.CANCEL));
+            });
+        }
+        methodTimers.record(start, SignalType.ON_COMPLETE);
+        return result;
+    }
+
+    /**
+     * Get the class a call is tagged with: the class of the target or, for a repository, its most specific interface.
+     */
+    static Class<?> getTimedClass(Object target, Method method) {
+        if (target == null) {
+            return method.getDeclaringClass();
+        }
+        if (target instanceof Repository) {
+            Set<Class<?>> interfaces = ClassUtils.getAllInterfacesAsSet(target);
+            for (Class<?> candidate : interfaces) {
+                if (Repository.class.isAssignableFrom(candidate) && interfaces.stream()
+                    .noneMatch(other -> other != candidate && candidate.isAssignableFrom(other))) {
+                    return candidate;
+                }
+            }
+        }
+        return AopUtils.getTargetClass(target);
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * The timers of a method, by outcome, and its logger.
+     */
+    private final class MethodTimers {
+
+        private final String methodName;
+
+        private final Logger log;
+
+        private final Timer successTimer;
+
+        private final Timer errorTimer;
+
+        private final Timer cancelTimer;
+
+        private MethodTimers(Class<?> timedClass, Method method) {
+            this.methodName = method.getName();
+            this.log = LoggerFactory.getLogger(timedClass);
+            this.successTimer = timer(timedClass, method, "success");
+            this.errorTimer = timer(timedClass, method, "error");
+            this.cancelTimer = timer(timedClass, method, "cancel");
+        }
+
+        private Timer timer(Class<?> timedClass, Method method, String outcome) {
+            return Timer.builder(TIMER_NAME)
+                .description("Time spent in the repositories, services and REST endpoints, until their result completes")
+                .tag("class", timedClass.getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+
+        private void recordOnce(AtomicBoolean recorded, long start, SignalType signal) {
+            if (recorded.compareAndSet(false, true)) {
+                record(start, signal);
+            }
+        }
+
+        private void record(long start, SignalType signal) {
+            long duration = System.nanoTime() - start;
+            Timer timer = signal == SignalType.ON_ERROR ? errorTimer : signal == SignalType.CANCEL ? cancelTimer : successTimer;
+            timer.record(duration, TimeUnit.NANOSECONDS);
+            if (log.isTraceEnabled()) {
+                log.trace("Exit: {}() after {} us with {}", methodName, TimeUnit.NANOSECONDS.toMicros(duration), signal);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.jhipsterdemo.company.config;
 
+import com.jhipsterdemo.company.service.AuditEventWriter;
+import com.jhipsterdemo.company.service.SharedKafkaReceiver;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,4 +12,697 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Outbox outbox = new Outbox();
+
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    private final References references = new References();
+
+    private final TokenCache tokenCache = new TokenCache();
+
+    private final KafkaConsumer kafkaConsumer = new KafkaConsumer();
+
+    private final KafkaProducer kafkaProducer = new KafkaProducer();
+
+    private final ChangeEvents changeEvents = new ChangeEvents();
+
+    private final ReferenceDataCache referenceDataCache = new ReferenceDataCache();
+
+    private final UserDetailsCache userDetailsCache = new UserDetailsCache();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final AuditEvents auditEvents = new AuditEvents();
+
+    private final MethodTiming methodTiming = new MethodTiming();
+
+    private final Export export = new Export();
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    private final EmployeeHierarchy employeeHierarchy = new EmployeeHierarchy();
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public References getReferences() {
+        return references;
+    }
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    public KafkaConsumer getKafkaConsumer() {
+        return kafkaConsumer;
+    }
+
+    public KafkaProducer getKafkaProducer() {
+        return kafkaProducer;
+    }
+
+    public ChangeEvents getChangeEvents() {
+        return changeEvents;
+    }
+
+    public ReferenceDataCache getReferenceDataCache() {
+        return referenceDataCache;
+    }
+
+    public UserDetailsCache getUserDetailsCache() {
+        return userDetailsCache;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public AuditEvents getAuditEvents() {
+        return auditEvents;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    public EmployeeHierarchy getEmployeeHierarchy() {
+        return employeeHierarchy;
+    }
+
+    public static class Outbox {
+
+        private boolean enabled = true;
+
+        private int batchSize = 500;
+
+        private long pollIntervalMs = 1000;
+
+        private int concurrency = 8;
+
+        private long initialBackoffMs = 1000;
+
+        private long maxBackoffMs = 300000;
+
+        private long recoveryDelayMs = 300000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public long getInitialBackoffMs() {
+            return initialBackoffMs;
+        }
+
+        public void setInitialBackoffMs(long initialBackoffMs) {
+            this.initialBackoffMs = initialBackoffMs;
+        }
+
+        public long getMaxBackoffMs() {
+            return maxBackoffMs;
+        }
+
+        public void setMaxBackoffMs(long maxBackoffMs) {
+            this.maxBackoffMs = maxBackoffMs;
+        }
+
+        public long getRecoveryDelayMs() {
+            return recoveryDelayMs;
+        }
+
+        public void setRecoveryDelayMs(long recoveryDelayMs) {
+            this.recoveryDelayMs = recoveryDelayMs;
+        }
+    }
+
+    public static class SearchIndex {
+
+        private boolean trackTotalHits = true;
+
+        private Integer trackTotalHitsUpTo;
+
+        private final Bulk bulk = new Bulk();
+
+        private final Reindex reindex = new Reindex();
+
+        public boolean isTrackTotalHits() {
+            return trackTotalHits;
+        }
+
+        public void setTrackTotalHits(boolean trackTotalHits) {
+            this.trackTotalHits = trackTotalHits;
+        }
+
+        public Integer getTrackTotalHitsUpTo() {
+            return trackTotalHitsUpTo;
+        }
+
+        public void setTrackTotalHitsUpTo(Integer trackTotalHitsUpTo) {
+            this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+        }
+
+        public Bulk getBulk() {
+            return bulk;
+        }
+
+        public Reindex getReindex() {
+            return reindex;
+        }
+
+        public static class Bulk {
+
+            private int maxActions = 1000;
+
+            private long maxBytes = 5 * 1024 * 1024;
+
+            private int maxConcurrentRequests = 2;
+
+            private int maxRetries = 3;
+
+            private long retryBackoffMs = 500;
+
+            public int getMaxActions() {
+                return maxActions;
+            }
+
+            public void setMaxActions(int maxActions) {
+                this.maxActions = maxActions;
+            }
+
+            public long getMaxBytes() {
+                return maxBytes;
+            }
+
+            public void setMaxBytes(long maxBytes) {
+                this.maxBytes = maxBytes;
+            }
+
+            public int getMaxConcurrentRequests() {
+                return maxConcurrentRequests;
+            }
+
+            public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+                this.maxConcurrentRequests = maxConcurrentRequests;
+            }
+
+            public int getMaxRetries() {
+                return maxRetries;
+            }
+
+            public void setMaxRetries(int maxRetries) {
+                this.maxRetries = maxRetries;
+            }
+
+            public long getRetryBackoffMs() {
+                return retryBackoffMs;
+            }
+
+            public void setRetryBackoffMs(long retryBackoffMs) {
+                this.retryBackoffMs = retryBackoffMs;
+            }
+        }
+
+        public static class Reindex {
+
+            private int cursorBatchSize = 1000;
+
+            private int parallelism = Runtime.getRuntime().availableProcessors();
+
+            private int numberOfReplicas = 1;
+
+            private boolean deleteOldIndices = true;
+
+            private long staleAfterMs = 300000;
+
+            public int getCursorBatchSize() {
+                return cursorBatchSize;
+            }
+
+            public void setCursorBatchSize(int cursorBatchSize) {
+                this.cursorBatchSize = cursorBatchSize;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public int getNumberOfReplicas() {
+                return numberOfReplicas;
+            }
+
+            public void setNumberOfReplicas(int numberOfReplicas) {
+                this.numberOfReplicas = numberOfReplicas;
+            }
+
+            public boolean isDeleteOldIndices() {
+                return deleteOldIndices;
+            }
+
+            public void setDeleteOldIndices(boolean deleteOldIndices) {
+                this.deleteOldIndices = deleteOldIndices;
+            }
+
+            public long getStaleAfterMs() {
+                return staleAfterMs;
+            }
+
+            public void setStaleAfterMs(long staleAfterMs) {
+                this.staleAfterMs = staleAfterMs;
+            }
+        }
+    }
+
+    public static class References {
+
+        private int maxDepth = 2;
+
+        private boolean lookup = false;
+
+        private int maxFanOut = 100;
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+        }
+
+        public boolean isLookup() {
+            return lookup;
+        }
+
+        public void setLookup(boolean lookup) {
+            this.lookup = lookup;
+        }
+
+        public int getMaxFanOut() {
+            return maxFanOut;
+        }
+
+        public void setMaxFanOut(int maxFanOut) {
+            this.maxFanOut = maxFanOut;
+        }
+    }
+
+    public static class TokenCache {
+
+        private boolean enabled = true;
+
+        private long maximumSize = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    public static class KafkaConsumer {
+
+        private int bufferSize = 256;
+
+        private int maxBufferSize = 10000;
+
+        private SharedKafkaReceiver.OverflowStrategy overflowStrategy = SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST;
+
+        private long gracePeriodMs = 5000;
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getMaxBufferSize() {
+            return maxBufferSize;
+        }
+
+        public void setMaxBufferSize(int maxBufferSize) {
+            this.maxBufferSize = maxBufferSize;
+        }
+
+        public SharedKafkaReceiver.OverflowStrategy getOverflowStrategy() {
+            return overflowStrategy;
+        }
+
+        public void setOverflowStrategy(SharedKafkaReceiver.OverflowStrategy overflowStrategy) {
+            this.overflowStrategy = overflowStrategy;
+        }
+
+        public long getGracePeriodMs() {
+            return gracePeriodMs;
+        }
+
+        public void setGracePeriodMs(long gracePeriodMs) {
+            this.gracePeriodMs = gracePeriodMs;
+        }
+    }
+
+    public static class KafkaProducer {
+
+        private long lingerMs = 5;
+
+        private int batchSize = 65536;
+
+        private int maxInFlight = 256;
+
+        public long getLingerMs() {
+            return lingerMs;
+        }
+
+        public void setLingerMs(long lingerMs) {
+            this.lingerMs = lingerMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+    }
+
+    public static class ChangeEvents {
+
+        private boolean enabled = false;
+
+        private String topicPrefix = "company.";
+
+        private int partitions = 3;
+
+        private short replicationFactor = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getTopicPrefix() {
+            return topicPrefix;
+        }
+
+        public void setTopicPrefix(String topicPrefix) {
+            this.topicPrefix = topicPrefix;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+
+        public short getReplicationFactor() {
+            return replicationFactor;
+        }
+
+        public void setReplicationFactor(short replicationFactor) {
+            this.replicationFactor = replicationFactor;
+        }
+    }
+
+    public static class ReferenceDataCache {
+
+        private boolean enabled = true;
+
+        private long timeToLiveMs = 600000;
+
+        private String invalidationTopic;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTimeToLiveMs() {
+            return timeToLiveMs;
+        }
+
+        public void setTimeToLiveMs(long timeToLiveMs) {
+            this.timeToLiveMs = timeToLiveMs;
+        }
+
+        public String getInvalidationTopic() {
+            return invalidationTopic;
+        }
+
+        public void setInvalidationTopic(String invalidationTopic) {
+            this.invalidationTopic = invalidationTopic;
+        }
+    }
+
+    public static class UserDetailsCache {
+
+        private boolean enabled = true;
+
+        private long timeToLiveMs = 60000;
+
+        private long maximumSize = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTimeToLiveMs() {
+            return timeToLiveMs;
+        }
+
+        public void setTimeToLiveMs(long timeToLiveMs) {
+            this.timeToLiveMs = timeToLiveMs;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        private int queueCapacity = 100;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class AuditEvents {
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 500;
+
+        private long flushIntervalMs = 1000;
+
+        private AuditEventWriter.OverflowStrategy overflowStrategy = AuditEventWriter.OverflowStrategy.WRITE_THROUGH;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public AuditEventWriter.OverflowStrategy getOverflowStrategy() {
+            return overflowStrategy;
+        }
+
+        public void setOverflowStrategy(AuditEventWriter.OverflowStrategy overflowStrategy) {
+            this.overflowStrategy = overflowStrategy;
+        }
+    }
+
+    public static class MethodTiming {
+
+        private boolean enabled = true;
+
+        private double sampleRate = 0.1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    public static class Export {
+
+        private int cursorBatchSize = 1000;
+
+        private int batchSize = 500;
+
+        public int getCursorBatchSize() {
+            return cursorBatchSize;
+        }
+
+        public void setCursorBatchSize(int cursorBatchSize) {
+            this.cursorBatchSize = cursorBatchSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class BulkImport {
+
+        private int batchSize = 1000;
+
+        private int maxReportedErrors = 1000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+    }
+
+    public static class EmployeeHierarchy {
+
+        private int batchSize = 500;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
 }
@@ -1,8 +1,13 @@
 package com.jhipsterdemo.company.config;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +23,8 @@ import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchPe
 import org.springframework.data.mapping.MappingException;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -43,6 +50,8 @@ public class ElasticsearchConfiguration {
 
     public class CustomEntityMapper implements EntityMapper {
 
+        private final JavaType mapType = TypeFactory.defaultInstance().constructMapType(HashMap.class, String.class, Object.class);
+
         private ObjectMapper objectMapper;
 
         public CustomEntityMapper(ObjectMapper objectMapper) {
@@ -64,10 +73,18 @@ public class ElasticsearchConfiguration {
             return objectMapper.readValue(source, clazz);
         }
 
+        /**
+         * Convert an entity to the document {@link #mapToString} then parsing the JSON would give, through a token
+         * buffer instead of a JSON string.
+         */
         @Override
         public Map<String, Object> mapObject(Object source) {
+            TokenBuffer buffer = new TokenBuffer(objectMapper, false);
             try {
-                return objectMapper.readValue(mapToString(source), HashMap.class);
+                objectMapper.writeValue(buffer, source);
+                try (JsonParser parser = new JsonNumbersParser(buffer.asParser())) {
+                    return objectMapper.readValue(parser, mapType);
+                }
             } catch (IOException e) {
                 throw new MappingException(e.getMessage(), e);
             }
@@ -76,8 +93,8 @@ public class ElasticsearchConfiguration {
         @Override
         public <T> T readObject(Map<String, Object> source, Class<T> targetType) {
             try {
-                return mapToObject(mapToString(source), targetType);
-            } catch (IOException e) {
+                return objectMapper.convertValue(source, targetType);
+            } catch (IllegalArgumentException e) {
                 throw new MappingException(e.getMessage(), e);
             }
         }
@@ -85,6 +102,46 @@ public class ElasticsearchConfiguration {
 
 }
 
+/**
+ * Parser of a token buffer returning the numbers as the JSON parser does: the smallest integer type holding them, and
+ * doubles. The buffer keeps the types written by the serializers, longs and big decimals for the timestamps.
+ */
+class JsonNumbersParser extends JsonParserDelegate {
+
+    JsonNumbersParser(JsonParser parser) {
+        super(parser);
+    }
+
+    @Override
+    public NumberType getNumberType() throws IOException {
+        Number number = getNumberValue();
+        if (number instanceof Integer) {
+            return NumberType.INT;
+        }
+        if (number instanceof Long) {
+            return NumberType.LONG;
+        }
+        return number instanceof Double ? NumberType.DOUBLE : super.getNumberType();
+    }
+
+    @Override
+    public Number getNumberValue() throws IOException {
+        Number number = super.getNumberValue();
+        if (number instanceof Long || number instanceof Short || number instanceof Byte) {
+            long value = number.longValue();
+            return value == (int) value ? Integer.valueOf((int) value) : number;
+        }
+        if (number instanceof BigInteger && ((BigInteger) number).bitLength() < 64) {
+            long value = number.longValue();
+            return value == (int) value ? (Number) (int) value : (Number) value;
+        }
+        if (number instanceof BigDecimal || number instanceof Float) {
+            return number.doubleValue();
+        }
+        return number;
+    }
+}
+
 /**
  * Custom mapping context in order to use the same entities for both MongoDB and Elasticsearch datasources
  */
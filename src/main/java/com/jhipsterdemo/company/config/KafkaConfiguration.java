@@ -0,0 +1,30 @@
+package com.jhipsterdemo.company.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+
+import java.util.Map;
+
+@Configuration
+public class KafkaConfiguration {
+
+    /**
+     * The producer shared by all the publishers, so the records sent concurrently are batched together.
+     * <p>
+     * {@code linger.ms} and {@code batch.size} default to {@code application.kafka-producer}, unless they are set in
+     * the {@code kafka.producer} properties.
+     */
+    @Bean(destroyMethod = "close")
+    public KafkaSender<String, String> kafkaSender(KafkaProperties kafkaProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.KafkaProducer properties = applicationProperties.getKafkaProducer();
+        Map<String, Object> producerProps = kafkaProperties.getProducerProps();
+        producerProps.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, properties.getLingerMs());
+        producerProps.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, properties.getBatchSize());
+        return KafkaSender.create(SenderOptions.<String, String>create(producerProps)
+            .maxInFlight(properties.getMaxInFlight())
+            .stopOnError(false));
+    }
+}
@@ -1,9 +1,12 @@
 package com.jhipsterdemo.company.config;
 
 import com.jhipsterdemo.company.aop.logging.LoggingAspect;
+import com.jhipsterdemo.company.aop.logging.TimingAspect;
 
 import io.github.jhipster.config.JHipsterConstants;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 
@@ -16,4 +19,10 @@ public class LoggingAspectConfiguration {
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TimingAspect timingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new TimingAspect(meterRegistry, applicationProperties.getMethodTiming().getSampleRate());
+    }
 }
@@ -1,6 +1,7 @@
 package com.jhipsterdemo.company.config;
 
 import com.jhipsterdemo.company.security.AuthoritiesConstants;
+import com.jhipsterdemo.company.security.PasswordHashingScheduler;
 import com.jhipsterdemo.company.security.jwt.JWTFilter;
 import com.jhipsterdemo.company.security.jwt.TokenProvider;
 import com.jhipsterdemo.company.web.filter.SpaWebFilter;
@@ -35,10 +36,14 @@ public class SecurityConfiguration {
 
     private final SecurityProblemSupport problemSupport;
 
-    public SecurityConfiguration(ReactiveUserDetailsService userDetailsService, TokenProvider tokenProvider, SecurityProblemSupport problemSupport) {
+    private final PasswordHashingScheduler passwordHashingScheduler;
+
+    public SecurityConfiguration(ReactiveUserDetailsService userDetailsService, TokenProvider tokenProvider, SecurityProblemSupport problemSupport,
+                                 PasswordHashingScheduler passwordHashingScheduler) {
         this.userDetailsService = userDetailsService;
         this.tokenProvider = tokenProvider;
         this.problemSupport = problemSupport;
+        this.passwordHashingScheduler = passwordHashingScheduler;
     }
 
     @Bean
@@ -50,7 +55,8 @@ public class SecurityConfiguration {
     public ReactiveAuthenticationManager reactiveAuthenticationManager() {
         UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
         authenticationManager.setPasswordEncoder(passwordEncoder());
-        return authenticationManager;
+        authenticationManager.setScheduler(passwordHashingScheduler.getScheduler());
+        return authentication -> passwordHashingScheduler.translateRejection(authenticationManager.authenticate(authentication));
     }
 
     @Bean
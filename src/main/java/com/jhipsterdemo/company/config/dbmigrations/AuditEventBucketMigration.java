@@ -0,0 +1,53 @@
+package com.jhipsterdemo.company.config.dbmigrations;
+
+import com.jhipsterdemo.company.domain.AuditEventBucket;
+import com.jhipsterdemo.company.domain.PersistentAuditEvent;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Counts the existing audit events in their {@link AuditEventBucket}s, the new ones are counted as they are written.
+ */
+@ChangeLog(order = "002")
+public class AuditEventBucketMigration {
+
+    @ChangeSet(order = "01", author = "initiator", id = "01-addAuditEventBuckets")
+    public void addAuditEventBuckets(MongoTemplate mongoTemplate) {
+        Aggregation aggregation = newAggregation(
+            project("principal", "event_type")
+                .and("event_date").extractYear().as("year")
+                .and("event_date").extractMonth().as("month")
+                .and("event_date").extractDayOfMonth().as("day")
+                .and("event_date").extractHour().as("hour"),
+            group("principal", "event_type", "year", "month", "day", "hour").count().as("count")
+        ).withOptions(newAggregationOptions().allowDiskUse(true).build());
+
+        String collectionName = mongoTemplate.getCollectionName(PersistentAuditEvent.class);
+        try (CloseableIterator<Document> counts = mongoTemplate.aggregateStream(aggregation, collectionName, Document.class)) {
+            while (counts.hasNext()) {
+                Document count = counts.next();
+                Document key = count.get("_id", Document.class);
+                LocalDateTime hour = LocalDateTime.of(key.getInteger("year"), key.getInteger("month"), key.getInteger("day"),
+                    key.getInteger("hour"), 0);
+                Query query = Query.query(where("hour").is(hour.toInstant(ZoneOffset.UTC))
+                    .and("principal").is(key.getString("principal"))
+                    .and("event_type").is(key.getString("event_type")));
+                mongoTemplate.upsert(query, new Update().inc("count", ((Number) count.get("count")).longValue()),
+                    AuditEventBucket.class);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.jhipsterdemo.company.config.dbmigrations;
+
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.service.EmployeeHierarchyService;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materializes the org chart of the existing employees, see {@link EmployeeHierarchyService}; the employees saved
+ * afterwards are placed in it as they are saved.
+ */
+@ChangeLog(order = "004")
+public class EmployeeHierarchyMigration {
+
+    private static final String ANCESTORS_FIELD = "ancestors";
+
+    private static final int BATCH_SIZE = 1000;
+
+    @ChangeSet(order = "01", author = "initiator", id = "01-ensureAncestorsIndex", runAlways = true)
+    public void ensureAncestorsIndex(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps(Employee.class).ensureIndex(new Index(ANCESTORS_FIELD, Sort.Direction.ASC));
+    }
+
+    @ChangeSet(order = "02", author = "initiator", id = "02-addEmployeeAncestors")
+    public void addEmployeeAncestors(MongoTemplate mongoTemplate) {
+        MongoCollection<Document> employees = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class));
+        Map<Object, Object> managers = new HashMap<>();
+        for (Document employee : employees.find().projection(Projections.include("manager"))) {
+            Object manager = employee.get("manager");
+            managers.put(employee.get("_id"), manager instanceof DBRef ? ((DBRef) manager).getId() : null);
+        }
+        Map<Object, List<Object>> computed = new HashMap<>();
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        for (Object id : managers.keySet()) {
+            List<Object> ancestors = EmployeeHierarchyService.computeAncestors(id, managers, Collections.emptyMap(), computed);
+            updates.add(new UpdateOneModel<>(new Document("_id", id), new Document("$set", new Document(ANCESTORS_FIELD, ancestors))));
+            if (updates.size() == BATCH_SIZE) {
+                employees.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+                updates.clear();
+            }
+        }
+        if (!updates.isEmpty()) {
+            employees.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+        }
+    }
+}
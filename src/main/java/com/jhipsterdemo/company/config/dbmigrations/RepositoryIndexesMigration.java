@@ -0,0 +1,76 @@
+package com.jhipsterdemo.company.config.dbmigrations;
+
+import com.jhipsterdemo.company.domain.Department;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.Job;
+import com.jhipsterdemo.company.domain.PersistentAuditEvent;
+import com.jhipsterdemo.company.domain.ReindexJob;
+import com.jhipsterdemo.company.domain.User;
+import com.jhipsterdemo.company.domain.enumeration.ReindexStatus;
+import com.jhipsterdemo.company.repository.UserRepository;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Declares the indexes of the queries run by the {@link UserRepository} and the
+ * {@link com.jhipsterdemo.company.repository.PersistenceAuditEventRepository}, and of the natural keys of the
+ * {@link com.jhipsterdemo.company.service.BulkImportService}, beyond those of the {@code @Indexed}
+ * properties and the TTL index of the audit events, along with the constraints which can't be declared with annotations.
+ * <p>
+ * The indexes are ensured at each startup, so adding one here is enough to have it created; an existing index is left
+ * as is.
+ */
+@ChangeLog(order = "003")
+public class RepositoryIndexesMigration {
+
+    @ChangeSet(order = "01", author = "initiator", id = "01-ensureRepositoryIndexes", runAlways = true)
+    public void ensureRepositoryIndexes(MongoTemplate mongoTemplate) {
+        IndexOperations userIndexes = mongoTemplate.indexOps(User.class);
+        // findOneByActivationKey and findOneByResetKey, the keys of most users are null
+        userIndexes.ensureIndex(new Index("activation_key", Sort.Direction.ASC).sparse());
+        userIndexes.ensureIndex(new Index("reset_key", Sort.Direction.ASC).sparse());
+        // findOneByEmailIgnoreCase, run with the same collation
+        userIndexes.ensureIndex(new Index("email", Sort.Direction.ASC)
+            .named("email_case_insensitive")
+            .collation(Collation.parse(UserRepository.EMAIL_COLLATION)));
+        // findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore: equality, then range
+        userIndexes.ensureIndex(new Index()
+            .on("activated", Sort.Direction.ASC)
+            .on("created_date", Sort.Direction.ASC)
+            .on("activation_key", Sort.Direction.ASC));
+
+        IndexOperations auditEventIndexes = mongoTemplate.indexOps(PersistentAuditEvent.class);
+        // findByPrincipal; the queries by date alone use the TTL index
+        auditEventIndexes.ensureIndex(new Index()
+            .on("principal", Sort.Direction.ASC)
+            .on("event_date", Sort.Direction.DESC));
+
+        // The natural keys by which the bulk import resolves the references, not unique in the existing data
+        mongoTemplate.indexOps(Employee.class).ensureIndex(new Index("email", Sort.Direction.ASC));
+        mongoTemplate.indexOps(Department.class).ensureIndex(new Index("department_name", Sort.Direction.ASC));
+        mongoTemplate.indexOps(Job.class).ensureIndex(new Index("job_title", Sort.Direction.ASC));
+
+        // A single reindex job may run for each entity type, even when started by several instances at once
+        mongoTemplate.indexOps(ReindexJob.class).ensureIndex(new Index("entity_type", Sort.Direction.ASC)
+            .named("entity_type_running")
+            .unique()
+            .partial(PartialIndexFilter.of(Criteria.where("status").is(ReindexStatus.RUNNING.name()))));
+    }
+
+    @ChangeSet(order = "02", author = "initiator", id = "02-dropCaseSensitiveEmailIndex")
+    public void dropCaseSensitiveEmailIndex(MongoTemplate mongoTemplate) {
+        // Created by @Indexed, the case-insensitive queries could not use it
+        IndexOperations userIndexes = mongoTemplate.indexOps(User.class);
+        if (userIndexes.getIndexInfo().stream().anyMatch(index -> "email".equals(index.getName()))) {
+            userIndexes.dropIndex("email");
+        }
+    }
+}
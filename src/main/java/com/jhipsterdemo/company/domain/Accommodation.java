@@ -8,13 +8,14 @@ import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import java.io.Serializable;
+import java.util.Comparator;
 
 /**
  * A Accommodation.
  */
 @Document(collection = "accommodation")
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "accommodation")
-public class Accommodation implements Serializable {
+public class Accommodation implements Serializable, Comparable<Accommodation> {
 
     private static final long serialVersionUID = 1L;
 
@@ -113,6 +114,19 @@ public class Accommodation implements Serializable {
         return 31;
     }
 
+    /**
+     * Order by id, so that the entities sharing the constant hash code are kept in a tree in the hash-based sets.
+     * Like in {@link #equals(Object)}, an entity without id is only equal to itself: the entities without id come
+     * first, ordered by identity hash code, which only compare as equal in the rare case of a collision.
+     */
+    @Override
+    public int compareTo(Accommodation other) {
+        if (id == null && other.id == null && this != other) {
+            return Integer.compare(System.identityHashCode(this), System.identityHashCode(other));
+        }
+        return Comparator.nullsFirst(Comparator.<String>naturalOrder()).compare(id, other.id);
+    }
+
     // prettier-ignore
     @Override
     public String toString() {
@@ -0,0 +1,107 @@
+package com.jhipsterdemo.company.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The number of {@link PersistentAuditEvent}s of a type recorded for a principal during an hour.
+ * <p>
+ * The buckets are incremented as the events are written, so the statistics are read without scanning the events.
+ */
+@Document(collection = "jhi_audit_event_bucket")
+@CompoundIndex(name = "hour_principal_event_type", def = "{'hour': 1, 'principal': 1, 'event_type': 1}", unique = true)
+public class AuditEventBucket implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String id;
+
+    /**
+     * The start of the hour, in UTC.
+     */
+    @NotNull
+    private Instant hour;
+
+    @NotNull
+    private String principal;
+
+    @NotNull
+    @Field("event_type")
+    private String auditEventType;
+
+    private long count;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Instant getHour() {
+        return hour;
+    }
+
+    public void setHour(Instant hour) {
+        this.hour = hour;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public void setPrincipal(String principal) {
+        this.principal = principal;
+    }
+
+    public String getAuditEventType() {
+        return auditEventType;
+    }
+
+    public void setAuditEventType(String auditEventType) {
+        this.auditEventType = auditEventType;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuditEventBucket)) {
+            return false;
+        }
+        return id != null && id.equals(((AuditEventBucket) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AuditEventBucket{" +
+            "hour=" + hour +
+            ", principal='" + principal + '\'' +
+            ", auditEventType='" + auditEventType + '\'' +
+            ", count=" + count +
+            '}';
+    }
+}
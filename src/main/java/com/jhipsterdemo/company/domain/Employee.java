@@ -11,6 +11,7 @@ import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -20,7 +21,7 @@ import java.util.Set;
 @ApiModel(description = "The Employee entity.")
 @Document(collection = "employee")
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "employee")
-public class Employee implements Serializable {
+public class Employee implements Serializable, Comparable<Employee> {
 
     private static final long serialVersionUID = 1L;
 
@@ -238,6 +239,19 @@ public class Employee implements Serializable {
         return 31;
     }
 
+    /**
+     * Order by id, so that the entities sharing the constant hash code are kept in a tree in the hash-based sets.
+     * Like in {@link #equals(Object)}, an entity without id is only equal to itself: the entities without id come
+     * first, ordered by identity hash code, which only compare as equal in the rare case of a collision.
+     */
+    @Override
+    public int compareTo(Employee other) {
+        if (id == null && other.id == null && this != other) {
+            return Integer.compare(System.identityHashCode(this), System.identityHashCode(other));
+        }
+        return Comparator.nullsFirst(Comparator.<String>naturalOrder()).compare(id, other.id);
+    }
+
     // prettier-ignore
     @Override
     public String toString() {
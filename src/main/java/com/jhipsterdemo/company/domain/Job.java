@@ -8,6 +8,7 @@ import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import java.io.Serializable;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -16,7 +17,7 @@ import java.util.Set;
  */
 @Document(collection = "job")
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "job")
-public class Job implements Serializable {
+public class Job implements Serializable, Comparable<Job> {
 
     private static final long serialVersionUID = 1L;
 
@@ -144,6 +145,19 @@ public class Job implements Serializable {
         return 31;
     }
 
+    /**
+     * Order by id, so that the entities sharing the constant hash code are kept in a tree in the hash-based sets.
+     * Like in {@link #equals(Object)}, an entity without id is only equal to itself: the entities without id come
+     * first, ordered by identity hash code, which only compare as equal in the rare case of a collision.
+     */
+    @Override
+    public int compareTo(Job other) {
+        if (id == null && other.id == null && this != other) {
+            return Integer.compare(System.identityHashCode(this), System.identityHashCode(other));
+        }
+        return Comparator.nullsFirst(Comparator.<String>naturalOrder()).compare(id, other.id);
+    }
+
     // prettier-ignore
     @Override
     public String toString() {
@@ -0,0 +1,162 @@
+package com.jhipsterdemo.company.domain;
+
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A pending change of an entity, written alongside the entity itself and relayed
+ * asynchronously to Elasticsearch.
+ */
+@Document(collection = "jhi_outbox_event")
+public class OutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String id;
+
+    @NotNull
+    @Field("entity_type")
+    private String entityType;
+
+    @NotNull
+    @Field("entity_id")
+    private String entityId;
+
+    @NotNull
+    @Field("change_type")
+    private ChangeType changeType;
+
+    @Field("created_date")
+    private Instant createdDate = Instant.now();
+
+    private int attempts;
+
+    @Indexed
+    @Field("next_attempt_date")
+    private Instant nextAttemptDate = createdDate;
+
+    @Field("last_error")
+    private String lastError;
+
+    private boolean indexed;
+
+    private boolean published;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(String entityId) {
+        this.entityId = entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptDate() {
+        return nextAttemptDate;
+    }
+
+    public void setNextAttemptDate(Instant nextAttemptDate) {
+        this.nextAttemptDate = nextAttemptDate;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(boolean indexed) {
+        this.indexed = indexed;
+    }
+
+    public boolean isPublished() {
+        return published;
+    }
+
+    public void setPublished(boolean published) {
+        this.published = published;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxEvent)) {
+            return false;
+        }
+        return id != null && id.equals(((OutboxEvent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+            "entityType='" + entityType + '\'' +
+            ", entityId='" + entityId + '\'' +
+            ", changeType=" + changeType +
+            ", createdDate=" + createdDate +
+            ", attempts=" + attempts +
+            ", indexed=" + indexed +
+            ", published=" + published +
+            '}';
+    }
+}
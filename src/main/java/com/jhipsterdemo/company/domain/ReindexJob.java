@@ -0,0 +1,227 @@
+package com.jhipsterdemo.company.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jhipsterdemo.company.domain.enumeration.ReindexStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A rebuild of the Elasticsearch index of an entity from its MongoDB collection.
+ * <p>
+ * The documents are loaded into {@code targetIndex}, which replaces the index behind {@code alias} once complete.
+ * {@code lastId} is the id of the last document loaded in order, the job resumes after it when interrupted.
+ * {@code deletedIds} are the documents deleted from the target index by the outbox relay during the load, which are
+ * deleted again once it is over in case the load created them after the relay deleted them.
+ */
+@Document(collection = "jhi_reindex_job")
+public class ReindexJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String id;
+
+    @NotNull
+    @Field("entity_type")
+    private String entityType;
+
+    @NotNull
+    private String alias;
+
+    @NotNull
+    @Field("target_index")
+    private String targetIndex;
+
+    @NotNull
+    private ReindexStatus status;
+
+    @Field("last_id")
+    private String lastId;
+
+    @Field("total_count")
+    private long totalCount;
+
+    @Field("indexed_count")
+    private long indexedCount;
+
+    @Field("failed_count")
+    private long failedCount;
+
+    @Field("start_date")
+    private Instant startDate;
+
+    @Field("heartbeat_date")
+    private Instant heartbeatDate;
+
+    @Field("end_date")
+    private Instant endDate;
+
+    @Field("last_error")
+    private String lastError;
+
+    @JsonIgnore
+    @Field("deleted_ids")
+    private Set<String> deletedIds = new HashSet<>();
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public String getTargetIndex() {
+        return targetIndex;
+    }
+
+    public void setTargetIndex(String targetIndex) {
+        this.targetIndex = targetIndex;
+    }
+
+    public ReindexStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReindexStatus status) {
+        this.status = status;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(String lastId) {
+        this.lastId = lastId;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public long getIndexedCount() {
+        return indexedCount;
+    }
+
+    public void setIndexedCount(long indexedCount) {
+        this.indexedCount = indexedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Instant startDate) {
+        this.startDate = startDate;
+    }
+
+    public Instant getHeartbeatDate() {
+        return heartbeatDate;
+    }
+
+    public void setHeartbeatDate(Instant heartbeatDate) {
+        this.heartbeatDate = heartbeatDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Instant endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Set<String> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(Set<String> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    /**
+     * @return the average number of documents indexed per second since the job started.
+     */
+    public long getDocumentsPerSecond() {
+        if (startDate == null) {
+            return 0;
+        }
+        Instant until = endDate != null ? endDate : heartbeatDate != null ? heartbeatDate : Instant.now();
+        long millis = Duration.between(startDate, until).toMillis();
+        return millis <= 0 ? 0 : indexedCount * 1000 / millis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReindexJob)) {
+            return false;
+        }
+        return id != null && id.equals(((ReindexJob) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReindexJob{" +
+            "id=" + getId() +
+            ", entityType='" + getEntityType() + "'" +
+            ", targetIndex='" + getTargetIndex() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", lastId='" + getLastId() + "'" +
+            ", indexedCount=" + getIndexedCount() +
+            ", failedCount=" + getFailedCount() +
+            "}";
+    }
+}
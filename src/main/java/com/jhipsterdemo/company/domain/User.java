@@ -53,7 +53,6 @@ public class User extends AbstractAuditingEntity implements Serializable {
 
     @Email
     @Size(min = 5, max = 254)
-    @Indexed
     private String email;
 
     private boolean activated = false;
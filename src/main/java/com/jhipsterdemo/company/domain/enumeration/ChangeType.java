@@ -0,0 +1,8 @@
+package com.jhipsterdemo.company.domain.enumeration;
+
+/**
+ * The ChangeType enumeration.
+ */
+public enum ChangeType {
+    CREATE, UPDATE, DELETE
+}
@@ -0,0 +1,8 @@
+package com.jhipsterdemo.company.domain.enumeration;
+
+/**
+ * The ReindexStatus enumeration.
+ */
+public enum ReindexStatus {
+    RUNNING, COMPLETED, FAILED
+}
@@ -1,4 +1,8 @@
 /**
  * JPA domain objects.
+ * <p>
+ * Entities are equal when they have the same id; entities without id are only equal to themselves. Their hash code is
+ * a constant, which does not change when their id is assigned. The entities held in relationship sets are also
+ * comparable by id, so that a large set keeps them in a tree instead of a list.
  */
 package com.jhipsterdemo.company.domain;
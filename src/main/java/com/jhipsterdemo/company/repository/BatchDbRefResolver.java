@@ -0,0 +1,317 @@
+package com.jhipsterdemo.company.repository;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.DbRefProxyHandler;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.DbRefResolverCallback;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Reads entities along with the entities they reference with {@code @DBRef}, in batches.
+ * <p>
+ * The converter resolves each reference with its own blocking query. Instead, the references of all the documents
+ * read are collected, and each referenced collection is read with a single {@code $in} query; the same is then done
+ * for the references of the referenced documents, level after level, up to {@code application.references.max-depth}.
+ * Deeper references only have their id. When {@code application.references.lookup} is enabled, the first level is
+ * resolved with a {@code $lookup} aggregation, in the same round-trip as the entities.
+ * <p>
+ * {@link #findWithLookup(Query, Class, int)} always uses the aggregation, and can bound the number of entities loaded
+ * for each collection of references.
+ * <p>
+ * Resolved documents are copied in place of the references before conversion, so the converter never has to query
+ * the database. Missing documents are resolved to {@code null}, like the converter does. The reactive converter
+ * refuses to resolve any {@code @DBRef} property, even one already holding a document, so the entities are read with
+ * a converter of their own, sharing the mapping context and conversions.
+ */
+@Component
+public class BatchDbRefResolver {
+
+    private static final String ID_FIELD = "_id";
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext;
+
+    private final QueryMapper queryMapper;
+
+    private final MappingMongoConverter converter;
+
+    private final ApplicationProperties.References properties;
+
+    public BatchDbRefResolver(ReactiveMongoOperations mongoOperations, MongoCustomConversions customConversions,
+                              ApplicationProperties applicationProperties) {
+        this.mongoOperations = mongoOperations;
+        this.mappingContext = mongoOperations.getConverter().getMappingContext();
+        this.queryMapper = new QueryMapper(mongoOperations.getConverter());
+        this.converter = new MappingMongoConverter(ResolvedDbRefResolver.INSTANCE, mappingContext);
+        this.converter.setCustomConversions(customConversions);
+        this.converter.afterPropertiesSet();
+        this.properties = applicationProperties.getReferences();
+    }
+
+    /**
+     * Find entities and resolve their references.
+     * <p>
+     * All the entities are held in memory until their references are resolved: the query is meant to read a page.
+     *
+     * @param query the query, with the property names of the entity.
+     * @param entityClass the class of the entities.
+     * @param <T> the type of the entities.
+     * @return the entities.
+     */
+    public <T> Flux<T> find(Query query, Class<T> entityClass) {
+        if (properties.isLookup() && properties.getMaxDepth() > 0) {
+            return findWithLookup(query, entityClass, 0);
+        }
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(entityClass);
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+        BasicQuery mappedQuery = new BasicQuery(filter);
+        mappedQuery.setSortObject(sort);
+        mappedQuery.skip(query.getSkip()).limit(query.getLimit());
+        return mongoOperations.find(mappedQuery, Document.class, entity.getCollection())
+            .collectList()
+            .flatMap(documents -> read(documents, entityClass))
+            .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Find entities and resolve their references, the first level with a {@code $lookup} aggregation.
+     * <p>
+     * When {@code maxFanOut} is positive, each collection of references of the entities is truncated to its first
+     * {@code maxFanOut} entities, by id: the entities read are then incomplete, and must not be saved back.
+     *
+     * @param query the query, with the property names of the entity.
+     * @param entityClass the class of the entities.
+     * @param maxFanOut the maximum number of entities loaded for each collection of references, 0 for no limit.
+     * @param <T> the type of the entities.
+     * @return the entities.
+     */
+    public <T> Flux<T> findWithLookup(Query query, Class<T> entityClass, int maxFanOut) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(entityClass);
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+        return lookup(entity, filter, sort, query.getSkip(), query.getLimit(), maxFanOut)
+            .collectList()
+            .flatMap(documents -> {
+                List<Document> lookedUp = new ArrayList<>();
+                for (Document document : documents) {
+                    collectLookedUpDocuments(entity, document, lookedUp);
+                }
+                return resolve(lookedUp, 1, new ConcurrentHashMap<>())
+                    .then(Mono.fromCallable(() -> convert(documents, entityClass)));
+            })
+            .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Resolve the references of raw documents, and convert them to entities.
+     *
+     * @param documents the documents, as read from the database.
+     * @param entityClass the class of the entities.
+     * @param <T> the type of the entities.
+     * @return the entities, in the order of the documents.
+     */
+    public <T> Mono<List<T>> read(List<Document> documents, Class<T> entityClass) {
+        return resolve(documents, 0, new ConcurrentHashMap<>())
+            .then(Mono.fromCallable(() -> convert(documents, entityClass)));
+    }
+
+    private <T> List<T> convert(List<Document> documents, Class<T> entityClass) {
+        List<T> entities = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            entities.add(converter.read(entityClass, document));
+        }
+        return entities;
+    }
+
+    /**
+     * Replace the references of the documents of a level by copies of the referenced documents, then resolve the
+     * references of these copies.
+     *
+     * @param level the documents whose references are resolved.
+     * @param depth the depth of these documents, 0 for the entities read.
+     * @param cache the documents already read, by collection and id.
+     */
+    private Mono<Void> resolve(List<Document> level, int depth, Map<String, Map<Object, Document>> cache) {
+        List<DBRef> references = new ArrayList<>();
+        for (Document document : level) {
+            for (Object value : document.values()) {
+                collectReferences(value, references);
+            }
+        }
+        if (references.isEmpty()) {
+            return Mono.empty();
+        }
+        if (depth >= properties.getMaxDepth()) {
+            replaceReferences(level, reference -> new Document(ID_FIELD, reference.getId()));
+            return Mono.empty();
+        }
+        Map<String, Set<Object>> idsToRead = new HashMap<>();
+        for (DBRef reference : references) {
+            if (!cache.getOrDefault(reference.getCollectionName(), Collections.emptyMap()).containsKey(reference.getId())) {
+                idsToRead.computeIfAbsent(reference.getCollectionName(), collection -> new LinkedHashSet<>()).add(reference.getId());
+            }
+        }
+        return Flux.fromIterable(idsToRead.entrySet())
+            .flatMap(ids -> mongoOperations.find(Query.query(Criteria.where(ID_FIELD).in(ids.getValue())), Document.class, ids.getKey())
+                .doOnNext(document -> cache.computeIfAbsent(ids.getKey(), collection -> new ConcurrentHashMap<>())
+                    .put(document.get(ID_FIELD), document)))
+            .then(Mono.defer(() -> {
+                List<Document> nextLevel = new ArrayList<>();
+                replaceReferences(level, reference -> {
+                    Document referenced = cache.getOrDefault(reference.getCollectionName(), Collections.emptyMap()).get(reference.getId());
+                    if (referenced == null) {
+                        return null;
+                    }
+                    // A copy for each reference keeps the graph a tree, even when documents reference each other
+                    Document copy = new Document(referenced);
+                    nextLevel.add(copy);
+                    return copy;
+                });
+                return resolve(nextLevel, depth + 1, cache);
+            }));
+    }
+
+    private void collectReferences(Object value, List<DBRef> references) {
+        if (value instanceof DBRef) {
+            references.add((DBRef) value);
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                collectReferences(element, references);
+            }
+        }
+    }
+
+    private void replaceReferences(List<Document> documents, Function<DBRef, Document> replacement) {
+        for (Document document : documents) {
+            for (Map.Entry<String, Object> field : document.entrySet()) {
+                if (field.getValue() instanceof DBRef) {
+                    field.setValue(replacement.apply((DBRef) field.getValue()));
+                } else if (field.getValue() instanceof Collection) {
+                    List<Object> elements = new ArrayList<>();
+                    for (Object element : (Collection<?>) field.getValue()) {
+                        Object value = element instanceof DBRef ? replacement.apply((DBRef) element) : element;
+                        if (value != null) {
+                            elements.add(value);
+                        }
+                    }
+                    field.setValue(elements);
+                }
+            }
+        }
+    }
+
+    private Flux<Document> lookup(MongoPersistentEntity<?> entity, Document filter, Document sort, long skip, int limit,
+                                  int maxFanOut) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", filter));
+        if (!sort.isEmpty()) {
+            pipeline.add(new Document("$sort", sort));
+        }
+        if (skip > 0) {
+            pipeline.add(new Document("$skip", skip));
+        }
+        if (limit > 0) {
+            pipeline.add(new Document("$limit", limit));
+        }
+        for (MongoPersistentProperty property : entity) {
+            if (!property.isDbReference()) {
+                continue;
+            }
+            String field = property.getFieldName();
+            if (property.isCollectionLike() && maxFanOut > 0) {
+                pipeline.add(new Document("$lookup", new Document("from", getCollection(property))
+                    .append("let", new Document("ids", new Document("$ifNull", Arrays.asList("$" + field + ".$id", Collections.emptyList()))))
+                    .append("pipeline", Arrays.asList(
+                        new Document("$match", new Document("$expr", new Document("$in", Arrays.asList("$" + ID_FIELD, "$$ids")))),
+                        new Document("$sort", new Document(ID_FIELD, 1)),
+                        new Document("$limit", maxFanOut)))
+                    .append("as", field)));
+                continue;
+            }
+            pipeline.add(new Document("$lookup", new Document("from", getCollection(property))
+                .append("localField", field + ".$id")
+                .append("foreignField", ID_FIELD)
+                .append("as", field)));
+            if (!property.isCollectionLike()) {
+                pipeline.add(new Document("$addFields",
+                    new Document(field, new Document("$arrayElemAt", Arrays.asList("$" + field, 0)))));
+            }
+        }
+        return mongoOperations.execute(entity.getCollection(), collection -> collection.aggregate(pipeline));
+    }
+
+    private void collectLookedUpDocuments(MongoPersistentEntity<?> entity, Document document, List<Document> lookedUp) {
+        for (MongoPersistentProperty property : entity) {
+            if (!property.isDbReference()) {
+                continue;
+            }
+            Object value = document.get(property.getFieldName());
+            if (value instanceof Document) {
+                lookedUp.add((Document) value);
+            } else if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    if (element instanceof Document) {
+                        lookedUp.add((Document) element);
+                    }
+                }
+            }
+        }
+    }
+
+    private String getCollection(MongoPersistentProperty property) {
+        return mappingContext.getRequiredPersistentEntity(property.getActualType()).getCollection();
+    }
+
+    /**
+     * Reads the {@code @DBRef} properties of documents whose references were replaced by the referenced documents.
+     * A reference left in place was never resolved: it is read as {@code null}.
+     */
+    private enum ResolvedDbRefResolver implements DbRefResolver {
+
+        INSTANCE;
+
+        @Override
+        public Object resolveDbRef(MongoPersistentProperty property, DBRef dbref, DbRefResolverCallback callback,
+                                   DbRefProxyHandler proxyHandler) {
+            return dbref == null ? callback.resolve(property) : null;
+        }
+
+        @Override
+        public Document fetch(DBRef dbRef) {
+            return null;
+        }
+
+        @Override
+        public List<Document> bulkFetch(List<DBRef> dbRefs) {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.jhipsterdemo.company.repository;
 
+import com.jhipsterdemo.company.config.ApplicationProperties;
 import com.jhipsterdemo.company.domain.Job;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -13,18 +15,63 @@ import reactor.core.publisher.Mono;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface JobRepository extends ReactiveMongoRepository<Job, String> {
+public interface JobRepository extends ReactiveMongoRepository<Job, String>, JobRepositoryInternal {
 
+}
+
+interface JobRepositoryInternal {
 
+    /**
+     * Find a page of jobs with their tasks and employee, resolved in batches.
+     *
+     * @param pageable the pagination information.
+     * @return the jobs.
+     */
     Flux<Job> findAllBy(Pageable pageable);
 
-    @Query("{}")
+    /**
+     * Find a page of jobs with their tasks and employee, loaded with a single aggregation.
+     * <p>
+     * At most {@code application.references.max-fan-out} tasks are loaded for each job, so the jobs must not be saved
+     * back.
+     *
+     * @param pageable the pagination information.
+     * @return the jobs.
+     */
     Flux<Job> findAllWithEagerRelationships(Pageable pageable);
 
-    @Query("{}")
-    Flux<Job> findAllWithEagerRelationships();
-
-    @Query("{'id': ?0}")
+    /**
+     * Find a job with all its tasks and its employee, loaded with a single aggregation.
+     *
+     * @param id the id of the job.
+     * @return the job.
+     */
     Mono<Job> findOneWithEagerRelationships(String id);
+}
+
+class JobRepositoryInternalImpl implements JobRepositoryInternal {
+
+    private final BatchDbRefResolver batchDbRefResolver;
+
+    private final ApplicationProperties.References properties;
+
+    JobRepositoryInternalImpl(BatchDbRefResolver batchDbRefResolver, ApplicationProperties applicationProperties) {
+        this.batchDbRefResolver = batchDbRefResolver;
+        this.properties = applicationProperties.getReferences();
+    }
+
+    @Override
+    public Flux<Job> findAllBy(Pageable pageable) {
+        return batchDbRefResolver.find(new Query().with(pageable), Job.class);
+    }
+
+    @Override
+    public Flux<Job> findAllWithEagerRelationships(Pageable pageable) {
+        return batchDbRefResolver.findWithLookup(new Query().with(pageable), Job.class, properties.getMaxFanOut());
+    }
 
+    @Override
+    public Mono<Job> findOneWithEagerRelationships(String id) {
+        return batchDbRefResolver.findWithLookup(Query.query(Criteria.where("id").is(id)), Job.class, 0).next();
+    }
 }
@@ -0,0 +1,23 @@
+package com.jhipsterdemo.company.repository;
+
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Spring Data MongoDB reactive repository for the OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends ReactiveMongoRepository<OutboxEvent, String> {
+
+    Flux<OutboxEvent> findAllByNextAttemptDateLessThanEqualOrderByCreatedDateAsc(Instant date, Pageable pageable);
+
+    Flux<OutboxEvent> findAllByEntityTypeAndEntityId(String entityType, String entityId);
+
+    Mono<OutboxEvent> findFirstByOrderByCreatedDateAsc();
+}
@@ -17,7 +17,7 @@ public interface PersistenceAuditEventRepository extends ReactiveMongoRepository
 
     Flux<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
 
-    Flux<PersistentAuditEvent> findByAuditEventDateBefore(Instant before);
+    Mono<Long> deleteByAuditEventDateBefore(Instant before);
 
     Flux<PersistentAuditEvent> findAllBy(Pageable pageable);
 
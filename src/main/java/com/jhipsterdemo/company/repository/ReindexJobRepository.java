@@ -0,0 +1,22 @@
+package com.jhipsterdemo.company.repository;
+
+import com.jhipsterdemo.company.domain.ReindexJob;
+import com.jhipsterdemo.company.domain.enumeration.ReindexStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data MongoDB reactive repository for the ReindexJob entity.
+ */
+@Repository
+public interface ReindexJobRepository extends ReactiveMongoRepository<ReindexJob, String> {
+
+    Flux<ReindexJob> findAllByStatus(ReindexStatus status);
+
+    Flux<ReindexJob> findAllBy(Pageable pageable);
+
+    Mono<ReindexJob> findFirstByEntityTypeOrderByStartDateDesc(String entityType);
+}
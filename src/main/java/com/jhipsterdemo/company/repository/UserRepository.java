@@ -3,6 +3,7 @@ package com.jhipsterdemo.company.repository;
 import com.jhipsterdemo.company.domain.User;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -16,12 +17,22 @@ import java.time.Instant;
 @Repository
 public interface UserRepository extends ReactiveMongoRepository<User, String> {
 
+    /**
+     * The collation comparing the emails ignoring case, of their index and of the queries using it.
+     */
+    String EMAIL_COLLATION = "{ 'locale': 'en', 'strength': 2 }";
+
     Mono<User> findOneByActivationKey(String activationKey);
 
     Flux<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
 
     Mono<User> findOneByResetKey(String resetKey);
 
+    /**
+     * Find a user by email, ignoring case. The query is run with {@link #EMAIL_COLLATION} to use the index of the
+     * emails, which a case-insensitive regular expression could not.
+     */
+    @Query(value = "{ 'email': ?0 }", collation = EMAIL_COLLATION)
     Mono<User> findOneByEmailIgnoreCase(String email);
 
     Mono<User> findOneByLogin(String login);
@@ -0,0 +1,102 @@
+package com.jhipsterdemo.company.repository.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one or more {@code _bulk} requests sent by the {@link BulkSearchIndexer}.
+ */
+public final class BulkIndexResult {
+
+    private static final BulkIndexResult EMPTY = new BulkIndexResult(0, Collections.emptyList());
+
+    private final int succeeded;
+
+    private final List<Failure> failures;
+
+    BulkIndexResult(int succeeded, List<Failure> failures) {
+        this.succeeded = succeeded;
+        this.failures = failures;
+    }
+
+    public static BulkIndexResult empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the number of operations applied to the index.
+     */
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return the operations which could not be applied, after retries.
+     */
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public BulkIndexResult merge(BulkIndexResult other) {
+        if (other.failures.isEmpty() && failures.isEmpty()) {
+            return new BulkIndexResult(succeeded + other.succeeded, Collections.emptyList());
+        }
+        List<Failure> mergedFailures = new ArrayList<>(failures);
+        mergedFailures.addAll(other.failures);
+        return new BulkIndexResult(succeeded + other.succeeded, mergedFailures);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkIndexResult{" +
+            "succeeded=" + succeeded +
+            ", failures=" + failures.size() +
+            '}';
+    }
+
+    /**
+     * An operation rejected by Elasticsearch.
+     */
+    public static final class Failure {
+
+        private final SearchIndexOperation operation;
+
+        private final int status;
+
+        private final String message;
+
+        Failure(SearchIndexOperation operation, int status, String message) {
+            this.operation = operation;
+            this.status = status;
+            this.message = message;
+        }
+
+        public SearchIndexOperation getOperation() {
+            return operation;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Failure{" +
+                "operation=" + operation +
+                ", status=" + status +
+                ", message='" + message + '\'' +
+                '}';
+        }
+    }
+}
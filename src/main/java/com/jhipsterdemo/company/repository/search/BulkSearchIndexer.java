@@ -0,0 +1,266 @@
+package com.jhipsterdemo.company.repository.search;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.client.NoReachableHostException;
+import org.springframework.data.elasticsearch.client.reactive.ReactiveElasticsearchClient;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Writes documents to Elasticsearch with {@code _bulk} requests.
+ * <p>
+ * Operations targeting the same document are coalesced, the last one wins. The remaining operations are split in
+ * requests bounded by {@code application.search-index.bulk.max-actions} and {@code max-bytes}. Items rejected because
+ * the cluster is overloaded are retried with a backoff, other rejected items are reported in the {@link BulkIndexResult}
+ * without failing the whole batch.
+ */
+@Component
+public class BulkSearchIndexer {
+
+    private static final int REQUEST_OVERHEAD_BYTES = 64;
+
+    private final Logger log = LoggerFactory.getLogger(BulkSearchIndexer.class);
+
+    private final ReactiveElasticsearchClient client;
+
+    private final MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext;
+
+    private final EntityMapper entityMapper;
+
+    private final ApplicationProperties.SearchIndex.Bulk properties;
+
+    private final Timer requestTimer;
+
+    private final Counter succeededCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter retriedCounter;
+
+    public BulkSearchIndexer(ReactiveElasticsearchClient client, ReactiveElasticsearchOperations elasticsearchOperations,
+                             EntityMapper entityMapper, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.mappingContext = elasticsearchOperations.getElasticsearchConverter().getMappingContext();
+        this.entityMapper = entityMapper;
+        this.properties = applicationProperties.getSearchIndex().getBulk();
+        this.requestTimer = Timer.builder("search.bulk.requests")
+            .description("Duration of the _bulk requests sent to Elasticsearch")
+            .register(meterRegistry);
+        this.succeededCounter = Counter.builder("search.bulk.operations")
+            .tag("outcome", "success")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("search.bulk.operations")
+            .tag("outcome", "failure")
+            .register(meterRegistry);
+        this.retriedCounter = Counter.builder("search.bulk.operations")
+            .tag("outcome", "retry")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Apply a stream of operations, one {@code _bulk} request per {@code max-actions} operations.
+     * <p>
+     * At most {@code max-concurrent-requests} requests are in flight, further operations are only requested from
+     * the source once a request completes.
+     *
+     * @param operations the operations to apply.
+     * @return the result of each batch, in the order of the source.
+     */
+    public Flux<BulkIndexResult> index(Flux<SearchIndexOperation> operations) {
+        return operations
+            .buffer(properties.getMaxActions())
+            .flatMapSequential(this::bulk, properties.getMaxConcurrentRequests());
+    }
+
+    /**
+     * Apply a batch of operations.
+     *
+     * @param operations the operations to apply.
+     * @return the result of the batch, reporting the operations which could not be applied.
+     */
+    public Mono<BulkIndexResult> bulk(Collection<SearchIndexOperation> operations) {
+        if (operations.isEmpty()) {
+            return Mono.just(BulkIndexResult.empty());
+        }
+        return Mono.fromCallable(() -> prepare(operations))
+            .flatMap(batch -> Flux.fromIterable(batch.chunks)
+                .concatMap(chunk -> execute(chunk, 0))
+                .reduce(new BulkIndexResult(0, batch.failures), BulkIndexResult::merge));
+    }
+
+    private Batch prepare(Collection<SearchIndexOperation> operations) {
+        Map<String, SearchIndexOperation> coalesced = new LinkedHashMap<>();
+        for (SearchIndexOperation operation : operations) {
+            String key = getIndexName(operation) + '/' + operation.getId();
+            coalesced.remove(key);
+            coalesced.put(key, operation);
+        }
+        Batch batch = new Batch();
+        Chunk chunk = new Chunk();
+        long chunkBytes = 0;
+        for (SearchIndexOperation operation : coalesced.values()) {
+            DocWriteRequest<?> request;
+            try {
+                request = toRequest(operation);
+            } catch (IOException e) {
+                batch.failures.add(new BulkIndexResult.Failure(operation, RestStatus.BAD_REQUEST.getStatus(), e.getMessage()));
+                continue;
+            }
+            long requestBytes = sizeOf(request);
+            if (!chunk.operations.isEmpty() &&
+                (chunk.operations.size() >= properties.getMaxActions() || chunkBytes + requestBytes > properties.getMaxBytes())) {
+                batch.chunks.add(chunk);
+                chunk = new Chunk();
+                chunkBytes = 0;
+            }
+            chunk.add(operation, request);
+            chunkBytes += requestBytes;
+        }
+        if (!chunk.operations.isEmpty()) {
+            batch.chunks.add(chunk);
+        }
+        return batch;
+    }
+
+    private DocWriteRequest<?> toRequest(SearchIndexOperation operation) throws IOException {
+        ElasticsearchPersistentEntity<?> persistentEntity = mappingContext.getRequiredPersistentEntity(operation.getEntityClass());
+        String indexName = getIndexName(operation);
+        if (operation.getType() == SearchIndexOperation.Type.DELETE) {
+            return new DeleteRequest(indexName, persistentEntity.getIndexType(), operation.getId());
+        }
+        return new IndexRequest(indexName, persistentEntity.getIndexType(), operation.getId())
+            .source(entityMapper.mapToString(operation.getEntity()), XContentType.JSON)
+            .create(operation.getType() == SearchIndexOperation.Type.CREATE);
+    }
+
+    private String getIndexName(SearchIndexOperation operation) {
+        if (operation.getIndexName() != null) {
+            return operation.getIndexName();
+        }
+        return mappingContext.getRequiredPersistentEntity(operation.getEntityClass()).getIndexName();
+    }
+
+    private long sizeOf(DocWriteRequest<?> request) {
+        if (request instanceof IndexRequest) {
+            return ((IndexRequest) request).source().length() + REQUEST_OVERHEAD_BYTES;
+        }
+        return REQUEST_OVERHEAD_BYTES;
+    }
+
+    private Mono<BulkIndexResult> execute(Chunk chunk, int attempt) {
+        BulkRequest request = new BulkRequest();
+        chunk.requests.forEach(request::add);
+        return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return client.bulk(request)
+                    .doFinally(signal -> requestTimer.record(Duration.ofNanos(System.nanoTime() - start)));
+            })
+            .retryWhen(Retry.backoff(properties.getMaxRetries(), Duration.ofMillis(properties.getRetryBackoffMs()))
+                .filter(this::isTransient)
+                .doBeforeRetry(signal -> log.warn("Retrying _bulk request after error: {}", signal.failure().toString())))
+            .flatMap(response -> handleResponse(chunk, response, attempt));
+    }
+
+    private Mono<BulkIndexResult> handleResponse(Chunk chunk, BulkResponse response, int attempt) {
+        int succeeded = 0;
+        List<BulkIndexResult.Failure> failures = new ArrayList<>();
+        Chunk retry = new Chunk();
+        for (BulkItemResponse item : response.getItems()) {
+            SearchIndexOperation operation = chunk.operations.get(item.getItemId());
+            if (!item.isFailed()) {
+                succeeded++;
+                continue;
+            }
+            RestStatus status = item.getFailure().getStatus();
+            if (status == RestStatus.CONFLICT && operation.getType() == SearchIndexOperation.Type.CREATE) {
+                // A more recent version of the document was indexed in the meantime
+                succeeded++;
+            } else if (isTransient(status) && attempt < properties.getMaxRetries()) {
+                retry.add(operation, chunk.requests.get(item.getItemId()));
+            } else {
+                failures.add(new BulkIndexResult.Failure(operation, status.getStatus(), item.getFailureMessage()));
+            }
+        }
+        succeededCounter.increment(succeeded);
+        failedCounter.increment(failures.size());
+        BulkIndexResult result = new BulkIndexResult(succeeded, failures);
+        if (retry.operations.isEmpty()) {
+            return Mono.just(result);
+        }
+        log.debug("Retrying {} rejected _bulk items", retry.operations.size());
+        retriedCounter.increment(retry.operations.size());
+        return Mono.delay(Duration.ofMillis(properties.getRetryBackoffMs() << Math.min(attempt, 10)))
+            .then(execute(retry, attempt + 1))
+            .map(result::merge);
+    }
+
+    /**
+     * Only connection failures, timeouts and 429/503 responses are worth retrying: anything else (mapping or
+     * serialization errors, bad requests) would fail the same way again.
+     */
+    private boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ElasticsearchStatusException) {
+                return isTransient(((ElasticsearchStatusException) cause).status());
+            }
+            if (cause instanceof IOException || cause instanceof TimeoutException ||
+                cause instanceof io.netty.handler.timeout.TimeoutException || cause instanceof NoReachableHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isTransient(RestStatus status) {
+        return status == RestStatus.TOO_MANY_REQUESTS || status == RestStatus.SERVICE_UNAVAILABLE;
+    }
+
+    private static final class Batch {
+
+        private final List<Chunk> chunks = new ArrayList<>();
+
+        private final List<BulkIndexResult.Failure> failures = new ArrayList<>();
+    }
+
+    private static final class Chunk {
+
+        private final List<SearchIndexOperation> operations = new ArrayList<>();
+
+        private final List<DocWriteRequest<?>> requests = new ArrayList<>();
+
+        private void add(SearchIndexOperation operation, DocWriteRequest<?> request) {
+            operations.add(operation);
+            requests.add(request);
+        }
+    }
+}
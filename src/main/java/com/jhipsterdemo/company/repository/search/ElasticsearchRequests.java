@@ -0,0 +1,50 @@
+package com.jhipsterdemo.company.repository.search;
+
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.rest.RestStatus;
+import org.springframework.data.elasticsearch.client.reactive.ReactiveElasticsearchClient;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Plain REST requests, for the Elasticsearch APIs the reactive client doesn't expose.
+ */
+final class ElasticsearchRequests {
+
+    private ElasticsearchRequests() {
+    }
+
+    /**
+     * Send a request to Elasticsearch.
+     *
+     * @param client the client holding the connection to the cluster.
+     * @param method the HTTP method.
+     * @param path the path of the API.
+     * @param body the JSON body of the request, or {@code null}.
+     * @return the body of the response, empty if the resource was not found.
+     */
+    static Mono<String> send(ReactiveElasticsearchClient client, HttpMethod method, String path, String body) {
+        return client.execute(webClient -> {
+            WebClient.RequestBodySpec request = webClient.method(method).uri(path);
+            if (body != null) {
+                request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+            }
+            return request.exchange();
+        })
+            .flatMap(response -> response.bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .flatMap(content -> {
+                    if (response.statusCode() == HttpStatus.NOT_FOUND) {
+                        return Mono.empty();
+                    }
+                    if (response.statusCode().isError()) {
+                        return Mono.error(new ElasticsearchStatusException("{} {} failed: {}",
+                            RestStatus.fromCode(response.rawStatusCode()), method, path, content));
+                    }
+                    return Mono.just(content);
+                }));
+    }
+}
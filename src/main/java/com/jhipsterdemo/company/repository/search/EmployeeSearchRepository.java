@@ -2,10 +2,10 @@ package com.jhipsterdemo.company.repository.search;
 
 import com.jhipsterdemo.company.domain.Employee;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.elasticsearch.core.ReactiveElasticsearchTemplate;
-import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
@@ -17,21 +17,26 @@ public interface EmployeeSearchRepository extends ReactiveElasticsearchRepositor
 }
 
 interface EmployeeSearchRepositoryInternal {
-    Flux<Employee> search(String query, Pageable pageable);
+    Mono<SearchPage<Employee>> search(String query, Pageable pageable);
+
+    Mono<SearchSlice<Employee>> searchAfter(String query, List<Object> searchAfter, int size);
 }
 
 class EmployeeSearchRepositoryInternalImpl implements EmployeeSearchRepositoryInternal {
 
-    private final ReactiveElasticsearchTemplate reactiveElasticsearchTemplate;
+    private final SearchPageTemplate searchPageTemplate;
 
-    EmployeeSearchRepositoryInternalImpl(ReactiveElasticsearchTemplate reactiveElasticsearchTemplate) {
-        this.reactiveElasticsearchTemplate = reactiveElasticsearchTemplate;
+    EmployeeSearchRepositoryInternalImpl(SearchPageTemplate searchPageTemplate) {
+        this.searchPageTemplate = searchPageTemplate;
+    }
+
+    @Override
+    public Mono<SearchPage<Employee>> search(String query, Pageable pageable) {
+        return searchPageTemplate.search(queryStringQuery(query), pageable, Employee.class);
     }
 
     @Override
-    public Flux<Employee> search(String query, Pageable pageable) {
-        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
-        nativeSearchQuery.setPageable(pageable);
-        return reactiveElasticsearchTemplate.find(nativeSearchQuery, Employee.class);
+    public Mono<SearchSlice<Employee>> searchAfter(String query, List<Object> searchAfter, int size) {
+        return searchPageTemplate.searchAfter(queryStringQuery(query), searchAfter, size, Employee.class);
     }
 }
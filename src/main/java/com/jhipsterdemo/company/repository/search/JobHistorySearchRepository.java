@@ -2,10 +2,10 @@ package com.jhipsterdemo.company.repository.search;
 
 import com.jhipsterdemo.company.domain.JobHistory;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.elasticsearch.core.ReactiveElasticsearchTemplate;
-import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
@@ -17,21 +17,26 @@ public interface JobHistorySearchRepository extends ReactiveElasticsearchReposit
 }
 
 interface JobHistorySearchRepositoryInternal {
-    Flux<JobHistory> search(String query, Pageable pageable);
+    Mono<SearchPage<JobHistory>> search(String query, Pageable pageable);
+
+    Mono<SearchSlice<JobHistory>> searchAfter(String query, List<Object> searchAfter, int size);
 }
 
 class JobHistorySearchRepositoryInternalImpl implements JobHistorySearchRepositoryInternal {
 
-    private final ReactiveElasticsearchTemplate reactiveElasticsearchTemplate;
+    private final SearchPageTemplate searchPageTemplate;
 
-    JobHistorySearchRepositoryInternalImpl(ReactiveElasticsearchTemplate reactiveElasticsearchTemplate) {
-        this.reactiveElasticsearchTemplate = reactiveElasticsearchTemplate;
+    JobHistorySearchRepositoryInternalImpl(SearchPageTemplate searchPageTemplate) {
+        this.searchPageTemplate = searchPageTemplate;
+    }
+
+    @Override
+    public Mono<SearchPage<JobHistory>> search(String query, Pageable pageable) {
+        return searchPageTemplate.search(queryStringQuery(query), pageable, JobHistory.class);
     }
 
     @Override
-    public Flux<JobHistory> search(String query, Pageable pageable) {
-        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
-        nativeSearchQuery.setPageable(pageable);
-        return reactiveElasticsearchTemplate.find(nativeSearchQuery, JobHistory.class);
+    public Mono<SearchSlice<JobHistory>> searchAfter(String query, List<Object> searchAfter, int size) {
+        return searchPageTemplate.searchAfter(queryStringQuery(query), searchAfter, size, JobHistory.class);
     }
 }
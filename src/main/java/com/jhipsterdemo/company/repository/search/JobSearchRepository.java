@@ -2,10 +2,10 @@ package com.jhipsterdemo.company.repository.search;
 
 import com.jhipsterdemo.company.domain.Job;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.elasticsearch.core.ReactiveElasticsearchTemplate;
-import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
@@ -17,21 +17,26 @@ public interface JobSearchRepository extends ReactiveElasticsearchRepository<Job
 }
 
 interface JobSearchRepositoryInternal {
-    Flux<Job> search(String query, Pageable pageable);
+    Mono<SearchPage<Job>> search(String query, Pageable pageable);
+
+    Mono<SearchSlice<Job>> searchAfter(String query, List<Object> searchAfter, int size);
 }
 
 class JobSearchRepositoryInternalImpl implements JobSearchRepositoryInternal {
 
-    private final ReactiveElasticsearchTemplate reactiveElasticsearchTemplate;
+    private final SearchPageTemplate searchPageTemplate;
 
-    JobSearchRepositoryInternalImpl(ReactiveElasticsearchTemplate reactiveElasticsearchTemplate) {
-        this.reactiveElasticsearchTemplate = reactiveElasticsearchTemplate;
+    JobSearchRepositoryInternalImpl(SearchPageTemplate searchPageTemplate) {
+        this.searchPageTemplate = searchPageTemplate;
+    }
+
+    @Override
+    public Mono<SearchPage<Job>> search(String query, Pageable pageable) {
+        return searchPageTemplate.search(queryStringQuery(query), pageable, Job.class);
     }
 
     @Override
-    public Flux<Job> search(String query, Pageable pageable) {
-        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
-        nativeSearchQuery.setPageable(pageable);
-        return reactiveElasticsearchTemplate.find(nativeSearchQuery, Job.class);
+    public Mono<SearchSlice<Job>> searchAfter(String query, List<Object> searchAfter, int size) {
+        return searchPageTemplate.searchAfter(queryStringQuery(query), searchAfter, size, Job.class);
     }
 }
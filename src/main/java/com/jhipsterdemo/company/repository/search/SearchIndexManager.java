@@ -0,0 +1,154 @@
+package com.jhipsterdemo.company.repository.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.client.reactive.ReactiveElasticsearchClient;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Administration of the Elasticsearch indices backing the search repositories.
+ * <p>
+ * The reactive client has no API for aliases and index settings, so these calls are sent with {@link ElasticsearchRequests}.
+ */
+@Component
+public class SearchIndexManager {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexManager.class);
+
+    private final ReactiveElasticsearchClient client;
+
+    private final ObjectMapper objectMapper;
+
+    public SearchIndexManager(ReactiveElasticsearchClient client, ObjectMapper objectMapper) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Create an index tuned for bulk loading: no refresh and no replica.
+     * <p>
+     * The mappings of the index currently behind {@code alias} are copied, if any.
+     *
+     * @param alias the alias, or legacy index name, used by the application.
+     * @param indexName the name of the index to create.
+     * @return a {@link Mono} completing once the index is created.
+     */
+    public Mono<Void> createIndexForBulkLoad(String alias, String indexName) {
+        return send(HttpMethod.GET, "/" + alias + "/_mapping", null)
+            .map(this::readTree)
+            .map(mappings -> {
+                Iterator<JsonNode> indices = mappings.elements();
+                return indices.hasNext() ? indices.next().path("mappings") : objectMapper.createObjectNode();
+            })
+            .defaultIfEmpty(objectMapper.createObjectNode())
+            .flatMap(mappings -> {
+                ObjectNode body = objectMapper.createObjectNode();
+                body.putObject("settings").putObject("index")
+                    .put("refresh_interval", "-1")
+                    .put("number_of_replicas", 0);
+                if (mappings.size() > 0) {
+                    body.set("mappings", mappings);
+                }
+                log.debug("Creating index {} with {}", indexName, body);
+                return send(HttpMethod.PUT, "/" + indexName, body.toString());
+            })
+            .then();
+    }
+
+    /**
+     * Check whether an index exists.
+     *
+     * @param indexName the name of the index.
+     * @return {@code true} if the index exists.
+     */
+    public Mono<Boolean> exists(String indexName) {
+        return send(HttpMethod.HEAD, "/" + indexName, null)
+            .thenReturn(true)
+            .defaultIfEmpty(false);
+    }
+
+    /**
+     * Restore the settings changed by {@link #createIndexForBulkLoad(String, String)} and make all the documents
+     * visible to searches.
+     *
+     * @param indexName the name of the index.
+     * @param numberOfReplicas the number of replicas of the index.
+     * @return a {@link Mono} completing once the index is refreshed.
+     */
+    public Mono<Void> finishBulkLoad(String indexName, int numberOfReplicas) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("index")
+            .putNull("refresh_interval")
+            .put("number_of_replicas", numberOfReplicas);
+        return send(HttpMethod.PUT, "/" + indexName + "/_settings", body.toString())
+            .then(send(HttpMethod.POST, "/" + indexName + "/_refresh", null))
+            .then();
+    }
+
+    /**
+     * Atomically point {@code alias} to {@code indexName}.
+     * <p>
+     * A legacy index named like the alias, created before the first swap, is deleted in the same request.
+     *
+     * @param alias the alias used by the application.
+     * @param indexName the name of the index the alias must point to.
+     * @return the indices the alias pointed to before the swap.
+     */
+    public Mono<List<String>> swapAlias(String alias, String indexName) {
+        return send(HttpMethod.GET, "/_alias/" + alias, null)
+            .map(this::readTree)
+            .map(aliases -> {
+                List<String> indices = new ArrayList<>();
+                aliases.fieldNames().forEachRemaining(indices::add);
+                return indices;
+            })
+            .defaultIfEmpty(new ArrayList<>())
+            .flatMap(previousIndices -> (previousIndices.isEmpty() ? exists(alias) : Mono.just(false))
+                .flatMap(legacyIndex -> {
+                    ObjectNode body = objectMapper.createObjectNode();
+                    ArrayNode actions = body.putArray("actions");
+                    for (String previousIndex : previousIndices) {
+                        actions.addObject().putObject("remove").put("index", previousIndex).put("alias", alias);
+                    }
+                    if (legacyIndex) {
+                        actions.addObject().putObject("remove_index").put("index", alias);
+                    }
+                    actions.addObject().putObject("add").put("index", indexName).put("alias", alias);
+                    log.info("Pointing alias {} to index {} instead of {}", alias, indexName, legacyIndex ? alias : previousIndices);
+                    return send(HttpMethod.POST, "/_aliases", body.toString());
+                })
+                .thenReturn(previousIndices));
+    }
+
+    /**
+     * Delete an index.
+     *
+     * @param indexName the name of the index.
+     * @return a {@link Mono} completing once the index is deleted.
+     */
+    public Mono<Void> delete(String indexName) {
+        return send(HttpMethod.DELETE, "/" + indexName, null).then();
+    }
+
+    private Mono<String> send(HttpMethod method, String path, String body) {
+        return ElasticsearchRequests.send(client, method, path, body);
+    }
+
+    private JsonNode readTree(String content) {
+        try {
+            return objectMapper.readTree(content);
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException("Invalid response from Elasticsearch", e);
+        }
+    }
+}
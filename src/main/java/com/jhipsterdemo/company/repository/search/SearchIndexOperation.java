@@ -0,0 +1,95 @@
+package com.jhipsterdemo.company.repository.search;
+
+import java.util.Objects;
+
+/**
+ * A single write to an Elasticsearch index, to be sent as part of a {@code _bulk} request by the {@link BulkSearchIndexer}.
+ */
+public final class SearchIndexOperation {
+
+    public enum Type {
+        /**
+         * Index the entity, replacing any existing document.
+         */
+        INDEX,
+        /**
+         * Index the entity only if no document exists with the same id.
+         */
+        CREATE,
+        /**
+         * Delete the document.
+         */
+        DELETE
+    }
+
+    private final Type type;
+
+    private final Class<?> entityClass;
+
+    private final String id;
+
+    private final Object entity;
+
+    private final String indexName;
+
+    private SearchIndexOperation(Type type, Class<?> entityClass, String id, Object entity, String indexName) {
+        this.type = type;
+        this.entityClass = entityClass;
+        this.id = id;
+        this.entity = entity;
+        this.indexName = indexName;
+    }
+
+    public static SearchIndexOperation index(Object entity, String id) {
+        return new SearchIndexOperation(Type.INDEX, entity.getClass(), Objects.requireNonNull(id), entity, null);
+    }
+
+    public static SearchIndexOperation create(Object entity, String id) {
+        return new SearchIndexOperation(Type.CREATE, entity.getClass(), Objects.requireNonNull(id), entity, null);
+    }
+
+    public static SearchIndexOperation delete(Class<?> entityClass, String id) {
+        return new SearchIndexOperation(Type.DELETE, entityClass, Objects.requireNonNull(id), null, null);
+    }
+
+    /**
+     * Target another index than the one mapped on the entity.
+     *
+     * @param indexName the name of the index.
+     * @return a copy of this operation, sent to the given index.
+     */
+    public SearchIndexOperation withIndexName(String indexName) {
+        return new SearchIndexOperation(type, entityClass, id, entity, indexName);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchIndexOperation{" +
+            "type=" + type +
+            ", entityClass=" + entityClass.getSimpleName() +
+            ", id='" + id + '\'' +
+            ", indexName='" + indexName + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.jhipsterdemo.company.repository.search;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * A page of search hits, with the total number of hits of the query.
+ * <p>
+ * When Elasticsearch stops counting hits, see {@code application.search-index.track-total-hits}, the total is a
+ * lower bound of the number of hits.
+ *
+ * @param <T> the type of the entities.
+ */
+public class SearchPage<T> extends PageImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean totalLowerBound;
+
+    public SearchPage(List<T> content, Pageable pageable, long total, boolean totalLowerBound) {
+        super(content, pageable, total);
+        this.totalLowerBound = totalLowerBound;
+    }
+
+    /**
+     * @return {@code true} if there are at least {@link #getTotalElements()} hits, {@code false} if the total is exact.
+     */
+    public boolean isTotalLowerBound() {
+        return totalLowerBound;
+    }
+}
@@ -0,0 +1,188 @@
+package com.jhipsterdemo.company.repository.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.reactive.ReactiveElasticsearchClient;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs paginated searches, reading the hits and their total from a single {@code _search} request.
+ * <p>
+ * {@link org.springframework.data.elasticsearch.core.ReactiveElasticsearchTemplate} only streams the hits, which
+ * forced the callers to count the documents with another request.
+ * <p>
+ * Deep pages are read with {@code search_after} instead of {@code from}: hits are sorted by score then by
+ * {@value #TIE_BREAKER_FIELD}, and each slice starts after the sort values of the last hit of the previous slice.
+ */
+@Component
+public class SearchPageTemplate {
+
+    private static final String TOTAL_HITS_RELATION_EXACT = "eq";
+
+    /**
+     * The documents are indexed with dynamic mappings, {@code id} is a text field with a keyword sub-field.
+     */
+    private static final String TIE_BREAKER_FIELD = "id.keyword";
+
+    private final ReactiveElasticsearchClient client;
+
+    private final MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext;
+
+    private final EntityMapper entityMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.SearchIndex properties;
+
+    public SearchPageTemplate(ReactiveElasticsearchClient client, ReactiveElasticsearchOperations elasticsearchOperations,
+                              EntityMapper entityMapper, ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.client = client;
+        this.mappingContext = elasticsearchOperations.getElasticsearchConverter().getMappingContext();
+        this.entityMapper = entityMapper;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getSearchIndex();
+    }
+
+    /**
+     * Search a page of entities.
+     *
+     * @param query the query.
+     * @param pageable the pagination information.
+     * @param entityClass the class of the entities.
+     * @param <T> the type of the entities.
+     * @return the page of entities, with the total number of hits.
+     */
+    public <T> Mono<SearchPage<T>> search(QueryBuilder query, Pageable pageable, Class<T> entityClass) {
+        ElasticsearchPersistentEntity<?> persistentEntity = mappingContext.getRequiredPersistentEntity(entityClass);
+        return Mono.fromCallable(() -> toRequestBody(query, pageable, persistentEntity))
+            .flatMap(body -> ElasticsearchRequests.send(client, HttpMethod.POST, "/" + persistentEntity.getIndexName() + "/_search", body))
+            .map(response -> toPage(response, pageable, entityClass, persistentEntity))
+            .defaultIfEmpty(new SearchPage<>(new ArrayList<>(), pageable, 0, false));
+    }
+
+    /**
+     * Search a slice of entities, after the given sort values.
+     *
+     * @param query the query.
+     * @param searchAfter the sort values of the last hit of the previous slice, empty for the first slice.
+     * @param size the number of entities of the slice.
+     * @param entityClass the class of the entities.
+     * @param <T> the type of the entities.
+     * @return the slice of entities, with the sort values of the last one if there are more.
+     */
+    public <T> Mono<SearchSlice<T>> searchAfter(QueryBuilder query, List<Object> searchAfter, int size, Class<T> entityClass) {
+        ElasticsearchPersistentEntity<?> persistentEntity = mappingContext.getRequiredPersistentEntity(entityClass);
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(query)
+            .size(size + 1)
+            .trackTotalHits(false)
+            .sort(SortBuilders.scoreSort().order(SortOrder.DESC))
+            // An index still empty has no mapping for the field yet
+            .sort(SortBuilders.fieldSort(TIE_BREAKER_FIELD).order(SortOrder.ASC).unmappedType("keyword"));
+        if (!searchAfter.isEmpty()) {
+            source.searchAfter(searchAfter.toArray());
+        }
+        return ElasticsearchRequests.send(client, HttpMethod.POST, "/" + persistentEntity.getIndexName() + "/_search", source.toString())
+            .map(response -> toSlice(response, size, entityClass, persistentEntity))
+            .defaultIfEmpty(new SearchSlice<>(new ArrayList<>(), null));
+    }
+
+    private String toRequestBody(QueryBuilder query, Pageable pageable, ElasticsearchPersistentEntity<?> persistentEntity)
+        throws IOException {
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(query)
+            .from((int) pageable.getOffset())
+            .size(pageable.getPageSize())
+            .trackTotalHits(properties.isTrackTotalHits());
+        for (Sort.Order order : pageable.getSort()) {
+            ElasticsearchPersistentProperty property = persistentEntity.getPersistentProperty(order.getProperty());
+            source.sort(SortBuilders.fieldSort(property != null ? property.getFieldName() : order.getProperty())
+                .order(order.isAscending() ? SortOrder.ASC : SortOrder.DESC));
+        }
+        if (properties.isTrackTotalHits() && properties.getTrackTotalHitsUpTo() != null) {
+            // Not supported by the 6.x SearchSourceBuilder
+            ObjectNode body = (ObjectNode) objectMapper.readTree(source.toString());
+            body.put("track_total_hits", properties.getTrackTotalHitsUpTo());
+            return body.toString();
+        }
+        return source.toString();
+    }
+
+    private <T> SearchPage<T> toPage(String response, Pageable pageable, Class<T> entityClass,
+                                     ElasticsearchPersistentEntity<?> persistentEntity) {
+        try {
+            JsonNode hits = objectMapper.readTree(response).path("hits");
+            List<T> content = new ArrayList<>();
+            for (JsonNode hit : hits.path("hits")) {
+                content.add(toEntity(hit, entityClass, persistentEntity));
+            }
+            JsonNode total = hits.path("total");
+            // Elasticsearch 7 returns an object with a relation, 6.x a number which is -1 when hits are not tracked
+            long totalHits = total.isObject() ? total.path("value").asLong() : total.asLong(-1);
+            boolean lowerBound = total.isObject() ?
+                !TOTAL_HITS_RELATION_EXACT.equals(total.path("relation").asText(TOTAL_HITS_RELATION_EXACT)) : totalHits < 0;
+            if (lowerBound) {
+                // At least the hits up to this page, and one more if this page is full
+                long seen = pageable.getOffset() + content.size() + (content.size() == pageable.getPageSize() ? 1 : 0);
+                totalHits = Math.max(totalHits, seen);
+            }
+            return new SearchPage<>(content, pageable, totalHits, lowerBound);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid search response from Elasticsearch", e);
+        }
+    }
+
+    private <T> SearchSlice<T> toSlice(String response, int size, Class<T> entityClass,
+                                       ElasticsearchPersistentEntity<?> persistentEntity) {
+        try {
+            JsonNode hits = objectMapper.readTree(response).path("hits").path("hits");
+            List<T> content = new ArrayList<>();
+            List<Object> nextSearchAfter = null;
+            for (int i = 0; i < hits.size() && i < size; i++) {
+                content.add(toEntity(hits.get(i), entityClass, persistentEntity));
+            }
+            if (hits.size() > size) {
+                nextSearchAfter = new ArrayList<>();
+                for (JsonNode value : hits.get(size - 1).path("sort")) {
+                    nextSearchAfter.add(value.isNumber() ? value.numberValue() : value.asText());
+                }
+            }
+            return new SearchSlice<>(content, nextSearchAfter);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid search response from Elasticsearch", e);
+        }
+    }
+
+    private <T> T toEntity(JsonNode hit, Class<T> entityClass, ElasticsearchPersistentEntity<?> persistentEntity)
+        throws IOException {
+        T entity = entityMapper.mapToObject(hit.path("_source").toString(), entityClass);
+        ElasticsearchPersistentProperty idProperty = persistentEntity.getIdProperty();
+        if (idProperty != null) {
+            PersistentPropertyAccessor<T> accessor = persistentEntity.getPropertyAccessor(entity);
+            if (accessor.getProperty(idProperty) == null) {
+                accessor.setProperty(idProperty, hit.path("_id").asText());
+            }
+        }
+        return entity;
+    }
+}
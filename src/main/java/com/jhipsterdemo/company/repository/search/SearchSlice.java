@@ -0,0 +1,35 @@
+package com.jhipsterdemo.company.repository.search;
+
+import java.util.List;
+
+/**
+ * A slice of search hits read with {@code search_after}.
+ *
+ * @param <T> the type of the entities.
+ */
+public class SearchSlice<T> {
+
+    private final List<T> content;
+
+    private final List<Object> nextSearchAfter;
+
+    public SearchSlice(List<T> content, List<Object> nextSearchAfter) {
+        this.content = content;
+        this.nextSearchAfter = nextSearchAfter;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the sort values to search after to read the next slice, {@code null} if this is the last slice.
+     */
+    public List<Object> getNextSearchAfter() {
+        return nextSearchAfter;
+    }
+
+    public boolean hasNext() {
+        return nextSearchAfter != null;
+    }
+}
@@ -1,7 +1,12 @@
 package com.jhipsterdemo.company.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jhipsterdemo.company.config.ApplicationProperties;
 import com.jhipsterdemo.company.domain.User;
 import com.jhipsterdemo.company.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,11 +18,16 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The users found are cached for {@code application.user-details-cache.time-to-live-ms}, keyed by the normalized login
+ * or email they were found with. {@link #evict(User)} must be called whenever a user is saved or deleted.
  */
 @Component("userDetailsService")
 public class DomainUserDetailsService implements ReactiveUserDetailsService {
@@ -26,8 +36,20 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final Cache<String, CachedUserDetails> userDetailsCache;
+
+    public DomainUserDetailsService(UserRepository userRepository, ApplicationProperties applicationProperties,
+                                    MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        ApplicationProperties.UserDetailsCache properties = applicationProperties.getUserDetailsCache();
+        this.userDetailsCache = properties.isEnabled() ? Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(properties.getTimeToLiveMs()))
+            .maximumSize(properties.getMaximumSize())
+            .recordStats()
+            .build() : null;
+        if (userDetailsCache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "userDetails");
+        }
     }
 
     @Override
@@ -35,27 +57,75 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
         log.debug("Authenticating {}", login);
 
         if (new EmailValidator().isValid(login, null)) {
-            return userRepository.findOneByEmailIgnoreCase(login)
+            String lowercaseEmail = login.toLowerCase(Locale.ENGLISH);
+            return cached(lowercaseEmail, () -> userRepository.findOneByEmailIgnoreCase(login)
                 .switchIfEmpty(Mono.error(new UsernameNotFoundException("User with email " + login + " was not found in the database")))
-                .map(user -> createSpringSecurityUser(login, user));
+                .map(user -> createCachedUserDetails(login, user)));
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository.findOneByLogin(lowercaseLogin)
+        return cached(lowercaseLogin, () -> userRepository.findOneByLogin(lowercaseLogin)
             .switchIfEmpty(Mono.error(new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database")))
-            .map(user -> createSpringSecurityUser(lowercaseLogin, user));
+            .map(user -> createCachedUserDetails(lowercaseLogin, user)));
+
+    }
+
+    /**
+     * Evict a user from the cache, whatever the login or email it was found with.
+     *
+     * @param user the user saved or deleted.
+     */
+    public void evict(User user) {
+        if (userDetailsCache != null && user.getId() != null) {
+            userDetailsCache.asMap().values().removeIf(cached -> user.getId().equals(cached.userId));
+        }
+    }
 
+    private Mono<UserDetails> cached(String key, Supplier<Mono<CachedUserDetails>> loader) {
+        if (userDetailsCache == null) {
+            return loader.get().map(CachedUserDetails::toUserDetails);
+        }
+        CachedUserDetails cached = userDetailsCache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached.toUserDetails());
+        }
+        return loader.get()
+            .doOnNext(userDetails -> userDetailsCache.put(key, userDetails))
+            .map(CachedUserDetails::toUserDetails);
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+    private CachedUserDetails createCachedUserDetails(String lowercaseLogin, User user) {
         if (!user.getActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
         List<GrantedAuthority> grantedAuthorities = user.getAuthorities().stream()
             .map(authority -> new SimpleGrantedAuthority(authority.getName()))
             .collect(Collectors.toList());
-        return new org.springframework.security.core.userdetails.User(user.getLogin(),
-            user.getPassword(),
-            grantedAuthorities);
+        return new CachedUserDetails(user.getId(), user.getLogin(), user.getPassword(), grantedAuthorities);
+    }
+
+    /**
+     * What is kept of a user: each lookup gets its own {@link UserDetails}, as their credentials can be erased.
+     */
+    private static class CachedUserDetails {
+
+        private final String userId;
+
+        private final String login;
+
+        private final String password;
+
+        private final List<GrantedAuthority> authorities;
+
+        CachedUserDetails(String userId, String login, String password, List<GrantedAuthority> authorities) {
+            this.userId = userId;
+            this.login = login;
+            this.password = password;
+            this.authorities = authorities;
+        }
+
+        UserDetails toUserDetails() {
+            return new org.springframework.security.core.userdetails.User(login, password, authorities);
+        }
     }
 }
@@ -0,0 +1,14 @@
+package com.jhipsterdemo.company.security;
+
+/**
+ * This exception is thrown when a password cannot be hashed because all the password hashing threads are busy and
+ * their queue is full.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(Throwable t) {
+        super("Too many passwords are being hashed, try again later", t);
+    }
+}
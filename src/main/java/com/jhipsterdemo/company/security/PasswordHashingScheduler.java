@@ -0,0 +1,118 @@
+package com.jhipsterdemo.company.security;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the password hashing, which is deliberately slow, on a pool of its own.
+ * <p>
+ * The pool has {@code application.password-hashing.threads} threads, one per CPU by default, and queues at most
+ * {@code queue-capacity} hashes. Beyond that, hashes are rejected right away with a
+ * {@link PasswordHashingRejectedException} instead of piling up: a burst of logins cannot starve the event loop nor
+ * the other endpoints.
+ */
+@Component
+public class PasswordHashingScheduler implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    private final Scheduler scheduler;
+
+    private final Timer waitTimer;
+
+    private final Timer hashTimer;
+
+    private final Counter rejectedCounter;
+
+    public PasswordHashingScheduler(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.PasswordHashing properties = applicationProperties.getPasswordHashing();
+        this.waitTimer = Timer.builder("password.hashing.wait")
+            .description("Time spent by the password hashes in the queue")
+            .register(meterRegistry);
+        this.hashTimer = Timer.builder("password.hashing.time")
+            .description("Time spent hashing the passwords")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+            .description("Number of password hashes rejected because the queue was full")
+            .register(meterRegistry);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }) {
+            @Override
+            public void execute(Runnable command) {
+                long queuedAt = System.nanoTime();
+                super.execute(() -> {
+                    long startedAt = System.nanoTime();
+                    waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        command.run();
+                    } finally {
+                        hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                });
+            }
+        };
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hashing");
+        Gauge.builder("password.hashing.queued", executor, pool -> pool.getQueue().size())
+            .description("Number of password hashes waiting in the queue")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get the scheduler, for the components hashing passwords by themselves.
+     *
+     * @return the scheduler.
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Hash on the scheduler.
+     *
+     * @param hash the hashing.
+     * @param <T> the type of the result.
+     * @return the result, or a {@link PasswordHashingRejectedException} if the queue is full.
+     */
+    public <T> Mono<T> hash(Callable<T> hash) {
+        return translateRejection(Mono.fromCallable(hash).subscribeOn(scheduler));
+    }
+
+    /**
+     * Replace the rejections of the scheduler by a {@link PasswordHashingRejectedException}.
+     *
+     * @param mono a {@link Mono} hashing on the scheduler.
+     * @param <T> the type of the result.
+     * @return the {@link Mono}.
+     */
+    public <T> Mono<T> translateRejection(Mono<T> mono) {
+        return mono.onErrorMap(RejectedExecutionException.class, e -> {
+            rejectedCounter.increment();
+            return new PasswordHashingRejectedException(e);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
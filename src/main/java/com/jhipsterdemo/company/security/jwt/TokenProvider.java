@@ -2,7 +2,10 @@ package com.jhipsterdemo.company.security.jwt;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
@@ -16,6 +19,10 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jhipsterdemo.company.config.ApplicationProperties;
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -37,8 +44,31 @@ public class TokenProvider {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final JwtParser jwtParser;
+
+    private final Cache<String, CachedAuthentication> authenticationCache;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        // The parser is built once, and reads the key when a token is parsed, as it is only known after init()
+        this.jwtParser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return key;
+                }
+
+                @Override
+                public Key resolveSigningKey(JwsHeader header, String plaintext) {
+                    return key;
+                }
+            })
+            .build();
+        ApplicationProperties.TokenCache tokenCache = applicationProperties.getTokenCache();
+        this.authenticationCache = tokenCache.isEnabled() ? Caffeine.newBuilder()
+            .maximumSize(tokenCache.getMaximumSize())
+            .expireAfter(new TokenExpiry())
+            .build() : null;
     }
 
     @PostConstruct
@@ -59,6 +89,9 @@ public class TokenProvider {
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt()
                 .getTokenValidityInSecondsForRememberMe();
+        if (authenticationCache != null) {
+            authenticationCache.invalidateAll();
+        }
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -84,12 +117,53 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        return toAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    /**
+     * Validate a token and get its authentication, parsing it only once.
+     * <p>
+     * The authentication of valid tokens is cached until they expire, by hash of the token, so that the signature of
+     * the token is not verified again on the next requests of the client.
+     *
+     * @param token the token.
+     * @return the authentication, or empty if the token is not valid.
+     */
+    public Optional<Authentication> getValidAuthentication(String token) {
+        if (authenticationCache == null) {
+            return Optional.ofNullable(parseClaims(token)).map(claims -> toAuthentication(claims, token));
+        }
+        String tokenHash = hash(token);
+        CachedAuthentication cached = authenticationCache.getIfPresent(tokenHash);
+        if (cached != null) {
+            return Optional.of(new UsernamePasswordAuthenticationToken(cached.principal, token, cached.authorities));
+        }
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return Optional.empty();
+        }
+        Authentication authentication = toAuthentication(claims, token);
+        if (claims.getExpiration() != null) {
+            authenticationCache.put(tokenHash, new CachedAuthentication(authentication, claims.getExpiration().getTime()));
+        }
+        return Optional.of(authentication);
+    }
+
+    private Claims parseClaims(String authToken) {
+        try {
+            return jwtParser.parseClaimsJws(authToken).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+        }
+        return null;
+    }
 
+    private Authentication toAuthentication(Claims claims, String token) {
         Collection<? extends GrantedAuthority> authorities =
             Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
                 .map(SimpleGrantedAuthority::new)
@@ -100,14 +174,51 @@ public class TokenProvider {
         return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 
-    public boolean validateToken(String authToken) {
+    private static String hash(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.info("Invalid JWT token.");
-            log.trace("Invalid JWT token trace.", e);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * An authentication, cached until its token expires.
+     */
+    private static class CachedAuthentication {
+
+        private final Object principal;
+
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private final long expirationTime;
+
+        CachedAuthentication(Authentication authentication, long expirationTime) {
+            this.principal = authentication.getPrincipal();
+            this.authorities = authentication.getAuthorities();
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String tokenHash, CachedAuthentication authentication, long currentTime) {
+            long timeToLive = authentication.expirationTime - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(timeToLive, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenHash, CachedAuthentication authentication, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(tokenHash, authentication, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenHash, CachedAuthentication authentication, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
         }
-        return false;
     }
 }
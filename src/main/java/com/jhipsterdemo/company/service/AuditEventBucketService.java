@@ -0,0 +1,93 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.domain.AuditEventBucket;
+import com.jhipsterdemo.company.domain.PersistentAuditEvent;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service maintaining the {@link AuditEventBucket}s, the hourly counts of the audit events, and reading them.
+ */
+@Service
+public class AuditEventBucketService {
+
+    private static final String HOUR_FIELD = "hour";
+
+    private static final String PRINCIPAL_FIELD = "principal";
+
+    private static final String EVENT_TYPE_FIELD = "event_type";
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    public AuditEventBucketService(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    /**
+     * Count written audit events in their buckets, with one upsert per bucket.
+     *
+     * @param events the events.
+     * @return a {@link Mono} completing once all the buckets are incremented.
+     */
+    public Mono<Void> increment(Collection<PersistentAuditEvent> events) {
+        Map<List<Object>, Long> counts = new LinkedHashMap<>();
+        for (PersistentAuditEvent event : events) {
+            Instant date = event.getAuditEventDate() != null ? event.getAuditEventDate() : Instant.now();
+            counts.merge(Arrays.asList(date.truncatedTo(ChronoUnit.HOURS), event.getPrincipal(), event.getAuditEventType()),
+                1L, Long::sum);
+        }
+        return Flux.fromIterable(counts.entrySet())
+            .flatMap(count -> increment(count.getKey(), count.getValue()))
+            .then();
+    }
+
+    private Mono<Void> increment(List<Object> key, long count) {
+        Query query = Query.query(where(HOUR_FIELD).is(key.get(0))
+            .and(PRINCIPAL_FIELD).is(key.get(1))
+            .and(EVENT_TYPE_FIELD).is(key.get(2)));
+        return mongoOperations.upsert(query, new Update().inc("count", count), AuditEventBucket.class)
+            // Two concurrent upserts may both try to insert the bucket, the loser only has to increment it
+            .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+            .then();
+    }
+
+    /**
+     * Get the buckets of a time period, in chronological order.
+     *
+     * @param fromDate the start of the time period, rounded down to the hour.
+     * @param toDate the end of the time period, excluded.
+     * @param principal the principal to get the buckets of, or {@code null} for all of them.
+     * @param auditEventType the event type to get the buckets of, or {@code null} for all of them.
+     * @return the buckets.
+     */
+    public Flux<AuditEventBucket> findByDates(Instant fromDate, Instant toDate, String principal, String auditEventType) {
+        Criteria criteria = where(HOUR_FIELD).gte(fromDate.truncatedTo(ChronoUnit.HOURS)).lt(toDate);
+        if (principal != null) {
+            criteria.and(PRINCIPAL_FIELD).is(principal);
+        }
+        if (auditEventType != null) {
+            criteria.and(EVENT_TYPE_FIELD).is(auditEventType);
+        }
+        Query query = Query.query(criteria).with(Sort.by(HOUR_FIELD, PRINCIPAL_FIELD, EVENT_TYPE_FIELD));
+        return mongoOperations.find(query, AuditEventBucket.class);
+    }
+}
@@ -4,10 +4,19 @@ import io.github.jhipster.config.JHipsterProperties;
 import com.jhipsterdemo.company.config.audit.AuditEventConverter;
 import com.jhipsterdemo.company.domain.PersistentAuditEvent;
 import com.jhipsterdemo.company.repository.PersistenceAuditEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
@@ -17,6 +26,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.boot.actuate.security.AuthenticationAuditListener.AUTHENTICATION_FAILURE;
 import static org.springframework.boot.actuate.security.AuthenticationAuditListener.AUTHENTICATION_SUCCESS;
@@ -34,6 +44,10 @@ public class AuditEventService {
      */
     private static final int EVENT_DATA_COLUMN_MAX_LENGTH = 255;
 
+    private static final String EVENT_DATE_FIELD = "event_date";
+
+    private static final String RETENTION_INDEX_NAME = "event_date_ttl";
+
     private final Logger log = LoggerFactory.getLogger(AuditEventService.class);
 
     private final JHipsterProperties jHipsterProperties;
@@ -42,18 +56,63 @@ public class AuditEventService {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AuditEventWriter auditEventWriter;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final Counter purgedCounter;
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties) {
+        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties,
+        AuditEventWriter auditEventWriter, ReactiveMongoOperations mongoOperations, MeterRegistry meterRegistry) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
         this.jHipsterProperties = jhipsterProperties;
+        this.auditEventWriter = auditEventWriter;
+        this.mongoOperations = mongoOperations;
+        this.purgedCounter = Counter.builder("audit.events.purged")
+            .description("Number of audit events deleted by the daily purge, beyond those expired by the TTL index")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Make MongoDB delete the audit events older than {@code jhipster.audit-events.retention-period} days, with a TTL
+     * index on their date. The expiration of an existing index is updated when the retention period changes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createRetentionIndex() {
+        createRetentionIndexReactively()
+            .onErrorResume(e -> {
+                log.warn("Could not create the TTL index of the audit events, they are only purged daily: {}", e.toString());
+                return Mono.empty();
+            })
+            .block();
+    }
+
+    public Mono<Void> createRetentionIndexReactively() {
+        long expireAfterSeconds = TimeUnit.DAYS.toSeconds(jHipsterProperties.getAuditEvents().getRetentionPeriod());
+        Index index = new Index()
+            .on(EVENT_DATE_FIELD, Sort.Direction.ASC)
+            .named(RETENTION_INDEX_NAME)
+            .expire(expireAfterSeconds);
+        return mongoOperations.indexOps(PersistentAuditEvent.class)
+            .ensureIndex(index)
+            .then()
+            // An existing index with another expiration is updated in place
+            .onErrorResume(DataAccessException.class, e -> mongoOperations.executeCommand(new Document()
+                    .append("collMod", mongoOperations.getCollectionName(PersistentAuditEvent.class))
+                    .append("index", new Document()
+                        .append("keyPattern", new Document(EVENT_DATE_FIELD, 1))
+                        .append("expireAfterSeconds", expireAfterSeconds)))
+                .then());
     }
 
     /**
      * Old audit events should be automatically deleted after 30 days.
-     *
+     * <p>
+     * They are expired by the TTL index, this is a fallback deleting those it did not expire yet, in a single query.
      * This is scheduled to get fired at 12:00 (am).
      */
     @Scheduled(cron = "0 0 12 * * ?")
@@ -61,14 +120,13 @@ public class AuditEventService {
         removeOldAuditEventsReactively().block();
     }
 
-    public Mono<Void> removeOldAuditEventsReactively() {
+    public Mono<Long> removeOldAuditEventsReactively() {
         return persistenceAuditEventRepository
-            .findByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS))
-            .flatMap(auditEvent -> {
-                log.debug("Deleting audit data {}", auditEvent);
-                return persistenceAuditEventRepository.delete(auditEvent);
-            })
-            .then();
+            .deleteByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS))
+            .doOnNext(purged -> {
+                log.debug("Deleted {} old audit events", purged);
+                purgedCounter.increment(purged);
+            });
     }
 
     public Flux<AuditEvent> findAll(Pageable pageable) {
@@ -94,15 +152,28 @@ public class AuditEventService {
         return persistenceAuditEventRepository.countByAuditEventDateBetween(fromDate, toDate);
     }
 
-    public Mono<PersistentAuditEvent> saveAuthenticationSuccess(String login) {
+    /**
+     * Record a successful authentication. The event is written asynchronously by the {@link AuditEventWriter}.
+     *
+     * @param login the login of the user.
+     * @return a {@link Mono} completing once the event is queued.
+     */
+    public Mono<Void> saveAuthenticationSuccess(String login) {
         PersistentAuditEvent persistentAuditEvent = new PersistentAuditEvent();
         persistentAuditEvent.setPrincipal(login);
         persistentAuditEvent.setAuditEventType(AUTHENTICATION_SUCCESS);
         persistentAuditEvent.setAuditEventDate(Instant.now());
-        return persistenceAuditEventRepository.save(persistentAuditEvent);
+        return auditEventWriter.write(persistentAuditEvent);
     }
 
-    public Mono<PersistentAuditEvent> saveAuthenticationError(String login, Throwable e) {
+    /**
+     * Record a failed authentication. The event is written asynchronously by the {@link AuditEventWriter}.
+     *
+     * @param login the login used.
+     * @param e the cause of the failure.
+     * @return a {@link Mono} completing once the event is queued.
+     */
+    public Mono<Void> saveAuthenticationError(String login, Throwable e) {
         PersistentAuditEvent persistentAuditEvent = new PersistentAuditEvent();
         persistentAuditEvent.setPrincipal(login);
         persistentAuditEvent.setAuditEventType(AUTHENTICATION_FAILURE);
@@ -111,7 +182,7 @@ public class AuditEventService {
         eventData.put("type", e.getClass().getName());
         eventData.put("message", e.getMessage());
         persistentAuditEvent.setData(truncate(eventData));
-        return persistenceAuditEventRepository.save(persistentAuditEvent);
+        return auditEventWriter.write(persistentAuditEvent);
     }
 
     /**
@@ -0,0 +1,242 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.PersistentAuditEvent;
+import com.jhipsterdemo.company.repository.PersistenceAuditEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Service writing the audit events in batches, off the request path.
+ * <p>
+ * The events are queued, then inserted together once {@code application.audit-events.batch-size} of them are waiting,
+ * or every {@code flush-interval-ms}. When the queue is full, the {@link OverflowStrategy} decides what is lost.
+ * A batch which could not be written is put back in the queue and the flush stops: it is retried by the next
+ * scheduled flush. The events get their id before the first attempt, so that those written before the failure are
+ * not inserted again, nor counted twice. The events still queued when the application stops are written before it does, once any running
+ * flush is over. The written events are counted in their {@link com.jhipsterdemo.company.domain.AuditEventBucket}s.
+ */
+@Service
+public class AuditEventWriter {
+
+    /**
+     * What happens to an event when the queue is full.
+     */
+    public enum OverflowStrategy {
+        /**
+         * Drop the new event.
+         */
+        DROP_LATEST,
+        /**
+         * Drop the oldest queued event to queue the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Insert the new event right away, on the request path.
+         */
+        WRITE_THROUGH
+    }
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final AuditEventBucketService auditEventBucketService;
+
+    private final ApplicationProperties.AuditEvents properties;
+
+    private final BlockingDeque<PersistentAuditEvent> queue;
+
+    private final AtomicReference<Mono<Long>> runningFlush = new AtomicReference<>();
+
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    private final Counter writtenCounter;
+
+    private final Counter droppedCounter;
+
+    public AuditEventWriter(PersistenceAuditEventRepository persistenceAuditEventRepository,
+                            AuditEventBucketService auditEventBucketService, ApplicationProperties applicationProperties,
+                            MeterRegistry meterRegistry) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.auditEventBucketService = auditEventBucketService;
+        this.properties = applicationProperties.getAuditEvents();
+        this.queue = new LinkedBlockingDeque<>(properties.getQueueCapacity());
+        Gauge.builder("audit.events.queued", queue, BlockingDeque::size)
+            .description("Number of audit events waiting to be written")
+            .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.events.written")
+            .description("Number of audit events written")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.events.dropped")
+            .description("Number of audit events lost because the queue was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue an audit event.
+     *
+     * @param persistentAuditEvent the event.
+     * @return a {@link Mono} completing once the event is queued, or written with {@link OverflowStrategy#WRITE_THROUGH}.
+     */
+    public Mono<Void> write(PersistentAuditEvent persistentAuditEvent) {
+        if (!queue.offer(persistentAuditEvent)) {
+            switch (properties.getOverflowStrategy()) {
+                case WRITE_THROUGH:
+                    return persistenceAuditEventRepository.save(persistentAuditEvent)
+                        .doOnSuccess(saved -> writtenCounter.increment())
+                        .then(countInBuckets(Collections.singletonList(persistentAuditEvent)));
+                case DROP_OLDEST:
+                    while (!queue.offer(persistentAuditEvent)) {
+                        if (queue.poll() != null) {
+                            droppedCounter.increment();
+                        }
+                    }
+                    break;
+                default:
+                    droppedCounter.increment();
+                    log.warn("Dropped audit event {}, the queue is full", persistentAuditEvent);
+                    return Mono.empty();
+            }
+        }
+        // While the batches fail, they are only retried by the scheduled flushes
+        if (queue.size() >= properties.getBatchSize() && !failing.get()) {
+            flush().subscribe();
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * Write the queued events.
+     * <p>
+     * This is scheduled to get fired every second by default, see {@code application.audit-events.flush-interval-ms}.
+     */
+    @Scheduled(fixedDelayString = "${application.audit-events.flush-interval-ms:1000}")
+    public void flushQueuedEvents() {
+        flush().block();
+    }
+
+    /**
+     * Write the queued events, batch after batch, until none is left or a batch fails. If a flush is already running,
+     * wait for it instead.
+     *
+     * @return the number of events written by this flush.
+     */
+    public Mono<Long> flush() {
+        return Mono.defer(() -> {
+            Mono<Long> flush = Mono.defer(this::writeBatch)
+                .expand(written -> queue.isEmpty() ? Mono.empty() : writeBatch())
+                .onErrorResume(e -> Mono.empty())
+                .reduce(0L, Long::sum)
+                .doOnTerminate(() -> runningFlush.set(null))
+                .cache();
+            if (runningFlush.compareAndSet(null, flush)) {
+                return flush;
+            }
+            Mono<Long> running = runningFlush.get();
+            return running == null ? Mono.just(0L) : running.thenReturn(0L);
+        });
+    }
+
+    private Mono<Long> writeBatch() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        queue.drainTo(batch, properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        return unwritten(batch)
+            .flatMap(events -> events.isEmpty() ? Mono.just(0L) : persistenceAuditEventRepository.insert(events).count())
+            // The events written by a failed attempt were not counted yet
+            .map(inserted -> (long) batch.size())
+            .doOnNext(writtenCounter::increment)
+            .doOnNext(written -> failing.set(false))
+            .flatMap(written -> countInBuckets(batch).thenReturn(written))
+            .doOnError(e -> {
+                log.error("Could not write {} audit events, they will be retried: {}", batch.size(), e.toString());
+                failing.set(true);
+                requeue(batch);
+            });
+    }
+
+    /**
+     * Get the events of a batch not written yet. An event which already has an id was requeued after a failed attempt,
+     * which may have written it.
+     */
+    private Mono<List<PersistentAuditEvent>> unwritten(List<PersistentAuditEvent> batch) {
+        List<String> attemptedIds = new ArrayList<>();
+        for (PersistentAuditEvent event : batch) {
+            if (event.getId() != null) {
+                attemptedIds.add(event.getId());
+            } else {
+                event.setId(new ObjectId().toHexString());
+            }
+        }
+        if (attemptedIds.isEmpty()) {
+            return Mono.just(batch);
+        }
+        return persistenceAuditEventRepository.findAllById(attemptedIds)
+            .map(PersistentAuditEvent::getId)
+            .collect(Collectors.toSet())
+            .map(writtenIds -> batch.stream()
+                .filter(event -> !writtenIds.contains(event.getId()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Put a failed batch back at the head of the queue. What no longer fits is lost according to the overflow strategy:
+     * the oldest events with {@link OverflowStrategy#DROP_OLDEST}, the newest ones otherwise, as nothing can be written
+     * through while the batches fail.
+     */
+    private void requeue(List<PersistentAuditEvent> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            while (!queue.offerFirst(batch.get(i))) {
+                if (properties.getOverflowStrategy() == OverflowStrategy.DROP_OLDEST) {
+                    // The rest of the batch is older than the queued events
+                    droppedCounter.increment(i + 1);
+                    return;
+                }
+                if (queue.pollLast() != null) {
+                    droppedCounter.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Count written events in their buckets; the events are not lost if this fails, only missing from the statistics.
+     */
+    private Mono<Void> countInBuckets(List<PersistentAuditEvent> events) {
+        return auditEventBucketService.increment(events)
+            .onErrorResume(e -> {
+                log.warn("Could not count {} audit events in their buckets: {}", events.size(), e.toString());
+                return Mono.empty();
+            });
+    }
+
+    @PreDestroy
+    public void close() {
+        // The first flush may only wait for a running one
+        flush().then(Mono.defer(this::flush)).block(Duration.ofSeconds(10));
+        if (!queue.isEmpty()) {
+            log.warn("Could not write {} audit events before stopping", queue.size());
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.jhipsterdemo.company.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Department;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.Job;
+import com.jhipsterdemo.company.domain.JobHistory;
+import com.jhipsterdemo.company.service.dto.BulkImportReport;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service importing employees, jobs and job histories in bulk, from NDJSON or CSV.
+ * <p>
+ * Each row holds the properties of an entity, by name. A reference holds the natural key of the referenced entity
+ * instead: the email of an employee, the name of a department, the title of a job; in CSV, the keys of a collection
+ * are separated by {@code |}. The rows are imported by batches of {@code application.bulk-import.batch-size}: the
+ * references of a batch are resolved with one query per referenced collection, then the valid rows are inserted with
+ * a single unordered {@code insertMany}, so a rejected row does not prevent the others from being imported. Their
+ * outbox entries are written first, with a single insert too, and the outbox relay indexes them in bulk once the
+ * {@code insertMany} is over, like the entries of any other write.
+ * <p>
+ * An employee may reference the employees of the same file as their manager, as long as their manager comes first or
+ * in the same batch. The rows of a batch referencing other rows of the batch are inserted after them, with one
+ * {@code insertMany} per level, and fail with them.
+ */
+@Service
+public class BulkImportService {
+
+    /**
+     * The format of the imported rows.
+     */
+    public enum Format {
+        /**
+         * One JSON object per line.
+         */
+        NDJSON,
+        /**
+         * Comma-separated values, with a header line naming the properties.
+         */
+        CSV
+    }
+
+    private static final String COLLECTION_SEPARATOR = "|";
+
+    private final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final OutboxService outboxService;
+
+    private final EmployeeHierarchyService employeeHierarchyService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ApplicationProperties.BulkImport properties;
+
+    private final Map<String, Class<?>> entityClasses = new LinkedHashMap<>();
+
+    private final Map<Class<?>, String> naturalKeys = new HashMap<>();
+
+    public BulkImportService(ReactiveMongoOperations mongoOperations, OutboxService outboxService,
+                             EmployeeHierarchyService employeeHierarchyService, ObjectMapper objectMapper,
+                             Validator validator, ApplicationProperties applicationProperties) {
+        this.mongoOperations = mongoOperations;
+        this.outboxService = outboxService;
+        this.employeeHierarchyService = employeeHierarchyService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = applicationProperties.getBulkImport();
+        for (Class<?> entityClass : Arrays.asList(Employee.class, Job.class, JobHistory.class)) {
+            entityClasses.put(entityClass.getSimpleName(), entityClass);
+        }
+        naturalKeys.put(Employee.class, "email");
+        naturalKeys.put(Department.class, "departmentName");
+        naturalKeys.put(Job.class, "jobTitle");
+    }
+
+    /**
+     * Get the entity types which can be imported.
+     *
+     * @return the simple names of the entity classes.
+     */
+    public Set<String> getEntityTypes() {
+        return entityClasses.keySet();
+    }
+
+    /**
+     * Import entities.
+     *
+     * @param entityType the simple name of the entity class, for example {@code Employee}.
+     * @param format the format of the lines.
+     * @param lines the lines of the imported file.
+     * @return the report of the import, once all the lines are read.
+     * @throws IllegalArgumentException if the entity type is unknown.
+     */
+    public Mono<BulkImportReport> importEntities(String entityType, Format format, Flux<String> lines) {
+        log.debug("Request to import {} from {}", entityType, format);
+        Class<?> entityClass = entityClasses.get(entityType);
+        if (entityClass == null) {
+            throw new IllegalArgumentException("Unknown entity type " + entityType);
+        }
+        MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext().getRequiredPersistentEntity(entityClass);
+        BulkImportReport report = new BulkImportReport(entityType);
+        return (format == Format.CSV ? csvRows(lines) : jsonRows(lines))
+            .buffer(properties.getBatchSize())
+            .concatMap(rows -> importBatch(entity, rows), 1)
+            .doOnNext(rows -> rows.forEach(row -> report(report, row)))
+            .then(Mono.fromCallable(() -> {
+                log.info("Imported {} {} out of {} rows", report.getImported(), entityType, report.getRows());
+                return report;
+            }));
+    }
+
+    private void report(BulkImportReport report, Row row) {
+        report.setRows(report.getRows() + 1);
+        if (row.error == null) {
+            report.setImported(report.getImported() + 1);
+            return;
+        }
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < properties.getMaxReportedErrors()) {
+            report.getErrors().add(new BulkImportReport.RowError(row.line, row.error));
+        }
+    }
+
+    private Flux<Row> jsonRows(Flux<String> lines) {
+        return lines.index()
+            .filter(line -> !line.getT2().trim().isEmpty())
+            .map(line -> {
+                Row row = new Row(line.getT1() + 1);
+                try {
+                    row.values = objectMapper.readValue(line.getT2(), HashMap.class);
+                } catch (Exception e) {
+                    row.error = "Invalid JSON: " + firstLine(e.getMessage());
+                }
+                return row;
+            });
+    }
+
+    private Flux<Row> csvRows(Flux<String> lines) {
+        return Flux.defer(() -> {
+            AtomicReference<List<String>> header = new AtomicReference<>();
+            return lines.index()
+                .filter(line -> !line.getT2().trim().isEmpty())
+                .handle((line, sink) -> {
+                    Row row = new Row(line.getT1() + 1);
+                    List<String> values;
+                    try {
+                        values = parseCsvLine(line.getT2());
+                    } catch (IllegalArgumentException e) {
+                        values = null;
+                        row.error = e.getMessage();
+                    }
+                    if (header.get() == null) {
+                        if (values != null) {
+                            header.set(values);
+                            return;
+                        }
+                    } else if (values != null && values.size() != header.get().size()) {
+                        row.error = "Expected " + header.get().size() + " values, got " + values.size();
+                    } else if (values != null) {
+                        row.values = new HashMap<>();
+                        for (int i = 0; i < values.size(); i++) {
+                            row.values.put(header.get().get(i), values.get(i).isEmpty() ? null : values.get(i));
+                        }
+                    }
+                    sink.next(row);
+                });
+        });
+    }
+
+    /**
+     * Split a CSV line into its values. Values may be quoted with {@code "}, a quote being escaped by another one, but
+     * may not span several lines.
+     *
+     * @param line the line.
+     * @return the values.
+     * @throws IllegalArgumentException if a quoted value is not closed.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c != '\r') {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unclosed quoted value");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private Mono<List<Row>> importBatch(MongoPersistentEntity<?> entity, List<Row> rows) {
+        Map<Class<?>, Set<String>> keys = new HashMap<>();
+        for (Row row : rows) {
+            if (row.error == null) {
+                read(entity, row, keys);
+            }
+        }
+        return Flux.fromIterable(keys.entrySet())
+            .flatMap(keysByType -> findIds(keysByType.getKey(), keysByType.getValue())
+                .map(ids -> Collections.singletonMap(keysByType.getKey(), ids)))
+            .collect(HashMap<Class<?>, Map<String, String>>::new, Map::putAll)
+            .flatMap(ids -> {
+                Map<String, Row> rowsByKey = rowsByKey(entity, rows, ids);
+                List<Row> validRows = new ArrayList<>();
+                for (Row row : rows) {
+                    if (row.error == null) {
+                        resolveReferences(entity, row, ids, rowsByKey);
+                    }
+                    if (row.error == null) {
+                        validRows.add(row);
+                    }
+                }
+                return insertInOrder(entity, validRows);
+            })
+            .thenReturn(rows);
+    }
+
+    /**
+     * Convert the values of a row to an entity with a new id, and collect the natural keys of its references.
+     */
+    private void read(MongoPersistentEntity<?> entity, Row row, Map<Class<?>, Set<String>> keys) {
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<String, Object> value : row.values.entrySet()) {
+            MongoPersistentProperty property = entity.getPersistentProperty(value.getKey());
+            if (property == null) {
+                row.error = "Unknown property " + value.getKey();
+                return;
+            }
+            if (property.isIdProperty()) {
+                row.error = "The id of a new " + entity.getType().getSimpleName() + " can't be set";
+                return;
+            }
+            if (property.isAssociation() || property.isDbReference()) {
+                if (!naturalKeys.containsKey(property.getActualType())) {
+                    row.error = "The " + property.getName() + " property can't be imported";
+                    return;
+                }
+                List<String> referenceKeys = referenceKeys(property, value.getValue());
+                row.references.put(property, referenceKeys);
+                keys.computeIfAbsent(property.getActualType(), type -> new HashSet<>()).addAll(referenceKeys);
+            } else {
+                values.put(value.getKey(), value.getValue());
+            }
+        }
+        try {
+            row.entity = objectMapper.convertValue(values, entity.getType());
+        } catch (IllegalArgumentException e) {
+            row.error = "Invalid value: " + firstLine(e.getMessage());
+            return;
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(row.entity);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Object> violation = violations.iterator().next();
+            row.error = violation.getPropertyPath() + " " + violation.getMessage();
+            return;
+        }
+        row.id = new ObjectId().toString();
+        entity.getPropertyAccessor(row.entity).setProperty(entity.getRequiredIdProperty(), row.id);
+    }
+
+    private static List<String> referenceKeys(MongoPersistentProperty property, Object value) {
+        List<String> referenceKeys = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object key : (Collection<?>) value) {
+                referenceKeys.add(String.valueOf(key));
+            }
+        } else if (value != null && property.isCollectionLike()) {
+            for (String key : String.valueOf(value).split("\\" + COLLECTION_SEPARATOR)) {
+                if (!key.trim().isEmpty()) {
+                    referenceKeys.add(key.trim());
+                }
+            }
+        } else if (value != null) {
+            referenceKeys.add(String.valueOf(value));
+        }
+        return referenceKeys;
+    }
+
+    /**
+     * Find the ids of existing entities by natural key, reading only their id and key. The natural keys are not unique,
+     * a key shared by several entities is mapped to {@code null}, so that the rows referencing it fail rather than
+     * reference an arbitrary one of them.
+     */
+    private Mono<Map<String, String>> findIds(Class<?> type, Set<String> keys) {
+        MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        MongoPersistentProperty keyProperty = entity.getRequiredPersistentProperty(naturalKeys.get(type));
+        Query query = Query.query(where(keyProperty.getName()).in(keys));
+        query.fields().include(keyProperty.getName());
+        return mongoOperations.find(query, type)
+            .collect(HashMap::new, (ids, found) -> {
+                PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(found);
+                String key = String.valueOf(accessor.getProperty(keyProperty));
+                String id = String.valueOf(accessor.getProperty(entity.getRequiredIdProperty()));
+                ids.put(key, ids.containsKey(key) && !id.equals(ids.get(key)) ? null : id);
+            });
+    }
+
+    /**
+     * Get the rows of the batch which other rows of the batch may reference, for the managers, by natural key. A stored
+     * entity with the same key takes precedence.
+     */
+    private Map<String, Row> rowsByKey(MongoPersistentEntity<?> entity, List<Row> rows, Map<Class<?>, Map<String, String>> ids) {
+        Map<String, String> idsOfType = ids.get(entity.getType());
+        if (idsOfType == null) {
+            return Collections.emptyMap();
+        }
+        MongoPersistentProperty keyProperty = entity.getRequiredPersistentProperty(naturalKeys.get(entity.getType()));
+        Map<String, Row> rowsByKey = new HashMap<>();
+        for (Row row : rows) {
+            Object key = row.entity != null ? entity.getPropertyAccessor(row.entity).getProperty(keyProperty) : null;
+            if (row.error == null && key != null && !idsOfType.containsKey(String.valueOf(key))) {
+                rowsByKey.putIfAbsent(String.valueOf(key), row);
+            }
+        }
+        return rowsByKey;
+    }
+
+    private void resolveReferences(MongoPersistentEntity<?> entity, Row row, Map<Class<?>, Map<String, String>> ids,
+                                   Map<String, Row> rowsByKey) {
+        PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(row.entity);
+        for (Map.Entry<MongoPersistentProperty, List<String>> reference : row.references.entrySet()) {
+            MongoPersistentProperty property = reference.getKey();
+            Map<String, String> idsOfType = ids.getOrDefault(property.getActualType(), Collections.emptyMap());
+            List<Object> referencedEntities = new ArrayList<>();
+            for (String key : reference.getValue()) {
+                if (idsOfType.containsKey(key) && idsOfType.get(key) == null) {
+                    row.error = "Ambiguous " + property.getName() + " " + key + ", shared by several " + property.getActualType().getSimpleName() + "s";
+                    return;
+                }
+                String id = idsOfType.get(key);
+                Row referencedRow = entity.getType().equals(property.getActualType()) ? rowsByKey.get(key) : null;
+                if (id == null && referencedRow != null) {
+                    id = referencedRow.id;
+                    row.referencedRows.put(referencedRow, property.getName() + " " + key);
+                }
+                if (id == null) {
+                    row.error = "Unknown " + property.getName() + " " + key;
+                    return;
+                }
+                referencedEntities.add(reference(property.getActualType(), id));
+            }
+            if (property.isCollectionLike()) {
+                accessor.setProperty(property, new HashSet<>(referencedEntities));
+            } else {
+                accessor.setProperty(property, referencedEntities.isEmpty() ? null : referencedEntities.get(0));
+            }
+        }
+    }
+
+    private Object reference(Class<?> type, String id) {
+        MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        Object reference = BeanUtils.instantiateClass(type);
+        entity.getPropertyAccessor(reference).setProperty(entity.getRequiredIdProperty(), id);
+        return reference;
+    }
+
+    /**
+     * Insert the rows referencing no row of the batch left to insert, then the rows referencing them, and so on. A row
+     * fails when a row it references fails, and the rows left when none can be inserted reference each other.
+     */
+    private Mono<Void> insertInOrder(MongoPersistentEntity<?> entity, List<Row> rows) {
+        boolean failed;
+        do {
+            failed = false;
+            for (Row row : rows) {
+                for (Map.Entry<Row, String> referencedRow : row.referencedRows.entrySet()) {
+                    if (row.error == null && referencedRow.getKey().error != null) {
+                        row.error = "Unknown " + referencedRow.getValue() + ": line " + referencedRow.getKey().line + " was not imported";
+                        failed = true;
+                    }
+                }
+            }
+        } while (failed);
+        List<Row> level = new ArrayList<>();
+        List<Row> waiting = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.error == null) {
+                boolean ready = true;
+                for (Row referencedRow : row.referencedRows.keySet()) {
+                    ready &= referencedRow.inserted;
+                }
+                (ready ? level : waiting).add(row);
+            }
+        }
+        if (level.isEmpty()) {
+            for (Row row : waiting) {
+                row.error = "References rows of the file which reference it back";
+            }
+            return Mono.empty();
+        }
+        return insert(entity, level)
+            .then(Mono.defer(() -> {
+                for (Row row : level) {
+                    row.inserted = row.error == null;
+                }
+                return waiting.isEmpty() ? Mono.<Void>empty() : insertInOrder(entity, waiting);
+            }));
+    }
+
+    /**
+     * Insert the rows, unordered; the rows rejected by MongoDB get their error.
+     */
+    private Mono<Void> insert(MongoPersistentEntity<?> entity, List<Row> rows) {
+        if (rows.isEmpty()) {
+            return Mono.empty();
+        }
+        List<String> ids = new ArrayList<>(rows.size());
+        List<Document> documents = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            ids.add(row.id);
+            Document document = new Document();
+            mongoOperations.getConverter().write(row.entity, document);
+            documents.add(document);
+        }
+        // The employees are not saved one by one, their place in the org chart is set here
+        Mono<Void> ancestors = Employee.class.equals(entity.getType()) ? employeeHierarchyService.addAncestors(documents) : Mono.empty();
+        return ancestors
+            .then(outboxService.insertAll(entity.getType(), ids, Mono.from(mongoOperations.getCollection(entity.getCollection())
+                .insertMany(documents, new InsertManyOptions().ordered(false))).then()))
+            .onErrorResume(MongoBulkWriteException.class, e -> {
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    rows.get(error.getIndex()).error = firstLine(error.getMessage());
+                }
+                return Mono.empty();
+            });
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return null;
+        }
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    /**
+     * A row of the imported file, and what became of it.
+     */
+    private static final class Row {
+
+        private final long line;
+
+        private Map<String, Object> values;
+
+        private final Map<MongoPersistentProperty, List<String>> references = new LinkedHashMap<>();
+
+        private final Map<Row, String> referencedRows = new LinkedHashMap<>();
+
+        private Object entity;
+
+        private String id;
+
+        private String error;
+
+        private boolean inserted;
+
+        private Row(long line) {
+            this.line = line;
+        }
+    }
+}
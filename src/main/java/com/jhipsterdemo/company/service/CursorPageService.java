@@ -0,0 +1,46 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Service reading the pages of entities following a cursor, for the cursor listings of the entities.
+ * <p>
+ * A page is a range query on the id, which reads the last page as fast as the first one, and the references of its
+ * entities are resolved in batches by the {@link BatchDbRefResolver}.
+ */
+@Service
+public class CursorPageService {
+
+    private final Logger log = LoggerFactory.getLogger(CursorPageService.class);
+
+    private final BatchDbRefResolver batchDbRefResolver;
+
+    public CursorPageService(BatchDbRefResolver batchDbRefResolver) {
+        this.batchDbRefResolver = batchDbRefResolver;
+    }
+
+    /**
+     * Get the entities following the "id" entity, in the order of their ids.
+     *
+     * @param entityClass the class of the entities.
+     * @param id the id of the last entity of the previous slice, as stored, or {@code null} for the first slice.
+     * @param pageable the pagination information, sorted by id.
+     * @param <T> the type of the entities.
+     * @return the list of entities.
+     */
+    public <T> Flux<T> findAllAfter(Class<T> entityClass, Object id, Pageable pageable) {
+        log.debug("Request to get the {}s after {}", entityClass.getSimpleName(), id);
+        Query query = new Query().with(pageable);
+        if (id != null) {
+            query.addCriteria(Criteria.where("id").gt(id));
+        }
+        return batchDbRefResolver.find(query, entityClass);
+    }
+}
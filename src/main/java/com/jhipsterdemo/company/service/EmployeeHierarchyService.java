@@ -0,0 +1,292 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
+import com.jhipsterdemo.company.service.dto.SpanOfControlDTO;
+import com.mongodb.DBRef;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeSaveCallback;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service materializing the org chart drawn by {@link Employee#getManager()}.
+ * <p>
+ * Each employee document holds the ids of all their managers, from the top of the org chart down to their direct
+ * manager, in an indexed {@code ancestors} field which is not mapped to the entity. It is set before each save, from
+ * the ancestors of the manager; when an employee changes manager, the ancestors of everyone under them are updated
+ * once the employee is saved, see {@link #save(Employee, Function)}. The subtree, chain of command and span of control of an employee are then each read with a single query on
+ * that index.
+ */
+@Service
+public class EmployeeHierarchyService implements ReactiveBeforeSaveCallback<Employee> {
+
+    static final String ANCESTORS_FIELD = "ancestors";
+
+    private static final String MANAGER_FIELD = "manager";
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeHierarchyService.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final BatchDbRefResolver batchDbRefResolver;
+
+    private final ApplicationProperties.EmployeeHierarchy properties;
+
+    public EmployeeHierarchyService(ReactiveMongoOperations mongoOperations, BatchDbRefResolver batchDbRefResolver,
+                                    ApplicationProperties applicationProperties) {
+        this.mongoOperations = mongoOperations;
+        this.batchDbRefResolver = batchDbRefResolver;
+        this.properties = applicationProperties.getEmployeeHierarchy();
+    }
+
+    /**
+     * Set the ancestors of an employee before it is saved.
+     *
+     * @throws IllegalArgumentException if the employee would be under themselves.
+     */
+    @Override
+    public Publisher<Employee> onBeforeSave(Employee employee, Document document, String collection) {
+        return addAncestors(Collections.singletonList(document)).thenReturn(employee);
+    }
+
+    /**
+     * Save an employee, then move the employees under them along if the save changed their place in the org chart.
+     * The reports are only moved once the employee is saved, so a failed save leaves them in place.
+     *
+     * @param employee the employee.
+     * @param save the save of the employee, which sets their ancestors.
+     * @return the saved employee.
+     */
+    public Mono<Employee> save(Employee employee, Function<Employee, Mono<Employee>> save) {
+        if (employee.getId() == null) {
+            return save.apply(employee);
+        }
+        Object id = documentId(employee.getId());
+        return storedAncestors(id)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(previous -> save.apply(employee)
+                .flatMap(saved -> previous.isPresent() ? storedAncestors(id)
+                    .filter(ancestors -> !ancestors.equals(previous.get()))
+                    .flatMap(ancestors -> moveReports(id, previous.get(), ancestors))
+                    .thenReturn(saved) : Mono.just(saved)));
+    }
+
+    /**
+     * Set the ancestors of employee documents about to be written. The managers are either written along, or read
+     * with a single query.
+     *
+     * @param documents the documents of the employees.
+     * @return a {@link Mono} completing once the ancestors are set, or failing with an {@link IllegalArgumentException}
+     * if an employee would be under themselves.
+     */
+    public Mono<Void> addAncestors(List<Document> documents) {
+        Map<Document, Object> keys = new IdentityHashMap<>();
+        Map<Object, Object> managers = new HashMap<>();
+        for (Document document : documents) {
+            // The employees being created have no id yet, nobody can be under them
+            Object key = document.get("_id") != null ? document.get("_id") : new Object();
+            keys.put(document, key);
+            managers.put(key, managerId(document));
+        }
+        Set<Object> managerIds = new HashSet<>();
+        for (Object managerId : managers.values()) {
+            if (managerId != null && !managers.containsKey(managerId)) {
+                managerIds.add(managerId);
+            }
+        }
+        Mono<Map<Object, List<Object>>> storedAncestors = Mono.just(Collections.emptyMap());
+        if (!managerIds.isEmpty()) {
+            Query query = Query.query(where("_id").in(managerIds));
+            query.fields().include(ANCESTORS_FIELD);
+            storedAncestors = mongoOperations.find(query, Document.class, collectionName())
+                .collectMap(manager -> manager.get("_id"), EmployeeHierarchyService::ancestors);
+        }
+        return storedAncestors
+            .flatMap(stored -> {
+                Map<Object, List<Object>> computed = new HashMap<>();
+                for (Document document : documents) {
+                    List<Object> ancestors = computeAncestors(keys.get(document), managers, stored, computed);
+                    if (ancestors.contains(keys.get(document))) {
+                        return Mono.error(new IllegalArgumentException("An employee can't be managed by someone under them"));
+                    }
+                    document.put(ANCESTORS_FIELD, ancestors);
+                }
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Compute the ancestors of an employee, from the top of the org chart down to their manager, from those of their
+     * manager. A cycle is broken where it is found, leaving the employee it was found from among their own ancestors.
+     *
+     * @param id the id of the employee.
+     * @param managers the id of the manager of each employee being placed, {@code null} at the top of the org chart.
+     * @param stored the ancestors of the other managers; a manager missing from both ends the chain.
+     * @param computed the ancestors computed so far, by employee id, completed along.
+     * @return the ids of the ancestors.
+     */
+    public static List<Object> computeAncestors(Object id, Map<Object, Object> managers, Map<Object, List<Object>> stored,
+                                                Map<Object, List<Object>> computed) {
+        if (computed.containsKey(id)) {
+            return computed.get(id);
+        }
+        computed.put(id, Collections.emptyList());
+        List<Object> ancestors = new ArrayList<>();
+        Object managerId = managers.get(id);
+        if (managerId != null) {
+            ancestors.addAll(managers.containsKey(managerId) ? computeAncestors(managerId, managers, stored, computed)
+                : stored.getOrDefault(managerId, Collections.emptyList()));
+            ancestors.add(managerId);
+        }
+        computed.put(id, ancestors);
+        return ancestors;
+    }
+
+    private Mono<List<Object>> storedAncestors(Object id) {
+        Query query = Query.query(where("_id").is(id));
+        query.fields().include(ANCESTORS_FIELD);
+        return mongoOperations.findOne(query, Document.class, collectionName()).map(EmployeeHierarchyService::ancestors);
+    }
+
+    /**
+     * Update the ancestors of the employees under an employee whose ancestors changed.
+     */
+    private Mono<Void> moveReports(Object id, List<Object> previous, List<Object> ancestors) {
+        log.debug("Moving the employees under {} from {} to {}", id, previous, ancestors);
+        Query reports = Query.query(where(ANCESTORS_FIELD).is(id));
+        reports.fields().include(ANCESTORS_FIELD);
+        return mongoOperations.find(reports, Document.class, collectionName())
+            .map(report -> {
+                List<Object> reportAncestors = ancestors(report);
+                List<Object> moved = new ArrayList<>(ancestors);
+                moved.addAll(reportAncestors.subList(reportAncestors.indexOf(id), reportAncestors.size()));
+                return (WriteModel<Document>) new UpdateOneModel<Document>(new Document("_id", report.get("_id")),
+                    new Document("$set", new Document(ANCESTORS_FIELD, moved)));
+            })
+            .buffer(properties.getBatchSize())
+            .concatMap(updates -> mongoOperations.getCollection(collectionName()).bulkWrite(updates, new BulkWriteOptions().ordered(false)), 1)
+            .then();
+    }
+
+    /**
+     * Stream all the employees under an employee, in id order.
+     *
+     * @param id the id of the employee.
+     * @return the employees under them, directly or not.
+     */
+    public Flux<Employee> findSubtree(String id) {
+        log.debug("Request to get the employees under Employee : {}", id);
+        Query query = Query.query(where(ANCESTORS_FIELD).is(documentId(id))).with(Sort.by("_id"));
+        return mongoOperations.find(query, Document.class, collectionName())
+            .buffer(properties.getBatchSize())
+            .concatMap(documents -> batchDbRefResolver.read(documents, Employee.class), 1)
+            .flatMapIterable(employees -> employees);
+    }
+
+    /**
+     * Get the chain of command of an employee: the employee with their managers, joined in the same aggregation.
+     *
+     * @param id the id of the employee.
+     * @return the managers of the employee, from the top of the org chart down to their direct manager, or empty if
+     * the employee is not found.
+     */
+    public Mono<List<Employee>> findChainOfCommand(String id) {
+        log.debug("Request to get the chain of command of Employee : {}", id);
+        return mongoOperations.aggregate(newAggregation(
+                match(where("_id").is(documentId(id))),
+                lookup(collectionName(), ANCESTORS_FIELD, "_id", "chain")),
+                collectionName(), Document.class)
+            .next()
+            .flatMap(employee -> {
+                Map<Object, Document> managers = new HashMap<>();
+                for (Object manager : employee.get("chain", List.class)) {
+                    managers.put(((Document) manager).get("_id"), (Document) manager);
+                }
+                List<Document> chain = new ArrayList<>();
+                for (Object ancestor : ancestors(employee)) {
+                    if (managers.containsKey(ancestor)) {
+                        chain.add(managers.get(ancestor));
+                    }
+                }
+                return batchDbRefResolver.read(chain, Employee.class);
+            });
+    }
+
+    /**
+     * Get the span of control of an employee, counting the employees under them by level in a single aggregation.
+     *
+     * @param id the id of the employee.
+     * @return the span of control, with no reports if nobody is under the employee.
+     */
+    public Mono<SpanOfControlDTO> getSpanOfControl(String id) {
+        log.debug("Request to get the span of control of Employee : {}", id);
+        return mongoOperations.aggregate(newAggregation(
+                match(where(ANCESTORS_FIELD).is(documentId(id))),
+                project().and(ANCESTORS_FIELD).size().as("depth"),
+                group("depth").count().as("count"),
+                sort(Sort.Direction.ASC, "_id")),
+                collectionName(), Document.class)
+            .collectList()
+            .map(levels -> {
+                SpanOfControlDTO spanOfControl = new SpanOfControlDTO(id);
+                for (Document level : levels) {
+                    long count = ((Number) level.get("count")).longValue();
+                    if (spanOfControl.getLevels() == 0) {
+                        // The direct reports are the closest to the employee
+                        spanOfControl.setDirectReports(count);
+                    }
+                    spanOfControl.setTotalReports(spanOfControl.getTotalReports() + count);
+                    spanOfControl.setLevels(spanOfControl.getLevels() + 1);
+                }
+                return spanOfControl;
+            });
+    }
+
+    private String collectionName() {
+        return mongoOperations.getCollectionName(Employee.class);
+    }
+
+    private static Object documentId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static Object managerId(Document document) {
+        Object manager = document.get(MANAGER_FIELD);
+        return manager instanceof DBRef ? ((DBRef) manager).getId() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> ancestors(Document document) {
+        List<Object> ancestors = document.get(ANCESTORS_FIELD, List.class);
+        return ancestors != null ? ancestors : Collections.emptyList();
+    }
+}
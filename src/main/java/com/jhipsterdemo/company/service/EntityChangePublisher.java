@@ -0,0 +1,152 @@
+package com.jhipsterdemo.company.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.config.KafkaProperties;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
+import com.jhipsterdemo.company.repository.search.SearchIndexOperation;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service publishing the changes of the entities to Kafka, one compacted topic per entity type.
+ * <p>
+ * The records are keyed by entity id and carry a {@code change-type} header. The value of a creation or an update
+ * is the current state of the entity as JSON, a deletion is a tombstone, so compaction eventually keeps the latest
+ * state of the existing entities only. The changes are published by the {@link OutboxRelayService}, at least once:
+ * consumers must expect a same state more than once.
+ */
+@Service
+public class EntityChangePublisher {
+
+    public static final String CHANGE_TYPE_HEADER = "change-type";
+
+    private final Logger log = LoggerFactory.getLogger(EntityChangePublisher.class);
+
+    private final KafkaSender<String, String> sender;
+
+    private final KafkaProperties kafkaProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.ChangeEvents properties;
+
+    private final Map<String, Mono<Void>> topics = new ConcurrentHashMap<>();
+
+    private AdminClient adminClient;
+
+    public EntityChangePublisher(KafkaSender<String, String> sender, KafkaProperties kafkaProperties, ObjectMapper objectMapper,
+                                 ApplicationProperties applicationProperties) {
+        this.sender = sender;
+        this.kafkaProperties = kafkaProperties;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getChangeEvents();
+    }
+
+    /**
+     * Publish the changes of entities, when {@code application.change-events.enabled} is set.
+     *
+     * @param changes the operations bringing the search index up to date with the entities, and the type of each change.
+     * @return a {@link Mono} completing once all the changes are acknowledged, or failing if any of them was not sent.
+     */
+    public Mono<Void> publish(Map<SearchIndexOperation, ChangeType> changes) {
+        if (!properties.isEnabled() || changes.isEmpty()) {
+            return Mono.empty();
+        }
+        Set<String> changedTopics = new LinkedHashSet<>();
+        for (SearchIndexOperation operation : changes.keySet()) {
+            changedTopics.add(getTopic(operation.getEntityClass()));
+        }
+        return Flux.fromIterable(changedTopics)
+            .flatMap(topic -> topics.computeIfAbsent(topic, this::createTopic))
+            .thenMany(sender.send(Flux.fromIterable(changes.entrySet())
+                .map(change -> toRecord(change.getKey(), change.getValue()))))
+            .flatMap(result -> result.exception() != null ? Mono.error(result.exception()) : Mono.empty())
+            .then();
+    }
+
+    /**
+     * Get the topic of an entity type: {@code Employee} changes are published to {@code <topic-prefix>employee},
+     * {@code JobHistory} changes to {@code <topic-prefix>job-history}.
+     *
+     * @param entityClass the type of the entity.
+     * @return the name of the topic.
+     */
+    public String getTopic(Class<?> entityClass) {
+        return properties.getTopicPrefix() + entityClass.getSimpleName().replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase();
+    }
+
+    private SenderRecord<String, String, String> toRecord(SearchIndexOperation operation, ChangeType changeType) {
+        String value = null;
+        if (changeType != ChangeType.DELETE) {
+            try {
+                value = objectMapper.writeValueAsString(operation.getEntity());
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not serialize " + operation, e);
+            }
+        }
+        ProducerRecord<String, String> record = new ProducerRecord<>(getTopic(operation.getEntityClass()), operation.getId(), value);
+        record.headers().add(new RecordHeader(CHANGE_TYPE_HEADER, changeType.name().getBytes(StandardCharsets.UTF_8)));
+        return SenderRecord.create(record, operation.getId());
+    }
+
+    /**
+     * Create a compacted topic, unless it exists.
+     *
+     * @param topic the name of the topic.
+     * @return a {@link Mono} completing once the topic exists.
+     */
+    protected Mono<Void> createTopic(String topic) {
+        NewTopic newTopic = new NewTopic(topic, properties.getPartitions(), properties.getReplicationFactor())
+            .configs(Collections.singletonMap(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+        return Mono.<Void>create(sink -> getAdminClient().createTopics(Collections.singleton(newTopic)).all()
+                .whenComplete((result, e) -> {
+                    if (e == null) {
+                        log.info("Created the compacted Kafka topic {}", topic);
+                        sink.success();
+                    } else if (e instanceof TopicExistsException) {
+                        sink.success();
+                    } else {
+                        sink.error(e);
+                    }
+                }))
+            .doOnError(e -> topics.remove(topic))
+            .cache();
+    }
+
+    private synchronized AdminClient getAdminClient() {
+        if (adminClient == null) {
+            Map<String, Object> producerProps = kafkaProperties.getProducerProps();
+            producerProps.keySet().retainAll(AdminClientConfig.configNames());
+            adminClient = AdminClient.create(producerProps);
+        }
+        return adminClient;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+}
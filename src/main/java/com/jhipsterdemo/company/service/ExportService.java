@@ -0,0 +1,173 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Accommodation;
+import com.jhipsterdemo.company.domain.Country;
+import com.jhipsterdemo.company.domain.Department;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.Job;
+import com.jhipsterdemo.company.domain.JobHistory;
+import com.jhipsterdemo.company.domain.Location;
+import com.jhipsterdemo.company.domain.Region;
+import com.jhipsterdemo.company.domain.Task;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service streaming whole entity collections, for the exports.
+ * <p>
+ * The collection is read in {@code _id} order with a cursor fetching {@code application.export.cursor-batch-size}
+ * documents per round-trip; the references of the entities are resolved {@code batch-size} entities at a time. The
+ * documents are only read as the subscriber requests them, so an export holds at most a few batches in memory
+ * whatever the size of the collection.
+ */
+@Service
+public class ExportService {
+
+    private static final List<String> RANGE_OPERATORS = Arrays.asList("gt", "gte", "lt", "lte");
+
+    private final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final BatchDbRefResolver batchDbRefResolver;
+
+    private final ApplicationProperties.Export properties;
+
+    private final Map<String, Class<?>> entityClasses = new LinkedHashMap<>();
+
+    public ExportService(ReactiveMongoOperations mongoOperations, BatchDbRefResolver batchDbRefResolver,
+                         ApplicationProperties applicationProperties) {
+        this.mongoOperations = mongoOperations;
+        this.batchDbRefResolver = batchDbRefResolver;
+        this.properties = applicationProperties.getExport();
+        for (Class<?> entityClass : Arrays.asList(Accommodation.class, Country.class, Department.class, Employee.class,
+            Job.class, JobHistory.class, Location.class, Region.class, Task.class)) {
+            entityClasses.put(entityClass.getSimpleName(), entityClass);
+        }
+    }
+
+    /**
+     * Get the entity types which can be exported.
+     *
+     * @return the simple names of the entity classes.
+     */
+    public Set<String> getEntityTypes() {
+        return entityClasses.keySet();
+    }
+
+    /**
+     * Stream the entities of a type matching filters, in {@code _id} order.
+     * <p>
+     * Each filter is a property of the entity, with its value: {@code lastName=Smith}, or {@code department=<id>}
+     * for a reference. A property suffixed with {@code .gt}, {@code .gte}, {@code .lt} or {@code .lte} is compared
+     * instead: {@code hireDate.gte=2020-01-01T00:00:00Z}. All the filters must match.
+     *
+     * @param entityType the simple name of the entity class, for example {@code Employee}.
+     * @param filters the filters, by property.
+     * @return the entities.
+     * @throws IllegalArgumentException if the entity type is unknown, or a filter is invalid.
+     */
+    public Flux<Object> export(String entityType, Map<String, String> filters) {
+        log.debug("Request to export the {} matching {}", entityType, filters);
+        Class<?> entityClass = entityClasses.get(entityType);
+        if (entityClass == null) {
+            throw new IllegalArgumentException("Unknown entity type " + entityType);
+        }
+        MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext().getRequiredPersistentEntity(entityClass);
+        Query query = query(entity, filters);
+        return mongoOperations.find(query, Document.class, entity.getCollection())
+            .buffer(properties.getBatchSize())
+            // One batch is resolved at a time, the next one is only read once the client consumed the previous one
+            .concatMap(documents -> batchDbRefResolver.read(documents, entityClass), 1)
+            .<Object>flatMapIterable(entities -> entities);
+    }
+
+    /**
+     * Build the query of an export, with the field names of the documents.
+     *
+     * @param entity the entity to export.
+     * @param filters the filters, by property.
+     * @return the query.
+     * @throws IllegalArgumentException if a filter is invalid.
+     */
+    Query query(MongoPersistentEntity<?> entity, Map<String, String> filters) {
+        Map<String, Criteria> criteriaByField = new LinkedHashMap<>();
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            String propertyName = filter.getKey();
+            String operator = "is";
+            int dot = propertyName.lastIndexOf('.');
+            if (dot > 0 && RANGE_OPERATORS.contains(propertyName.substring(dot + 1))) {
+                operator = propertyName.substring(dot + 1);
+                propertyName = propertyName.substring(0, dot);
+            }
+            MongoPersistentProperty property = entity.getPersistentProperty(propertyName);
+            if (property == null) {
+                throw new IllegalArgumentException("Unknown property " + propertyName + " of " + entity.getType().getSimpleName());
+            }
+            String fieldName = property.isAssociation() || property.isDbReference() ? property.getFieldName() + ".$id" : property.getFieldName();
+            Object value = convert(property, filter.getValue());
+            Criteria criteria = criteriaByField.computeIfAbsent(fieldName, Criteria::where);
+            switch (operator) {
+                case "gt":
+                    criteria.gt(value);
+                    break;
+                case "gte":
+                    criteria.gte(value);
+                    break;
+                case "lt":
+                    criteria.lt(value);
+                    break;
+                case "lte":
+                    criteria.lte(value);
+                    break;
+                default:
+                    criteria.is(value);
+            }
+        }
+        Query query = new Query()
+            .with(Sort.by("_id"))
+            .cursorBatchSize(properties.getCursorBatchSize());
+        criteriaByField.values().forEach(query::addCriteria);
+        return query;
+    }
+
+    private Object convert(MongoPersistentProperty property, String value) {
+        if (property.isIdProperty() || property.isAssociation() || property.isDbReference()) {
+            return ObjectId.isValid(value) ? new ObjectId(value) : value;
+        }
+        Class<?> type = property.getType();
+        try {
+            if (Instant.class.equals(type)) {
+                return Date.from(Instant.parse(value));
+            }
+            if (String.class.equals(type) || Number.class.isAssignableFrom(type) || type.isEnum()) {
+                Object converted = DefaultConversionService.getSharedInstance().convert(value, type);
+                return type.isEnum() ? ((Enum<?>) converted).name() : converted;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value " + value + " of " + property.getName(), e);
+        }
+        throw new IllegalArgumentException("The " + property.getName() + " property can't be filtered");
+    }
+}
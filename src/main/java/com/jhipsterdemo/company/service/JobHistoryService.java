@@ -1,11 +1,15 @@
 package com.jhipsterdemo.company.service;
 
 import com.jhipsterdemo.company.domain.JobHistory;
+import com.jhipsterdemo.company.repository.search.SearchPage;
+import com.jhipsterdemo.company.repository.search.SearchSlice;
 
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 
 /**
  * Service Interface for managing {@link JobHistory}.
@@ -29,16 +33,19 @@ public interface JobHistoryService {
     Flux<JobHistory> findAll(Pageable pageable);
 
     /**
-    * Returns the number of jobHistories available.
-    *
-    */
-    Mono<Long> countAll();
+     * Get the jobHistories following the "id" jobHistory, in the order of their ids.
+     *
+     * @param id the id of the last entity of the previous slice, as stored, or {@code null} for the first slice.
+     * @param pageable the pagination information, sorted by id.
+     * @return the list of entities.
+     */
+    Flux<JobHistory> findAllAfter(Object id, Pageable pageable);
 
     /**
-    * Returns the number of jobHistories available in search repository.
+    * Returns the number of jobHistories available.
     *
     */
-    Mono<Long> searchCount();
+    Mono<Long> countAll();
 
 
     /**
@@ -62,7 +69,17 @@ public interface JobHistoryService {
      * @param query the query of the search.
      * 
      * @param pageable the pagination information.
-     * @return the list of entities.
+     * @return the page of entities, with the total number of hits.
+     */
+    Mono<SearchPage<JobHistory>> search(String query, Pageable pageable);
+
+    /**
+     * Search for the jobHistory corresponding to the query, after the given sort values.
+     *
+     * @param query the query of the search.
+     * @param searchAfter the sort values of the last entity of the previous slice, empty for the first slice.
+     * @param size the number of entities of the slice.
+     * @return the slice of entities.
      */
-    Flux<JobHistory> search(String query, Pageable pageable);
+    Mono<SearchSlice<JobHistory>> searchAfter(String query, List<Object> searchAfter, int size);
 }
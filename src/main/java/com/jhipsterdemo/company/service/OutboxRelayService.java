@@ -0,0 +1,403 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.ReindexJob;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
+import com.jhipsterdemo.company.domain.enumeration.ReindexStatus;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
+import com.jhipsterdemo.company.repository.ReindexJobRepository;
+import com.jhipsterdemo.company.repository.search.BulkIndexResult;
+import com.jhipsterdemo.company.repository.search.BulkSearchIndexer;
+import com.jhipsterdemo.company.repository.search.SearchIndexOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Service relaying the entries of the outbox to Elasticsearch.
+ * <p>
+ * Entries are read in batches, oldest first, and grouped by entity: all the pending entries of an entity
+ * are handled by a single index operation reflecting the current state of the entity in MongoDB. This keeps
+ * the index consistent whatever the order in which the entries of a same entity are relayed, and makes
+ * relaying an entry more than once harmless. The operations of a batch are sent with the {@link BulkSearchIndexer},
+ * failed entries are retried with an exponential backoff.
+ * <p>
+ * Entries are recorded before the change of their entity reaches MongoDB, and only become due once that write is
+ * over, see {@link OutboxService}: the state read here includes it.
+ * <p>
+ * While the index of an entity is rebuilt by the {@link ReindexService}, its operations are also applied to the
+ * index being loaded.
+ * <p>
+ * The same operations are then published to Kafka by the {@link EntityChangePublisher}. Each entry remembers which
+ * of the two deliveries succeeded, and only the failed one is retried: a Kafka outage doesn't hold back indexing,
+ * nor does an Elasticsearch outage hold back publication.
+ */
+@Service
+public class OutboxRelayService {
+
+    private static final int LAST_ERROR_MAX_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelayService.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ReindexJobRepository reindexJobRepository;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final BulkSearchIndexer bulkSearchIndexer;
+
+    private final EntityChangePublisher entityChangePublisher;
+
+    private final MongoMappingContext mongoMappingContext;
+
+    private final ApplicationProperties.Outbox properties;
+
+    private final Map<String, Class<?>> entityClasses = new LinkedHashMap<>();
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private final Counter relayedCounter;
+
+    private final Counter failedCounter;
+
+    public OutboxRelayService(OutboxEventRepository outboxEventRepository, ReindexJobRepository reindexJobRepository,
+                              ReactiveMongoOperations mongoOperations, BulkSearchIndexer bulkSearchIndexer,
+                              EntityChangePublisher entityChangePublisher, MongoMappingContext mongoMappingContext, ApplicationProperties applicationProperties,
+                              MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.reindexJobRepository = reindexJobRepository;
+        this.mongoOperations = mongoOperations;
+        this.bulkSearchIndexer = bulkSearchIndexer;
+        this.entityChangePublisher = entityChangePublisher;
+        this.mongoMappingContext = mongoMappingContext;
+        this.properties = applicationProperties.getOutbox();
+        Gauge.builder("outbox.events.pending", pending, AtomicLong::get)
+            .description("Number of outbox events waiting to be relayed")
+            .register(meterRegistry);
+        Gauge.builder("outbox.events.lag", lagSeconds, AtomicLong::get)
+            .description("Age of the oldest outbox event waiting to be relayed")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.relayedCounter = Counter.builder("outbox.events.relayed")
+            .description("Number of outbox events relayed to Elasticsearch")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events.failed")
+            .description("Number of outbox events whose relay failed and will be retried")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Relay pending outbox events to Elasticsearch.
+     * <p>
+     * This is scheduled to get fired every second by default, see {@code application.outbox.poll-interval-ms}.
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval-ms:1000}")
+    public void relayPendingEvents() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        relayPendingEventsReactively().block();
+    }
+
+    /**
+     * Relay pending outbox events, batch after batch, until none is left to relay.
+     *
+     * @return the number of events relayed.
+     */
+    public Mono<Long> relayPendingEventsReactively() {
+        return relayBatch()
+            .expand(relayed -> relayed < properties.getBatchSize() ? Mono.empty() : relayBatch())
+            .reduce(0L, Long::sum)
+            .flatMap(total -> updateGauges().thenReturn(total));
+    }
+
+    /**
+     * Relay one batch of pending outbox events.
+     *
+     * @return the number of events read from the outbox, relayed or not.
+     */
+    public Mono<Integer> relayBatch() {
+        return outboxEventRepository
+            .findAllByNextAttemptDateLessThanEqualOrderByCreatedDateAsc(Instant.now(), PageRequest.of(0, properties.getBatchSize()))
+            .collectList()
+            // Running jobs are read after the events: a job started before an event was written is always seen
+            .flatMap(events -> reindexJobRepository.findAllByStatus(ReindexStatus.RUNNING)
+                .collectList()
+                .flatMap(reindexJobs -> relay(groupByEntity(events), reindexJobs))
+                .thenReturn(events.size()));
+    }
+
+    private Map<String, List<OutboxEvent>> groupByEntity(List<OutboxEvent> events) {
+        Map<String, List<OutboxEvent>> eventsByEntity = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            eventsByEntity.computeIfAbsent(key(event.getEntityType(), event.getEntityId()), key -> new ArrayList<>()).add(event);
+        }
+        return eventsByEntity;
+    }
+
+    private Mono<Void> relay(Map<String, List<OutboxEvent>> eventsByEntity, List<ReindexJob> reindexJobs) {
+        Map<String, Set<String>> idsByType = new LinkedHashMap<>();
+        for (List<OutboxEvent> events : eventsByEntity.values()) {
+            idsByType.computeIfAbsent(events.get(0).getEntityType(), type -> new LinkedHashSet<>()).add(events.get(0).getEntityId());
+        }
+        return Flux.fromIterable(idsByType.entrySet())
+            .flatMap(entry -> toOperations(entry.getKey(), entry.getValue())
+                .onErrorResume(e -> Flux.fromIterable(entry.getValue())
+                    .concatMap(id -> reschedule(eventsByEntity.get(key(entry.getKey(), id)), e.toString()))
+                    .thenMany(Flux.empty())), properties.getConcurrency())
+            .collectList()
+            .filter(operations -> !operations.isEmpty())
+            .flatMap(operations -> index(eventsByEntity, operations, reindexJobs)
+                .flatMap(indexErrors -> publish(eventsByEntity, operations)
+                    .flatMap(publishErrors -> complete(eventsByEntity, operations, indexErrors, publishErrors)))
+                .onErrorResume(e -> Flux.fromIterable(operations)
+                    .concatMap(operation -> reschedule(eventsByEntity.get(key(operation)), e.toString()))
+                    .then()));
+    }
+
+    /**
+     * Send the operations of the entities having events not indexed yet to Elasticsearch.
+     *
+     * @return the errors by entity.
+     */
+    private Mono<Map<String, String>> index(Map<String, List<OutboxEvent>> eventsByEntity, List<SearchIndexOperation> operations,
+                                            List<ReindexJob> reindexJobs) {
+        List<SearchIndexOperation> undelivered = undelivered(eventsByEntity, operations, OutboxEvent::isIndexed);
+        if (undelivered.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return recordDeletes(undelivered, reindexJobs)
+            .then(Mono.defer(() -> bulkSearchIndexer.bulk(withReindexTargets(undelivered, reindexJobs))))
+            .map(result -> {
+                Map<String, String> errors = new HashMap<>();
+                for (BulkIndexResult.Failure failure : result.getFailures()) {
+                    errors.put(key(failure.getOperation()), failure.getStatus() + " " + failure.getMessage());
+                }
+                return errors;
+            })
+            .onErrorResume(e -> Mono.just(errors(undelivered, e)));
+    }
+
+    /**
+     * Publish the changes of the entities having events not published yet to Kafka.
+     *
+     * @return the errors by entity.
+     */
+    private Mono<Map<String, String>> publish(Map<String, List<OutboxEvent>> eventsByEntity, List<SearchIndexOperation> operations) {
+        List<SearchIndexOperation> undelivered = undelivered(eventsByEntity, operations, OutboxEvent::isPublished);
+        if (undelivered.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return entityChangePublisher.publish(toChanges(eventsByEntity, undelivered))
+            .thenReturn(Collections.<String, String>emptyMap())
+            .onErrorResume(e -> Mono.just(errors(undelivered, e)));
+    }
+
+    /**
+     * Delete the events of the entities both indexed and published, and reschedule the others, remembering which of
+     * the deliveries succeeded so that only the failed one is retried.
+     */
+    private Mono<Void> complete(Map<String, List<OutboxEvent>> eventsByEntity, List<SearchIndexOperation> operations,
+                                Map<String, String> indexErrors, Map<String, String> publishErrors) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        List<OutboxEvent> relayed = new ArrayList<>();
+        for (SearchIndexOperation operation : operations) {
+            String key = key(operation);
+            List<OutboxEvent> events = eventsByEntity.get(key);
+            for (OutboxEvent event : events) {
+                event.setIndexed(event.isIndexed() || !indexErrors.containsKey(key));
+                event.setPublished(event.isPublished() || !publishErrors.containsKey(key));
+            }
+            String error = indexErrors.containsKey(key) ? indexErrors.get(key) : publishErrors.get(key);
+            if (error == null) {
+                relayed.addAll(events);
+            } else {
+                errors.put(key, error);
+            }
+        }
+        return outboxEventRepository.deleteAll(relayed)
+            .doOnSuccess(done -> relayedCounter.increment(relayed.size()))
+            .thenMany(Flux.fromIterable(errors.entrySet()))
+            .concatMap(error -> reschedule(eventsByEntity.get(error.getKey()), error.getValue()))
+            .then();
+    }
+
+    private List<SearchIndexOperation> undelivered(Map<String, List<OutboxEvent>> eventsByEntity, List<SearchIndexOperation> operations,
+                                                   Predicate<OutboxEvent> delivered) {
+        List<SearchIndexOperation> undelivered = new ArrayList<>();
+        for (SearchIndexOperation operation : operations) {
+            if (!eventsByEntity.get(key(operation)).stream().allMatch(delivered)) {
+                undelivered.add(operation);
+            }
+        }
+        return undelivered;
+    }
+
+    private Map<String, String> errors(List<SearchIndexOperation> operations, Throwable e) {
+        Map<String, String> errors = new HashMap<>();
+        for (SearchIndexOperation operation : operations) {
+            errors.put(key(operation), e.toString());
+        }
+        return errors;
+    }
+
+    /**
+     * Get the type of the change made by each operation: an entity missing from MongoDB is deleted, an entity whose
+     * first pending entry is its creation is created, even if it was updated since, any other entity is updated.
+     */
+    private Map<SearchIndexOperation, ChangeType> toChanges(Map<String, List<OutboxEvent>> eventsByEntity,
+                                                           List<SearchIndexOperation> operations) {
+        Map<SearchIndexOperation, ChangeType> changes = new LinkedHashMap<>();
+        for (SearchIndexOperation operation : operations) {
+            ChangeType changeType = ChangeType.UPDATE;
+            if (operation.getType() == SearchIndexOperation.Type.DELETE) {
+                changeType = ChangeType.DELETE;
+            } else if (eventsByEntity.get(key(operation)).get(0).getChangeType() == ChangeType.CREATE) {
+                changeType = ChangeType.CREATE;
+            }
+            changes.put(operation, changeType);
+        }
+        return changes;
+    }
+
+    /**
+     * Add a copy of the operations for the indices being rebuilt.
+     */
+    private List<SearchIndexOperation> withReindexTargets(List<SearchIndexOperation> operations, List<ReindexJob> reindexJobs) {
+        if (reindexJobs.isEmpty()) {
+            return operations;
+        }
+        List<SearchIndexOperation> allOperations = new ArrayList<>(operations);
+        for (ReindexJob reindexJob : reindexJobs) {
+            for (SearchIndexOperation operation : operations) {
+                if (operation.getEntityClass().getSimpleName().equals(reindexJob.getEntityType())) {
+                    allOperations.add(operation.withIndexName(reindexJob.getTargetIndex()));
+                }
+            }
+        }
+        return allOperations;
+    }
+
+    /**
+     * Record the entities deleted from the indices being rebuilt before deleting them, so that the reindex jobs delete
+     * them again once their load is over: the load may create them after they are deleted, when it read them before.
+     */
+    private Mono<Void> recordDeletes(List<SearchIndexOperation> operations, List<ReindexJob> reindexJobs) {
+        return Flux.fromIterable(reindexJobs)
+            .concatMap(reindexJob -> {
+                List<String> ids = new ArrayList<>();
+                for (SearchIndexOperation operation : operations) {
+                    if (operation.getType() == SearchIndexOperation.Type.DELETE &&
+                        operation.getEntityClass().getSimpleName().equals(reindexJob.getEntityType())) {
+                        ids.add(operation.getId());
+                    }
+                }
+                if (ids.isEmpty()) {
+                    return Mono.empty();
+                }
+                return mongoOperations.updateFirst(Query.query(Criteria.where("id").is(reindexJob.getId())),
+                    new Update().addToSet("deletedIds").each(ids.toArray()), ReindexJob.class);
+            })
+            .then();
+    }
+
+    /**
+     * Build the operations bringing the index up to date with the current state of the given entities,
+     * which is read with a single query.
+     */
+    private Flux<SearchIndexOperation> toOperations(String entityType, Set<String> ids) {
+        return Mono.fromCallable(() -> getEntityClass(entityType))
+            .flatMapMany(entityClass -> {
+                MongoPersistentEntity<?> persistentEntity = mongoMappingContext.getRequiredPersistentEntity(entityClass);
+                Set<String> missing = new LinkedHashSet<>(ids);
+                return mongoOperations.find(Query.query(Criteria.where("id").in(ids)), entityClass)
+                    .map(entity -> {
+                        String id = String.valueOf(persistentEntity.getIdentifierAccessor(entity).getRequiredIdentifier());
+                        missing.remove(id);
+                        return SearchIndexOperation.index(entity, id);
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(missing)
+                        .map(id -> SearchIndexOperation.delete(entityClass, id))));
+            });
+    }
+
+    private String key(String entityType, String entityId) {
+        return entityType + ':' + entityId;
+    }
+
+    private String key(SearchIndexOperation operation) {
+        return key(operation.getEntityClass().getSimpleName(), operation.getId());
+    }
+
+    private Mono<Void> reschedule(List<OutboxEvent> events, String error) {
+        log.warn("Could not relay the outbox events of {} {}: {}", events.get(0).getEntityType(), events.get(0).getEntityId(), error);
+        failedCounter.increment(events.size());
+        String lastError = error.length() > LAST_ERROR_MAX_LENGTH ? error.substring(0, LAST_ERROR_MAX_LENGTH) : error;
+        for (OutboxEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptDate(Instant.now().plus(backoff(event.getAttempts())));
+            event.setLastError(lastError);
+        }
+        return outboxEventRepository.saveAll(events).then();
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = properties.getInitialBackoffMs() << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(delay <= 0 ? properties.getMaxBackoffMs() : Math.min(delay, properties.getMaxBackoffMs()));
+    }
+
+    private Mono<Void> updateGauges() {
+        return outboxEventRepository.count()
+            .doOnNext(pending::set)
+            .then(outboxEventRepository.findFirstByOrderByCreatedDateAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedDate(), Instant.now()).getSeconds())
+                .defaultIfEmpty(0L))
+            .doOnNext(lagSeconds::set)
+            .then();
+    }
+
+    private Class<?> getEntityClass(String entityType) {
+        synchronized (entityClasses) {
+            if (entityClasses.isEmpty()) {
+                for (MongoPersistentEntity<?> persistentEntity : mongoMappingContext.getPersistentEntities()) {
+                    entityClasses.put(persistentEntity.getType().getSimpleName(), persistentEntity.getType());
+                }
+            }
+            Class<?> entityClass = entityClasses.get(entityType);
+            if (entityClass == null) {
+                throw new IllegalStateException("Unknown entity type " + entityType);
+            }
+            return entityClass;
+        }
+    }
+}
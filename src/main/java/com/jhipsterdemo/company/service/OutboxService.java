@@ -0,0 +1,150 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mapping.IdentifierAccessor;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Service recording entity changes in the outbox.
+ * <p>
+ * The outbox entry is written <em>before</em> the entity itself, so a write can never reach MongoDB
+ * without its matching entry. The {@link OutboxRelayService} indexes the current state of the entity
+ * when it relays an entry, which makes an entry left behind by a failed write harmless. For that state
+ * to include the write, an entry only becomes due once its write is over, whether it succeeded or not.
+ * The entry of a write which never ends, because its instance stopped meanwhile, becomes due anyway
+ * {@code application.outbox.recovery-delay-ms} after it was recorded.
+ */
+@Service
+public class OutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final MongoMappingContext mongoMappingContext;
+
+    private final Duration recoveryDelay;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ReactiveMongoOperations mongoOperations,
+                         MongoMappingContext mongoMappingContext, ApplicationProperties applicationProperties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.mongoOperations = mongoOperations;
+        this.mongoMappingContext = mongoMappingContext;
+        this.recoveryDelay = Duration.ofMillis(applicationProperties.getOutbox().getRecoveryDelayMs());
+    }
+
+    /**
+     * Save an entity, recording its creation or its update.
+     * <p>
+     * A new entity gets its identifier assigned here, as the outbox entry must reference it.
+     *
+     * @param entity the entity to save.
+     * @param save the save of the entity.
+     * @param <T> the type of the entity.
+     * @return the result of the save.
+     */
+    public <T> Mono<T> save(T entity, Function<T, Mono<T>> save) {
+        MongoPersistentEntity<?> persistentEntity = mongoMappingContext.getRequiredPersistentEntity(entity.getClass());
+        IdentifierAccessor identifierAccessor = persistentEntity.getIdentifierAccessor(entity);
+        ChangeType changeType = ChangeType.UPDATE;
+        if (identifierAccessor.getIdentifier() == null) {
+            changeType = ChangeType.CREATE;
+            persistentEntity.getPropertyAccessor(entity)
+                .setProperty(persistentEntity.getRequiredIdProperty(), new ObjectId().toString());
+        }
+        String id = String.valueOf(identifierAccessor.getRequiredIdentifier());
+        return record(entity.getClass(), id, changeType)
+            .flatMap(outboxEvent -> readyAfter(Mono.defer(() -> save.apply(entity)), Collections.singletonList(outboxEvent)));
+    }
+
+    /**
+     * Insert new entities, recording their creation with a single insert.
+     *
+     * @param entityClass the type of the entities.
+     * @param ids the ids of the entities.
+     * @param insert the insert of the entities.
+     * @return the result of the insert.
+     */
+    public Mono<Void> insertAll(Class<?> entityClass, Collection<String> ids, Mono<Void> insert) {
+        List<OutboxEvent> outboxEvents = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            outboxEvents.add(outboxEvent(entityClass, id, ChangeType.CREATE));
+        }
+        log.debug("Recording {} outbox events for new {} entities", outboxEvents.size(), entityClass.getSimpleName());
+        return outboxEventRepository.insert(outboxEvents)
+            .collectList()
+            .flatMap(recorded -> readyAfter(insert, recorded));
+    }
+
+    /**
+     * Delete an entity, recording its deletion.
+     *
+     * @param entityClass the type of the entity.
+     * @param id the id of the entity.
+     * @param delete the deletion of the entity.
+     * @return the result of the deletion.
+     */
+    public Mono<Void> delete(Class<?> entityClass, String id, Mono<Void> delete) {
+        return record(entityClass, id, ChangeType.DELETE)
+            .flatMap(outboxEvent -> readyAfter(delete, Collections.singletonList(outboxEvent)));
+    }
+
+    private Mono<OutboxEvent> record(Class<?> entityClass, String id, ChangeType changeType) {
+        OutboxEvent outboxEvent = outboxEvent(entityClass, id, changeType);
+        log.debug("Recording outbox event : {}", outboxEvent);
+        return outboxEventRepository.save(outboxEvent);
+    }
+
+    /**
+     * Make the entries of a write due once it is over, whatever its outcome.
+     */
+    private <T> Mono<T> readyAfter(Mono<T> write, List<OutboxEvent> outboxEvents) {
+        List<String> ids = new ArrayList<>(outboxEvents.size());
+        for (OutboxEvent outboxEvent : outboxEvents) {
+            ids.add(outboxEvent.getId());
+        }
+        // An entry already relayed, since its recovery delay passed, is not recorded again
+        Mono<Void> ready = Mono.defer(() -> mongoOperations.updateMulti(Query.query(Criteria.where("id").in(ids)),
+            Update.update("nextAttemptDate", Instant.now()), OutboxEvent.class))
+            .then()
+            .onErrorResume(e -> {
+                log.warn("Could not make {} outbox events due, they will be after the recovery delay: {}", ids.size(), e.toString());
+                return Mono.empty();
+            });
+        return write.materialize()
+            .flatMap(signal -> ready.thenReturn(signal))
+            .dematerialize();
+    }
+
+    private OutboxEvent outboxEvent(Class<?> entityClass, String id, ChangeType changeType) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEntityType(entityClass.getSimpleName());
+        outboxEvent.setEntityId(id);
+        outboxEvent.setChangeType(changeType);
+        outboxEvent.setNextAttemptDate(outboxEvent.getCreatedDate().plus(recoveryDelay));
+        return outboxEvent;
+    }
+}
@@ -0,0 +1,216 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.repository.PersistenceAuditEventRepository;
+import com.jhipsterdemo.company.repository.UserRepository;
+import com.jhipsterdemo.company.service.dto.QueryPlanDTO;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.query.ConvertingParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoParametersParameterAccessor;
+import org.springframework.data.mongodb.repository.query.ReactiveMongoQueryMethod;
+import org.springframework.data.mongodb.repository.query.ReactivePartTreeMongoQuery;
+import org.springframework.data.mongodb.repository.query.ReactiveStringBasedMongoQuery;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.query.Parameter;
+import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service explaining the queries of the {@link UserRepository} and the
+ * {@link com.jhipsterdemo.company.repository.PersistenceAuditEventRepository}, to report those MongoDB runs as a
+ * collection scan, for lack of an index.
+ * <p>
+ * The filter of each query is built by Spring Data from its repository method, as when the method is called, so it
+ * can't drift from the query actually run. It is explained with placeholder values, with the {@code queryPlanner}
+ * verbosity: the plan is chosen but the query is not run.
+ */
+@Service
+public class QueryPlanService {
+
+    private static final String PLACEHOLDER = "?";
+
+    private final Logger log = LoggerFactory.getLogger(QueryPlanService.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final List<RepositoryQuery> queries = new ArrayList<>();
+
+    public QueryPlanService(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+        addQueries(UserRepository.class, "findOneByActivationKey",
+            "findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore", "findOneByResetKey",
+            "findOneByEmailIgnoreCase", "findOneByLogin");
+        addQueries(PersistenceAuditEventRepository.class, "findByPrincipal", "findAllByAuditEventDateBetween",
+            "deleteByAuditEventDateBefore");
+    }
+
+    private void addQueries(Class<?> repositoryInterface, String... methodNames) {
+        MongoConverter converter = mongoOperations.getConverter();
+        QueryMapper queryMapper = new QueryMapper(converter);
+        for (String methodName : methodNames) {
+            ReactiveMongoQueryMethod queryMethod = new ReactiveMongoQueryMethod(getMethod(repositoryInterface, methodName),
+                new DefaultRepositoryMetadata(repositoryInterface), new SpelAwareProxyProjectionFactory(), converter.getMappingContext());
+            Query query = createQuery(queryMethod, new ConvertingParameterAccessor(converter,
+                new MongoParametersParameterAccessor(queryMethod, placeholders(queryMethod))));
+            Class<?> entityClass = queryMethod.getEntityInformation().getJavaType();
+            Document filter = queryMapper.getMappedObject(query.getQueryObject(), converter.getMappingContext().getPersistentEntity(entityClass));
+            Document collation = queryMethod.hasAnnotatedCollation() ? Document.parse(queryMethod.getAnnotatedCollation()) : null;
+            queries.add(new RepositoryQuery(repositoryInterface.getSimpleName() + "." + methodName, entityClass, filter, collation));
+        }
+    }
+
+    private Query createQuery(ReactiveMongoQueryMethod queryMethod, ConvertingParameterAccessor accessor) {
+        if (queryMethod.hasAnnotatedQuery()) {
+            return new StringBasedQuery(queryMethod, mongoOperations).createQuery(accessor);
+        }
+        return new PartTreeQuery(queryMethod, mongoOperations).createQuery(accessor);
+    }
+
+    private static Method getMethod(Class<?> repositoryInterface, String methodName) {
+        for (Method method : repositoryInterface.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return method;
+            }
+        }
+        throw new IllegalStateException(repositoryInterface.getSimpleName() + " has no " + methodName + " method");
+    }
+
+    /**
+     * Get a placeholder value for each parameter of a query method: the dates are the current one.
+     */
+    private static Object[] placeholders(ReactiveMongoQueryMethod queryMethod) {
+        Instant now = Instant.now();
+        List<Object> placeholders = new ArrayList<>();
+        for (Parameter parameter : queryMethod.getParameters()) {
+            if (Pageable.class.isAssignableFrom(parameter.getType())) {
+                placeholders.add(Pageable.unpaged());
+            } else if (Instant.class.equals(parameter.getType())) {
+                placeholders.add(now);
+            } else {
+                placeholders.add(PLACEHOLDER);
+            }
+        }
+        return placeholders.toArray();
+    }
+
+    /**
+     * Explain the repository queries.
+     *
+     * @return the plan of each query, in declaration order.
+     */
+    public Flux<QueryPlanDTO> explainRepositoryQueries() {
+        log.debug("Request to explain the repository queries");
+        return Flux.fromIterable(queries)
+            .concatMap(query -> mongoOperations.executeCommand(query.explainCommand(mongoOperations.getCollectionName(query.entityClass)))
+                .map(explanation -> queryPlan(query, explanation)));
+    }
+
+    private QueryPlanDTO queryPlan(RepositoryQuery query, Document explanation) {
+        Document queryPlanner = explanation.get("queryPlanner", Document.class);
+        QueryPlanDTO queryPlan = new QueryPlanDTO();
+        queryPlan.setCollection(queryPlanner.getString("namespace"));
+        queryPlan.setQuery(query.name);
+        List<String> stages = new ArrayList<>();
+        Document stage = queryPlanner.get("winningPlan", Document.class);
+        while (stage != null) {
+            stages.add(stage.getString("stage"));
+            if (queryPlan.getIndex() == null) {
+                queryPlan.setIndex(stage.getString("indexName"));
+            }
+            if ("COLLSCAN".equals(stage.getString("stage"))) {
+                queryPlan.setCollectionScan(true);
+            }
+            stage = inputStage(stage);
+        }
+        queryPlan.setPlan(String.join(" > ", stages));
+        if (queryPlan.isCollectionScan()) {
+            log.warn("{} scans the {} collection", query.name, queryPlan.getCollection());
+        }
+        return queryPlan;
+    }
+
+    /**
+     * Get the input of a stage, the first one of a stage merging several plans.
+     */
+    private static Document inputStage(Document stage) {
+        Document inputStage = stage.get("inputStage", Document.class);
+        if (inputStage != null) {
+            return inputStage;
+        }
+        List<?> inputStages = stage.get("inputStages", List.class);
+        return inputStages != null && !inputStages.isEmpty() ? (Document) inputStages.get(0) : null;
+    }
+
+    /**
+     * A derived query, giving access to the query it builds.
+     */
+    private static final class PartTreeQuery extends ReactivePartTreeMongoQuery {
+
+        private PartTreeQuery(ReactiveMongoQueryMethod method, ReactiveMongoOperations mongoOperations) {
+            super(method, mongoOperations, new SpelExpressionParser(), QueryMethodEvaluationContextProvider.DEFAULT);
+        }
+
+        @Override
+        protected Query createQuery(ConvertingParameterAccessor accessor) {
+            return super.createQuery(accessor);
+        }
+    }
+
+    /**
+     * A query declared with {@link org.springframework.data.mongodb.repository.Query}, giving access to the query it builds.
+     */
+    private static final class StringBasedQuery extends ReactiveStringBasedMongoQuery {
+
+        private StringBasedQuery(ReactiveMongoQueryMethod method, ReactiveMongoOperations mongoOperations) {
+            super(method, mongoOperations, new SpelExpressionParser(), QueryMethodEvaluationContextProvider.DEFAULT);
+        }
+
+        @Override
+        protected Query createQuery(ConvertingParameterAccessor accessor) {
+            return super.createQuery(accessor);
+        }
+    }
+
+    /**
+     * The filter of a repository query, on the fields of the documents.
+     */
+    private static final class RepositoryQuery {
+
+        private final String name;
+
+        private final Class<?> entityClass;
+
+        private final Document filter;
+
+        private final Document collation;
+
+        private RepositoryQuery(String name, Class<?> entityClass, Document filter, Document collation) {
+            this.name = name;
+            this.entityClass = entityClass;
+            this.filter = filter;
+            this.collation = collation;
+        }
+
+        private Document explainCommand(String collectionName) {
+            Document find = new Document("find", collectionName).append("filter", filter);
+            if (collation != null) {
+                find.append("collation", collation);
+            }
+            return new Document("explain", find).append("verbosity", "queryPlanner");
+        }
+    }
+}
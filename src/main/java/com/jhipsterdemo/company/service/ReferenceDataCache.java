@@ -0,0 +1,194 @@
+package com.jhipsterdemo.company.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.config.KafkaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Near-cache of the reference data: regions, countries, locations and accommodations.
+ * <p>
+ * Each collection is read from MongoDB as a whole, then served from memory until a reference entity is saved or
+ * deleted. As these entities reference each other, any write invalidates all the collections. The cached entities are
+ * shared by all the callers and must not be modified.
+ * <p>
+ * The other nodes are notified of the writes through {@code application.reference-data-cache.invalidation-topic} when it
+ * is set, otherwise they see them once their cache expires, after {@code time-to-live-ms}.
+ */
+@Service
+public class ReferenceDataCache {
+
+    private final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final KafkaSender<String, String> sender;
+
+    private final KafkaProperties kafkaProperties;
+
+    private final ApplicationProperties.ReferenceDataCache properties;
+
+    private final Cache<Class<?>, Mono<Map<String, Object>>> cache;
+
+    private Disposable invalidations;
+
+    public ReferenceDataCache(KafkaSender<String, String> sender, KafkaProperties kafkaProperties,
+                              ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.sender = sender;
+        this.kafkaProperties = kafkaProperties;
+        this.properties = applicationProperties.getReferenceDataCache();
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(properties.getTimeToLiveMs()))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "referenceData");
+    }
+
+    /**
+     * Get a collection of reference data, cached as a whole.
+     *
+     * @param type the type of the entities.
+     * @param idFunction the function returning the id of an entity.
+     * @param loader the function reading all the entities from the database.
+     * @param <T> the type of the entities.
+     * @return the collection.
+     */
+    public <T> CachedCollection<T> collection(Class<T> type, Function<T, String> idFunction, Supplier<Flux<T>> loader) {
+        return new CachedCollection<>(type, idFunction, loader);
+    }
+
+    /**
+     * Invalidate all the collections, on this node and on the others, once subscribed to: it may be chained after the
+     * write making the collections stale.
+     *
+     * @return a {@link Mono} completing once the other nodes are notified; a failed notification is only logged.
+     */
+    public Mono<Void> invalidateAll() {
+        return Mono.defer(() -> {
+            invalidateLocally();
+            if (properties.getInvalidationTopic() == null) {
+                return Mono.empty();
+            }
+            return sender.send(Mono.just(SenderRecord.create(properties.getInvalidationTopic(), null, null, nodeId, nodeId, null)))
+                .flatMap(result -> result.exception() != null ? Mono.error(result.exception()) : Mono.empty())
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Could not notify the other nodes of a reference data change: {}", e.toString());
+                    return Mono.empty();
+                });
+        });
+    }
+
+    private void invalidateLocally() {
+        log.debug("Invalidating the reference data cache");
+        cache.invalidateAll();
+    }
+
+    /**
+     * Listen to the invalidations of the other nodes, with a consumer group of its own so that every node gets them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void listenToInvalidations() {
+        if (properties.getInvalidationTopic() == null) {
+            return;
+        }
+        Map<String, Object> consumerProps = kafkaProperties.getConsumerProps();
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, "reference-data-cache-" + nodeId);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        consumerProps.remove(ConsumerConfig.CLIENT_ID_CONFIG);
+        ReceiverOptions<String, String> receiverOptions = ReceiverOptions.<String, String>create(consumerProps)
+            .subscription(Collections.singleton(properties.getInvalidationTopic()));
+        invalidations = KafkaReceiver.create(receiverOptions)
+            .receiveAutoAck()
+            .concatMap(Function.identity())
+            .filter(record -> !nodeId.equals(record.key()))
+            .doOnError(e -> log.warn("Could not receive the reference data invalidations: {}", e.toString()))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)))
+            .subscribe(record -> invalidateLocally());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (invalidations != null) {
+            invalidations.dispose();
+        }
+    }
+
+    /**
+     * A collection of reference data.
+     *
+     * @param <T> the type of the entities.
+     */
+    public final class CachedCollection<T> {
+
+        private final Class<T> type;
+
+        private final Function<T, String> idFunction;
+
+        private final Supplier<Flux<T>> loader;
+
+        private CachedCollection(Class<T> type, Function<T, String> idFunction, Supplier<Flux<T>> loader) {
+            this.type = type;
+            this.idFunction = idFunction;
+            this.loader = loader;
+        }
+
+        /**
+         * Get all the entities, in the order of the database.
+         *
+         * @return the entities.
+         */
+        public Flux<T> findAll() {
+            return load().flatMapIterable(Map::values).map(type::cast);
+        }
+
+        /**
+         * Get an entity.
+         *
+         * @param id the id of the entity.
+         * @return the entity, or an empty {@link Mono} if it does not exist.
+         */
+        public Mono<T> findOne(String id) {
+            return load().flatMap(entities -> Mono.justOrEmpty(entities.get(id))).map(type::cast);
+        }
+
+        private Mono<Map<String, Object>> load() {
+            if (!properties.isEnabled()) {
+                return read();
+            }
+            // The pending read is cached, so concurrent misses share it; a failed read is not kept
+            Mono<Map<String, Object>> entities = cache.get(type, key -> read().cache());
+            return entities.doOnError(e -> cache.asMap().remove(type, entities));
+        }
+
+        private Mono<Map<String, Object>> read() {
+            return Flux.defer(loader)
+                .collect(LinkedHashMap::new, (entities, entity) -> entities.put(idFunction.apply(entity), entity));
+        }
+    }
+}
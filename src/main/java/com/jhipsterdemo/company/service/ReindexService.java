@@ -0,0 +1,405 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Accommodation;
+import com.jhipsterdemo.company.domain.Country;
+import com.jhipsterdemo.company.domain.Department;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.Job;
+import com.jhipsterdemo.company.domain.JobHistory;
+import com.jhipsterdemo.company.domain.Location;
+import com.jhipsterdemo.company.domain.Region;
+import com.jhipsterdemo.company.domain.ReindexJob;
+import com.jhipsterdemo.company.domain.Task;
+import com.jhipsterdemo.company.domain.enumeration.ReindexStatus;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
+import com.jhipsterdemo.company.repository.ReindexJobRepository;
+import com.jhipsterdemo.company.repository.search.BulkIndexResult;
+import com.jhipsterdemo.company.repository.search.BulkSearchIndexer;
+import com.jhipsterdemo.company.repository.search.SearchIndexManager;
+import com.jhipsterdemo.company.repository.search.SearchIndexOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service rebuilding the Elasticsearch index of an entity from its MongoDB collection.
+ * <p>
+ * The collection is streamed in {@code _id} order into a new index, tuned for bulk loading, while the outbox relay
+ * keeps writing the changes made in the meantime to both indices. Documents are converted in parallel on the
+ * bounded elastic scheduler and loaded with {@code create} operations, so that a document written by the relay is
+ * never overwritten by an older version. A document deleted by the relay may still be created by the load when it
+ * was read before, so the relay records the deletes in the job and they are applied again once the load is over.
+ * Then the alias used by the application is atomically moved to the new index.
+ * <p>
+ * A single job runs for each entity type: it is claimed with a conditional update and a unique index on the running
+ * jobs. Progress is saved after each batch: a job interrupted by a crash is resumed after the last loaded document,
+ * either when started again or by {@link #resumeStaleJobs()}.
+ */
+@Service
+public class ReindexService {
+
+    private static final int LAST_ERROR_MAX_LENGTH = 255;
+
+    private static final DateTimeFormatter INDEX_SUFFIX_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+        .withZone(ZoneOffset.UTC);
+
+    private final Logger log = LoggerFactory.getLogger(ReindexService.class);
+
+    private final ReindexJobRepository reindexJobRepository;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final ReactiveElasticsearchOperations elasticsearchOperations;
+
+    private final SearchIndexManager searchIndexManager;
+
+    private final BulkSearchIndexer bulkSearchIndexer;
+
+    private final BatchDbRefResolver batchDbRefResolver;
+
+    private final ApplicationProperties.SearchIndex properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Class<?>> entityClasses = new LinkedHashMap<>();
+
+    private final Set<String> runningJobIds = ConcurrentHashMap.newKeySet();
+
+    public ReindexService(ReindexJobRepository reindexJobRepository, ReactiveMongoOperations mongoOperations,
+                          ReactiveElasticsearchOperations elasticsearchOperations, SearchIndexManager searchIndexManager,
+                          BulkSearchIndexer bulkSearchIndexer, BatchDbRefResolver batchDbRefResolver,
+                          ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.reindexJobRepository = reindexJobRepository;
+        this.mongoOperations = mongoOperations;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.searchIndexManager = searchIndexManager;
+        this.bulkSearchIndexer = bulkSearchIndexer;
+        this.batchDbRefResolver = batchDbRefResolver;
+        this.properties = applicationProperties.getSearchIndex();
+        this.meterRegistry = meterRegistry;
+        // Users are indexed by UserService along with their MongoDB document, not through the outbox
+        for (Class<?> entityClass : Arrays.asList(Accommodation.class, Country.class, Department.class, Employee.class,
+            Job.class, JobHistory.class, Location.class, Region.class, Task.class)) {
+            entityClasses.put(entityClass.getSimpleName(), entityClass);
+        }
+    }
+
+    /**
+     * Get the entity types whose index can be rebuilt.
+     *
+     * @return the simple names of the entity classes.
+     */
+    public Set<String> getEntityTypes() {
+        return entityClasses.keySet();
+    }
+
+    /**
+     * Start rebuilding the index of an entity, in the background.
+     * <p>
+     * The last job of the entity is resumed if it failed or was interrupted.
+     *
+     * @param entityType the simple name of the entity class.
+     * @return the job.
+     * @throws IllegalArgumentException if the index of the entity can't be rebuilt, or is already being rebuilt.
+     */
+    public Mono<ReindexJob> start(String entityType) {
+        log.debug("Request to rebuild the index of {}", entityType);
+        Class<?> entityClass = entityClasses.get(entityType);
+        if (entityClass == null) {
+            return Mono.error(new IllegalArgumentException("Unknown entity type " + entityType));
+        }
+        return reindexJobRepository.findFirstByEntityTypeOrderByStartDateDesc(entityType)
+            .filter(job -> job.getStatus() != ReindexStatus.COMPLETED)
+            .flatMap(job -> {
+                if (job.getStatus() == ReindexStatus.RUNNING && !isStale(job)) {
+                    return Mono.error(alreadyRunning(entityType));
+                }
+                return searchIndexManager.exists(job.getTargetIndex())
+                    .flatMap(exists -> exists ?
+                        resume(job, entityClass).switchIfEmpty(Mono.error(() -> alreadyRunning(entityType))) :
+                        abandon(job).then(Mono.<ReindexJob>empty()));
+            })
+            .switchIfEmpty(Mono.defer(() -> create(entityType, entityClass)));
+    }
+
+    /**
+     * Get the reindex jobs.
+     *
+     * @param pageable the pagination information.
+     * @return the list of jobs.
+     */
+    public Flux<ReindexJob> findAll(Pageable pageable) {
+        return reindexJobRepository.findAllBy(pageable);
+    }
+
+    /**
+     * Count the reindex jobs.
+     *
+     * @return the number of jobs.
+     */
+    public Mono<Long> count() {
+        return reindexJobRepository.count();
+    }
+
+    /**
+     * Get a reindex job.
+     *
+     * @param id the id of the job.
+     * @return the job.
+     */
+    public Mono<ReindexJob> findOne(String id) {
+        return reindexJobRepository.findById(id);
+    }
+
+    /**
+     * Resume the jobs left running by an instance which stopped.
+     * <p>
+     * This is scheduled to get fired every 5 minutes by default, see {@code application.search-index.reindex.stale-after-ms}.
+     */
+    @Scheduled(fixedDelayString = "${application.search-index.reindex.stale-after-ms:300000}",
+        initialDelayString = "${application.search-index.reindex.stale-after-ms:300000}")
+    public void resumeStaleJobs() {
+        resumeStaleJobsReactively().block();
+    }
+
+    /**
+     * Resume the jobs left running by an instance which stopped.
+     *
+     * @return a {@link Mono} completing once the jobs are resumed, not once they are done.
+     */
+    public Mono<Void> resumeStaleJobsReactively() {
+        return reindexJobRepository.findAllByStatus(ReindexStatus.RUNNING)
+            .filter(this::isStale)
+            .doOnNext(job -> log.info("Resuming the stale reindex job {} of {}", job.getId(), job.getEntityType()))
+            .concatMap(job -> resume(job, entityClasses.get(job.getEntityType())))
+            .then();
+    }
+
+    private boolean isStale(ReindexJob job) {
+        return !runningJobIds.contains(job.getId()) && (job.getHeartbeatDate() == null ||
+            job.getHeartbeatDate().isBefore(Instant.now().minusMillis(properties.getReindex().getStaleAfterMs())));
+    }
+
+    private Mono<ReindexJob> create(String entityType, Class<?> entityClass) {
+        String alias = elasticsearchOperations.getElasticsearchConverter().getMappingContext()
+            .getRequiredPersistentEntity(entityClass).getIndexName();
+        Instant now = Instant.now();
+        ReindexJob job = new ReindexJob();
+        job.setEntityType(entityType);
+        job.setAlias(alias);
+        job.setTargetIndex(alias + '_' + INDEX_SUFFIX_FORMATTER.format(now));
+        job.setStatus(ReindexStatus.RUNNING);
+        job.setStartDate(now);
+        job.setHeartbeatDate(now);
+        return searchIndexManager.createIndexForBulkLoad(alias, job.getTargetIndex())
+            .then(mongoOperations.count(new Query(), entityClass))
+            .flatMap(totalCount -> {
+                job.setTotalCount(totalCount);
+                return reindexJobRepository.save(job)
+                    .onErrorResume(DuplicateKeyException.class, e -> searchIndexManager.delete(job.getTargetIndex())
+                        .then(Mono.error(alreadyRunning(entityType))));
+            })
+            .doOnNext(saved -> run(saved, entityClass));
+    }
+
+    /**
+     * Resume a job, unless another instance did first.
+     *
+     * @return the resumed job, or an empty {@link Mono} if it was claimed by another instance.
+     */
+    private Mono<ReindexJob> resume(ReindexJob job, Class<?> entityClass) {
+        return claim(job, new Update()
+                .set("status", ReindexStatus.RUNNING)
+                .set("heartbeatDate", Instant.now())
+                .unset("lastError"))
+            .onErrorMap(DuplicateKeyException.class, e -> alreadyRunning(job.getEntityType()))
+            .doOnNext(claimed -> run(claimed, entityClass));
+    }
+
+    /**
+     * Mark a job whose target index was deleted as failed, so that a new one can be started.
+     */
+    private Mono<Void> abandon(ReindexJob job) {
+        return claim(job, new Update()
+                .set("status", ReindexStatus.FAILED)
+                .set("endDate", Instant.now())
+                .set("lastError", "The target index " + job.getTargetIndex() + " no longer exists"))
+            .then();
+    }
+
+    /**
+     * Update a job if it is still in the state it was read in.
+     */
+    private Mono<ReindexJob> claim(ReindexJob job, Update update) {
+        Query query = Query.query(Criteria.where("id").is(job.getId())
+            .and("status").is(job.getStatus())
+            .and("heartbeatDate").is(job.getHeartbeatDate()));
+        return mongoOperations.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), ReindexJob.class);
+    }
+
+    /**
+     * Save the state of a job, leaving the ids recorded by the outbox relay in the meantime untouched.
+     */
+    private Mono<ReindexJob> saveState(ReindexJob job, Update update) {
+        update.set("status", job.getStatus())
+            .set("lastId", job.getLastId())
+            .set("indexedCount", job.getIndexedCount())
+            .set("failedCount", job.getFailedCount())
+            .set("heartbeatDate", job.getHeartbeatDate())
+            .set("endDate", job.getEndDate())
+            .set("lastError", job.getLastError());
+        return mongoOperations.updateFirst(Query.query(Criteria.where("id").is(job.getId())), update, ReindexJob.class)
+            .thenReturn(job);
+    }
+
+    private IllegalArgumentException alreadyRunning(String entityType) {
+        return new IllegalArgumentException("The index of " + entityType + " is already being rebuilt");
+    }
+
+    private void run(ReindexJob job, Class<?> entityClass) {
+        if (!runningJobIds.add(job.getId())) {
+            return;
+        }
+        Counter documentsCounter = Counter.builder("search.reindex.documents")
+            .description("Number of documents loaded by the reindex jobs")
+            .tag("entity", job.getEntityType())
+            .register(meterRegistry);
+        load(job, entityClass, documentsCounter)
+            .then(Mono.defer(() -> complete(job, entityClass)))
+            .onErrorResume(e -> fail(job, e))
+            .doFinally(signal -> runningJobIds.remove(job.getId()))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe();
+    }
+
+    private Mono<Void> load(ReindexJob job, Class<?> entityClass, Counter documentsCounter) {
+        Query query = new Query()
+            .with(Sort.by("_id"))
+            .cursorBatchSize(properties.getReindex().getCursorBatchSize());
+        if (job.getLastId() != null) {
+            query.addCriteria(Criteria.where("_id").gt(ObjectId.isValid(job.getLastId()) ? new ObjectId(job.getLastId()) : job.getLastId()));
+        }
+        return mongoOperations.find(query, Document.class, mongoOperations.getCollectionName(entityClass))
+            .buffer(properties.getBulk().getMaxActions())
+            .flatMapSequential(documents -> batchDbRefResolver.read(documents, entityClass)
+                .publishOn(Schedulers.boundedElastic())
+                .map(entities -> toOperations(documents, entities, job.getTargetIndex()))
+                .flatMap(bulkSearchIndexer::bulk)
+                .map(result -> new LoadedBatch(String.valueOf(documents.get(documents.size() - 1).get("_id")), result)),
+                properties.getReindex().getParallelism())
+            .concatMap(batch -> {
+                for (BulkIndexResult.Failure failure : batch.result.getFailures()) {
+                    log.warn("Could not index {} {}: {} {}", job.getEntityType(), failure.getOperation().getId(),
+                        failure.getStatus(), failure.getMessage());
+                }
+                documentsCounter.increment(batch.result.getSucceeded());
+                job.setLastId(batch.lastId);
+                job.setIndexedCount(job.getIndexedCount() + batch.result.getSucceeded());
+                job.setFailedCount(job.getFailedCount() + batch.result.getFailures().size());
+                job.setHeartbeatDate(Instant.now());
+                return saveState(job, new Update());
+            })
+            .then();
+    }
+
+    private List<SearchIndexOperation> toOperations(List<Document> documents, List<?> entities, String indexName) {
+        List<SearchIndexOperation> operations = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            operations.add(SearchIndexOperation.create(entities.get(i), String.valueOf(documents.get(i).get("_id"))).withIndexName(indexName));
+        }
+        return operations;
+    }
+
+    private Mono<Void> complete(ReindexJob job, Class<?> entityClass) {
+        return reindexJobRepository.findById(job.getId())
+            .flatMap(saved -> deleteAgain(job, entityClass, saved.getDeletedIds()))
+            .then(searchIndexManager.finishBulkLoad(job.getTargetIndex(), properties.getReindex().getNumberOfReplicas()))
+            .then(searchIndexManager.swapAlias(job.getAlias(), job.getTargetIndex()))
+            .flatMap(previousIndices -> Flux.fromIterable(previousIndices)
+                .filter(index -> properties.getReindex().isDeleteOldIndices() && !index.equals(job.getTargetIndex()))
+                .concatMap(searchIndexManager::delete)
+                .then())
+            .then(Mono.defer(() -> {
+                job.setStatus(ReindexStatus.COMPLETED);
+                job.setEndDate(Instant.now());
+                job.setHeartbeatDate(job.getEndDate());
+                log.info("Rebuilt the index of {}: {} documents indexed, {} failed, {} documents/s", job.getEntityType(),
+                    job.getIndexedCount(), job.getFailedCount(), job.getDocumentsPerSecond());
+                return saveState(job, new Update().unset("deletedIds"));
+            }))
+            .then();
+    }
+
+    /**
+     * Delete the documents deleted by the outbox relay during the load again, as the load may have created them since.
+     */
+    private Mono<Void> deleteAgain(ReindexJob job, Class<?> entityClass, Set<String> deletedIds) {
+        if (deletedIds.isEmpty()) {
+            return Mono.empty();
+        }
+        log.debug("Deleting the {} documents of {} deleted during the load again", deletedIds.size(), job.getEntityType());
+        List<SearchIndexOperation> operations = new ArrayList<>(deletedIds.size());
+        for (String id : deletedIds) {
+            operations.add(SearchIndexOperation.delete(entityClass, id).withIndexName(job.getTargetIndex()));
+        }
+        return bulkSearchIndexer.bulk(operations)
+            .flatMap(result -> result.hasFailures() ?
+                Mono.error(new IllegalStateException("Could not delete " + result.getFailures().size() + " documents deleted during the load")) :
+                Mono.empty());
+    }
+
+    private Mono<Void> fail(ReindexJob job, Throwable e) {
+        log.error("Reindex job {} of {} failed after {}", job.getId(), job.getEntityType(), job.getLastId(), e);
+        String error = e.toString();
+        job.setStatus(ReindexStatus.FAILED);
+        job.setEndDate(Instant.now());
+        job.setLastError(error.length() > LAST_ERROR_MAX_LENGTH ? error.substring(0, LAST_ERROR_MAX_LENGTH) : error);
+        return saveState(job, new Update())
+            .onErrorResume(saveError -> {
+                log.error("Could not save the state of reindex job {}", job.getId(), saveError);
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private static final class LoadedBatch {
+
+        private final String lastId;
+
+        private final BulkIndexResult result;
+
+        private LoadedBatch(String lastId, BulkIndexResult result) {
+            this.lastId = lastId;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.config.KafkaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Shares one Kafka consumer per topic among all the subscribers of the topic.
+ * <p>
+ * The consumer of a topic is started by its first subscriber, and closed once the topic has had no subscriber for
+ * {@code application.kafka-consumer.grace-period-ms}. Each subscriber has its own bounded buffer: a slow subscriber
+ * loses records, according to its {@link OverflowStrategy}, instead of slowing down the consumer and the other
+ * subscribers.
+ */
+@Service
+public class SharedKafkaReceiver {
+
+    /**
+     * What a subscriber loses when its buffer is full.
+     */
+    public enum OverflowStrategy {
+        /**
+         * Drop the oldest buffered record to buffer the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Drop the new record.
+         */
+        DROP_LATEST,
+        /**
+         * Only keep the latest record, whatever the buffer size.
+         */
+        LATEST
+    }
+
+    private final Logger log = LoggerFactory.getLogger(SharedKafkaReceiver.class);
+
+    private final KafkaProperties kafkaProperties;
+
+    private final ApplicationProperties.KafkaConsumer properties;
+
+    private final Counter droppedCounter;
+
+    private final Map<String, Flux<String>> sharedTopics = new ConcurrentHashMap<>();
+
+    public SharedKafkaReceiver(KafkaProperties kafkaProperties, ApplicationProperties applicationProperties,
+                               MeterRegistry meterRegistry) {
+        this.kafkaProperties = kafkaProperties;
+        this.properties = applicationProperties.getKafkaConsumer();
+        this.droppedCounter = meterRegistry.counter("kafka.consumer.dropped");
+    }
+
+    public int getDefaultBufferSize() {
+        return properties.getBufferSize();
+    }
+
+    public int getMaxBufferSize() {
+        return properties.getMaxBufferSize();
+    }
+
+    public OverflowStrategy getDefaultOverflowStrategy() {
+        return properties.getOverflowStrategy();
+    }
+
+    /**
+     * Receive the values of the records of topics.
+     *
+     * @param topics the topics.
+     * @param bufferSize the number of records buffered when the subscriber is slower than the topics.
+     * @param overflowStrategy what the subscriber loses when its buffer is full.
+     * @return the values of the records, until the subscription is cancelled.
+     * @throws IllegalArgumentException if the buffer size is not between 1 and {@code max-buffer-size}.
+     */
+    public Flux<String> receive(List<String> topics, int bufferSize, OverflowStrategy overflowStrategy) {
+        if (bufferSize < 1 || bufferSize > properties.getMaxBufferSize()) {
+            throw new IllegalArgumentException("The buffer size must be between 1 and " + properties.getMaxBufferSize());
+        }
+        // The buffer requests all the records, so the shared consumers never wait for this subscriber
+        Flux<String> records = Flux.merge(topics.stream()
+            .distinct()
+            .map(topic -> sharedTopics.computeIfAbsent(topic, this::share))
+            .collect(Collectors.toList()));
+        if (overflowStrategy == OverflowStrategy.LATEST) {
+            return records.onBackpressureBuffer(1, value -> droppedCounter.increment(), BufferOverflowStrategy.DROP_OLDEST);
+        }
+        return records.onBackpressureBuffer(bufferSize, value -> droppedCounter.increment(),
+            overflowStrategy == OverflowStrategy.DROP_LATEST ? BufferOverflowStrategy.DROP_LATEST : BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Share a consumer of a topic, which is registered for the next subscribers while it is connected.
+     * <p>
+     * A subscriber of the shared {@link Flux} reconnects it once closed, possibly before the previous connection has
+     * finished closing: each connection only unregisters the topic if it is still the last one.
+     */
+    private Flux<String> share(String topic) {
+        AtomicReference<Flux<String>> shared = new AtomicReference<>();
+        AtomicReference<Object> lastConnection = new AtomicReference<>();
+        shared.set(Flux.defer(() -> {
+                Object connection = new Object();
+                lastConnection.set(connection);
+                sharedTopics.putIfAbsent(topic, shared.get());
+                return consume(topic)
+                    .doOnSubscribe(subscription -> log.debug("Starting the consumer of Kafka topic {}", topic))
+                    .doFinally(signal -> {
+                        log.debug("Closed the consumer of Kafka topic {} on {}", topic, signal);
+                        if (lastConnection.compareAndSet(connection, null)) {
+                            sharedTopics.remove(topic, shared.get());
+                        }
+                    });
+            })
+            .publish()
+            .refCount(1, Duration.ofMillis(properties.getGracePeriodMs())));
+        return shared.get();
+    }
+
+    /**
+     * Receive the values of the records of a topic with a new consumer.
+     *
+     * @param topic the topic.
+     * @return the values of the records.
+     */
+    protected Flux<String> consume(String topic) {
+        Map<String, Object> consumerProps = kafkaProperties.getConsumerProps();
+        Object clientId = consumerProps.get(ConsumerConfig.CLIENT_ID_CONFIG);
+        if (clientId != null) {
+            consumerProps.put(ConsumerConfig.CLIENT_ID_CONFIG, clientId + "-" + topic);
+        }
+        ReceiverOptions<String, String> receiverOptions = ReceiverOptions.<String, String>create(consumerProps)
+            .subscription(Collections.singleton(topic));
+        return KafkaReceiver.create(receiverOptions)
+            .receive()
+            .doOnNext(record -> record.receiverOffset().acknowledge())
+            .map(ConsumerRecord::value);
+    }
+}
@@ -7,6 +7,8 @@ import com.jhipsterdemo.company.repository.AuthorityRepository;
 import com.jhipsterdemo.company.repository.UserRepository;
 import com.jhipsterdemo.company.repository.search.UserSearchRepository;
 import com.jhipsterdemo.company.security.AuthoritiesConstants;
+import com.jhipsterdemo.company.security.DomainUserDetailsService;
+import com.jhipsterdemo.company.security.PasswordHashingScheduler;
 import com.jhipsterdemo.company.security.SecurityUtils;
 import com.jhipsterdemo.company.service.dto.UserDTO;
 
@@ -42,11 +44,17 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserSearchRepository userSearchRepository, AuthorityRepository authorityRepository) {
+    private final DomainUserDetailsService userDetailsService;
+
+    private final PasswordHashingScheduler passwordHashingScheduler;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserSearchRepository userSearchRepository, AuthorityRepository authorityRepository, DomainUserDetailsService userDetailsService, PasswordHashingScheduler passwordHashingScheduler) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.userSearchRepository = userSearchRepository;
         this.authorityRepository = authorityRepository;
+        this.userDetailsService = userDetailsService;
+        this.passwordHashingScheduler = passwordHashingScheduler;
     }
 
     public Mono<User> activateRegistration(String key) {
@@ -66,13 +74,13 @@ public class UserService {
         log.debug("Reset user password for reset key {}", key);
         return userRepository.findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minusSeconds(86400)))
-            .publishOn(Schedulers.boundedElastic())
-            .map(user -> {
-                user.setPassword(passwordEncoder.encode(newPassword));
-                user.setResetKey(null);
-                user.setResetDate(null);
-                return user;
-            })
+            .flatMap(user -> passwordHashingScheduler.hash(() -> passwordEncoder.encode(newPassword))
+                .map(encryptedPassword -> {
+                    user.setPassword(encryptedPassword);
+                    user.setResetKey(null);
+                    user.setResetDate(null);
+                    return user;
+                }))
             .flatMap(this::saveUser);
     }
 
@@ -105,10 +113,9 @@ public class UserService {
                     return Mono.error(new EmailAlreadyUsedException());
                 }
             })
-            .publishOn(Schedulers.boundedElastic())
-            .then(Mono.fromCallable(() -> {
+            .then(passwordHashingScheduler.hash(() -> passwordEncoder.encode(password)))
+            .map(encryptedPassword -> {
                 User newUser = new User();
-                String encryptedPassword = passwordEncoder.encode(password);
                 newUser.setLogin(userDTO.getLogin().toLowerCase());
                 // new user gets initially a generated password
                 newUser.setPassword(encryptedPassword);
@@ -124,7 +131,7 @@ public class UserService {
                 // new user gets registration key
                 newUser.setActivationKey(RandomUtil.generateActivationKey());
                 return newUser;
-            }))
+            })
             .flatMap(newUser -> {
                 Set<Authority> authorities = new HashSet<>();
                 return authorityRepository.findById(AuthoritiesConstants.USER)
@@ -154,15 +161,13 @@ public class UserService {
         return Flux.fromIterable(userDTO.getAuthorities() != null ? userDTO.getAuthorities() : new HashSet<>())
             .flatMap(authorityRepository::findById)
             .doOnNext(authority -> user.getAuthorities().add(authority))
-            .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
-            .map(newUser -> {
-                String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
-                newUser.setPassword(encryptedPassword);
-                newUser.setResetKey(RandomUtil.generateResetKey());
-                newUser.setResetDate(Instant.now());
-                newUser.setActivated(true);
-                return newUser;
+            .then(passwordHashingScheduler.hash(() -> passwordEncoder.encode(RandomUtil.generatePassword())))
+            .map(encryptedPassword -> {
+                user.setPassword(encryptedPassword);
+                user.setResetKey(RandomUtil.generateResetKey());
+                user.setResetDate(Instant.now());
+                user.setActivated(true);
+                return user;
             })
             .flatMap(this::saveUser)
             .flatMap(user1 -> userSearchRepository.save(user1).thenReturn(user1))
@@ -203,6 +208,7 @@ public class UserService {
     public Mono<Void> deleteUser(String login) {
         return userRepository.findOneByLogin(login)
             .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .doOnNext(userDetailsService::evict)
             .flatMap(user -> userSearchRepository.delete(user).thenReturn(user))
             .doOnNext(user -> log.debug("Deleted User: {}", user))
             .then();
@@ -244,14 +250,14 @@ public class UserService {
                 }
                 user.setLastModifiedBy(login);
                 return userRepository.save(user);
-            });
+            })
+            .doOnNext(userDetailsService::evict);
     }
 
     public Mono<Void> changePassword(String currentClearTextPassword, String newPassword) {
         return SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
-            .map(user -> {
+            .flatMap(user -> passwordHashingScheduler.hash(() -> {
                 String currentEncryptedPassword = user.getPassword();
                 if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
                     throw new InvalidPasswordException();
@@ -259,7 +265,7 @@ public class UserService {
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
                 return user;
-            })
+            }))
             .flatMap(this::saveUser)
             .doOnNext(user -> log.debug("Changed password for User: {}", user))
             .then();
@@ -0,0 +1,131 @@
+package com.jhipsterdemo.company.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a bulk import: the number of rows read, imported and rejected, and why.
+ */
+public class BulkImportReport {
+
+    private String entityType;
+
+    private long rows;
+
+    private long imported;
+
+    private long failed;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    public BulkImportReport() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkImportReport(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Get the errors of the first rejected rows, see {@code application.bulk-import.max-reported-errors}.
+     *
+     * @return the errors, in the order of the rows.
+     */
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkImportReport{" +
+            "entityType='" + entityType + '\'' +
+            ", rows=" + rows +
+            ", imported=" + imported +
+            ", failed=" + failed +
+            "}";
+    }
+
+    /**
+     * The reason why a row was rejected.
+     */
+    public static class RowError {
+
+        private long line;
+
+        private String message;
+
+        public RowError() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * Get the line of the row in the imported file, starting at 1.
+         *
+         * @return the line.
+         */
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "RowError{" +
+                "line=" + line +
+                ", message='" + message + '\'' +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.jhipsterdemo.company.service.dto;
+
+/**
+ * A DTO representing the plan MongoDB picks for a repository query, and whether it scans the whole collection.
+ */
+public class QueryPlanDTO {
+
+    private String collection;
+
+    private String query;
+
+    private String plan;
+
+    private String index;
+
+    private boolean collectionScan;
+
+    public QueryPlanDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+
+    public void setCollectionScan(boolean collectionScan) {
+        this.collectionScan = collectionScan;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlanDTO{" +
+            "collection='" + collection + '\'' +
+            ", query='" + query + '\'' +
+            ", plan='" + plan + '\'' +
+            ", index='" + index + '\'' +
+            ", collectionScan=" + collectionScan +
+            '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.jhipsterdemo.company.service.dto;
+
+/**
+ * A DTO representing the span of control of an employee: their direct reports, all the employees under them, and
+ * how many levels of the org chart are under them.
+ */
+public class SpanOfControlDTO {
+
+    private String employeeId;
+
+    private long directReports;
+
+    private long totalReports;
+
+    private int levels;
+
+    public SpanOfControlDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SpanOfControlDTO(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public long getDirectReports() {
+        return directReports;
+    }
+
+    public void setDirectReports(long directReports) {
+        this.directReports = directReports;
+    }
+
+    public long getTotalReports() {
+        return totalReports;
+    }
+
+    public void setTotalReports(long totalReports) {
+        this.totalReports = totalReports;
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public void setLevels(int levels) {
+        this.levels = levels;
+    }
+
+    @Override
+    public String toString() {
+        return "SpanOfControlDTO{" +
+            "employeeId='" + employeeId + '\'' +
+            ", directReports=" + directReports +
+            ", totalReports=" + totalReports +
+            ", levels=" + levels +
+            '}';
+    }
+}
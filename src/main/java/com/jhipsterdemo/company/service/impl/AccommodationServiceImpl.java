@@ -1,6 +1,8 @@
 package com.jhipsterdemo.company.service.impl;
 
 import com.jhipsterdemo.company.service.AccommodationService;
+import com.jhipsterdemo.company.service.OutboxService;
+import com.jhipsterdemo.company.service.ReferenceDataCache;
 import com.jhipsterdemo.company.domain.Accommodation;
 import com.jhipsterdemo.company.repository.AccommodationRepository;
 import com.jhipsterdemo.company.repository.search.AccommodationSearchRepository;
@@ -29,22 +31,32 @@ public class AccommodationServiceImpl implements AccommodationService {
 
     private final AccommodationSearchRepository accommodationSearchRepository;
 
-    public AccommodationServiceImpl(AccommodationRepository accommodationRepository, AccommodationSearchRepository accommodationSearchRepository) {
+    private final OutboxService outboxService;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final ReferenceDataCache.CachedCollection<Accommodation> accommodations;
+
+    public AccommodationServiceImpl(AccommodationRepository accommodationRepository, AccommodationSearchRepository accommodationSearchRepository, OutboxService outboxService,
+                                    ReferenceDataCache referenceDataCache) {
         this.accommodationRepository = accommodationRepository;
         this.accommodationSearchRepository = accommodationSearchRepository;
+        this.outboxService = outboxService;
+        this.referenceDataCache = referenceDataCache;
+        this.accommodations = referenceDataCache.collection(Accommodation.class, Accommodation::getId, accommodationRepository::findAll);
     }
 
     @Override
     public Mono<Accommodation> save(Accommodation accommodation) {
         log.debug("Request to save Accommodation : {}", accommodation);
-        return accommodationRepository.save(accommodation)
-            .flatMap(accommodationSearchRepository::save)
-;    }
+        return outboxService.save(accommodation, accommodationRepository::save)
+            .flatMap(result -> referenceDataCache.invalidateAll().thenReturn(result));
+    }
 
     @Override
     public Flux<Accommodation> findAll() {
         log.debug("Request to get all Accommodations");
-        return accommodationRepository.findAll();
+        return accommodations.findAll();
     }
 
 
@@ -59,14 +71,15 @@ public class AccommodationServiceImpl implements AccommodationService {
     @Override
     public Mono<Accommodation> findOne(String id) {
         log.debug("Request to get Accommodation : {}", id);
-        return accommodationRepository.findById(id);
+        return accommodations.findOne(id);
     }
 
     @Override
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Accommodation : {}", id);
-        return accommodationRepository.deleteById(id)
-            .then(accommodationSearchRepository.deleteById(id));    }
+        return outboxService.delete(Accommodation.class, id, accommodationRepository.deleteById(id))
+            .then(referenceDataCache.invalidateAll());
+    }
 
     @Override
     public Flux<Accommodation> search(String query) {
@@ -1,6 +1,8 @@
 package com.jhipsterdemo.company.service.impl;
 
 import com.jhipsterdemo.company.service.CountryService;
+import com.jhipsterdemo.company.service.OutboxService;
+import com.jhipsterdemo.company.service.ReferenceDataCache;
 import com.jhipsterdemo.company.domain.Country;
 import com.jhipsterdemo.company.repository.CountryRepository;
 import com.jhipsterdemo.company.repository.search.CountrySearchRepository;
@@ -29,22 +31,32 @@ public class CountryServiceImpl implements CountryService {
 
     private final CountrySearchRepository countrySearchRepository;
 
-    public CountryServiceImpl(CountryRepository countryRepository, CountrySearchRepository countrySearchRepository) {
+    private final OutboxService outboxService;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final ReferenceDataCache.CachedCollection<Country> countries;
+
+    public CountryServiceImpl(CountryRepository countryRepository, CountrySearchRepository countrySearchRepository, OutboxService outboxService,
+                              ReferenceDataCache referenceDataCache) {
         this.countryRepository = countryRepository;
         this.countrySearchRepository = countrySearchRepository;
+        this.outboxService = outboxService;
+        this.referenceDataCache = referenceDataCache;
+        this.countries = referenceDataCache.collection(Country.class, Country::getId, countryRepository::findAll);
     }
 
     @Override
     public Mono<Country> save(Country country) {
         log.debug("Request to save Country : {}", country);
-        return countryRepository.save(country)
-            .flatMap(countrySearchRepository::save)
-;    }
+        return outboxService.save(country, countryRepository::save)
+            .flatMap(result -> referenceDataCache.invalidateAll().thenReturn(result));
+    }
 
     @Override
     public Flux<Country> findAll() {
         log.debug("Request to get all Countries");
-        return countryRepository.findAll();
+        return countries.findAll();
     }
 
 
@@ -59,14 +71,15 @@ public class CountryServiceImpl implements CountryService {
     @Override
     public Mono<Country> findOne(String id) {
         log.debug("Request to get Country : {}", id);
-        return countryRepository.findById(id);
+        return countries.findOne(id);
     }
 
     @Override
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Country : {}", id);
-        return countryRepository.deleteById(id)
-            .then(countrySearchRepository.deleteById(id));    }
+        return outboxService.delete(Country.class, id, countryRepository.deleteById(id))
+            .then(referenceDataCache.invalidateAll());
+    }
 
     @Override
     public Flux<Country> search(String query) {
@@ -1,12 +1,16 @@
 package com.jhipsterdemo.company.service.impl;
 
 import com.jhipsterdemo.company.service.DepartmentService;
+import com.jhipsterdemo.company.service.OutboxService;
 import com.jhipsterdemo.company.domain.Department;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
 import com.jhipsterdemo.company.repository.DepartmentRepository;
 import com.jhipsterdemo.company.repository.search.DepartmentSearchRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -29,22 +33,28 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentSearchRepository departmentSearchRepository;
 
-    public DepartmentServiceImpl(DepartmentRepository departmentRepository, DepartmentSearchRepository departmentSearchRepository) {
+    private final OutboxService outboxService;
+
+    private final BatchDbRefResolver batchDbRefResolver;
+
+    public DepartmentServiceImpl(DepartmentRepository departmentRepository, DepartmentSearchRepository departmentSearchRepository,
+                                 OutboxService outboxService, BatchDbRefResolver batchDbRefResolver) {
         this.departmentRepository = departmentRepository;
         this.departmentSearchRepository = departmentSearchRepository;
+        this.outboxService = outboxService;
+        this.batchDbRefResolver = batchDbRefResolver;
     }
 
     @Override
     public Mono<Department> save(Department department) {
         log.debug("Request to save Department : {}", department);
-        return departmentRepository.save(department)
-            .flatMap(departmentSearchRepository::save)
-;    }
+        return outboxService.save(department, departmentRepository::save);
+    }
 
     @Override
     public Flux<Department> findAll() {
         log.debug("Request to get all Departments");
-        return departmentRepository.findAll();
+        return batchDbRefResolver.find(new Query(), Department.class);
     }
 
 
@@ -59,14 +69,14 @@ public class DepartmentServiceImpl implements DepartmentService {
     @Override
     public Mono<Department> findOne(String id) {
         log.debug("Request to get Department : {}", id);
-        return departmentRepository.findById(id);
+        return batchDbRefResolver.find(Query.query(Criteria.where("id").is(id)), Department.class).next();
     }
 
     @Override
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Department : {}", id);
-        return departmentRepository.deleteById(id)
-            .then(departmentSearchRepository.deleteById(id));    }
+        return outboxService.delete(Department.class, id, departmentRepository.deleteById(id));
+    }
 
     @Override
     public Flux<Department> search(String query) {
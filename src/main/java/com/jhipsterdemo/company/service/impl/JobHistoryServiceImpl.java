@@ -1,17 +1,25 @@
 package com.jhipsterdemo.company.service.impl;
 
+import com.jhipsterdemo.company.service.CursorPageService;
 import com.jhipsterdemo.company.service.JobHistoryService;
+import com.jhipsterdemo.company.service.OutboxService;
 import com.jhipsterdemo.company.domain.JobHistory;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
 import com.jhipsterdemo.company.repository.JobHistoryRepository;
 import com.jhipsterdemo.company.repository.search.JobHistorySearchRepository;
+import com.jhipsterdemo.company.repository.search.SearchPage;
+import com.jhipsterdemo.company.repository.search.SearchSlice;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
@@ -27,22 +35,37 @@ public class JobHistoryServiceImpl implements JobHistoryService {
 
     private final JobHistorySearchRepository jobHistorySearchRepository;
 
-    public JobHistoryServiceImpl(JobHistoryRepository jobHistoryRepository, JobHistorySearchRepository jobHistorySearchRepository) {
+    private final OutboxService outboxService;
+
+    private final BatchDbRefResolver batchDbRefResolver;
+
+    private final CursorPageService cursorPageService;
+
+    public JobHistoryServiceImpl(JobHistoryRepository jobHistoryRepository, JobHistorySearchRepository jobHistorySearchRepository,
+                                 OutboxService outboxService, BatchDbRefResolver batchDbRefResolver,
+                                 CursorPageService cursorPageService) {
         this.jobHistoryRepository = jobHistoryRepository;
         this.jobHistorySearchRepository = jobHistorySearchRepository;
+        this.outboxService = outboxService;
+        this.batchDbRefResolver = batchDbRefResolver;
+        this.cursorPageService = cursorPageService;
     }
 
     @Override
     public Mono<JobHistory> save(JobHistory jobHistory) {
         log.debug("Request to save JobHistory : {}", jobHistory);
-        return jobHistoryRepository.save(jobHistory)
-            .flatMap(jobHistorySearchRepository::save)
-;    }
+        return outboxService.save(jobHistory, jobHistoryRepository::save);
+    }
 
     @Override
     public Flux<JobHistory> findAll(Pageable pageable) {
         log.debug("Request to get all JobHistories");
-        return jobHistoryRepository.findAllBy(pageable);
+        return batchDbRefResolver.find(new Query().with(pageable), JobHistory.class);
+    }
+
+    @Override
+    public Flux<JobHistory> findAllAfter(Object id, Pageable pageable) {
+        return cursorPageService.findAllAfter(JobHistory.class, id, pageable);
     }
 
 
@@ -50,24 +73,27 @@ public class JobHistoryServiceImpl implements JobHistoryService {
         return jobHistoryRepository.count();
     }
 
-    public Mono<Long> searchCount() {
-        return jobHistorySearchRepository.count();
-    }
-
     @Override
     public Mono<JobHistory> findOne(String id) {
         log.debug("Request to get JobHistory : {}", id);
-        return jobHistoryRepository.findById(id);
+        return batchDbRefResolver.find(Query.query(Criteria.where("id").is(id)), JobHistory.class).next();
     }
 
     @Override
     public Mono<Void> delete(String id) {
         log.debug("Request to delete JobHistory : {}", id);
-        return jobHistoryRepository.deleteById(id)
-            .then(jobHistorySearchRepository.deleteById(id));    }
+        return outboxService.delete(JobHistory.class, id, jobHistoryRepository.deleteById(id));
+    }
 
     @Override
-    public Flux<JobHistory> search(String query, Pageable pageable) {
+    public Mono<SearchPage<JobHistory>> search(String query, Pageable pageable) {
         log.debug("Request to search for a page of JobHistories for query {}", query);
-        return jobHistorySearchRepository.search(query, pageable);    }
+        return jobHistorySearchRepository.search(query, pageable);
+    }
+
+    @Override
+    public Mono<SearchSlice<JobHistory>> searchAfter(String query, List<Object> searchAfter, int size) {
+        log.debug("Request to search for the JobHistories for query {} after {}", query, searchAfter);
+        return jobHistorySearchRepository.searchAfter(query, searchAfter, size);
+    }
 }
@@ -1,6 +1,8 @@
 package com.jhipsterdemo.company.service.impl;
 
 import com.jhipsterdemo.company.service.LocationService;
+import com.jhipsterdemo.company.service.OutboxService;
+import com.jhipsterdemo.company.service.ReferenceDataCache;
 import com.jhipsterdemo.company.domain.Location;
 import com.jhipsterdemo.company.repository.LocationRepository;
 import com.jhipsterdemo.company.repository.search.LocationSearchRepository;
@@ -29,22 +31,32 @@ public class LocationServiceImpl implements LocationService {
 
     private final LocationSearchRepository locationSearchRepository;
 
-    public LocationServiceImpl(LocationRepository locationRepository, LocationSearchRepository locationSearchRepository) {
+    private final OutboxService outboxService;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final ReferenceDataCache.CachedCollection<Location> locations;
+
+    public LocationServiceImpl(LocationRepository locationRepository, LocationSearchRepository locationSearchRepository, OutboxService outboxService,
+                               ReferenceDataCache referenceDataCache) {
         this.locationRepository = locationRepository;
         this.locationSearchRepository = locationSearchRepository;
+        this.outboxService = outboxService;
+        this.referenceDataCache = referenceDataCache;
+        this.locations = referenceDataCache.collection(Location.class, Location::getId, locationRepository::findAll);
     }
 
     @Override
     public Mono<Location> save(Location location) {
         log.debug("Request to save Location : {}", location);
-        return locationRepository.save(location)
-            .flatMap(locationSearchRepository::save)
-;    }
+        return outboxService.save(location, locationRepository::save)
+            .flatMap(result -> referenceDataCache.invalidateAll().thenReturn(result));
+    }
 
     @Override
     public Flux<Location> findAll() {
         log.debug("Request to get all Locations");
-        return locationRepository.findAll();
+        return locations.findAll();
     }
 
 
@@ -59,14 +71,15 @@ public class LocationServiceImpl implements LocationService {
     @Override
     public Mono<Location> findOne(String id) {
         log.debug("Request to get Location : {}", id);
-        return locationRepository.findById(id);
+        return locations.findOne(id);
     }
 
     @Override
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Location : {}", id);
-        return locationRepository.deleteById(id)
-            .then(locationSearchRepository.deleteById(id));    }
+        return outboxService.delete(Location.class, id, locationRepository.deleteById(id))
+            .then(referenceDataCache.invalidateAll());
+    }
 
     @Override
     public Flux<Location> search(String query) {
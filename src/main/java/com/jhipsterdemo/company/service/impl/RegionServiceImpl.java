@@ -1,6 +1,8 @@
 package com.jhipsterdemo.company.service.impl;
 
 import com.jhipsterdemo.company.service.RegionService;
+import com.jhipsterdemo.company.service.OutboxService;
+import com.jhipsterdemo.company.service.ReferenceDataCache;
 import com.jhipsterdemo.company.domain.Region;
 import com.jhipsterdemo.company.repository.RegionRepository;
 import com.jhipsterdemo.company.repository.search.RegionSearchRepository;
@@ -29,22 +31,32 @@ public class RegionServiceImpl implements RegionService {
 
     private final RegionSearchRepository regionSearchRepository;
 
-    public RegionServiceImpl(RegionRepository regionRepository, RegionSearchRepository regionSearchRepository) {
+    private final OutboxService outboxService;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final ReferenceDataCache.CachedCollection<Region> regions;
+
+    public RegionServiceImpl(RegionRepository regionRepository, RegionSearchRepository regionSearchRepository, OutboxService outboxService,
+                             ReferenceDataCache referenceDataCache) {
         this.regionRepository = regionRepository;
         this.regionSearchRepository = regionSearchRepository;
+        this.outboxService = outboxService;
+        this.referenceDataCache = referenceDataCache;
+        this.regions = referenceDataCache.collection(Region.class, Region::getId, regionRepository::findAll);
     }
 
     @Override
     public Mono<Region> save(Region region) {
         log.debug("Request to save Region : {}", region);
-        return regionRepository.save(region)
-            .flatMap(regionSearchRepository::save)
-;    }
+        return outboxService.save(region, regionRepository::save)
+            .flatMap(result -> referenceDataCache.invalidateAll().thenReturn(result));
+    }
 
     @Override
     public Flux<Region> findAll() {
         log.debug("Request to get all Regions");
-        return regionRepository.findAll();
+        return regions.findAll();
     }
 
 
@@ -59,14 +71,15 @@ public class RegionServiceImpl implements RegionService {
     @Override
     public Mono<Region> findOne(String id) {
         log.debug("Request to get Region : {}", id);
-        return regionRepository.findById(id);
+        return regions.findOne(id);
     }
 
     @Override
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Region : {}", id);
-        return regionRepository.deleteById(id)
-            .then(regionSearchRepository.deleteById(id));    }
+        return outboxService.delete(Region.class, id, regionRepository.deleteById(id))
+            .then(referenceDataCache.invalidateAll());
+    }
 
     @Override
     public Flux<Region> search(String query) {
@@ -1,6 +1,7 @@
 package com.jhipsterdemo.company.service.impl;
 
 import com.jhipsterdemo.company.service.TaskService;
+import com.jhipsterdemo.company.service.OutboxService;
 import com.jhipsterdemo.company.domain.Task;
 import com.jhipsterdemo.company.repository.TaskRepository;
 import com.jhipsterdemo.company.repository.search.TaskSearchRepository;
@@ -29,17 +30,19 @@ public class TaskServiceImpl implements TaskService {
 
     private final TaskSearchRepository taskSearchRepository;
 
-    public TaskServiceImpl(TaskRepository taskRepository, TaskSearchRepository taskSearchRepository) {
+    private final OutboxService outboxService;
+
+    public TaskServiceImpl(TaskRepository taskRepository, TaskSearchRepository taskSearchRepository, OutboxService outboxService) {
         this.taskRepository = taskRepository;
         this.taskSearchRepository = taskSearchRepository;
+        this.outboxService = outboxService;
     }
 
     @Override
     public Mono<Task> save(Task task) {
         log.debug("Request to save Task : {}", task);
-        return taskRepository.save(task)
-            .flatMap(taskSearchRepository::save)
-;    }
+        return outboxService.save(task, taskRepository::save);
+    }
 
     @Override
     public Flux<Task> findAll() {
@@ -65,8 +68,8 @@ public class TaskServiceImpl implements TaskService {
     @Override
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Task : {}", id);
-        return taskRepository.deleteById(id)
-            .then(taskSearchRepository.deleteById(id));    }
+        return outboxService.delete(Task.class, id, taskRepository.deleteById(id));
+    }
 
     @Override
     public Flux<Task> search(String query) {
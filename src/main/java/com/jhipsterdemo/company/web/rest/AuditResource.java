@@ -1,5 +1,7 @@
 package com.jhipsterdemo.company.web.rest;
 
+import com.jhipsterdemo.company.domain.AuditEventBucket;
+import com.jhipsterdemo.company.service.AuditEventBucketService;
 import com.jhipsterdemo.company.service.AuditEventService;
 
 import io.github.jhipster.web.util.PaginationUtil;
@@ -29,8 +31,11 @@ public class AuditResource {
 
     private final AuditEventService auditEventService;
 
-    public AuditResource(AuditEventService auditEventService) {
+    private final AuditEventBucketService auditEventBucketService;
+
+    public AuditResource(AuditEventService auditEventService, AuditEventBucketService auditEventBucketService) {
         this.auditEventService = auditEventService;
+        this.auditEventBucketService = auditEventBucketService;
     }
 
     /**
@@ -74,6 +79,28 @@ public class AuditResource {
             .map(headers -> ResponseEntity.ok().headers(headers).body(events));
     }
 
+    /**
+     * {@code GET  /audits/stats} : get the hourly counts of {@link AuditEvent}s between the {@code fromDate} and {@code toDate}.
+     *
+     * @param fromDate the start of the time period of the counts to get.
+     * @param toDate the end of the time period of the counts to get.
+     * @param principal the principal to get the counts of, all of them if not set.
+     * @param type the type of {@link AuditEvent} to get the counts of, all of them if not set.
+     * @return the {@link Flux} of {@link AuditEventBucket}s, by hour, principal and type.
+     */
+    @GetMapping("/stats")
+    public Flux<AuditEventBucket> getStats(
+        @RequestParam(value = "fromDate") LocalDate fromDate,
+        @RequestParam(value = "toDate") LocalDate toDate,
+        @RequestParam(value = "principal", required = false) String principal,
+        @RequestParam(value = "type", required = false) String type) {
+
+        Instant from = fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant to = toDate.atStartOfDay(ZoneId.systemDefault()).plusDays(1).toInstant();
+
+        return auditEventBucketService.findByDates(from, to, principal, type);
+    }
+
     /**
      * {@code GET  /audits/:id} : get an {@link AuditEvent} by id.
      *
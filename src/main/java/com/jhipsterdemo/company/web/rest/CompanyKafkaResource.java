@@ -1,23 +1,19 @@
 package com.jhipsterdemo.company.web.rest;
 
-import com.jhipsterdemo.company.config.KafkaProperties;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
+import com.jhipsterdemo.company.service.SharedKafkaReceiver;
+import com.jhipsterdemo.company.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.kafka.receiver.KafkaReceiver;
-import reactor.kafka.receiver.ReceiverOptions;
 import reactor.kafka.sender.KafkaSender;
-import reactor.kafka.sender.SenderOptions;
 import reactor.kafka.sender.SenderRecord;
 import reactor.kafka.sender.SenderResult;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ExecutionException;
 
 @RestController
 @RequestMapping("/api/company-kafka")
@@ -25,12 +21,14 @@ public class CompanyKafkaResource {
 
     private final Logger log = LoggerFactory.getLogger(CompanyKafkaResource.class);
 
-    private final KafkaProperties kafkaProperties;
-    private KafkaSender<String, String> sender;
+    private static final String ENTITY_NAME = "companyKafka";
 
-    public CompanyKafkaResource(KafkaProperties kafkaProperties) {
-        this.kafkaProperties = kafkaProperties;
-        this.sender = KafkaSender.create(SenderOptions.create(kafkaProperties.getProducerProps()));
+    private final SharedKafkaReceiver sharedKafkaReceiver;
+    private final KafkaSender<String, String> sender;
+
+    public CompanyKafkaResource(KafkaSender<String, String> sender, SharedKafkaReceiver sharedKafkaReceiver) {
+        this.sender = sender;
+        this.sharedKafkaReceiver = sharedKafkaReceiver;
     }
 
     @PostMapping("/publish/{topic}")
@@ -39,22 +37,58 @@ public class CompanyKafkaResource {
         return Mono.just(SenderRecord.create(topic, null, null, key, message, null))
             .as(sender::send)
             .next()
-            .map(SenderResult::recordMetadata)
+            // The shared sender doesn't stop on errors, it reports them in the results
+            .flatMap(result -> result.exception() != null ? Mono.error(result.exception()) : Mono.just(result.recordMetadata()))
             .map(metadata -> new PublishResult(metadata.topic(), metadata.partition(), metadata.offset(), Instant.ofEpochMilli(metadata.timestamp())));
     }
 
+    /**
+     * {@code POST  /publish/:topic/bulk} : send a stream of records to a Kafka topic.
+     * <p>
+     * The body is newline-delimited JSON, one {@code {"key": ..., "value": ...}} object per record. The records are
+     * sent as they are read, batched by the shared producer, and acknowledged in the order of the broker.
+     *
+     * @param topic the topic.
+     * @param records the records.
+     * @return the stream of the results, as newline-delimited JSON: the index of each record in the body with its
+     * partition and offset, or the error if it was not sent.
+     */
+    @PostMapping(value = "/publish/{topic}/bulk", consumes = MediaType.APPLICATION_STREAM_JSON_VALUE,
+        produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<BulkPublishResult> publishAll(@PathVariable String topic, @RequestBody Flux<KafkaRecord> records) {
+        log.debug("REST request to send a stream of records to Kafka topic {}", topic);
+        return sender.send(records.index()
+                .map(record -> SenderRecord.create(topic, null, null, record.getT2().key, record.getT2().value, record.getT1())))
+            .map(BulkPublishResult::new);
+    }
+
+    /**
+     * {@code GET  /consume} : receive the records of Kafka topics, as Server-Sent Events or newline-delimited JSON.
+     * <p>
+     * The consumer of each topic is shared by all the clients receiving it.
+     *
+     * @param topics the topics.
+     * @param bufferSize the number of records buffered when the client is slower than the topics.
+     * @param overflow what the client loses when its buffer is full: {@code DROP_OLDEST}, {@code DROP_LATEST}, or
+     * {@code LATEST} to only keep the latest record.
+     * @return the values of the records, or status {@code 400 (Bad Request)} if the buffer size is not valid.
+     */
     @GetMapping("/consume")
-    public Flux<String> consume(@RequestParam("topic") List<String> topics, @RequestParam Map<String, String> consumerParams) {
+    public Flux<String> consume(@RequestParam("topic") List<String> topics,
+                                @RequestParam(required = false) Integer bufferSize,
+                                @RequestParam(required = false) SharedKafkaReceiver.OverflowStrategy overflow) {
         log.debug("REST request to consume records from Kafka topics {}", topics);
-        Map<String, Object> consumerProps = kafkaProperties.getConsumerProps();
-        consumerProps.putAll(consumerParams);
-        consumerProps.remove("topic");
+        int size = bufferSize != null ? bufferSize : sharedKafkaReceiver.getDefaultBufferSize();
+        if (size < 1 || size > sharedKafkaReceiver.getMaxBufferSize()) {
+            throw new BadRequestAlertException("The buffer size must be between 1 and " + sharedKafkaReceiver.getMaxBufferSize(),
+                ENTITY_NAME, "invalidbuffersize");
+        }
+        return sharedKafkaReceiver.receive(topics, size, overflow != null ? overflow : sharedKafkaReceiver.getDefaultOverflowStrategy());
+    }
 
-        ReceiverOptions<String, String> receiverOptions = ReceiverOptions.<String, String>create(consumerProps)
-            .subscription(topics);
-        return KafkaReceiver.create(receiverOptions)
-            .receive()
-            .map(ConsumerRecord::value);
+    private static class KafkaRecord {
+        public String key;
+        public String value;
     }
 
     private static class PublishResult {
@@ -70,4 +104,30 @@ public class CompanyKafkaResource {
             this.timestamp = timestamp;
         }
     }
+
+    private static class BulkPublishResult {
+        public final long index;
+        public final String topic;
+        public final Integer partition;
+        public final Long offset;
+        public final Instant timestamp;
+        public final String error;
+
+        private BulkPublishResult(SenderResult<Long> result) {
+            this.index = result.correlationMetadata();
+            if (result.exception() == null) {
+                this.topic = result.recordMetadata().topic();
+                this.partition = result.recordMetadata().partition();
+                this.offset = result.recordMetadata().offset();
+                this.timestamp = Instant.ofEpochMilli(result.recordMetadata().timestamp());
+                this.error = null;
+            } else {
+                this.topic = null;
+                this.partition = null;
+                this.offset = null;
+                this.timestamp = null;
+                this.error = result.exception().getMessage();
+            }
+        }
+    }
 }
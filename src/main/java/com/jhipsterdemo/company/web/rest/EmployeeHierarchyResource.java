@@ -0,0 +1,68 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.service.EmployeeHierarchyService;
+import com.jhipsterdemo.company.service.dto.SpanOfControlDTO;
+
+import io.github.jhipster.web.util.reactive.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * REST controller for navigating the org chart of the employees, see {@link EmployeeHierarchyService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class EmployeeHierarchyResource {
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeHierarchyResource.class);
+
+    private final EmployeeHierarchyService employeeHierarchyService;
+
+    public EmployeeHierarchyResource(EmployeeHierarchyService employeeHierarchyService) {
+        this.employeeHierarchyService = employeeHierarchyService;
+    }
+
+    /**
+     * {@code GET  /employees/:id/subtree} : get all the employees under the "id" employee, directly or not.
+     *
+     * @param id the id of the employee.
+     * @return the {@link Flux} of employees, in id order.
+     */
+    @GetMapping("/employees/{id}/subtree")
+    public Flux<Employee> getSubtree(@PathVariable String id) {
+        log.debug("REST request to get the employees under Employee : {}", id);
+        return employeeHierarchyService.findSubtree(id);
+    }
+
+    /**
+     * {@code GET  /employees/:id/chain-of-command} : get the managers of the "id" employee.
+     *
+     * @param id the id of the employee.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the managers in body, from the top of the
+     * org chart down to the direct manager, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/employees/{id}/chain-of-command")
+    public Mono<ResponseEntity<List<Employee>>> getChainOfCommand(@PathVariable String id) {
+        log.debug("REST request to get the chain of command of Employee : {}", id);
+        return ResponseUtil.wrapOrNotFound(employeeHierarchyService.findChainOfCommand(id));
+    }
+
+    /**
+     * {@code GET  /employees/:id/span-of-control} : count the employees under the "id" employee.
+     *
+     * @param id the id of the employee.
+     * @return the span of control of the employee.
+     */
+    @GetMapping("/employees/{id}/span-of-control")
+    public Mono<SpanOfControlDTO> getSpanOfControl(@PathVariable String id) {
+        log.debug("REST request to get the span of control of Employee : {}", id);
+        return employeeHierarchyService.getSpanOfControl(id);
+    }
+}
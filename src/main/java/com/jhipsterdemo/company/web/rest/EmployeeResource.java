@@ -1,9 +1,15 @@
 package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
 import com.jhipsterdemo.company.repository.EmployeeRepository;
 import com.jhipsterdemo.company.repository.search.EmployeeSearchRepository;
+import com.jhipsterdemo.company.service.CursorPageService;
+import com.jhipsterdemo.company.service.EmployeeHierarchyService;
+import com.jhipsterdemo.company.service.OutboxService;
 import com.jhipsterdemo.company.web.rest.errors.BadRequestAlertException;
+import com.jhipsterdemo.company.web.rest.util.CursorPaginationUtil;
+import com.jhipsterdemo.company.web.rest.util.SearchPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -14,6 +20,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -50,9 +58,23 @@ public class EmployeeResource {
 
     private final EmployeeSearchRepository employeeSearchRepository;
 
-    public EmployeeResource(EmployeeRepository employeeRepository, EmployeeSearchRepository employeeSearchRepository) {
+    private final OutboxService outboxService;
+
+    private final BatchDbRefResolver batchDbRefResolver;
+
+    private final EmployeeHierarchyService employeeHierarchyService;
+
+    private final CursorPageService cursorPageService;
+
+    public EmployeeResource(EmployeeRepository employeeRepository, EmployeeSearchRepository employeeSearchRepository,
+                            OutboxService outboxService, BatchDbRefResolver batchDbRefResolver,
+                            EmployeeHierarchyService employeeHierarchyService, CursorPageService cursorPageService) {
         this.employeeRepository = employeeRepository;
         this.employeeSearchRepository = employeeSearchRepository;
+        this.outboxService = outboxService;
+        this.batchDbRefResolver = batchDbRefResolver;
+        this.employeeHierarchyService = employeeHierarchyService;
+        this.cursorPageService = cursorPageService;
     }
 
     /**
@@ -68,8 +90,7 @@ public class EmployeeResource {
         if (employee.getId() != null) {
             throw new BadRequestAlertException("A new employee cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        return employeeRepository.save(employee)
-            .flatMap(employeeSearchRepository::save)
+        return outboxService.save(employee, employeeRepository::save)
             .map(result -> {
                 try {
                     return ResponseEntity.created(new URI("/api/employees/" + result.getId()))
@@ -96,8 +117,9 @@ public class EmployeeResource {
         if (employee.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        return employeeRepository.save(employee)
-            .flatMap(employeeSearchRepository::save)
+        return outboxService.save(employee, recorded -> employeeHierarchyService.save(recorded, employeeRepository::save))
+            // The org chart can't have cycles, see EmployeeHierarchyService
+            .onErrorMap(IllegalArgumentException.class, e -> new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "managercycle"))
             .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
             .map(result -> ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId()))
@@ -118,7 +140,24 @@ public class EmployeeResource {
         return employeeRepository.count()
             .map(total -> new PageImpl<>(new ArrayList<>(), pageable, total))
             .map(page -> PaginationUtil.generatePaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
-            .map(headers -> ResponseEntity.ok().headers(headers).body(employeeRepository.findAllBy(pageable)));
+            .map(headers -> ResponseEntity.ok().headers(headers).body(batchDbRefResolver.find(new Query().with(pageable), Employee.class)));
+    }
+
+    /**
+     * {@code GET  /employees?cursor=:cursor} : get the page of employees following a cursor.
+     *
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page, or empty for the first page.
+     * @param pageable the pagination information, only the page size is used.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body, sorted by id.
+     */
+    @GetMapping(value = "/employees", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public Mono<ResponseEntity<Flux<Employee>>> getAllEmployeesAfterCursor(@RequestParam String cursor, Pageable pageable, ServerHttpRequest request) {
+        log.debug("REST request to get the Employees after cursor {}", cursor);
+        List<Object> after = CursorPaginationUtil.decodeCursor(cursor, ENTITY_NAME);
+        Flux<Employee> employees = cursorPageService.findAllAfter(Employee.class, after.isEmpty() ? null : CursorPaginationUtil.afterId(after),
+            CursorPaginationUtil.keysetPageable(pageable));
+        return CursorPaginationUtil.keysetResponse(employees, pageable, Employee::getId, UriComponentsBuilder.fromHttpRequest(request));
     }
 
     /**
@@ -130,7 +169,7 @@ public class EmployeeResource {
     @GetMapping("/employees/{id}")
     public Mono<ResponseEntity<Employee>> getEmployee(@PathVariable String id) {
         log.debug("REST request to get Employee : {}", id);
-        Mono<Employee> employee = employeeRepository.findById(id);
+        Mono<Employee> employee = batchDbRefResolver.find(Query.query(Criteria.where("id").is(id)), Employee.class).next();
         return ResponseUtil.wrapOrNotFound(employee);
     }
 
@@ -144,8 +183,8 @@ public class EmployeeResource {
     @ResponseStatus(code = HttpStatus.NO_CONTENT)
     public Mono<ResponseEntity<Void>> deleteEmployee(@PathVariable String id) {
         log.debug("REST request to delete Employee : {}", id);
-        return employeeRepository.deleteById(id)
-            .then(employeeSearchRepository.deleteById(id))            .map(result -> ResponseEntity.noContent()
+        return outboxService.delete(Employee.class, id, employeeRepository.deleteById(id))
+            .map(result -> ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id)).build()
         );
     }
@@ -162,9 +201,28 @@ public class EmployeeResource {
     @GetMapping("/_search/employees")
     public Mono<ResponseEntity<Flux<Employee>>> searchEmployees(@RequestParam String query, Pageable pageable, ServerHttpRequest request) {
         log.debug("REST request to search for a page of Employees for query {}", query);
-        return employeeSearchRepository.count()
-            .map(total -> new PageImpl<>(new ArrayList<>(), pageable, total))
-            .map(page -> PaginationUtil.generatePaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
-            .map(headers -> ResponseEntity.ok().headers(headers).body(employeeSearchRepository.search(query, pageable)));
+        return employeeSearchRepository.search(query, pageable)
+            .map(page -> ResponseEntity.ok()
+                .headers(SearchPaginationUtil.generateSearchPaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
+                .body(Flux.fromIterable(page.getContent())));
         }
+
+    /**
+     * {@code SEARCH  /_search/employees?query=:query&cursor=:cursor} : search for the page of employees corresponding
+     * to the query following a cursor.
+     *
+     * @param query the query of the employee search.
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page, or empty for the first page.
+     * @param pageable the pagination information, only the page size is used.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the result of the search, sorted by score.
+     */
+    @GetMapping(value = "/_search/employees", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public Mono<ResponseEntity<Flux<Employee>>> searchEmployeesAfterCursor(@RequestParam String query, @RequestParam String cursor, Pageable pageable, ServerHttpRequest request) {
+        log.debug("REST request to search for the Employees for query {} after cursor {}", query, cursor);
+        return employeeSearchRepository.searchAfter(query, CursorPaginationUtil.decodeCursor(cursor, ENTITY_NAME), pageable.getPageSize())
+            .map(slice -> ResponseEntity.ok()
+                .headers(CursorPaginationUtil.generateCursorHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), pageable, slice.getNextSearchAfter()))
+                .body(Flux.fromIterable(slice.getContent())));
+    }
 }
@@ -0,0 +1,48 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.service.ExportService;
+import com.jhipsterdemo.company.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * REST controller for exporting whole entity collections, see {@link ExportService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class ExportResource {
+
+    private final Logger log = LoggerFactory.getLogger(ExportResource.class);
+
+    private static final String ENTITY_NAME = "export";
+
+    private final ExportService exportService;
+
+    public ExportResource(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * {@code GET  /export/:entityType} : stream all the entities of a type matching the filters, one JSON document
+     * per line, in id order.
+     *
+     * @param entityType the simple name of the entity class, for example {@code Employee}.
+     * @param filters the filters, as {@code property=value} or {@code property.gte=value}, see {@link ExportService#export}.
+     * @return the {@link Flux} of entities, or status {@code 400 (Bad Request)} if the entity type or a filter is invalid.
+     */
+    @GetMapping(value = "/export/{entityType}", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<Object> exportEntities(@PathVariable String entityType, @RequestParam Map<String, String> filters) {
+        log.debug("REST request to export the {} matching {}", entityType, filters);
+        try {
+            return exportService.export(entityType, filters);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidexport");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.security.AuthoritiesConstants;
+import com.jhipsterdemo.company.service.BulkImportService;
+import com.jhipsterdemo.company.service.dto.BulkImportReport;
+import com.jhipsterdemo.company.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * REST controller for importing entities in bulk, see {@link BulkImportService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class ImportResource {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final Logger log = LoggerFactory.getLogger(ImportResource.class);
+
+    private static final String ENTITY_NAME = "import";
+
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes();
+
+    private final BulkImportService bulkImportService;
+
+    public ImportResource(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    /**
+     * {@code POST  /import/:entityType} : import entities from a file streamed in the body, one JSON object per line
+     * or CSV with a header line, according to its content type.
+     *
+     * @param entityType the simple name of the entity class: {@code Employee}, {@code Job} or {@code JobHistory}.
+     * @param request the request, with the file in body.
+     * @return the {@link BulkImportReport} of the import with status {@code 200 (OK)}, or with status
+     * {@code 400 (Bad Request)} if the entity type can't be imported.
+     */
+    @PostMapping(value = "/import/{entityType}",
+        consumes = {MediaType.APPLICATION_STREAM_JSON_VALUE, APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<BulkImportReport> importEntities(@PathVariable String entityType, ServerHttpRequest request) {
+        log.debug("REST request to import {}", entityType);
+        MediaType contentType = request.getHeaders().getContentType();
+        BulkImportService.Format format = contentType != null && contentType.isCompatibleWith(MediaType.valueOf(TEXT_CSV_VALUE))
+            ? BulkImportService.Format.CSV
+            : BulkImportService.Format.NDJSON;
+        Flux<String> lines = lineDecoder.decode(request.getBody(), ResolvableType.forClass(String.class), contentType, Collections.emptyMap());
+        try {
+            return bulkImportService.importEntities(entityType, format, lines);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidimport");
+        }
+    }
+}
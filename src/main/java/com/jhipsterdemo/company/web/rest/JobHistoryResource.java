@@ -3,6 +3,8 @@ package com.jhipsterdemo.company.web.rest;
 import com.jhipsterdemo.company.domain.JobHistory;
 import com.jhipsterdemo.company.service.JobHistoryService;
 import com.jhipsterdemo.company.web.rest.errors.BadRequestAlertException;
+import com.jhipsterdemo.company.web.rest.util.CursorPaginationUtil;
+import com.jhipsterdemo.company.web.rest.util.SearchPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -114,6 +116,23 @@ public class JobHistoryResource {
             .map(headers -> ResponseEntity.ok().headers(headers).body(jobHistoryService.findAll(pageable)));
     }
 
+    /**
+     * {@code GET  /job-histories?cursor=:cursor} : get the page of jobHistories following a cursor.
+     *
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page, or empty for the first page.
+     * @param pageable the pagination information, only the page size is used.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobHistories in body, sorted by id.
+     */
+    @GetMapping(value = "/job-histories", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public Mono<ResponseEntity<Flux<JobHistory>>> getAllJobHistoriesAfterCursor(@RequestParam String cursor, Pageable pageable, ServerHttpRequest request) {
+        log.debug("REST request to get the JobHistories after cursor {}", cursor);
+        List<Object> after = CursorPaginationUtil.decodeCursor(cursor, ENTITY_NAME);
+        Flux<JobHistory> jobHistories = jobHistoryService.findAllAfter(after.isEmpty() ? null : CursorPaginationUtil.afterId(after),
+            CursorPaginationUtil.keysetPageable(pageable));
+        return CursorPaginationUtil.keysetResponse(jobHistories, pageable, JobHistory::getId, UriComponentsBuilder.fromHttpRequest(request));
+    }
+
     /**
      * {@code GET  /job-histories/:id} : get the "id" jobHistory.
      *
@@ -154,9 +173,28 @@ public class JobHistoryResource {
     @GetMapping("/_search/job-histories")
     public Mono<ResponseEntity<Flux<JobHistory>>> searchJobHistories(@RequestParam String query, Pageable pageable, ServerHttpRequest request) {
         log.debug("REST request to search for a page of JobHistories for query {}", query);
-        return jobHistoryService.searchCount()
-            .map(total -> new PageImpl<>(new ArrayList<>(), pageable, total))
-            .map(page -> PaginationUtil.generatePaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
-            .map(headers -> ResponseEntity.ok().headers(headers).body(jobHistoryService.search(query, pageable)));
+        return jobHistoryService.search(query, pageable)
+            .map(page -> ResponseEntity.ok()
+                .headers(SearchPaginationUtil.generateSearchPaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
+                .body(Flux.fromIterable(page.getContent())));
         }
+
+    /**
+     * {@code SEARCH  /_search/job-histories?query=:query&cursor=:cursor} : search for the page of jobHistorys corresponding
+     * to the query following a cursor.
+     *
+     * @param query the query of the jobHistory search.
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page, or empty for the first page.
+     * @param pageable the pagination information, only the page size is used.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the result of the search, sorted by score.
+     */
+    @GetMapping(value = "/_search/job-histories", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public Mono<ResponseEntity<Flux<JobHistory>>> searchJobHistoriesAfterCursor(@RequestParam String query, @RequestParam String cursor, Pageable pageable, ServerHttpRequest request) {
+        log.debug("REST request to search for the JobHistories for query {} after cursor {}", query, cursor);
+        return jobHistoryService.searchAfter(query, CursorPaginationUtil.decodeCursor(cursor, ENTITY_NAME), pageable.getPageSize())
+            .map(slice -> ResponseEntity.ok()
+                .headers(CursorPaginationUtil.generateCursorHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), pageable, slice.getNextSearchAfter()))
+                .body(Flux.fromIterable(slice.getContent())));
+    }
 }
@@ -3,7 +3,11 @@ package com.jhipsterdemo.company.web.rest;
 import com.jhipsterdemo.company.domain.Job;
 import com.jhipsterdemo.company.repository.JobRepository;
 import com.jhipsterdemo.company.repository.search.JobSearchRepository;
+import com.jhipsterdemo.company.service.CursorPageService;
+import com.jhipsterdemo.company.service.OutboxService;
 import com.jhipsterdemo.company.web.rest.errors.BadRequestAlertException;
+import com.jhipsterdemo.company.web.rest.util.CursorPaginationUtil;
+import com.jhipsterdemo.company.web.rest.util.SearchPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -50,9 +54,16 @@ public class JobResource {
 
     private final JobSearchRepository jobSearchRepository;
 
-    public JobResource(JobRepository jobRepository, JobSearchRepository jobSearchRepository) {
+    private final OutboxService outboxService;
+
+    private final CursorPageService cursorPageService;
+
+    public JobResource(JobRepository jobRepository, JobSearchRepository jobSearchRepository, OutboxService outboxService,
+                       CursorPageService cursorPageService) {
         this.jobRepository = jobRepository;
         this.jobSearchRepository = jobSearchRepository;
+        this.outboxService = outboxService;
+        this.cursorPageService = cursorPageService;
     }
 
     /**
@@ -68,8 +79,7 @@ public class JobResource {
         if (job.getId() != null) {
             throw new BadRequestAlertException("A new job cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        return jobRepository.save(job)
-            .flatMap(jobSearchRepository::save)
+        return outboxService.save(job, jobRepository::save)
             .map(result -> {
                 try {
                     return ResponseEntity.created(new URI("/api/jobs/" + result.getId()))
@@ -96,8 +106,7 @@ public class JobResource {
         if (job.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        return jobRepository.save(job)
-            .flatMap(jobSearchRepository::save)
+        return outboxService.save(job, jobRepository::save)
             .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
             .map(result -> ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId()))
@@ -111,6 +120,7 @@ public class JobResource {
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * At most {@code application.references.max-fan-out} tasks are loaded for each job.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobs in body.
      */
     @GetMapping("/jobs")
@@ -119,7 +129,25 @@ public class JobResource {
         return jobRepository.count()
             .map(total -> new PageImpl<>(new ArrayList<>(), pageable, total))
             .map(page -> PaginationUtil.generatePaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
-            .map(headers -> ResponseEntity.ok().headers(headers).body(jobRepository.findAllBy(pageable)));
+            .map(headers -> ResponseEntity.ok().headers(headers).body(
+                eagerload ? jobRepository.findAllWithEagerRelationships(pageable) : jobRepository.findAllBy(pageable)));
+    }
+
+    /**
+     * {@code GET  /jobs?cursor=:cursor} : get the page of jobs following a cursor.
+     *
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page, or empty for the first page.
+     * @param pageable the pagination information, only the page size is used.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobs in body, sorted by id.
+     */
+    @GetMapping(value = "/jobs", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public Mono<ResponseEntity<Flux<Job>>> getAllJobsAfterCursor(@RequestParam String cursor, Pageable pageable, ServerHttpRequest request) {
+        log.debug("REST request to get the Jobs after cursor {}", cursor);
+        List<Object> after = CursorPaginationUtil.decodeCursor(cursor, ENTITY_NAME);
+        Flux<Job> jobs = cursorPageService.findAllAfter(Job.class, after.isEmpty() ? null : CursorPaginationUtil.afterId(after),
+            CursorPaginationUtil.keysetPageable(pageable));
+        return CursorPaginationUtil.keysetResponse(jobs, pageable, Job::getId, UriComponentsBuilder.fromHttpRequest(request));
     }
 
     /**
@@ -145,8 +173,8 @@ public class JobResource {
     @ResponseStatus(code = HttpStatus.NO_CONTENT)
     public Mono<ResponseEntity<Void>> deleteJob(@PathVariable String id) {
         log.debug("REST request to delete Job : {}", id);
-        return jobRepository.deleteById(id)
-            .then(jobSearchRepository.deleteById(id))            .map(result -> ResponseEntity.noContent()
+        return outboxService.delete(Job.class, id, jobRepository.deleteById(id))
+            .map(result -> ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id)).build()
         );
     }
@@ -163,9 +191,28 @@ public class JobResource {
     @GetMapping("/_search/jobs")
     public Mono<ResponseEntity<Flux<Job>>> searchJobs(@RequestParam String query, Pageable pageable, ServerHttpRequest request) {
         log.debug("REST request to search for a page of Jobs for query {}", query);
-        return jobSearchRepository.count()
-            .map(total -> new PageImpl<>(new ArrayList<>(), pageable, total))
-            .map(page -> PaginationUtil.generatePaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
-            .map(headers -> ResponseEntity.ok().headers(headers).body(jobSearchRepository.search(query, pageable)));
+        return jobSearchRepository.search(query, pageable)
+            .map(page -> ResponseEntity.ok()
+                .headers(SearchPaginationUtil.generateSearchPaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
+                .body(Flux.fromIterable(page.getContent())));
         }
+
+    /**
+     * {@code SEARCH  /_search/jobs?query=:query&cursor=:cursor} : search for the page of jobs corresponding
+     * to the query following a cursor.
+     *
+     * @param query the query of the job search.
+     * @param cursor the cursor of the page, from the {@code Link} header of the previous page, or empty for the first page.
+     * @param pageable the pagination information, only the page size is used.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the result of the search, sorted by score.
+     */
+    @GetMapping(value = "/_search/jobs", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public Mono<ResponseEntity<Flux<Job>>> searchJobsAfterCursor(@RequestParam String query, @RequestParam String cursor, Pageable pageable, ServerHttpRequest request) {
+        log.debug("REST request to search for the Jobs for query {} after cursor {}", query, cursor);
+        return jobSearchRepository.searchAfter(query, CursorPaginationUtil.decodeCursor(cursor, ENTITY_NAME), pageable.getPageSize())
+            .map(slice -> ResponseEntity.ok()
+                .headers(CursorPaginationUtil.generateCursorHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), pageable, slice.getNextSearchAfter()))
+                .body(Flux.fromIterable(slice.getContent())));
+    }
 }
@@ -0,0 +1,38 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.service.QueryPlanService;
+import com.jhipsterdemo.company.service.dto.QueryPlanDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * REST controller for reporting the repository queries MongoDB runs as collection scans, see {@link QueryPlanService}.
+ */
+@RestController
+@RequestMapping("/management/query-plans")
+public class QueryPlanResource {
+
+    private final Logger log = LoggerFactory.getLogger(QueryPlanResource.class);
+
+    private final QueryPlanService queryPlanService;
+
+    public QueryPlanResource(QueryPlanService queryPlanService) {
+        this.queryPlanService = queryPlanService;
+    }
+
+    /**
+     * {@code GET  /query-plans} : get the plans of the repository queries.
+     *
+     * @param collectionScan if {@code true}, only the plans scanning a whole collection.
+     * @return the {@link Flux} of plans.
+     */
+    @GetMapping
+    public Flux<QueryPlanDTO> getQueryPlans(@RequestParam(required = false, defaultValue = "false") boolean collectionScan) {
+        log.debug("REST request to get the plans of the repository queries");
+        return queryPlanService.explainRepositoryQueries()
+            .filter(queryPlan -> !collectionScan || queryPlan.isCollectionScan());
+    }
+}
@@ -0,0 +1,84 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.domain.ReindexJob;
+import com.jhipsterdemo.company.service.ReindexService;
+import com.jhipsterdemo.company.web.rest.errors.BadRequestAlertException;
+
+import io.github.jhipster.web.util.PaginationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+
+/**
+ * REST controller for rebuilding the Elasticsearch indices, see {@link ReindexService}.
+ */
+@RestController
+@RequestMapping("/management/reindex")
+public class ReindexResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReindexResource.class);
+
+    private static final String ENTITY_NAME = "reindexJob";
+
+    private final ReindexService reindexService;
+
+    public ReindexResource(ReindexService reindexService) {
+        this.reindexService = reindexService;
+    }
+
+    /**
+     * {@code POST  /reindex/:entityType} : rebuild the index of an entity, in the background.
+     *
+     * @param entityType the simple name of the entity class, for example {@code Employee}.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and the running job in body,
+     * or with status {@code 400 (Bad Request)} if the index of the entity can't be rebuilt or is already being rebuilt.
+     */
+    @PostMapping("/{entityType}")
+    public Mono<ResponseEntity<ReindexJob>> reindex(@PathVariable String entityType) {
+        log.debug("REST request to rebuild the index of {}", entityType);
+        if (!reindexService.getEntityTypes().contains(entityType)) {
+            throw new BadRequestAlertException("The index of " + entityType + " can't be rebuilt", ENTITY_NAME, "unknownentitytype");
+        }
+        return reindexService.start(entityType)
+            .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+            .onErrorMap(IllegalArgumentException.class, e -> new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "alreadyrunning"));
+    }
+
+    /**
+     * {@code GET  /reindex} : get a page of reindex jobs.
+     *
+     * @param request a {@link ServerHttpRequest} request.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobs in body.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Flux<ReindexJob>>> getAllJobs(ServerHttpRequest request, Pageable pageable) {
+        return reindexService.count()
+            .map(total -> new PageImpl<>(new ArrayList<>(), pageable, total))
+            .map(page -> PaginationUtil.generatePaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
+            .map(headers -> ResponseEntity.ok().headers(headers).body(reindexService.findAll(pageable)));
+    }
+
+    /**
+     * {@code GET  /reindex/:id} : get a reindex job, with its progress and throughput.
+     *
+     * @param id the id of the job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the job in body, or status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    public Mono<ReindexJob> getJob(@PathVariable String id) {
+        return reindexService.findOne(id)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.jhipsterdemo.company.web.rest.errors;
 
+import com.jhipsterdemo.company.security.PasswordHashingRejectedException;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.web.util.HeaderUtil;
 
@@ -7,6 +8,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -129,6 +131,19 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(ex, request, HeaderUtil.createFailureAlert(applicationName, true, ex.getEntityName(), ex.getErrorKey(), ex.getMessage()));
     }
 
+    @ExceptionHandler
+    public Mono<ResponseEntity<Problem>> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex, ServerWebExchange request) {
+        Problem problem = Problem.builder()
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .with(MESSAGE_KEY, ErrorConstants.ERR_PASSWORD_HASHING_REJECTED)
+            .build();
+        return create(ex, problem, request)
+            .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                .headers(entity.getHeaders())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(entity.getBody()));
+    }
+
     @ExceptionHandler
     public Mono<ResponseEntity<Problem>> handleConcurrencyFailure(ConcurrencyFailureException ex, ServerWebExchange request) {
         Problem problem = Problem.builder()
@@ -0,0 +1,148 @@
+package com.jhipsterdemo.company.web.rest.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhipsterdemo.company.web.rest.errors.BadRequestAlertException;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * Instead of skipping the entities of the previous pages, each page starts after the sort values of the last entity
+ * of the previous page, so reading a deep page costs the same as reading the first one. The sort values are sent to
+ * the client as an opaque cursor, in the {@code Link} header of the response; an empty cursor requests the first page.
+ */
+public final class CursorPaginationUtil {
+
+    public static final String CURSOR_PARAMETER = "cursor";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final TypeReference<List<Object>> SORT_VALUES_TYPE = new TypeReference<List<Object>>() {};
+
+    private CursorPaginationUtil() {
+    }
+
+    /**
+     * Decode a cursor.
+     *
+     * @param cursor the cursor sent by the client.
+     * @param entityName the name of the entity, for the error message.
+     * @return the sort values of the last entity of the previous page, empty for the first page.
+     * @throws BadRequestAlertException if the cursor is not valid.
+     */
+    public static List<Object> decodeCursor(String cursor, String entityName) {
+        if (cursor.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<Object> values = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), SORT_VALUES_TYPE);
+            if (values == null || values.isEmpty()) {
+                throw new IllegalArgumentException("No sort value");
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+    }
+
+    /**
+     * Get the id a page starts after, as stored in MongoDB. The ids generated by MongoDB must be compared as
+     * {@link ObjectId}s: the query mapper only converts a String id for equality, and a String is never greater than
+     * an ObjectId.
+     *
+     * @param after the sort values decoded from a non-empty cursor.
+     * @return the id of the last entity of the previous page.
+     */
+    public static Object afterId(List<Object> after) {
+        String id = String.valueOf(after.get(0));
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    /**
+     * Encode the sort values of the last entity of a page.
+     *
+     * @param values the sort values.
+     * @return the opaque cursor of the next page.
+     */
+    public static String encodeCursor(List<Object> values) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(values));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Build the pagination information of a MongoDB query reading a page after a cursor: entities are sorted by id,
+     * and one more entity than the page size is requested to know whether there is a next page.
+     *
+     * @param pageable the pagination information of the request.
+     * @return the pagination information of the query.
+     */
+    public static Pageable keysetPageable(Pageable pageable) {
+        return PageRequest.of(0, pageable.getPageSize() + 1, Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    /**
+     * Build the response of a page read with {@link #keysetPageable(Pageable)}.
+     *
+     * @param entities the entities, one more than the page size if there is a next page.
+     * @param pageable the pagination information of the request.
+     * @param idGetter the getter of the id of the entities.
+     * @param uriBuilder the URI builder of the request.
+     * @param <T> the type of the entities.
+     * @return the {@link ResponseEntity} with the page of entities in body and the {@code Link} header.
+     */
+    public static <T> Mono<ResponseEntity<Flux<T>>> keysetResponse(Flux<T> entities, Pageable pageable,
+                                                                    Function<T, String> idGetter, UriComponentsBuilder uriBuilder) {
+        return entities.collectList()
+            .map(content -> {
+                List<Object> next = null;
+                if (content.size() > pageable.getPageSize()) {
+                    content = content.subList(0, pageable.getPageSize());
+                    next = new ArrayList<>();
+                    next.add(idGetter.apply(content.get(content.size() - 1)));
+                }
+                return ResponseEntity.ok()
+                    .headers(generateCursorHttpHeaders(uriBuilder, pageable, next))
+                    .body(Flux.fromIterable(content));
+            });
+    }
+
+    /**
+     * Generate the {@code Link} header of a page read after a cursor.
+     *
+     * @param uriBuilder the URI builder of the request.
+     * @param pageable the pagination information of the request.
+     * @param next the sort values of the last entity of the page, {@code null} if this is the last page.
+     * @return the {@code Link} header, with a {@code next} link if there is a next page.
+     */
+    public static HttpHeaders generateCursorHttpHeaders(UriComponentsBuilder uriBuilder, Pageable pageable, List<Object> next) {
+        HttpHeaders headers = new HttpHeaders();
+        if (next != null) {
+            String link = uriBuilder
+                .replaceQueryParam(CURSOR_PARAMETER, encodeCursor(next))
+                .replaceQueryParam("page")
+                .replaceQueryParam("size", pageable.getPageSize())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
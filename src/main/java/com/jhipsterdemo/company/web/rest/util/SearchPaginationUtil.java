@@ -0,0 +1,34 @@
+package com.jhipsterdemo.company.web.rest.util;
+
+import com.jhipsterdemo.company.repository.search.SearchPage;
+import io.github.jhipster.web.util.PaginationUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling the pagination of search results.
+ */
+public final class SearchPaginationUtil {
+
+    /**
+     * Tells whether {@code X-Total-Count} is the exact number of hits ({@code eq}) or a lower bound ({@code gte}).
+     */
+    public static final String HEADER_X_TOTAL_COUNT_RELATION = "X-Total-Count-Relation";
+
+    private SearchPaginationUtil() {
+    }
+
+    /**
+     * Generate the pagination headers of a page of search hits.
+     *
+     * @param uriBuilder the URI builder of the request.
+     * @param page the page of hits.
+     * @param <T> the type of the hits.
+     * @return the {@code Link}, {@code X-Total-Count} and {@code X-Total-Count-Relation} headers.
+     */
+    public static <T> HttpHeaders generateSearchPaginationHttpHeaders(UriComponentsBuilder uriBuilder, SearchPage<T> page) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+        headers.add(HEADER_X_TOTAL_COUNT_RELATION, page.isTotalLowerBound() ? "gte" : "eq");
+        return headers;
+    }
+}
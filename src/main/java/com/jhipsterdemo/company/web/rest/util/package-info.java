@@ -0,0 +1,4 @@
+/**
+ * Utilities for the REST controllers.
+ */
+package com.jhipsterdemo.company.web.rest.util;
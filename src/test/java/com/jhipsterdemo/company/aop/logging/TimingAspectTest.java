@@ -0,0 +1,135 @@
+package com.jhipsterdemo.company.aop.logging;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class TimingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(TimedService.class.getMethod("find"));
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    public void testMonoIsTimedUntilItCompletes() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Mono.delay(Duration.ofMillis(50)));
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, 1);
+
+        Mono<?> result = (Mono<?>) timingAspect.timeAround(joinPoint);
+        assertThat(timer("success").count()).isEqualTo(0);
+        result.block();
+
+        assertThat(timer("success").count()).isEqualTo(1);
+        assertThat(timer("success").totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    public void testFailedFluxIsTimedAsError() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Flux.error(new IllegalStateException("Timeout")));
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, 1);
+
+        assertThatThrownBy(() -> ((Flux<?>) timingAspect.timeAround(joinPoint)).blockLast())
+            .hasMessage("Timeout");
+
+        assertThat(timer("error").count()).isEqualTo(1);
+        assertThat(timer("success").count()).isEqualTo(0);
+    }
+
+    @Test
+    public void testExceptionIsTimedAsError() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalArgumentException("Invalid id"));
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, 1);
+
+        assertThatThrownBy(() -> timingAspect.timeAround(joinPoint)).hasMessage("Invalid id");
+
+        assertThat(timer("error").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMonoCancelledAfterItsValueIsTimedOnce() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Mono.delay(Duration.ofMillis(10)));
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, 1);
+
+        ((Mono<?>) timingAspect.timeAround(joinPoint)).flux().take(1).blockLast();
+
+        assertThat(timer("success").count()).isEqualTo(1);
+        assertThat(timer("cancel").count()).isEqualTo(0);
+    }
+
+    @Test
+    public void testCallsAreTaggedWithTheTargetClass() throws Throwable {
+        when(joinPoint.getTarget()).thenReturn(new ExtendedTimedService());
+        when(joinPoint.proceed()).thenReturn("value");
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, 1);
+
+        timingAspect.timeAround(joinPoint);
+
+        assertThat(meterRegistry.get(TimingAspect.TIMER_NAME).tag("class", "ExtendedTimedService").tag("method", "find")
+            .tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRepositoryCallsAreTaggedWithTheRepositoryInterface() throws Exception {
+        Object repository = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{TimedRepository.class, Repository.class},
+            (proxy, method, args) -> null);
+
+        assertThat(TimingAspect.getTimedClass(repository, ReactiveCrudRepository.class.getMethod("findAll")))
+            .isEqualTo(TimedRepository.class);
+    }
+
+    @Test
+    public void testCallsAreNotTimedWhenNotSampled() throws Throwable {
+        Mono<String> mono = Mono.just("value");
+        when(joinPoint.proceed()).thenReturn(mono);
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, 0);
+
+        assertThat(timingAspect.timeAround(joinPoint)).isSameAs(mono);
+        assertThat(meterRegistry.find(TimingAspect.TIMER_NAME).timers()).isEmpty();
+        verify(joinPoint, never()).getSignature();
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get(TimingAspect.TIMER_NAME)
+            .tag("class", "TimedService")
+            .tag("method", "find")
+            .tag("outcome", outcome)
+            .timer();
+    }
+
+    public static class TimedService {
+
+        public Mono<String> find() {
+            return Mono.empty();
+        }
+    }
+
+    public static class ExtendedTimedService extends TimedService {
+    }
+
+    public interface TimedRepository extends ReactiveCrudRepository<Object, String> {
+    }
+}
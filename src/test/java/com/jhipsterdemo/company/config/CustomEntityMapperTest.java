@@ -0,0 +1,82 @@
+package com.jhipsterdemo.company.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.Job;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CustomEntityMapperTest {
+
+    private static final Instant HIRE_DATE = Instant.parse("2015-08-04T10:11:30.123456789Z");
+
+    @Test
+    public void testEntityIsMappedAsItsJson() throws Exception {
+        assertMappedAsItsJson(objectMapper());
+    }
+
+    @Test
+    public void testEntityIsMappedAsItsJsonWithNanosecondTimestamps() throws Exception {
+        ObjectMapper objectMapper = objectMapper();
+        objectMapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        assertMappedAsItsJson(objectMapper);
+    }
+
+    @Test
+    public void testDocumentIsReadBack() {
+        EntityMapper entityMapper = new ElasticsearchConfiguration(objectMapper()).getEntityMapper();
+        Employee employee = employee();
+
+        Employee read = entityMapper.readObject(entityMapper.mapObject(employee), Employee.class);
+
+        assertThat(read.getId()).isEqualTo(employee.getId());
+        assertThat(read.getFirstName()).isEqualTo(employee.getFirstName());
+        assertThat(read.getHireDate()).isEqualTo(HIRE_DATE);
+        assertThat(read.getJobs()).extracting(Job::getJobTitle).containsExactly("Developer");
+        assertThat(read.getManager().getId()).isEqualTo("manager-1");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertMappedAsItsJson(ObjectMapper objectMapper) throws Exception {
+        EntityMapper entityMapper = new ElasticsearchConfiguration(objectMapper).getEntityMapper();
+        Employee employee = employee();
+
+        Map<String, Object> document = entityMapper.mapObject(employee);
+
+        assertThat(document).isEqualTo(objectMapper.readValue(entityMapper.mapToString(employee), HashMap.class));
+    }
+
+    private static ObjectMapper objectMapper() {
+        // As configured by Spring Boot
+        return Jackson2ObjectMapperBuilder.json()
+            .modules(new JavaTimeModule(), new Jdk8Module())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    private static Employee employee() {
+        Employee manager = new Employee().firstName("Ada");
+        manager.setId("manager-1");
+        Job job = new Job().jobTitle("Developer").minSalary(1000L);
+        job.setId("job-1");
+        Employee employee = new Employee()
+            .firstName("Grace")
+            .lastName("Hopper")
+            .hireDate(HIRE_DATE)
+            .salary(2000L)
+            .manager(manager)
+            .addJob(job);
+        employee.setId("employee-1");
+        return employee;
+    }
+}
@@ -14,9 +14,26 @@ public class AccommodationTest {
         Accommodation accommodation2 = new Accommodation();
         accommodation2.setId(accommodation1.getId());
         assertThat(accommodation1).isEqualTo(accommodation2);
+        assertThat(accommodation1.hashCode()).isEqualTo(accommodation2.hashCode());
         accommodation2.setId("id2");
         assertThat(accommodation1).isNotEqualTo(accommodation2);
         accommodation1.setId(null);
         assertThat(accommodation1).isNotEqualTo(accommodation2);
     }
+
+    @Test
+    public void compareToIsConsistentWithEquals() {
+        Accommodation accommodation1 = new Accommodation();
+        accommodation1.setId("id1");
+        Accommodation accommodation2 = new Accommodation();
+        accommodation2.setId("id2");
+        assertThat(accommodation1.compareTo(accommodation2)).isNegative();
+        accommodation2.setId(accommodation1.getId());
+        assertThat(accommodation1.compareTo(accommodation2)).isZero();
+        Accommodation new1 = new Accommodation();
+        Accommodation new2 = new Accommodation();
+        assertThat(new1.compareTo(accommodation1)).isNegative();
+        assertThat(new1.compareTo(new1)).isZero();
+        assertThat(Integer.signum(new1.compareTo(new2))).isEqualTo(-Integer.signum(new2.compareTo(new1)));
+    }
 }
@@ -14,6 +14,7 @@ public class CountryTest {
         Country country2 = new Country();
         country2.setId(country1.getId());
         assertThat(country1).isEqualTo(country2);
+        assertThat(country1.hashCode()).isEqualTo(country2.hashCode());
         country2.setId("id2");
         assertThat(country1).isNotEqualTo(country2);
         country1.setId(null);
@@ -14,6 +14,7 @@ public class DepartmentTest {
         Department department2 = new Department();
         department2.setId(department1.getId());
         assertThat(department1).isEqualTo(department2);
+        assertThat(department1.hashCode()).isEqualTo(department2.hashCode());
         department2.setId("id2");
         assertThat(department1).isNotEqualTo(department2);
         department1.setId(null);
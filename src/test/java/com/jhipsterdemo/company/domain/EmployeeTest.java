@@ -4,6 +4,11 @@ import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.assertThat;
 import com.jhipsterdemo.company.web.rest.TestUtil;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 public class EmployeeTest {
 
     @Test
@@ -14,9 +19,55 @@ public class EmployeeTest {
         Employee employee2 = new Employee();
         employee2.setId(employee1.getId());
         assertThat(employee1).isEqualTo(employee2);
+        assertThat(employee1.hashCode()).isEqualTo(employee2.hashCode());
         employee2.setId("id2");
         assertThat(employee1).isNotEqualTo(employee2);
         employee1.setId(null);
         assertThat(employee1).isNotEqualTo(employee2);
     }
+
+    @Test
+    public void compareToIsConsistentWithEquals() {
+        Employee employee1 = new Employee();
+        employee1.setId("id1");
+        Employee employee2 = new Employee();
+        employee2.setId("id2");
+        Employee copy = new Employee();
+        copy.setId("id1");
+        assertThat(employee1.compareTo(employee2)).isNegative();
+        assertThat(employee2.compareTo(employee1)).isPositive();
+        assertThat(employee1.compareTo(copy)).isZero();
+        Employee new1 = new Employee();
+        Employee new2 = new Employee();
+        assertThat(new1.compareTo(new1)).isZero();
+        assertThat(new1.compareTo(employee1)).isNegative();
+        assertThat(employee1.compareTo(new1)).isPositive();
+        assertThat(Integer.signum(new1.compareTo(new2))).isEqualTo(-Integer.signum(new2.compareTo(new1)));
+    }
+
+    @Test
+    public void hashSetKeepsTheEntitiesSharingTheHashCode() {
+        Set<Employee> employees = new HashSet<>();
+        List<Employee> withoutId = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Employee employee = new Employee();
+            employee.setId(String.format("id%04d", i));
+            employees.add(employee);
+        }
+        for (int i = 0; i < 10; i++) {
+            Employee employee = new Employee();
+            withoutId.add(employee);
+            employees.add(employee);
+        }
+
+        assertThat(employees).hasSize(1010);
+        Employee copy = new Employee();
+        copy.setId("id0500");
+        assertThat(employees).contains(copy);
+        assertThat(employees).containsAll(withoutId);
+        assertThat(employees).doesNotContain(new Employee());
+        assertThat(employees.remove(copy)).isTrue();
+        assertThat(employees.remove(withoutId.get(0))).isTrue();
+        assertThat(employees).hasSize(1008).doesNotContain(copy, withoutId.get(0));
+    }
 }
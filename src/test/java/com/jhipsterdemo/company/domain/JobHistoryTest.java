@@ -14,6 +14,7 @@ public class JobHistoryTest {
         JobHistory jobHistory2 = new JobHistory();
         jobHistory2.setId(jobHistory1.getId());
         assertThat(jobHistory1).isEqualTo(jobHistory2);
+        assertThat(jobHistory1.hashCode()).isEqualTo(jobHistory2.hashCode());
         jobHistory2.setId("id2");
         assertThat(jobHistory1).isNotEqualTo(jobHistory2);
         jobHistory1.setId(null);
@@ -14,9 +14,26 @@ public class JobTest {
         Job job2 = new Job();
         job2.setId(job1.getId());
         assertThat(job1).isEqualTo(job2);
+        assertThat(job1.hashCode()).isEqualTo(job2.hashCode());
         job2.setId("id2");
         assertThat(job1).isNotEqualTo(job2);
         job1.setId(null);
         assertThat(job1).isNotEqualTo(job2);
     }
+
+    @Test
+    public void compareToIsConsistentWithEquals() {
+        Job job1 = new Job();
+        job1.setId("id1");
+        Job job2 = new Job();
+        job2.setId("id2");
+        assertThat(job1.compareTo(job2)).isNegative();
+        job2.setId(job1.getId());
+        assertThat(job1.compareTo(job2)).isZero();
+        Job new1 = new Job();
+        Job new2 = new Job();
+        assertThat(new1.compareTo(job1)).isNegative();
+        assertThat(new1.compareTo(new1)).isZero();
+        assertThat(Integer.signum(new1.compareTo(new2))).isEqualTo(-Integer.signum(new2.compareTo(new1)));
+    }
 }
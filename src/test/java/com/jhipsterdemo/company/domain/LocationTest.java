@@ -14,6 +14,7 @@ public class LocationTest {
         Location location2 = new Location();
         location2.setId(location1.getId());
         assertThat(location1).isEqualTo(location2);
+        assertThat(location1.hashCode()).isEqualTo(location2.hashCode());
         location2.setId("id2");
         assertThat(location1).isNotEqualTo(location2);
         location1.setId(null);
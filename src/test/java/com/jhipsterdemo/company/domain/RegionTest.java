@@ -14,6 +14,7 @@ public class RegionTest {
         Region region2 = new Region();
         region2.setId(region1.getId());
         assertThat(region1).isEqualTo(region2);
+        assertThat(region1.hashCode()).isEqualTo(region2.hashCode());
         region2.setId("id2");
         assertThat(region1).isNotEqualTo(region2);
         region1.setId(null);
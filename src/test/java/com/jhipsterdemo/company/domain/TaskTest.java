@@ -14,9 +14,26 @@ public class TaskTest {
         Task task2 = new Task();
         task2.setId(task1.getId());
         assertThat(task1).isEqualTo(task2);
+        assertThat(task1.hashCode()).isEqualTo(task2.hashCode());
         task2.setId("id2");
         assertThat(task1).isNotEqualTo(task2);
         task1.setId(null);
         assertThat(task1).isNotEqualTo(task2);
     }
+
+    @Test
+    public void compareToIsConsistentWithEquals() {
+        Task task1 = new Task();
+        task1.setId("id1");
+        Task task2 = new Task();
+        task2.setId("id2");
+        assertThat(task1.compareTo(task2)).isNegative();
+        task2.setId(task1.getId());
+        assertThat(task1.compareTo(task2)).isZero();
+        Task new1 = new Task();
+        Task new2 = new Task();
+        assertThat(new1.compareTo(task1)).isNegative();
+        assertThat(new1.compareTo(new1)).isZero();
+        assertThat(Integer.signum(new1.compareTo(new2))).isEqualTo(-Integer.signum(new2.compareTo(new1)));
+    }
 }
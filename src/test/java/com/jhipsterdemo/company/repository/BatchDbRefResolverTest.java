@@ -0,0 +1,119 @@
+package com.jhipsterdemo.company.repository;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.JobHistory;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BatchDbRefResolverTest {
+
+    private static final ObjectId EMPLOYEE_ID = new ObjectId();
+
+    private static final ObjectId MANAGER_ID = new ObjectId();
+
+    private static final ObjectId DEPARTMENT_ID = new ObjectId();
+
+    private static final ObjectId MISSING_JOB_ID = new ObjectId();
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private Map<String, List<Document>> collections;
+
+    private BatchDbRefResolver batchDbRefResolver;
+
+    @BeforeEach
+    public void setup() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        when(mongoOperations.getConverter()).thenReturn(converter);
+        collections = new HashMap<>();
+        when(mongoOperations.find(any(Query.class), eq(Document.class), anyString())).thenAnswer(invocation -> {
+            Document filter = invocation.<Query>getArgument(0).getQueryObject();
+            Collection<?> ids = filter.containsKey("_id") ? filter.get("_id", Document.class).get("$in", Collection.class) : null;
+            return Flux.fromIterable(collections.getOrDefault(invocation.getArgument(2), Collections.emptyList()))
+                .filter(document -> ids == null || ids.contains(document.get("_id")))
+                .map(Document::new);
+        });
+        batchDbRefResolver = new BatchDbRefResolver(mongoOperations, new MongoCustomConversions(Collections.emptyList()),
+            new ApplicationProperties());
+    }
+
+    @Test
+    public void testReferencesAreReadWithOneQueryByCollectionAndLevel() {
+        collections.put("job_history", Collections.singletonList(new Document("_id", new ObjectId())
+            .append("job", new DBRef("job", MISSING_JOB_ID))
+            .append("department", new DBRef("department", DEPARTMENT_ID))
+            .append("employee", new DBRef("employee", EMPLOYEE_ID))));
+        collections.put("employee", Arrays.asList(
+            new Document("_id", EMPLOYEE_ID).append("first_name", "Grace").append("manager", new DBRef("employee", MANAGER_ID)),
+            new Document("_id", MANAGER_ID).append("first_name", "Ada").append("department", new DBRef("department", DEPARTMENT_ID))));
+        collections.put("department", Collections.singletonList(new Document("_id", DEPARTMENT_ID).append("department_name", "Sales")));
+
+        List<JobHistory> jobHistories = batchDbRefResolver.find(new Query(), JobHistory.class).collectList().block();
+
+        assertThat(jobHistories).hasSize(1);
+        JobHistory jobHistory = jobHistories.get(0);
+        assertThat(jobHistory.getJob()).isNull();
+        assertThat(jobHistory.getDepartment().getDepartmentName()).isEqualTo("Sales");
+        Employee manager = jobHistory.getEmployee().getManager();
+        assertThat(manager.getFirstName()).isEqualTo("Ada");
+        // The references deeper than the maximum depth only have their id
+        assertThat(manager.getDepartment().getId()).isEqualTo(DEPARTMENT_ID.toHexString());
+        assertThat(manager.getDepartment().getDepartmentName()).isNull();
+        verify(mongoOperations, times(1)).find(any(Query.class), eq(Document.class), eq("job"));
+        verify(mongoOperations, times(1)).find(any(Query.class), eq(Document.class), eq("department"));
+        verify(mongoOperations, times(2)).find(any(Query.class), eq(Document.class), eq("employee"));
+    }
+
+    @Test
+    public void testQueryIsMappedToTheDocumentFields() {
+        Query query = Query.query(Criteria.where("id").gt(EMPLOYEE_ID)).with(Sort.by("id"));
+
+        batchDbRefResolver.find(query, Employee.class).collectList().block();
+
+        ArgumentCaptor<Query> mappedQuery = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(mappedQuery.capture(), eq(Document.class), eq("employee"));
+        assertThat(mappedQuery.getValue().getQueryObject()).isEqualTo(new Document("_id", new Document("$gt", EMPLOYEE_ID)));
+        assertThat(mappedQuery.getValue().getSortObject()).isEqualTo(new Document("_id", 1));
+    }
+
+    @Test
+    public void testReadResolvesTheReferencesOfRawDocuments() {
+        collections.put("employee", Collections.singletonList(new Document("_id", MANAGER_ID).append("first_name", "Ada")));
+
+        List<Employee> employees = batchDbRefResolver.read(Collections.singletonList(
+            new Document("_id", EMPLOYEE_ID).append("manager", new DBRef("employee", MANAGER_ID))), Employee.class).block();
+
+        assertThat(employees).extracting(Employee::getId).containsExactly(EMPLOYEE_ID.toHexString());
+        assertThat(employees.get(0).getManager().getFirstName()).isEqualTo("Ada");
+        ArgumentCaptor<Query> referenceQuery = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(referenceQuery.capture(), eq(Document.class), eq("employee"));
+        assertThat(referenceQuery.getValue().getQueryObject().get("_id", Document.class).get("$in", Collection.class))
+            .containsExactly(MANAGER_ID);
+    }
+}
@@ -0,0 +1,183 @@
+package com.jhipsterdemo.company.repository.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.config.ElasticsearchConfiguration;
+import com.jhipsterdemo.company.domain.Region;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.reactive.ReactiveElasticsearchClient;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BulkSearchIndexerTest {
+
+    private ReactiveElasticsearchClient client;
+
+    private ApplicationProperties applicationProperties;
+
+    private BulkSearchIndexer bulkSearchIndexer;
+
+    @BeforeEach
+    public void setup() {
+        client = mock(ReactiveElasticsearchClient.class);
+        ReactiveElasticsearchOperations elasticsearchOperations = mock(ReactiveElasticsearchOperations.class);
+        when(elasticsearchOperations.getElasticsearchConverter())
+            .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearchIndex().getBulk().setRetryBackoffMs(1);
+        bulkSearchIndexer = new BulkSearchIndexer(client, elasticsearchOperations,
+            new ElasticsearchConfiguration(new ObjectMapper()).getEntityMapper(), applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testOperationsOnTheSameDocumentAreCoalesced() {
+        List<BulkRequest> requests = respondWith(request -> success(request));
+
+        BulkIndexResult result = bulkSearchIndexer.bulk(Arrays.asList(
+            SearchIndexOperation.index(region("1"), "1"),
+            SearchIndexOperation.index(region("2"), "2"),
+            SearchIndexOperation.delete(Region.class, "1")
+        )).block();
+
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.hasFailures()).isFalse();
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0).requests()).hasSize(2);
+        assertThat(requests.get(0).requests().get(1)).isInstanceOf(DeleteRequest.class);
+        assertThat(requests.get(0).requests().get(1).id()).isEqualTo("1");
+    }
+
+    @Test
+    public void testBatchesAreSplitByActionCount() {
+        applicationProperties.getSearchIndex().getBulk().setMaxActions(2);
+        List<BulkRequest> requests = respondWith(request -> success(request));
+
+        BulkIndexResult result = bulkSearchIndexer.index(Flux.range(0, 5)
+            .map(i -> SearchIndexOperation.index(region(String.valueOf(i)), String.valueOf(i))))
+            .reduce(BulkIndexResult::merge)
+            .block();
+
+        assertThat(result.getSucceeded()).isEqualTo(5);
+        assertThat(requests).extracting(BulkRequest::numberOfActions).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    public void testRejectedItemsAreRetriedAndOtherFailuresReported() {
+        List<BulkRequest> requests = respondWith(request -> {
+            List<BulkItemResponse> items = new ArrayList<>();
+            for (int i = 0; i < request.requests().size(); i++) {
+                DocWriteRequest<?> item = request.requests().get(i);
+                if (item.id().equals("busy") && request.numberOfActions() > 1) {
+                    items.add(failure(i, item, RestStatus.TOO_MANY_REQUESTS));
+                } else if (item.id().equals("invalid")) {
+                    items.add(failure(i, item, RestStatus.BAD_REQUEST));
+                } else if (item.id().equals("existing")) {
+                    items.add(failure(i, item, RestStatus.CONFLICT));
+                } else {
+                    items.add(success(i, item));
+                }
+            }
+            return new BulkResponse(items.toArray(new BulkItemResponse[0]), 1);
+        });
+
+        BulkIndexResult result = bulkSearchIndexer.bulk(Arrays.asList(
+            SearchIndexOperation.index(region("busy"), "busy"),
+            SearchIndexOperation.index(region("invalid"), "invalid"),
+            SearchIndexOperation.create(region("existing"), "existing"),
+            SearchIndexOperation.index(region("ok"), "ok")
+        )).block();
+
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).requests()).extracting(DocWriteRequest::id).containsExactly("busy");
+        assertThat(result.getSucceeded()).isEqualTo(3);
+        assertThat(result.getFailures()).hasSize(1);
+        assertThat(result.getFailures().get(0).getOperation().getId()).isEqualTo("invalid");
+        assertThat(result.getFailures().get(0).getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    public void testOnlyConnectionErrorsAreRetried() {
+        List<BulkRequest> requests = new ArrayList<>();
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            requests.add(request);
+            return requests.size() == 1 ? Mono.error(new IOException("Connection reset")) : Mono.just(success(request));
+        });
+
+        BulkIndexResult result = bulkSearchIndexer.bulk(Collections.singletonList(
+            SearchIndexOperation.index(region("1"), "1"))).block();
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    public void testOtherErrorsAreNotRetried() {
+        when(client.bulk(any(BulkRequest.class))).thenReturn(Mono.error(new IllegalStateException("Unparseable response")));
+
+        assertThatThrownBy(() -> bulkSearchIndexer.bulk(Collections.singletonList(
+            SearchIndexOperation.index(region("1"), "1"))).block())
+            .isInstanceOf(IllegalStateException.class);
+        verify(client, times(1)).bulk(any(BulkRequest.class));
+    }
+
+    private List<BulkRequest> respondWith(Function<BulkRequest, BulkResponse> responder) {
+        List<BulkRequest> requests = new ArrayList<>();
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            requests.add(request);
+            return Mono.just(responder.apply(request));
+        });
+        return requests;
+    }
+
+    private static Region region(String id) {
+        Region region = new Region().regionName("region " + id);
+        region.setId(id);
+        return region;
+    }
+
+    private static BulkResponse success(BulkRequest request) {
+        BulkItemResponse[] items = new BulkItemResponse[request.numberOfActions()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = success(i, request.requests().get(i));
+        }
+        return new BulkResponse(items, 1);
+    }
+
+    private static BulkItemResponse success(int itemId, DocWriteRequest<?> request) {
+        return new BulkItemResponse(itemId, request.opType(),
+            new IndexResponse(new ShardId(request.index(), "_na_", 0), request.type(), request.id(), 1, 1, 1, true));
+    }
+
+    private static BulkItemResponse failure(int itemId, DocWriteRequest<?> request, RestStatus status) {
+        return new BulkItemResponse(itemId, request.opType(), new BulkItemResponse.Failure(request.index(), request.type(),
+            request.id(), new ElasticsearchException(status.name()), status));
+    }
+}
@@ -0,0 +1,93 @@
+package com.jhipsterdemo.company.security;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.User;
+import com.jhipsterdemo.company.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the cache of {@link DomainUserDetailsService}.
+ */
+public class DomainUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+
+    private User user;
+
+    private DomainUserDetailsService domainUserDetailsService;
+
+    @BeforeEach
+    public void setup() {
+        user = new User();
+        user.setId("user-id");
+        user.setLogin("test-user");
+        user.setEmail("test-user@localhost");
+        user.setPassword("password");
+        user.setActivated(true);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findOneByLogin(anyString())).thenAnswer(invocation -> Mono.justOrEmpty(
+            user.getLogin().equals(invocation.getArgument(0)) ? user : null));
+        when(userRepository.findOneByEmailIgnoreCase(anyString())).thenAnswer(invocation -> Mono.justOrEmpty(
+            user.getEmail().equalsIgnoreCase(invocation.getArgument(0)) ? user : null));
+        domainUserDetailsService = new DomainUserDetailsService(userRepository, new ApplicationProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testUserIsCachedByNormalizedLogin() {
+        domainUserDetailsService.findByUsername("test-user").block();
+        UserDetails userDetails = domainUserDetailsService.findByUsername("TEST-USER").block();
+
+        assertThat(userDetails.getUsername()).isEqualTo("test-user");
+        assertThat(userDetails.getPassword()).isEqualTo("password");
+        verify(userRepository, times(1)).findOneByLogin("test-user");
+    }
+
+    @Test
+    public void testUserIsCachedByNormalizedEmail() {
+        domainUserDetailsService.findByUsername("test-user@localhost").block();
+        UserDetails userDetails = domainUserDetailsService.findByUsername("Test-User@Localhost").block();
+
+        assertThat(userDetails.getUsername()).isEqualTo("test-user");
+        verify(userRepository, times(1)).findOneByEmailIgnoreCase(anyString());
+    }
+
+    @Test
+    public void testEachLookupGetsItsOwnUserDetails() {
+        UserDetails first = domainUserDetailsService.findByUsername("test-user").block();
+        UserDetails second = domainUserDetailsService.findByUsername("test-user").block();
+
+        assertThat(first).isNotSameAs(second);
+    }
+
+    @Test
+    public void testEvictedUserIsReadAgain() {
+        domainUserDetailsService.findByUsername("test-user").block();
+        domainUserDetailsService.findByUsername("test-user@localhost").block();
+
+        user.setPassword("new-password");
+        domainUserDetailsService.evict(user);
+
+        assertThat(domainUserDetailsService.findByUsername("test-user").block().getPassword()).isEqualTo("new-password");
+        assertThat(domainUserDetailsService.findByUsername("test-user@localhost").block().getPassword()).isEqualTo("new-password");
+        verify(userRepository, times(2)).findOneByLogin("test-user");
+    }
+
+    @Test
+    public void testNotActivatedUserIsNotCached() {
+        user.setActivated(false);
+        assertThatExceptionOfType(UserNotActivatedException.class)
+            .isThrownBy(() -> domainUserDetailsService.findByUsername("test-user").block());
+
+        user.setActivated(true);
+        assertThat(domainUserDetailsService.findByUsername("test-user").block()).isNotNull();
+    }
+}
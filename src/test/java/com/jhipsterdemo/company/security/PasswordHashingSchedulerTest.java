@@ -0,0 +1,67 @@
+package com.jhipsterdemo.company.security;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link PasswordHashingScheduler}.
+ */
+public class PasswordHashingSchedulerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordHashingScheduler passwordHashingScheduler;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPasswordHashing().setThreads(1);
+        applicationProperties.getPasswordHashing().setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingScheduler = new PasswordHashingScheduler(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void destroy() {
+        release.countDown();
+        passwordHashingScheduler.destroy();
+    }
+
+    @Test
+    public void testHashRunsOnThePasswordHashingThreads() {
+        String threadName = passwordHashingScheduler.hash(() -> Thread.currentThread().getName()).block();
+
+        assertThat(threadName).startsWith("password-hashing-");
+        assertThat(meterRegistry.timer("password.hashing.wait").count()).isEqualTo(1);
+        // The hash time is recorded once the task returns, after its result is delivered: the next task on the only
+        // thread starts after that
+        passwordHashingScheduler.hash(() -> "next").block();
+        assertThat(meterRegistry.timer("password.hashing.time").count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testHashIsRejectedWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        passwordHashingScheduler.hash(() -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }).subscribe();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        passwordHashingScheduler.hash(() -> "queued").subscribe();
+
+        assertThatThrownBy(() -> passwordHashingScheduler.hash(() -> "rejected").block())
+            .isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.counter("password.hashing.rejected").count()).isEqualTo(1);
+    }
+}
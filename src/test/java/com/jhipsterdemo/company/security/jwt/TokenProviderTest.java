@@ -1,5 +1,6 @@
 package com.jhipsterdemo.company.security.jwt;
 
+import com.jhipsterdemo.company.config.ApplicationProperties;
 import com.jhipsterdemo.company.security.AuthoritiesConstants;
 
 import java.security.Key;
@@ -30,7 +31,7 @@ public class TokenProviderTest {
 
     @BeforeEach
     public void setup() {
-        tokenProvider = new TokenProvider( new JHipsterProperties());
+        tokenProvider = new TokenProvider(new JHipsterProperties(), new ApplicationProperties());
         key = Keys.hmacShaKeyFor(Decoders.BASE64
             .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8"));
 
@@ -83,6 +84,51 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testGetValidAuthentication() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.getValidAuthentication(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("anonymous");
+        assertThat(authentication.get().getCredentials()).isEqualTo(token);
+        assertThat(authentication.get().getAuthorities()).extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    public void testGetValidAuthenticationReturnsEmptyWhenJWThasInvalidSignature() {
+        Optional<Authentication> authentication = tokenProvider.getValidAuthentication(createTokenWithDifferentSignature());
+
+        assertThat(authentication).isEmpty();
+    }
+
+    @Test
+    public void testGetValidAuthenticationReturnsEmptyWhenJWTisExpired() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.getValidAuthentication(token);
+
+        assertThat(authentication).isEmpty();
+    }
+
+    @Test
+    public void testGetValidAuthenticationDoesNotVerifyCachedJWTAgain() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        Authentication first = tokenProvider.getValidAuthentication(token).get();
+        // A key change would invalidate the token if its signature was verified again
+        ReflectionTestUtils.setField(tokenProvider, "key", Keys.secretKeyFor(SignatureAlgorithm.HS512));
+
+        Optional<Authentication> second = tokenProvider.getValidAuthentication(token);
+
+        assertThat(second).isPresent();
+        assertThat(second.get()).isNotSameAs(first);
+        assertThat(second.get().getName()).isEqualTo(first.getName());
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -8,6 +8,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
@@ -27,6 +31,9 @@ public class AuditEventServiceIT {
     @Autowired
     private JHipsterProperties jHipsterProperties;
 
+    @Autowired
+    private ReactiveMongoOperations mongoOperations;
+
     private PersistentAuditEvent auditEventOld;
 
     private PersistentAuditEvent auditEventWithinRetention;
@@ -65,4 +72,17 @@ public class AuditEventServiceIT {
         assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-retention").collectList().block()).isNotEmpty();
         assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-new").collectList().block()).isNotEmpty();
     }
+
+    @Test
+    public void verifyAuditEventsExpireAfterTheRetentionPeriod() {
+        auditEventService.createRetentionIndexReactively().block();
+        // Creating it again, as on each startup, is a no-op
+        auditEventService.createRetentionIndexReactively().block();
+
+        IndexInfo index = mongoOperations.indexOps(PersistentAuditEvent.class).getIndexInfo()
+            .filter(candidate -> "event_date_ttl".equals(candidate.getName()))
+            .blockFirst();
+        assertThat(index).isNotNull();
+        assertThat(index.getExpireAfter()).contains(Duration.ofDays(jHipsterProperties.getAuditEvents().getRetentionPeriod()));
+    }
 }
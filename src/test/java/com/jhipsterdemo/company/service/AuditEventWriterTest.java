@@ -0,0 +1,227 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.PersistentAuditEvent;
+import com.jhipsterdemo.company.repository.PersistenceAuditEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class AuditEventWriterTest {
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    private final Map<String, PersistentAuditEvent> inserted = new HashMap<>();
+
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private AuditEventBucketService auditEventBucketService;
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AuditEventWriter auditEventWriter;
+
+    @BeforeEach
+    public void setup() {
+        persistenceAuditEventRepository = mock(PersistenceAuditEventRepository.class);
+        when(persistenceAuditEventRepository.insert(anyIterable())).thenAnswer(invocation -> insert(invocation.getArgument(0)));
+        when(persistenceAuditEventRepository.findAllById(anyIterable())).thenAnswer(invocation -> Flux.fromStream(
+            StreamSupport.stream(invocation.<Iterable<String>>getArgument(0).spliterator(), false)
+                .filter(inserted::containsKey)
+                .map(inserted::get)));
+        when(persistenceAuditEventRepository.save(any(PersistentAuditEvent.class)))
+            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        auditEventBucketService = mock(AuditEventBucketService.class);
+        when(auditEventBucketService.increment(anyCollection())).thenReturn(Mono.empty());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getAuditEvents().setQueueCapacity(3);
+        applicationProperties.getAuditEvents().setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        auditEventWriter = new AuditEventWriter(persistenceAuditEventRepository, auditEventBucketService, applicationProperties, meterRegistry);
+    }
+
+    @Test
+    public void testEventsAreWrittenOnceABatchIsQueued() {
+        auditEventWriter.write(event("a")).block();
+        assertThat(batches).isEmpty();
+
+        auditEventWriter.write(event("b")).block();
+
+        assertThat(batches).containsExactly(Arrays.asList("a", "b"));
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testQueuedEventsAreWrittenOnFlush() {
+        auditEventWriter.write(event("a")).block();
+
+        assertThat(auditEventWriter.flush().block()).isEqualTo(1);
+        assertThat(batches).containsExactly(Arrays.asList("a"));
+    }
+
+    @Test
+    public void testNewEventIsWrittenThroughWhenTheQueueIsFull() {
+        fillQueue();
+
+        auditEventWriter.write(event("d")).block();
+
+        verify(persistenceAuditEventRepository).save(any(PersistentAuditEvent.class));
+        auditEventWriter.flush().block();
+        assertThat(batches).containsExactly(Arrays.asList("a", "b", "c"));
+    }
+
+    @Test
+    public void testNewEventIsDroppedWhenTheQueueIsFull() {
+        applicationProperties.getAuditEvents().setOverflowStrategy(AuditEventWriter.OverflowStrategy.DROP_LATEST);
+        fillQueue();
+
+        auditEventWriter.write(event("d")).block();
+        auditEventWriter.flush().block();
+
+        assertThat(batches).containsExactly(Arrays.asList("a", "b", "c"));
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOldestEventIsDroppedWhenTheQueueIsFull() {
+        applicationProperties.getAuditEvents().setOverflowStrategy(AuditEventWriter.OverflowStrategy.DROP_OLDEST);
+        fillQueue();
+
+        auditEventWriter.write(event("d")).block();
+        auditEventWriter.flush().block();
+
+        assertThat(batches).containsExactly(Arrays.asList("b", "c", "d"));
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedBatchIsRequeuedAndStopsTheFlush() {
+        applicationProperties.getAuditEvents().setBatchSize(1);
+        when(persistenceAuditEventRepository.insert(anyIterable()))
+            .thenReturn(Flux.error(new IllegalStateException("Timeout")))
+            .thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<PersistentAuditEvent>>getArgument(0)));
+        auditEventWriter.write(event("a")).block();
+        // Not written right away while the batches fail
+        auditEventWriter.write(event("b")).block();
+
+        verify(persistenceAuditEventRepository).insert(anyIterable());
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isEqualTo(0);
+
+        assertThat(auditEventWriter.flush().block()).isEqualTo(2);
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testEventsWrittenByAFailedBatchAreNotWrittenAgain() {
+        doAnswer(invocation -> {
+            // The first event is written before the failure
+            PersistentAuditEvent first = invocation.<Iterable<PersistentAuditEvent>>getArgument(0).iterator().next();
+            inserted.put(first.getId(), first);
+            return Flux.error(new IllegalStateException("Timeout"));
+        }).doAnswer(invocation -> insert(invocation.getArgument(0))).when(persistenceAuditEventRepository).insert(anyIterable());
+        auditEventWriter.write(event("a")).block();
+        auditEventWriter.write(event("b")).block();
+        verify(auditEventBucketService, never()).increment(anyCollection());
+
+        assertThat(auditEventWriter.flush().block()).isEqualTo(2);
+
+        assertThat(batches).containsExactly(Arrays.asList("b"));
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(2);
+        verify(auditEventBucketService).increment(argThat(events -> events.size() == 2));
+    }
+
+    @Test
+    public void testOldestEventsAreDroppedWhenAFailedBatchNoLongerFits() {
+        applicationProperties.getAuditEvents().setOverflowStrategy(AuditEventWriter.OverflowStrategy.DROP_OLDEST);
+        applicationProperties.getAuditEvents().setBatchSize(2);
+        when(persistenceAuditEventRepository.insert(anyIterable())).thenAnswer(invocation -> {
+            // The queue is filled while the batch is being written
+            auditEventWriter.write(event("c")).block();
+            auditEventWriter.write(event("d")).block();
+            return Flux.error(new IllegalStateException("Timeout"));
+        });
+        auditEventWriter.write(event("a")).block();
+
+        auditEventWriter.write(event("b")).block();
+
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.events.queued").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    public void testQueuedEventsAreWrittenOnCloseOnceTheRunningFlushIsOver() {
+        when(persistenceAuditEventRepository.insert(anyIterable())).thenAnswer(invocation -> {
+            Iterable<PersistentAuditEvent> events = invocation.getArgument(0);
+            return Flux.fromIterable(events).delaySubscription(Duration.ofMillis(200));
+        });
+        auditEventWriter.write(event("a")).block();
+        auditEventWriter.write(event("b")).block();
+        auditEventWriter.write(event("c")).block();
+
+        auditEventWriter.close();
+
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testWrittenEventsAreCountedInTheirBuckets() {
+        auditEventWriter.write(event("a")).block();
+        auditEventWriter.write(event("b")).block();
+
+        verify(auditEventBucketService).increment(argThat(events -> events.size() == 2));
+    }
+
+    @Test
+    public void testFailedCountIsNotCountedAsDropped() {
+        when(auditEventBucketService.increment(anyCollection())).thenReturn(Mono.error(new IllegalStateException("Timeout")));
+        auditEventWriter.write(event("a")).block();
+
+        assertThat(auditEventWriter.flush().block()).isEqualTo(1);
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isEqualTo(0);
+    }
+
+    private Flux<PersistentAuditEvent> insert(Iterable<PersistentAuditEvent> events) {
+        batches.add(StreamSupport.stream(events.spliterator(), false)
+            .map(PersistentAuditEvent::getPrincipal)
+            .collect(Collectors.toList()));
+        events.forEach(event -> inserted.put(event.getId(), event));
+        return Flux.fromIterable(events);
+    }
+
+    /**
+     * Queue a, b and c, with a batch size preventing any flush until the test does.
+     */
+    private void fillQueue() {
+        applicationProperties.getAuditEvents().setBatchSize(10);
+        auditEventWriter.write(event("a")).block();
+        auditEventWriter.write(event("b")).block();
+        auditEventWriter.write(event("c")).block();
+    }
+
+    private static PersistentAuditEvent event(String principal) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(principal);
+        event.setAuditEventType("AUTHENTICATION_SUCCESS");
+        return event;
+    }
+}
@@ -0,0 +1,233 @@
+package com.jhipsterdemo.company.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Department;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.Job;
+import com.jhipsterdemo.company.service.dto.BulkImportReport;
+import com.mongodb.DBRef;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.Success;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Validation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BulkImportServiceTest {
+
+    private static final String DEPARTMENT_ID = "5ee0d7d1a6b2c13c4c5e1f0a";
+
+    private static final String JOB_ID = "5ee0d7d1a6b2c13c4c5e1f0b";
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private MongoCollection<Document> collection;
+
+    private OutboxService outboxService;
+
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        when(mongoOperations.getConverter()).thenReturn(converter);
+        collection = mock(MongoCollection.class);
+        when(mongoOperations.getCollection("employee")).thenReturn(collection);
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Mono.just(Success.SUCCESS));
+        outboxService = mock(OutboxService.class);
+        when(outboxService.insertAll(any(), anyCollection(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+        EmployeeHierarchyService employeeHierarchyService = mock(EmployeeHierarchyService.class);
+        when(employeeHierarchyService.addAncestors(anyList())).thenReturn(Mono.empty());
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(new JavaTimeModule(), new Jdk8Module())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getBulkImport().setBatchSize(10);
+        bulkImportService = new BulkImportService(mongoOperations, outboxService, employeeHierarchyService, objectMapper,
+            Validation.buildDefaultValidatorFactory().getValidator(), applicationProperties);
+    }
+
+    @Test
+    public void testCsvLinesAreSplitIntoValues() {
+        assertThat(BulkImportService.parseCsvLine("a,\"b, c\",,\"d \"\"e\"\"\"\r"))
+            .containsExactly("a", "b, c", "", "d \"e\"");
+        assertThatThrownBy(() -> BulkImportService.parseCsvLine("a,\"b"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReferencesAreResolvedByNaturalKey() {
+        Department department = new Department().departmentName("Sales");
+        department.setId(DEPARTMENT_ID);
+        Job job = new Job().jobTitle("Developer");
+        job.setId(JOB_ID);
+        when(mongoOperations.find(any(Query.class), eq(Department.class))).thenReturn(Flux.just(department));
+        when(mongoOperations.find(any(Query.class), eq(Job.class))).thenReturn(Flux.just(job));
+        when(mongoOperations.find(any(Query.class), eq(Employee.class))).thenReturn(Flux.empty());
+
+        BulkImportReport report = bulkImportService.importEntities("Employee", BulkImportService.Format.CSV, Flux.just(
+            "email,firstName,hireDate,manager,department,jobs",
+            "ada@example.com,Ada,2020-01-01T00:00:00Z,,Sales,Developer",
+            "",
+            "grace@example.com,Grace,2020-02-01T00:00:00Z,ada@example.com,Sales,Developer|Developer",
+            "alan@example.com,Alan,2020-03-01T00:00:00Z,,Marketing,",
+            "joan@example.com,Joan,yesterday,,,"
+        )).block();
+
+        assertThat(report.getRows()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(BulkImportReport.RowError::getLine).containsExactly(5L, 6L);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Unknown department Marketing");
+
+        // Grace is inserted after her manager
+        ArgumentCaptor<List<Document>> documents = ArgumentCaptor.forClass(List.class);
+        verify(collection, times(2)).insertMany(documents.capture(), any(InsertManyOptions.class));
+        assertThat(documents.getAllValues()).extracting(List::size).containsExactly(1, 1);
+        Document ada = documents.getAllValues().get(0).get(0);
+        Document grace = documents.getAllValues().get(1).get(0);
+        assertThat(grace.get("manager", DBRef.class).getId()).isEqualTo(ada.get("_id"));
+        assertThat(grace.get("department", DBRef.class).getId()).isEqualTo(new ObjectId(DEPARTMENT_ID));
+        assertThat(grace.get("job", List.class)).hasSize(1);
+        ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxService, times(2)).insertAll(eq(Employee.class), ids.capture(), any());
+        assertThat(ids.getAllValues()).containsExactly(
+            Collections.singletonList(ada.get("_id").toString()), Collections.singletonList(grace.get("_id").toString()));
+    }
+
+    @Test
+    public void testReferencesToAnAmbiguousNaturalKeyFail() {
+        Department sales = new Department().departmentName("Sales");
+        sales.setId(DEPARTMENT_ID);
+        Department otherSales = new Department().departmentName("Sales");
+        otherSales.setId("5ee0d7d1a6b2c13c4c5e1f0c");
+        when(mongoOperations.find(any(Query.class), eq(Department.class))).thenReturn(Flux.just(sales, otherSales));
+
+        BulkImportReport report = bulkImportService.importEntities("Employee", BulkImportService.Format.NDJSON, Flux.just(
+            "{\"email\":\"ada@example.com\",\"department\":\"Sales\"}"
+        )).block();
+
+        assertThat(report.getImported()).isEqualTo(0);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Ambiguous department Sales, shared by several Departments");
+        verify(collection, never()).insertMany(anyList(), any(InsertManyOptions.class));
+    }
+
+    @Test
+    public void testRowsRejectedByMongoAreReported() {
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Mono.error(new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(1, 0, 0, 0, Collections.emptyList()),
+            Collections.singletonList(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1)),
+            null, new ServerAddress())));
+
+        BulkImportReport report = bulkImportService.importEntities("Employee", BulkImportService.Format.NDJSON, Flux.just(
+            "{\"email\":\"ada@example.com\"}",
+            "{\"email\":\"grace@example.com\"}",
+            "{\"email\":",
+            "{\"password\":\"secret\"}"
+        )).block();
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BulkImportReport.RowError::getLine).containsExactly(2L, 3L, 4L);
+        assertThat(report.getErrors()).extracting(BulkImportReport.RowError::getMessage)
+            .contains("E11000 duplicate key error", "Unknown property password");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRowsReferencingFailedRowsOfTheBatchFail() {
+        Department department = new Department().departmentName("Sales");
+        department.setId(DEPARTMENT_ID);
+        when(mongoOperations.find(any(Query.class), eq(Department.class))).thenReturn(Flux.just(department));
+        when(mongoOperations.find(any(Query.class), eq(Employee.class))).thenReturn(Flux.empty());
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Mono.error(new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(1, 0, 0, 0, Collections.emptyList()),
+            Collections.singletonList(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0)),
+            null, new ServerAddress())), Mono.just(Success.SUCCESS));
+
+        BulkImportReport report = bulkImportService.importEntities("Employee", BulkImportService.Format.CSV, Flux.just(
+            "email,firstName,manager,department",
+            "alan@example.com,Alan,grace@example.com,",
+            "grace@example.com,Grace,ada@example.com,",
+            "ada@example.com,Ada,,Marketing",
+            "joan@example.com,Joan,,Sales",
+            "mary@example.com,Mary,,",
+            "kate@example.com,Kate,joan@example.com,",
+            "dora@example.com,Dora,mary@example.com,",
+            "emmy@example.com,Emmy,emmy@example.com,"
+        )).block();
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(BulkImportReport.RowError::getLine).containsExactly(2L, 3L, 4L, 5L, 7L, 9L);
+        assertThat(report.getErrors()).extracting(BulkImportReport.RowError::getMessage).containsExactly(
+            "Unknown manager grace@example.com: line 3 was not imported",
+            "Unknown manager ada@example.com: line 4 was not imported",
+            "Unknown department Marketing",
+            "E11000 duplicate key error",
+            "Unknown manager joan@example.com: line 5 was not imported",
+            "References rows of the file which reference it back");
+
+        // The reports are inserted after their manager
+        ArgumentCaptor<List<Document>> documents = ArgumentCaptor.forClass(List.class);
+        verify(collection, times(2)).insertMany(documents.capture(), any(InsertManyOptions.class));
+        assertThat(documents.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(documents.getAllValues().get(1).get(0).getString("first_name")).isEqualTo("Dora");
+    }
+
+    @Test
+    public void testManagerCyclesOfTheBatchAreRejected() {
+        when(mongoOperations.find(any(Query.class), eq(Employee.class))).thenReturn(Flux.empty());
+
+        BulkImportReport report = bulkImportService.importEntities("Employee", BulkImportService.Format.CSV, Flux.just(
+            "email,firstName,manager",
+            "ada@example.com,Ada,grace@example.com",
+            "grace@example.com,Grace,ada@example.com"
+        )).block();
+
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getErrors()).extracting(BulkImportReport.RowError::getMessage).containsOnly(
+            "References rows of the file which reference it back");
+        verify(collection, never()).insertMany(anyList(), any(InsertManyOptions.class));
+    }
+
+    @Test
+    public void testUnknownEntityTypeIsRejected() {
+        assertThatThrownBy(() -> bulkImportService.importEntities("Task", BulkImportService.Format.NDJSON, Flux.empty()))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(bulkImportService.getEntityTypes()).containsExactlyElementsOf(Arrays.asList("Employee", "Job", "JobHistory"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
+import com.jhipsterdemo.company.service.dto.SpanOfControlDTO;
+import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EmployeeHierarchyServiceTest {
+
+    private static final ObjectId CEO_ID = new ObjectId();
+
+    private static final ObjectId MANAGER_ID = new ObjectId();
+
+    private static final ObjectId EMPLOYEE_ID = new ObjectId();
+
+    private static final ObjectId REPORT_ID = new ObjectId();
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private MongoCollection<Document> collection;
+
+    private EmployeeHierarchyService employeeHierarchyService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        when(mongoOperations.getCollectionName(Employee.class)).thenReturn("employee");
+        collection = mock(MongoCollection.class);
+        when(mongoOperations.getCollection("employee")).thenReturn(collection);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+        employeeHierarchyService = new EmployeeHierarchyService(mongoOperations, mock(BatchDbRefResolver.class), new ApplicationProperties());
+    }
+
+    @Test
+    public void testAncestorsAreAddedFromStoredAndWrittenManagers() {
+        storedEmployees(new Document("_id", MANAGER_ID).append("ancestors", Collections.singletonList(CEO_ID)));
+        Document employee = employee(EMPLOYEE_ID, MANAGER_ID);
+        Document report = employee(REPORT_ID, EMPLOYEE_ID);
+
+        employeeHierarchyService.addAncestors(Arrays.asList(report, employee)).block();
+
+        assertThat(employee.get("ancestors", List.class)).containsExactly(CEO_ID, MANAGER_ID);
+        assertThat(report.get("ancestors", List.class)).containsExactly(CEO_ID, MANAGER_ID, EMPLOYEE_ID);
+    }
+
+    @Test
+    public void testEmployeeCantBeManagedByTheirReport() {
+        storedEmployees(new Document("_id", REPORT_ID).append("ancestors", Arrays.asList(MANAGER_ID, EMPLOYEE_ID)));
+
+        assertThatThrownBy(() -> Mono.from(employeeHierarchyService.onBeforeSave(new Employee(), employee(EMPLOYEE_ID, REPORT_ID), "employee")).block())
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    public void testCycleAmongWrittenEmployeesIsRejected() {
+        storedEmployees();
+
+        assertThatThrownBy(() -> employeeHierarchyService.addAncestors(Arrays.asList(
+            employee(EMPLOYEE_ID, REPORT_ID), employee(REPORT_ID, EMPLOYEE_ID))).block())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReportsAreMovedWithTheirManagerOnceSaved() {
+        // The employee moves from under the CEO to under the manager
+        when(mongoOperations.findOne(any(Query.class), eq(Document.class), eq("employee"))).thenReturn(
+            Mono.just(new Document("_id", EMPLOYEE_ID).append("ancestors", Collections.singletonList(CEO_ID))),
+            Mono.just(new Document("_id", EMPLOYEE_ID).append("ancestors", Arrays.asList(CEO_ID, MANAGER_ID))));
+        when(mongoOperations.find(argThat((Query query) -> query.getQueryObject().containsKey("ancestors")), eq(Document.class), eq("employee")))
+            .thenReturn(Flux.just(new Document("_id", REPORT_ID).append("ancestors", Arrays.asList(CEO_ID, EMPLOYEE_ID))));
+        Employee employee = new Employee();
+        employee.setId(EMPLOYEE_ID.toHexString());
+
+        assertThat(employeeHierarchyService.save(employee, saved -> {
+            verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+            return Mono.just(saved);
+        }).block()).isSameAs(employee);
+
+        ArgumentCaptor<List<WriteModel<Document>>> updates = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(updates.capture(), any(BulkWriteOptions.class));
+        UpdateOneModel<Document> update = (UpdateOneModel<Document>) updates.getValue().get(0);
+        assertThat(update.getFilter()).isEqualTo(new Document("_id", REPORT_ID));
+        assertThat(update.getUpdate()).isEqualTo(new Document("$set",
+            new Document("ancestors", Arrays.asList(CEO_ID, MANAGER_ID, EMPLOYEE_ID))));
+    }
+
+    @Test
+    public void testReportsAreNotMovedWhenTheSaveFails() {
+        when(mongoOperations.findOne(any(Query.class), eq(Document.class), eq("employee")))
+            .thenReturn(Mono.just(new Document("_id", EMPLOYEE_ID).append("ancestors", Collections.singletonList(CEO_ID))));
+        Employee employee = new Employee();
+        employee.setId(EMPLOYEE_ID.toHexString());
+
+        assertThatThrownBy(() -> employeeHierarchyService.save(employee, saved -> Mono.error(new IllegalStateException("Timeout"))).block())
+            .isInstanceOf(IllegalStateException.class);
+        verify(mongoOperations, never()).find(any(Query.class), eq(Document.class), eq("employee"));
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    public void testSpanOfControlIsCountedByLevel() {
+        when(mongoOperations.aggregate(any(Aggregation.class), eq("employee"), eq(Document.class))).thenReturn(Flux.just(
+            new Document("_id", 2).append("count", 3),
+            new Document("_id", 3).append("count", 5)));
+
+        SpanOfControlDTO spanOfControl = employeeHierarchyService.getSpanOfControl(MANAGER_ID.toHexString()).block();
+
+        assertThat(spanOfControl.getEmployeeId()).isEqualTo(MANAGER_ID.toHexString());
+        assertThat(spanOfControl.getDirectReports()).isEqualTo(3);
+        assertThat(spanOfControl.getTotalReports()).isEqualTo(8);
+        assertThat(spanOfControl.getLevels()).isEqualTo(2);
+    }
+
+    private void storedEmployees(Document... employees) {
+        when(mongoOperations.find(any(Query.class), eq(Document.class), eq("employee"))).thenReturn(Flux.just(employees));
+        when(mongoOperations.findOne(any(Query.class), eq(Document.class), eq("employee"))).thenReturn(Mono.empty());
+    }
+
+    private static Document employee(ObjectId id, ObjectId managerId) {
+        return new Document("_id", id).append("manager", new DBRef("employee", managerId));
+    }
+}
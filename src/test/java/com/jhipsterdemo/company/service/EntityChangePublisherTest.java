@@ -0,0 +1,138 @@
+package com.jhipsterdemo.company.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.config.KafkaProperties;
+import com.jhipsterdemo.company.domain.JobHistory;
+import com.jhipsterdemo.company.domain.Region;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
+import com.jhipsterdemo.company.repository.search.SearchIndexOperation;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EntityChangePublisherTest {
+
+    private final List<ProducerRecord<String, String>> records = new ArrayList<>();
+
+    private final List<String> createdTopics = new ArrayList<>();
+
+    private KafkaSender<String, String> sender;
+
+    private ApplicationProperties applicationProperties;
+
+    private EntityChangePublisher entityChangePublisher;
+
+    private Exception sendError;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        sender = mock(KafkaSender.class);
+        when(sender.send(any())).thenAnswer(invocation -> Flux.from((Publisher<SenderRecord<String, String, String>>) invocation.getArgument(0))
+            .map(record -> {
+                records.add(record);
+                return result(record.correlationMetadata(), sendError);
+            }));
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getChangeEvents().setEnabled(true);
+        entityChangePublisher = new EntityChangePublisher(sender, new KafkaProperties(), new ObjectMapper(), applicationProperties) {
+            @Override
+            protected Mono<Void> createTopic(String topic) {
+                createdTopics.add(topic);
+                return Mono.empty();
+            }
+        };
+    }
+
+    @Test
+    public void testChangesArePublishedByIdOnTheTopicOfTheirEntity() {
+        Map<SearchIndexOperation, ChangeType> changes = new LinkedHashMap<>();
+        changes.put(SearchIndexOperation.index(region("1"), "1"), ChangeType.CREATE);
+        changes.put(SearchIndexOperation.index(region("2"), "2"), ChangeType.UPDATE);
+        changes.put(SearchIndexOperation.delete(JobHistory.class, "3"), ChangeType.DELETE);
+
+        entityChangePublisher.publish(changes).block();
+
+        assertThat(createdTopics).containsExactly("company.region", "company.job-history");
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0).topic()).isEqualTo("company.region");
+        assertThat(records.get(0).key()).isEqualTo("1");
+        assertThat(records.get(0).value()).contains("\"regionName\":\"Region 1\"");
+        assertThat(changeType(records.get(0))).isEqualTo("CREATE");
+        assertThat(changeType(records.get(1))).isEqualTo("UPDATE");
+        assertThat(records.get(2).topic()).isEqualTo("company.job-history");
+        assertThat(records.get(2).key()).isEqualTo("3");
+        assertThat(records.get(2).value()).isNull();
+        assertThat(changeType(records.get(2))).isEqualTo("DELETE");
+    }
+
+    @Test
+    public void testNothingIsPublishedWhenDisabled() {
+        applicationProperties.getChangeEvents().setEnabled(false);
+        Map<SearchIndexOperation, ChangeType> changes = new LinkedHashMap<>();
+        changes.put(SearchIndexOperation.index(region("1"), "1"), ChangeType.CREATE);
+
+        entityChangePublisher.publish(changes).block();
+
+        assertThat(createdTopics).isEmpty();
+        verify(sender, never()).send(any());
+    }
+
+    @Test
+    public void testFailedChangeFailsThePublication() {
+        sendError = new IllegalStateException("Not the leader");
+        Map<SearchIndexOperation, ChangeType> changes = new LinkedHashMap<>();
+        changes.put(SearchIndexOperation.index(region("1"), "1"), ChangeType.UPDATE);
+
+        assertThatThrownBy(() -> entityChangePublisher.publish(changes).block())
+            .hasMessageContaining("Not the leader");
+    }
+
+    private static String changeType(ProducerRecord<String, String> record) {
+        return new String(record.headers().lastHeader(EntityChangePublisher.CHANGE_TYPE_HEADER).value(), StandardCharsets.UTF_8);
+    }
+
+    private static Region region(String id) {
+        Region region = new Region().regionName("Region " + id);
+        region.setId(id);
+        return region;
+    }
+
+    private static SenderResult<String> result(String correlationMetadata, Exception exception) {
+        return new SenderResult<String>() {
+            @Override
+            public RecordMetadata recordMetadata() {
+                return null;
+            }
+
+            @Override
+            public Exception exception() {
+                return exception;
+            }
+
+            @Override
+            public String correlationMetadata() {
+                return correlationMetadata;
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.JobHistory;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ExportServiceTest {
+
+    private static final String DEPARTMENT_ID = "5ee0d7d1a6b2c13c4c5e1f0a";
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private BatchDbRefResolver batchDbRefResolver;
+
+    private MongoMappingContext mappingContext;
+
+    private ExportService exportService;
+
+    @BeforeEach
+    public void setup() {
+        mappingContext = new MongoMappingContext();
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        when(mongoOperations.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        batchDbRefResolver = mock(BatchDbRefResolver.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getExport().setBatchSize(2);
+        exportService = new ExportService(mongoOperations, batchDbRefResolver, applicationProperties);
+    }
+
+    @Test
+    public void testFiltersAreMappedToTheFieldsOfTheDocuments() {
+        Map<String, String> filters = new LinkedHashMap<>();
+        filters.put("language", "FRENCH");
+        filters.put("department", DEPARTMENT_ID);
+        filters.put("startDate.gte", "2020-01-01T00:00:00Z");
+        filters.put("startDate.lt", "2021-01-01T00:00:00Z");
+
+        Query query = exportService.query(entity(JobHistory.class), filters);
+
+        assertThat(query.getQueryObject()).isEqualTo(new Document()
+            .append("language", "FRENCH")
+            .append("department.$id", new ObjectId(DEPARTMENT_ID))
+            .append("start_date", new Document()
+                .append("$gte", Date.from(Instant.parse("2020-01-01T00:00:00Z")))
+                .append("$lt", Date.from(Instant.parse("2021-01-01T00:00:00Z")))));
+        assertThat(query.getSortObject()).isEqualTo(new Document("_id", 1));
+        assertThat(query.getMeta().getCursorBatchSize()).isEqualTo(1000);
+    }
+
+    @Test
+    public void testInvalidFiltersAreRejected() {
+        assertThatThrownBy(() -> exportService.query(entity(Employee.class), singleFilter("password", "x")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> exportService.query(entity(Employee.class), singleFilter("salary.gte", "a lot")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> exportService.export("User", new LinkedHashMap<>()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEntitiesAreReadBatchAfterBatch() {
+        when(mongoOperations.find(any(Query.class), eq(Document.class), eq("employee")))
+            .thenReturn(Flux.just(new Document("_id", "1"), new Document("_id", "2"), new Document("_id", "3")));
+        List<List<Object>> batches = new ArrayList<>();
+        when(batchDbRefResolver.read(anyList(), eq(Employee.class))).thenAnswer(invocation -> {
+            List<Document> documents = invocation.getArgument(0);
+            batches.add(documents.stream().map(document -> document.get("_id")).collect(Collectors.toList()));
+            return Mono.just(documents.stream().map(document -> {
+                Employee employee = new Employee();
+                employee.setId(document.getString("_id"));
+                return employee;
+            }).collect(Collectors.toList()));
+        });
+
+        List<Object> employees = exportService.export("Employee", new LinkedHashMap<>()).collectList().block();
+
+        assertThat(employees).extracting("id").containsExactly("1", "2", "3");
+        assertThat(batches).hasSize(2);
+    }
+
+    private MongoPersistentEntity<?> entity(Class<?> entityClass) {
+        return mappingContext.getRequiredPersistentEntity(entityClass);
+    }
+
+    private static Map<String, String> singleFilter(String property, String value) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        filters.put(property, value);
+        return filters;
+    }
+}
@@ -0,0 +1,156 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.Region;
+import com.jhipsterdemo.company.domain.ReindexJob;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
+import com.jhipsterdemo.company.domain.enumeration.ReindexStatus;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
+import com.jhipsterdemo.company.repository.ReindexJobRepository;
+import com.jhipsterdemo.company.repository.search.BulkIndexResult;
+import com.jhipsterdemo.company.repository.search.BulkSearchIndexer;
+import com.jhipsterdemo.company.repository.search.SearchIndexOperation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OutboxRelayServiceTest {
+
+    private static final String REGION_ID = "5ee0d7d1a6b2c13c4c5e1f0a";
+
+    private OutboxEventRepository outboxEventRepository;
+
+    private ReindexJobRepository reindexJobRepository;
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private BulkSearchIndexer bulkSearchIndexer;
+
+    private EntityChangePublisher entityChangePublisher;
+
+    private OutboxRelayService outboxRelayService;
+
+    @BeforeEach
+    public void setup() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        when(outboxEventRepository.saveAll(anyIterable())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+        when(outboxEventRepository.deleteAll(anyIterable())).thenReturn(Mono.empty());
+        reindexJobRepository = mock(ReindexJobRepository.class);
+        when(reindexJobRepository.findAllByStatus(ReindexStatus.RUNNING)).thenReturn(Flux.empty());
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        when(mongoOperations.find(any(Query.class), eq(Region.class))).thenReturn(Flux.empty());
+        bulkSearchIndexer = mock(BulkSearchIndexer.class);
+        when(bulkSearchIndexer.bulk(anyCollection())).thenReturn(Mono.just(BulkIndexResult.empty()));
+        entityChangePublisher = mock(EntityChangePublisher.class);
+        when(entityChangePublisher.publish(anyMap())).thenReturn(Mono.empty());
+        MongoMappingContext mongoMappingContext = new MongoMappingContext();
+        mongoMappingContext.getPersistentEntity(Region.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        outboxRelayService = new OutboxRelayService(outboxEventRepository, reindexJobRepository, mongoOperations,
+            bulkSearchIndexer, entityChangePublisher, mongoMappingContext, applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMissingEntitiesAreDeleted() {
+        // The creation failed
+        OutboxEvent created = outboxEvent(ChangeType.CREATE, Instant.now());
+        OutboxEvent deleted = outboxEvent(ChangeType.DELETE, Instant.now());
+        deleted.setEntityId("5ee0d7d1a6b2c13c4c5e1f0b");
+        pendingEvents(created, deleted);
+
+        outboxRelayService.relayBatch().block();
+
+        ArgumentCaptor<Collection<SearchIndexOperation>> operations = ArgumentCaptor.forClass(Collection.class);
+        verify(bulkSearchIndexer).bulk(operations.capture());
+        assertThat(operations.getValue()).extracting(SearchIndexOperation::getType)
+            .containsExactly(SearchIndexOperation.Type.DELETE, SearchIndexOperation.Type.DELETE);
+        ArgumentCaptor<Iterable<OutboxEvent>> relayed = ArgumentCaptor.forClass(Iterable.class);
+        verify(outboxEventRepository).deleteAll(relayed.capture());
+        assertThat(relayed.getValue()).containsExactly(created, deleted);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testKafkaOutageDoesntHoldBackIndexing() {
+        Region region = new Region().regionName("Europe");
+        region.setId(REGION_ID);
+        when(mongoOperations.find(any(Query.class), eq(Region.class))).thenReturn(Flux.just(region));
+        when(entityChangePublisher.publish(anyMap())).thenReturn(Mono.error(new IllegalStateException("Kafka is down")), Mono.empty());
+        OutboxEvent updated = outboxEvent(ChangeType.UPDATE, Instant.now());
+        pendingEvents(updated);
+
+        outboxRelayService.relayBatch().block();
+
+        verify(bulkSearchIndexer).bulk(anyCollection());
+        ArgumentCaptor<Iterable<OutboxEvent>> relayed = ArgumentCaptor.forClass(Iterable.class);
+        verify(outboxEventRepository).deleteAll(relayed.capture());
+        assertThat(relayed.getValue()).isEmpty();
+        assertThat(updated.isIndexed()).isTrue();
+        assertThat(updated.isPublished()).isFalse();
+        assertThat(updated.getAttempts()).isEqualTo(1);
+        assertThat(updated.getLastError()).contains("Kafka is down");
+
+        // Only the publication is retried
+        outboxRelayService.relayBatch().block();
+
+        verify(bulkSearchIndexer).bulk(anyCollection());
+        verify(entityChangePublisher, times(2)).publish(anyMap());
+        verify(outboxEventRepository, times(2)).deleteAll(relayed.capture());
+        assertThat(relayed.getValue()).containsExactly(updated);
+        assertThat(updated.isPublished()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDeletesAreRecordedInTheRunningReindexJobs() {
+        ReindexJob reindexJob = new ReindexJob();
+        reindexJob.setId("job");
+        reindexJob.setEntityType(Region.class.getSimpleName());
+        reindexJob.setTargetIndex("region_20200610000000");
+        when(reindexJobRepository.findAllByStatus(ReindexStatus.RUNNING)).thenReturn(Flux.just(reindexJob));
+        when(mongoOperations.updateFirst(any(Query.class), any(Update.class), eq(ReindexJob.class))).thenReturn(Mono.empty());
+        pendingEvents(outboxEvent(ChangeType.DELETE, Instant.now()));
+
+        outboxRelayService.relayBatch().block();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).updateFirst(any(Query.class), update.capture(), eq(ReindexJob.class));
+        assertThat(update.getValue().toString()).contains("deletedIds").contains(REGION_ID);
+        ArgumentCaptor<Collection<SearchIndexOperation>> operations = ArgumentCaptor.forClass(Collection.class);
+        verify(bulkSearchIndexer).bulk(operations.capture());
+        assertThat(operations.getValue()).extracting(SearchIndexOperation::getIndexName)
+            .containsExactly(null, "region_20200610000000");
+    }
+
+    private void pendingEvents(OutboxEvent... events) {
+        when(outboxEventRepository.findAllByNextAttemptDateLessThanEqualOrderByCreatedDateAsc(any(Instant.class), any(Pageable.class)))
+            .thenReturn(Flux.just(events));
+    }
+
+    private static OutboxEvent outboxEvent(ChangeType changeType, Instant createdDate) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEntityType(Region.class.getSimpleName());
+        outboxEvent.setEntityId(REGION_ID);
+        outboxEvent.setChangeType(changeType);
+        outboxEvent.setCreatedDate(createdDate);
+        outboxEvent.setNextAttemptDate(createdDate);
+        return outboxEvent;
+    }
+}
@@ -0,0 +1,83 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.Region;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OutboxServiceTest {
+
+    private static final String OUTBOX_EVENT_ID = "5ee0d7d1a6b2c13c4c5e1f0c";
+
+    private OutboxEventRepository outboxEventRepository;
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    public void setup() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        when(outboxEventRepository.save(any(OutboxEvent.class))).thenAnswer(invocation -> {
+            OutboxEvent outboxEvent = invocation.getArgument(0);
+            outboxEvent.setId(OUTBOX_EVENT_ID);
+            return Mono.just(outboxEvent);
+        });
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        when(mongoOperations.updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class)))
+            .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        outboxService = new OutboxService(outboxEventRepository, mongoOperations, new MongoMappingContext(), new ApplicationProperties());
+    }
+
+    @Test
+    public void testEventIsDueOnceTheSaveIsOver() {
+        Region region = new Region().regionName("Europe");
+
+        Region saved = outboxService.save(region, entity -> {
+            // The event is recorded first, due only after the recovery delay
+            ArgumentCaptor<OutboxEvent> recorded = ArgumentCaptor.forClass(OutboxEvent.class);
+            verify(outboxEventRepository).save(recorded.capture());
+            assertThat(recorded.getValue().getChangeType()).isEqualTo(ChangeType.CREATE);
+            assertThat(recorded.getValue().getEntityId()).isEqualTo(entity.getId());
+            assertThat(recorded.getValue().getNextAttemptDate()).isAfter(Instant.now().plus(4, ChronoUnit.MINUTES));
+            verify(mongoOperations, never()).updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+            return Mono.just(entity);
+        }).block();
+
+        assertThat(saved).isSameAs(region);
+        assertThat(region.getId()).isNotNull();
+        ArgumentCaptor<Update> ready = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).updateMulti(any(Query.class), ready.capture(), eq(OutboxEvent.class));
+        assertThat(ready.getValue().getUpdateObject().get("$set", org.bson.Document.class).get("nextAttemptDate", Instant.class))
+            .isBeforeOrEqualTo(Instant.now());
+    }
+
+    @Test
+    public void testEventIsDueOnceTheDeleteFailed() {
+        assertThatThrownBy(() -> outboxService.delete(Region.class, "5ee0d7d1a6b2c13c4c5e1f0a",
+            Mono.error(new IllegalStateException("Timeout"))).block())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Timeout");
+
+        verify(mongoOperations).updateMulti(argThat((Query query) -> query.getQueryObject().toJson().contains(OUTBOX_EVENT_ID)),
+            any(Update.class), eq(OutboxEvent.class));
+    }
+}
@@ -0,0 +1,96 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.service.dto.QueryPlanDTO;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class QueryPlanServiceTest {
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private QueryPlanService queryPlanService;
+
+    @BeforeEach
+    public void setup() {
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        when(mongoOperations.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        when(mongoOperations.getCollectionName(any())).thenReturn("jhi_user");
+        when(mongoOperations.executeCommand(any(Document.class))).thenReturn(Mono.just(explanation(new Document("stage", "FETCH")
+            .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "login")))));
+        queryPlanService = new QueryPlanService(mongoOperations);
+    }
+
+    @Test
+    public void testIndexScansAreReported() {
+        List<QueryPlanDTO> queryPlans = queryPlanService.explainRepositoryQueries().collectList().block();
+
+        assertThat(queryPlans).isNotEmpty().allSatisfy(queryPlan -> {
+            assertThat(queryPlan.getCollection()).isEqualTo("company.jhi_user");
+            assertThat(queryPlan.getPlan()).isEqualTo("FETCH > IXSCAN");
+            assertThat(queryPlan.getIndex()).isEqualTo("login");
+            assertThat(queryPlan.isCollectionScan()).isFalse();
+        });
+    }
+
+    @Test
+    public void testCollectionScansAreReported() {
+        when(mongoOperations.executeCommand(any(Document.class))).thenReturn(Mono.just(explanation(new Document("stage", "SUBPLAN")
+            .append("inputStages", Collections.singletonList(new Document("stage", "COLLSCAN"))))));
+
+        QueryPlanDTO queryPlan = queryPlanService.explainRepositoryQueries().blockFirst();
+
+        assertThat(queryPlan.getQuery()).isEqualTo("UserRepository.findOneByActivationKey");
+        assertThat(queryPlan.getPlan()).isEqualTo("SUBPLAN > COLLSCAN");
+        assertThat(queryPlan.getIndex()).isNull();
+        assertThat(queryPlan.isCollectionScan()).isTrue();
+    }
+
+    @Test
+    public void testEmailQueryIsExplainedWithItsCollation() {
+        queryPlanService.explainRepositoryQueries().blockLast();
+
+        verify(mongoOperations).executeCommand(argThat((Document command) ->
+            "?".equals(command.get("explain", Document.class).get("filter", Document.class).get("email")) &&
+                command.get("explain", Document.class).get("collation", Document.class).getInteger("strength") == 2));
+    }
+
+    @Test
+    public void testFiltersAreDerivedFromTheRepositoryMethods() {
+        queryPlanService.explainRepositoryQueries().blockLast();
+
+        ArgumentCaptor<Document> commands = ArgumentCaptor.forClass(Document.class);
+        verify(mongoOperations, times(8)).executeCommand(commands.capture());
+        List<Document> filters = commands.getAllValues().stream()
+            .map(command -> command.get("explain", Document.class).get("filter", Document.class))
+            .collect(Collectors.toList());
+        assertThat(filters.get(0)).isEqualTo(new Document("activation_key", "?"));
+        Document unactivated = filters.get(1);
+        assertThat(unactivated.keySet()).containsExactly("activated", "activation_key", "created_date");
+        assertThat(unactivated.get("activated")).isEqualTo(false);
+        assertThat(unactivated.get("activation_key")).isEqualTo(new Document("$ne", null));
+        assertThat(unactivated.get("created_date", Document.class).get("$lt")).isInstanceOf(Date.class);
+        Document between = filters.get(6).get("event_date", Document.class);
+        assertThat(between.keySet()).containsExactly("$gt", "$lt");
+        assertThat(filters.get(7).get("event_date", Document.class).keySet()).containsExactly("$lt");
+    }
+
+    private static Document explanation(Document winningPlan) {
+        return new Document("queryPlanner", new Document("namespace", "company.jhi_user").append("winningPlan", winningPlan));
+    }
+}
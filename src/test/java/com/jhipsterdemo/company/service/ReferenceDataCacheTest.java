@@ -0,0 +1,105 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.config.KafkaProperties;
+import com.jhipsterdemo.company.domain.Region;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ReferenceDataCacheTest {
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private ApplicationProperties applicationProperties;
+
+    private KafkaSender<String, String> sender;
+
+    private ReferenceDataCache referenceDataCache;
+
+    private ReferenceDataCache.CachedCollection<Region> regions;
+
+    private boolean failing;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        sender = mock(KafkaSender.class);
+        referenceDataCache = new ReferenceDataCache(sender, new KafkaProperties(), applicationProperties, new SimpleMeterRegistry());
+        regions = referenceDataCache.collection(Region.class, Region::getId, () -> {
+            reads.incrementAndGet();
+            return failing ? Flux.error(new IllegalStateException("Timeout")) : Flux.just(region("2"), region("1"));
+        });
+    }
+
+    @Test
+    public void testCollectionIsReadOnce() {
+        assertThat(regions.findAll().map(Region::getId).collectList().block()).containsExactly("2", "1");
+        assertThat(regions.findOne("1").block().getId()).isEqualTo("1");
+        assertThat(regions.findOne("3").blockOptional()).isEmpty();
+
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    public void testCollectionIsReadAgainOnceInvalidated() {
+        regions.findAll().blockLast();
+
+        referenceDataCache.invalidateAll().block();
+        regions.findAll().blockLast();
+
+        assertThat(reads).hasValue(2);
+        verify(sender, never()).send(any());
+    }
+
+    @Test
+    public void testCollectionIsOnlyInvalidatedOnceTheWriteCompletes() {
+        regions.findAll().blockLast();
+
+        Mono<Void> delete = Mono.<Void>empty().then(referenceDataCache.invalidateAll());
+        regions.findAll().blockLast();
+        assertThat(reads).hasValue(1);
+
+        delete.block();
+        regions.findAll().blockLast();
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    public void testFailedReadIsNotCached() {
+        failing = true;
+        assertThatThrownBy(() -> regions.findAll().blockLast()).hasMessageContaining("Timeout");
+
+        failing = false;
+        assertThat(regions.findAll().collectList().block()).hasSize(2);
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    public void testCollectionIsReadEachTimeWhenDisabled() {
+        applicationProperties.getReferenceDataCache().setEnabled(false);
+
+        regions.findAll().blockLast();
+        regions.findOne("1").block();
+
+        assertThat(reads).hasValue(2);
+    }
+
+    private static Region region(String id) {
+        Region region = new Region().regionName("Region " + id);
+        region.setId(id);
+        return region;
+    }
+}
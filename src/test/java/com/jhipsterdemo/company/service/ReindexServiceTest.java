@@ -0,0 +1,109 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.domain.Region;
+import com.jhipsterdemo.company.domain.ReindexJob;
+import com.jhipsterdemo.company.domain.enumeration.ReindexStatus;
+import com.jhipsterdemo.company.repository.BatchDbRefResolver;
+import com.jhipsterdemo.company.repository.ReindexJobRepository;
+import com.jhipsterdemo.company.repository.search.BulkSearchIndexer;
+import com.jhipsterdemo.company.repository.search.SearchIndexManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ReindexServiceTest {
+
+    private static final String ENTITY_TYPE = Region.class.getSimpleName();
+
+    private ReindexJobRepository reindexJobRepository;
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private SearchIndexManager searchIndexManager;
+
+    private ReindexService reindexService;
+
+    @BeforeEach
+    public void setup() {
+        reindexJobRepository = mock(ReindexJobRepository.class);
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        ReactiveElasticsearchOperations elasticsearchOperations = mock(ReactiveElasticsearchOperations.class);
+        when(elasticsearchOperations.getElasticsearchConverter())
+            .thenReturn(new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
+        searchIndexManager = mock(SearchIndexManager.class);
+        reindexService = new ReindexService(reindexJobRepository, mongoOperations, elasticsearchOperations, searchIndexManager,
+            mock(BulkSearchIndexer.class), mock(BatchDbRefResolver.class), new ApplicationProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testRunningJobIsNotStartedAgain() {
+        ReindexJob running = reindexJob(ReindexStatus.RUNNING, Instant.now());
+        when(reindexJobRepository.findFirstByEntityTypeOrderByStartDateDesc(ENTITY_TYPE)).thenReturn(Mono.just(running));
+
+        assertThatThrownBy(() -> reindexService.start(ENTITY_TYPE).block())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("already being rebuilt");
+        verify(searchIndexManager, never()).createIndexForBulkLoad(anyString(), anyString());
+    }
+
+    @Test
+    public void testJobStartedConcurrentlyIsRefused() {
+        when(reindexJobRepository.findFirstByEntityTypeOrderByStartDateDesc(ENTITY_TYPE)).thenReturn(Mono.empty());
+        when(searchIndexManager.createIndexForBulkLoad(anyString(), anyString())).thenReturn(Mono.empty());
+        when(searchIndexManager.delete(anyString())).thenReturn(Mono.empty());
+        when(mongoOperations.count(any(Query.class), eq(Region.class))).thenReturn(Mono.just(3L));
+        // The unique index on the running jobs
+        when(reindexJobRepository.save(any(ReindexJob.class))).thenReturn(Mono.error(new DuplicateKeyException("entity_type_running")));
+
+        assertThatThrownBy(() -> reindexService.start(ENTITY_TYPE).block())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("already being rebuilt");
+        verify(searchIndexManager).delete(startsWith("region_"));
+    }
+
+    @Test
+    public void testStaleJobResumedByAnotherInstanceIsRefused() {
+        ReindexJob stale = reindexJob(ReindexStatus.RUNNING, Instant.now().minus(1, ChronoUnit.HOURS));
+        when(reindexJobRepository.findFirstByEntityTypeOrderByStartDateDesc(ENTITY_TYPE)).thenReturn(Mono.just(stale));
+        when(searchIndexManager.exists(stale.getTargetIndex())).thenReturn(Mono.just(true));
+        // Its heartbeat changed since it was read
+        when(mongoOperations.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ReindexJob.class)))
+            .thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> reindexService.start(ENTITY_TYPE).block())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("already being rebuilt");
+        verify(searchIndexManager, never()).createIndexForBulkLoad(anyString(), anyString());
+    }
+
+    private static ReindexJob reindexJob(ReindexStatus status, Instant heartbeatDate) {
+        ReindexJob reindexJob = new ReindexJob();
+        reindexJob.setId("job");
+        reindexJob.setEntityType(ENTITY_TYPE);
+        reindexJob.setAlias("region");
+        reindexJob.setTargetIndex("region_20200610000000");
+        reindexJob.setStatus(status);
+        reindexJob.setStartDate(heartbeatDate);
+        reindexJob.setHeartbeatDate(heartbeatDate);
+        return reindexJob;
+    }
+}
@@ -0,0 +1,182 @@
+package com.jhipsterdemo.company.service;
+
+import com.jhipsterdemo.company.config.ApplicationProperties;
+import com.jhipsterdemo.company.config.KafkaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SharedKafkaReceiverTest {
+
+    private final Map<String, DirectProcessor<String>> topics = new HashMap<>();
+
+    private final Map<String, AtomicInteger> consumers = new HashMap<>();
+
+    private Runnable onCancel;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SharedKafkaReceiver sharedKafkaReceiver;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getKafkaConsumer().setGracePeriodMs(0);
+        meterRegistry = new SimpleMeterRegistry();
+        sharedKafkaReceiver = new SharedKafkaReceiver(new KafkaProperties(), applicationProperties, meterRegistry) {
+            @Override
+            protected Flux<String> consume(String topic) {
+                return topics.computeIfAbsent(topic, name -> DirectProcessor.create())
+                    .doOnSubscribe(subscription -> consumers.computeIfAbsent(topic, name -> new AtomicInteger()).incrementAndGet())
+                    .doOnCancel(() -> {
+                        Runnable runnable = onCancel;
+                        onCancel = null;
+                        if (runnable != null) {
+                            runnable.run();
+                        }
+                    });
+            }
+        };
+    }
+
+    @Test
+    public void testSubscribersShareTheConsumerOfATopic() {
+        RecordingSubscriber first = subscribe(Collections.singletonList("topic"), 10, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST);
+        RecordingSubscriber second = subscribe(Arrays.asList("topic", "other"), 10, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST);
+        first.request(10);
+        second.request(10);
+
+        topics.get("topic").onNext("a");
+        topics.get("topic").onNext("b");
+        topics.get("other").onNext("c");
+
+        assertThat(first.values).containsExactly("a", "b");
+        assertThat(second.values).containsExactly("a", "b", "c");
+        assertThat(consumers.get("topic")).hasValue(1);
+        assertThat(consumers.get("other")).hasValue(1);
+    }
+
+    @Test
+    public void testSlowSubscriberDropsTheOldestRecords() {
+        RecordingSubscriber subscriber = subscribe(Collections.singletonList("topic"), 2, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST);
+
+        publish("topic", "a", "b", "c", "d");
+        subscriber.request(10);
+
+        assertThat(subscriber.values).containsExactly("c", "d");
+        assertThat(meterRegistry.counter("kafka.consumer.dropped").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testSlowSubscriberDropsTheLatestRecords() {
+        RecordingSubscriber subscriber = subscribe(Collections.singletonList("topic"), 2, SharedKafkaReceiver.OverflowStrategy.DROP_LATEST);
+
+        publish("topic", "a", "b", "c", "d");
+        subscriber.request(10);
+
+        assertThat(subscriber.values).containsExactly("a", "b");
+    }
+
+    @Test
+    public void testSlowSubscriberKeepsTheLatestRecord() {
+        RecordingSubscriber subscriber = subscribe(Collections.singletonList("topic"), 2, SharedKafkaReceiver.OverflowStrategy.LATEST);
+
+        publish("topic", "a", "b", "c", "d");
+        subscriber.request(10);
+
+        assertThat(subscriber.values).containsExactly("d");
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotSlowDownTheOthers() {
+        RecordingSubscriber slow = subscribe(Collections.singletonList("topic"), 1, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST);
+        RecordingSubscriber fast = subscribe(Collections.singletonList("topic"), 1, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST);
+        fast.request(10);
+
+        publish("topic", "a", "b", "c");
+
+        assertThat(fast.values).containsExactly("a", "b", "c");
+        assertThat(slow.values).isEmpty();
+    }
+
+    @Test
+    public void testConsumerIsClosedWithoutSubscriber() {
+        sharedKafkaReceiver.receive(Collections.singletonList("topic"), 10, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST)
+            .take(1)
+            .subscribe();
+        topics.get("topic").onNext("a");
+        assertThat(topics.get("topic").hasDownstreams()).isFalse();
+
+        sharedKafkaReceiver.receive(Collections.singletonList("topic"), 10, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST)
+            .subscribe();
+        assertThat(consumers.get("topic")).hasValue(2);
+    }
+
+    @Test
+    public void testConsumerReconnectedWhileClosingIsStillShared() {
+        // Subscribes while the consumer is being closed, before it is unregistered
+        onCancel = () -> sharedKafkaReceiver.receive(Collections.singletonList("topic"), 10, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST)
+            .subscribe();
+        sharedKafkaReceiver.receive(Collections.singletonList("topic"), 10, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST)
+            .take(1)
+            .subscribe();
+        topics.get("topic").onNext("a");
+        assertThat(consumers.get("topic")).hasValue(2);
+
+        sharedKafkaReceiver.receive(Collections.singletonList("topic"), 10, SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST)
+            .subscribe();
+        assertThat(consumers.get("topic")).hasValue(2);
+    }
+
+    @Test
+    public void testInvalidBufferSizeIsRejected() {
+        assertThatThrownBy(() -> sharedKafkaReceiver.receive(Collections.singletonList("topic"), 0,
+            SharedKafkaReceiver.OverflowStrategy.DROP_OLDEST))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RecordingSubscriber subscribe(List<String> topicNames, int bufferSize, SharedKafkaReceiver.OverflowStrategy overflowStrategy) {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        sharedKafkaReceiver.receive(topicNames, bufferSize, overflowStrategy).subscribe(subscriber);
+        return subscriber;
+    }
+
+    private void publish(String topic, String... values) {
+        for (String value : values) {
+            topics.get(topic).onNext(value);
+        }
+    }
+
+    /**
+     * A subscriber requesting records on demand.
+     */
+    private static class RecordingSubscriber extends BaseSubscriber<String> {
+
+        private final List<String> values = new ArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // Nothing is requested until the test does
+        }
+
+        @Override
+        protected void hookOnNext(String value) {
+            values.add(value);
+        }
+    }
+}
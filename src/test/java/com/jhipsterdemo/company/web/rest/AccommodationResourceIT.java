@@ -2,9 +2,13 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.Accommodation;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.AccommodationRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
 import com.jhipsterdemo.company.repository.search.AccommodationSearchRepository;
 import com.jhipsterdemo.company.service.AccommodationService;
+import com.jhipsterdemo.company.service.ReferenceDataCache;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -60,6 +64,12 @@ public class AccommodationResourceIT {
     @Autowired
     private AccommodationSearchRepository mockAccommodationSearchRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -95,15 +105,14 @@ public class AccommodationResourceIT {
     @BeforeEach
     public void initTest() {
         accommodationRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
+        referenceDataCache.invalidateAll().block();
         accommodation = createEntity();
     }
 
     @Test
     public void createAccommodation() throws Exception {
         int databaseSizeBeforeCreate = accommodationRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockAccommodationSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the Accommodation
         webTestClient.post().uri("/api/accommodations")
             .contentType(MediaType.APPLICATION_JSON)
@@ -119,8 +128,10 @@ public class AccommodationResourceIT {
         assertThat(testAccommodation.getHotelier()).isEqualTo(DEFAULT_HOTELIER);
         assertThat(testAccommodation.getCategory()).isEqualTo(DEFAULT_CATEGORY);
 
-        // Validate the Accommodation in Elasticsearch
-        verify(mockAccommodationSearchRepository, times(1)).save(testAccommodation);
+        // Validate the Accommodation change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Accommodation", testAccommodation.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -141,8 +152,8 @@ public class AccommodationResourceIT {
         List<Accommodation> accommodationList = accommodationRepository.findAll().collectList().block();
         assertThat(accommodationList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Accommodation in Elasticsearch
-        verify(mockAccommodationSearchRepository, times(0)).save(accommodation);
+        // Validate no Accommodation change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -216,9 +227,6 @@ public class AccommodationResourceIT {
 
     @Test
     public void updateAccommodation() throws Exception {
-        // Configure the mock search repository
-        when(mockAccommodationSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         accommodationService.save(accommodation).block();
 
@@ -245,8 +253,10 @@ public class AccommodationResourceIT {
         assertThat(testAccommodation.getHotelier()).isEqualTo(UPDATED_HOTELIER);
         assertThat(testAccommodation.getCategory()).isEqualTo(UPDATED_CATEGORY);
 
-        // Validate the Accommodation in Elasticsearch
-        verify(mockAccommodationSearchRepository, times(2)).save(testAccommodation);
+        // Validate the Accommodation change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Accommodation", testAccommodation.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.UPDATE);
     }
 
     @Test
@@ -264,16 +274,12 @@ public class AccommodationResourceIT {
         List<Accommodation> accommodationList = accommodationRepository.findAll().collectList().block();
         assertThat(accommodationList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Accommodation in Elasticsearch
-        verify(mockAccommodationSearchRepository, times(0)).save(accommodation);
+        // Validate no Accommodation change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteAccommodation() {
-        // Configure the mock search repository
-        when(mockAccommodationSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockAccommodationSearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         accommodationService.save(accommodation).block();
 
@@ -289,15 +295,14 @@ public class AccommodationResourceIT {
         List<Accommodation> accommodationList = accommodationRepository.findAll().collectList().block();
         assertThat(accommodationList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Accommodation in Elasticsearch
-        verify(mockAccommodationSearchRepository, times(1)).deleteById(accommodation.getId());
+        // Validate the Accommodation change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Accommodation", accommodation.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.DELETE);
     }
 
     @Test
     public void searchAccommodation() {
-        // Configure the mock search repository
-        when(mockAccommodationSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         accommodationService.save(accommodation).block();
         when(mockAccommodationSearchRepository.search("id:" + accommodation.getId()))
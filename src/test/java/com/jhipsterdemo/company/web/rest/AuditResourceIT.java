@@ -1,20 +1,25 @@
 package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
+import com.jhipsterdemo.company.domain.AuditEventBucket;
 import com.jhipsterdemo.company.domain.PersistentAuditEvent;
 import com.jhipsterdemo.company.repository.PersistenceAuditEventRepository;
 import com.jhipsterdemo.company.security.AuthoritiesConstants;
+import com.jhipsterdemo.company.service.AuditEventBucketService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import java.time.Instant;
+import java.util.Arrays;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.Matchers.hasItem;
@@ -37,12 +42,19 @@ public class AuditResourceIT {
 
     private PersistentAuditEvent auditEvent;
 
+    @Autowired
+    private AuditEventBucketService auditEventBucketService;
+
+    @Autowired
+    private ReactiveMongoOperations mongoOperations;
+
     @Autowired
     private WebTestClient webTestClient;
 
     @BeforeEach
     public void initTest() {
         auditEventRepository.deleteAll().block();
+        mongoOperations.remove(new Query(), AuditEventBucket.class).block();
         auditEvent = new PersistentAuditEvent();
         auditEvent.setAuditEventType(SAMPLE_TYPE);
         auditEvent.setPrincipal(SAMPLE_PRINCIPAL);
@@ -109,6 +121,30 @@ public class AuditResourceIT {
             .expectHeader().valueEquals("X-Total-Count", "0");
     }
 
+    @Test
+    public void getAuditStats() {
+        // Count the audit twice, and an audit of another principal once
+        PersistentAuditEvent otherAuditEvent = new PersistentAuditEvent();
+        otherAuditEvent.setAuditEventType(SAMPLE_TYPE);
+        otherAuditEvent.setPrincipal("OTHER_PRINCIPAL");
+        otherAuditEvent.setAuditEventDate(SAMPLE_TIMESTAMP);
+        auditEventBucketService.increment(Arrays.asList(auditEvent, auditEvent, otherAuditEvent)).block();
+
+        String fromDate = SAMPLE_TIMESTAMP.minusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+        String toDate = SAMPLE_TIMESTAMP.plusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+
+        // Get the counts of the sample principal
+        webTestClient.get().uri("/management/audits/stats?fromDate=" + fromDate + "&toDate=" + toDate + "&principal=" + SAMPLE_PRINCIPAL)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$.[0].hour").isEqualTo("2015-08-04T10:00:00Z")
+            .jsonPath("$.[0].auditEventType").isEqualTo(SAMPLE_TYPE)
+            .jsonPath("$.[0].count").isEqualTo(2);
+    }
+
     @Test
     public void getNonExistingAudit() {
         // Get the audit
@@ -1,10 +1,14 @@
 package com.jhipsterdemo.company.web.rest;
 
+import com.jhipsterdemo.company.config.ApplicationProperties;
 import com.jhipsterdemo.company.config.KafkaProperties;
+import com.jhipsterdemo.company.service.SharedKafkaReceiver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,10 +16,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.testcontainers.containers.KafkaContainer;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,7 +61,9 @@ class CompanyKafkaResourceIT {
         consumerProps.put("client.id", "default-client");
         kafkaProperties.setConsumer(consumerProps);
 
-        CompanyKafkaResource kafkaResource = new CompanyKafkaResource(kafkaProperties);
+        SharedKafkaReceiver sharedKafkaReceiver = new SharedKafkaReceiver(kafkaProperties, new ApplicationProperties(), new SimpleMeterRegistry());
+        KafkaSender<String, String> sender = KafkaSender.create(SenderOptions.create(kafkaProperties.getProducerProps()));
+        CompanyKafkaResource kafkaResource = new CompanyKafkaResource(sender, sharedKafkaReceiver);
 
         client = WebTestClient.bindToController(kafkaResource).build();
     }
@@ -74,6 +85,51 @@ class CompanyKafkaResourceIT {
         assertThat(record.value()).isEqualTo("value-produce");
     }
 
+    @Test
+    void reportsMessagesWhichCouldNotBeSent() {
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setProducer(new HashMap<>(getProducerProps()));
+        // Like the shared sender, reports the failed records instead of stopping
+        KafkaSender<String, String> sender = KafkaSender.create(SenderOptions.<String, String>create(kafkaProperties.getProducerProps())
+            .producerProperty(ProducerConfig.MAX_REQUEST_SIZE_CONFIG, 1024)
+            .stopOnError(false));
+        WebTestClient client = WebTestClient.bindToController(new CompanyKafkaResource(sender,
+            new SharedKafkaReceiver(kafkaProperties, new ApplicationProperties(), new SimpleMeterRegistry()))).build();
+        char[] message = new char[2048];
+        Arrays.fill(message, 'a');
+
+        client.post().uri("/api/company-kafka/publish/topic-produce-too-large?message=" + new String(message))
+            .exchange()
+            .expectStatus().is5xxServerError();
+    }
+
+    @Test
+    void producesStreamOfMessages() {
+        List<String> results = client.post().uri("/api/company-kafka/publish/topic-produce-bulk/bulk")
+            .contentType(MediaType.APPLICATION_STREAM_JSON)
+            .bodyValue("{\"key\":\"key-1\",\"value\":\"value-1\"}\n{\"value\":\"value-2\"}\n")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_STREAM_JSON)
+            .returnResult(String.class)
+            .getResponseBody().collectList().block(Duration.ofSeconds(10));
+
+        assertThat(results).hasSize(2);
+        assertThat(results).allMatch(result -> result.contains("\"offset\""));
+
+        Map<String, Object> consumerProps = new HashMap<>(getConsumerProps("group-produce-bulk"));
+        KafkaConsumer<String, String> consumer = new KafkaConsumer<>(consumerProps);
+        consumer.subscribe(Collections.singletonList("topic-produce-bulk"));
+        ConsumerRecords<String, String> records = consumer.poll(Duration.ofSeconds(1));
+
+        assertThat(records.count()).isEqualTo(2);
+        Iterator<ConsumerRecord<String, String>> iterator = records.iterator();
+        ConsumerRecord<String, String> record = iterator.next();
+        assertThat(record.key()).isEqualTo("key-1");
+        assertThat(record.value()).isEqualTo("value-1");
+        assertThat(iterator.next().value()).isEqualTo("value-2");
+    }
+
     @Test
     void consumesMessages() {
         Map<String, Object> producerProps = new HashMap<>(getProducerProps());
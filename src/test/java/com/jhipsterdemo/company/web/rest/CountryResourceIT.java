@@ -2,9 +2,13 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.Country;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.CountryRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
 import com.jhipsterdemo.company.repository.search.CountrySearchRepository;
 import com.jhipsterdemo.company.service.CountryService;
+import com.jhipsterdemo.company.service.ReferenceDataCache;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -54,6 +58,12 @@ public class CountryResourceIT {
     @Autowired
     private CountrySearchRepository mockCountrySearchRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -85,15 +95,14 @@ public class CountryResourceIT {
     @BeforeEach
     public void initTest() {
         countryRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
+        referenceDataCache.invalidateAll().block();
         country = createEntity();
     }
 
     @Test
     public void createCountry() throws Exception {
         int databaseSizeBeforeCreate = countryRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockCountrySearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the Country
         webTestClient.post().uri("/api/countries")
             .contentType(MediaType.APPLICATION_JSON)
@@ -107,8 +116,10 @@ public class CountryResourceIT {
         Country testCountry = countryList.get(countryList.size() - 1);
         assertThat(testCountry.getCountryName()).isEqualTo(DEFAULT_COUNTRY_NAME);
 
-        // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(1)).save(testCountry);
+        // Validate the Country change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Country", testCountry.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -129,8 +140,8 @@ public class CountryResourceIT {
         List<Country> countryList = countryRepository.findAll().collectList().block();
         assertThat(countryList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(0)).save(country);
+        // Validate no Country change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -198,9 +209,6 @@ public class CountryResourceIT {
 
     @Test
     public void updateCountry() throws Exception {
-        // Configure the mock search repository
-        when(mockCountrySearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         countryService.save(country).block();
 
@@ -223,8 +231,10 @@ public class CountryResourceIT {
         Country testCountry = countryList.get(countryList.size() - 1);
         assertThat(testCountry.getCountryName()).isEqualTo(UPDATED_COUNTRY_NAME);
 
-        // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(2)).save(testCountry);
+        // Validate the Country change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Country", testCountry.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.UPDATE);
     }
 
     @Test
@@ -242,16 +252,12 @@ public class CountryResourceIT {
         List<Country> countryList = countryRepository.findAll().collectList().block();
         assertThat(countryList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(0)).save(country);
+        // Validate no Country change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteCountry() {
-        // Configure the mock search repository
-        when(mockCountrySearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockCountrySearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         countryService.save(country).block();
 
@@ -267,15 +273,14 @@ public class CountryResourceIT {
         List<Country> countryList = countryRepository.findAll().collectList().block();
         assertThat(countryList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(1)).deleteById(country.getId());
+        // Validate the Country change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Country", country.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.DELETE);
     }
 
     @Test
     public void searchCountry() {
-        // Configure the mock search repository
-        when(mockCountrySearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         countryService.save(country).block();
         when(mockCountrySearchRepository.search("id:" + country.getId()))
@@ -2,7 +2,10 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.Department;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.DepartmentRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
 import com.jhipsterdemo.company.repository.search.DepartmentSearchRepository;
 import com.jhipsterdemo.company.service.DepartmentService;
 
@@ -54,6 +57,9 @@ public class DepartmentResourceIT {
     @Autowired
     private DepartmentSearchRepository mockDepartmentSearchRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -85,15 +91,13 @@ public class DepartmentResourceIT {
     @BeforeEach
     public void initTest() {
         departmentRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
         department = createEntity();
     }
 
     @Test
     public void createDepartment() throws Exception {
         int databaseSizeBeforeCreate = departmentRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockDepartmentSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the Department
         webTestClient.post().uri("/api/departments")
             .contentType(MediaType.APPLICATION_JSON)
@@ -107,8 +111,10 @@ public class DepartmentResourceIT {
         Department testDepartment = departmentList.get(departmentList.size() - 1);
         assertThat(testDepartment.getDepartmentName()).isEqualTo(DEFAULT_DEPARTMENT_NAME);
 
-        // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(1)).save(testDepartment);
+        // Validate the Department change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Department", testDepartment.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -129,8 +135,8 @@ public class DepartmentResourceIT {
         List<Department> departmentList = departmentRepository.findAll().collectList().block();
         assertThat(departmentList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(0)).save(department);
+        // Validate no Department change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -217,9 +223,6 @@ public class DepartmentResourceIT {
 
     @Test
     public void updateDepartment() throws Exception {
-        // Configure the mock search repository
-        when(mockDepartmentSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         departmentService.save(department).block();
 
@@ -242,8 +245,10 @@ public class DepartmentResourceIT {
         Department testDepartment = departmentList.get(departmentList.size() - 1);
         assertThat(testDepartment.getDepartmentName()).isEqualTo(UPDATED_DEPARTMENT_NAME);
 
-        // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(2)).save(testDepartment);
+        // Validate the Department change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Department", testDepartment.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.UPDATE);
     }
 
     @Test
@@ -261,16 +266,12 @@ public class DepartmentResourceIT {
         List<Department> departmentList = departmentRepository.findAll().collectList().block();
         assertThat(departmentList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(0)).save(department);
+        // Validate no Department change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteDepartment() {
-        // Configure the mock search repository
-        when(mockDepartmentSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockDepartmentSearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         departmentService.save(department).block();
 
@@ -286,15 +287,14 @@ public class DepartmentResourceIT {
         List<Department> departmentList = departmentRepository.findAll().collectList().block();
         assertThat(departmentList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(1)).deleteById(department.getId());
+        // Validate the Department change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Department", department.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.DELETE);
     }
 
     @Test
     public void searchDepartment() {
-        // Configure the mock search repository
-        when(mockDepartmentSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         departmentService.save(department).block();
         when(mockDepartmentSearchRepository.search("id:" + department.getId()))
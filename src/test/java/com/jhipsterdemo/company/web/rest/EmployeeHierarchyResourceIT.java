@@ -0,0 +1,91 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.CompanyApp;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.repository.EmployeeRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Integration tests for the {@link EmployeeHierarchyResource} REST controller.
+ */
+@SpringBootTest(classes = CompanyApp.class)
+@AutoConfigureWebTestClient
+@WithMockUser
+public class EmployeeHierarchyResourceIT {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Employee ceo;
+
+    private Employee manager;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void initTest() {
+        employeeRepository.deleteAll().block();
+        ceo = employeeRepository.save(EmployeeResourceIT.createEntity()).block();
+        manager = employeeRepository.save(EmployeeResourceIT.createEntity().manager(ceo)).block();
+        employee = employeeRepository.save(EmployeeResourceIT.createEntity().manager(manager)).block();
+    }
+
+    @Test
+    public void getSubtree() {
+        webTestClient.get().uri("/api/employees/{id}/subtree", ceo.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.[*].id").value(hasItem(manager.getId()))
+            .jsonPath("$.[*].id").value(hasItem(employee.getId()))
+            .jsonPath("$.[*].id").value(not(hasItem(ceo.getId())));
+    }
+
+    @Test
+    public void getChainOfCommand() {
+        webTestClient.get().uri("/api/employees/{id}/chain-of-command", employee.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.[0].id").isEqualTo(ceo.getId())
+            .jsonPath("$.[1].id").isEqualTo(manager.getId());
+    }
+
+    @Test
+    public void getSpanOfControl() {
+        webTestClient.get().uri("/api/employees/{id}/span-of-control", ceo.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.directReports").isEqualTo(1)
+            .jsonPath("$.totalReports").isEqualTo(2)
+            .jsonPath("$.levels").isEqualTo(2);
+    }
+
+    @Test
+    public void rejectCycleInOrgChart() {
+        // The manager now reports to the employee under them
+        webTestClient.put().uri("/api/employees")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(manager.manager(employee))
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+}
@@ -2,8 +2,12 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.EmployeeRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
 import com.jhipsterdemo.company.repository.search.EmployeeSearchRepository;
+import com.jhipsterdemo.company.repository.search.SearchPage;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,15 +19,17 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -72,6 +78,9 @@ public class EmployeeResourceIT {
     @Autowired
     private EmployeeSearchRepository mockEmployeeSearchRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -115,15 +124,13 @@ public class EmployeeResourceIT {
     @BeforeEach
     public void initTest() {
         employeeRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
         employee = createEntity();
     }
 
     @Test
     public void createEmployee() throws Exception {
         int databaseSizeBeforeCreate = employeeRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockEmployeeSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the Employee
         webTestClient.post().uri("/api/employees")
             .contentType(MediaType.APPLICATION_JSON)
@@ -143,8 +150,10 @@ public class EmployeeResourceIT {
         assertThat(testEmployee.getSalary()).isEqualTo(DEFAULT_SALARY);
         assertThat(testEmployee.getCommissionPct()).isEqualTo(DEFAULT_COMMISSION_PCT);
 
-        // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(1)).save(testEmployee);
+        // Validate the Employee change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Employee", testEmployee.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -165,8 +174,8 @@ public class EmployeeResourceIT {
         List<Employee> employeeList = employeeRepository.findAll().collectList().block();
         assertThat(employeeList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(0)).save(employee);
+        // Validate no Employee change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -192,6 +201,37 @@ public class EmployeeResourceIT {
             .jsonPath("$.[*].commissionPct").value(hasItem(DEFAULT_COMMISSION_PCT.intValue()));
     }
     
+    @Test
+    public void getAllEmployeesAfterCursor() {
+        // Initialize the database
+        employeeRepository.save(employee).block();
+        Employee other = createEntity();
+        employeeRepository.save(other).block();
+
+        // Get the first page
+        String link = webTestClient.get().uri("/api/employees?cursor=&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$.[0].id").isEqualTo(employee.getId())
+            .returnResult()
+            .getResponseHeaders()
+            .getFirst(HttpHeaders.LINK);
+        assertThat(link).contains("rel=\"next\"");
+
+        // Follow the cursor to the last page
+        webTestClient.get().uri(URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().doesNotExist(HttpHeaders.LINK)
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$.[0].id").isEqualTo(other.getId());
+    }
+
     @Test
     public void getEmployee() {
         // Initialize the database
@@ -224,9 +264,6 @@ public class EmployeeResourceIT {
 
     @Test
     public void updateEmployee() throws Exception {
-        // Configure the mock search repository
-        when(mockEmployeeSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         employeeRepository.save(employee).block();
 
@@ -261,8 +298,10 @@ public class EmployeeResourceIT {
         assertThat(testEmployee.getSalary()).isEqualTo(UPDATED_SALARY);
         assertThat(testEmployee.getCommissionPct()).isEqualTo(UPDATED_COMMISSION_PCT);
 
-        // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(1)).save(testEmployee);
+        // Validate the Employee change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Employee", testEmployee.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.UPDATE);
     }
 
     @Test
@@ -280,14 +319,12 @@ public class EmployeeResourceIT {
         List<Employee> employeeList = employeeRepository.findAll().collectList().block();
         assertThat(employeeList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(0)).save(employee);
+        // Validate no Employee change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteEmployee() {
-        // Configure the mock search repository
-        when(mockEmployeeSearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         employeeRepository.save(employee).block();
 
@@ -303,26 +340,26 @@ public class EmployeeResourceIT {
         List<Employee> employeeList = employeeRepository.findAll().collectList().block();
         assertThat(employeeList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(1)).deleteById(employee.getId());
+        // Validate the Employee change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Employee", employee.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.DELETE);
     }
 
     @Test
     public void searchEmployee() {
-        // Configure the mock search repository
-        when(mockEmployeeSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockEmployeeSearchRepository.count()).thenReturn(Mono.just(1L));
         // Initialize the database
         employeeRepository.save(employee).block();
         when(mockEmployeeSearchRepository.search("id:" + employee.getId(), PageRequest.of(0, 20)))
-            .thenReturn(Flux.just(employee));
+            .thenReturn(Mono.just(new SearchPage<>(Collections.singletonList(employee), PageRequest.of(0, 20), 1, false)));
 
         // Search the employee
         webTestClient.get().uri("/api/_search/employees?query=id:" + employee.getId())
             .exchange()
             .expectStatus().isOk()
             .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectHeader().valueEquals("X-Total-Count", "1")
+            .expectHeader().valueEquals("X-Total-Count-Relation", "eq")
             .expectBody()
             .jsonPath("$.[*].id").value(hasItem(employee.getId()))
             .jsonPath("$.[*].firstName").value(hasItem(DEFAULT_FIRST_NAME))
@@ -0,0 +1,76 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.CompanyApp;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.repository.EmployeeRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link ExportResource} REST controller.
+ */
+@SpringBootTest(classes = CompanyApp.class)
+@AutoConfigureWebTestClient
+@WithMockUser
+public class ExportResourceIT {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void initTest() {
+        employeeRepository.deleteAll().block();
+    }
+
+    @Test
+    public void exportEmployees() {
+        // Initialize the database
+        Employee employee = EmployeeResourceIT.createEntity();
+        Employee otherEmployee = EmployeeResourceIT.createUpdatedEntity();
+        employeeRepository.save(employee).block();
+        employeeRepository.save(otherEmployee).block();
+
+        // Export the employees with the last name of the first one
+        List<Employee> employees = webTestClient.get().uri("/api/export/Employee?lastName={lastName}", employee.getLastName())
+            .accept(MediaType.APPLICATION_STREAM_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_STREAM_JSON)
+            .returnResult(Employee.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(employees).extracting(Employee::getId).containsExactly(employee.getId());
+    }
+
+    @Test
+    public void exportWithInvalidFilter() {
+        webTestClient.get().uri("/api/export/Employee?password=secret")
+            .accept(MediaType.APPLICATION_STREAM_JSON)
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void exportUnknownEntity() {
+        webTestClient.get().uri("/api/export/User")
+            .accept(MediaType.APPLICATION_STREAM_JSON)
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,91 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.CompanyApp;
+import com.jhipsterdemo.company.domain.Employee;
+import com.jhipsterdemo.company.repository.EmployeeRepository;
+import com.jhipsterdemo.company.security.AuthoritiesConstants;
+import com.jhipsterdemo.company.service.dto.BulkImportReport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link ImportResource} REST controller.
+ */
+@SpringBootTest(classes = CompanyApp.class)
+@AutoConfigureWebTestClient
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+public class ImportResourceIT {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void initTest() {
+        employeeRepository.deleteAll().block();
+    }
+
+    @Test
+    public void importEmployeesFromCsv() {
+        BulkImportReport report = webTestClient.post().uri("/api/import/Employee")
+            .contentType(MediaType.valueOf(ImportResource.TEXT_CSV_VALUE))
+            .bodyValue("email,firstName,manager\nada@example.com,Ada,\ngrace@example.com,Grace,ada@example.com\n")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(BulkImportReport.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(report.getImported()).isEqualTo(2);
+        List<Employee> employees = employeeRepository.findAll().collectList().block();
+        assertThat(employees).extracting(Employee::getEmail).containsExactlyInAnyOrder("ada@example.com", "grace@example.com");
+    }
+
+    @Test
+    public void importEmployeesFromNdjson() {
+        BulkImportReport report = webTestClient.post().uri("/api/import/Employee")
+            .contentType(MediaType.APPLICATION_STREAM_JSON)
+            .bodyValue("{\"email\":\"ada@example.com\"}\n{\"salary\":\"a lot\"}\n")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(BulkImportReport.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BulkImportReport.RowError::getLine).containsExactly(2L);
+        assertThat(employeeRepository.count().block()).isEqualTo(1);
+    }
+
+    @Test
+    public void importUnknownEntity() {
+        webTestClient.post().uri("/api/import/Task")
+            .contentType(MediaType.APPLICATION_STREAM_JSON)
+            .bodyValue("{}\n")
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser
+    public void importAsUserIsForbidden() {
+        webTestClient.post().uri("/api/import/Employee")
+            .contentType(MediaType.APPLICATION_STREAM_JSON)
+            .bodyValue("{}\n")
+            .exchange()
+            .expectStatus().isForbidden();
+    }
+}
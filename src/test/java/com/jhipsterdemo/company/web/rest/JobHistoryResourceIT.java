@@ -2,8 +2,12 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.JobHistory;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.JobHistoryRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
 import com.jhipsterdemo.company.repository.search.JobHistorySearchRepository;
+import com.jhipsterdemo.company.repository.search.SearchPage;
 import com.jhipsterdemo.company.service.JobHistoryService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -16,15 +20,17 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -65,6 +71,9 @@ public class JobHistoryResourceIT {
     @Autowired
     private JobHistorySearchRepository mockJobHistorySearchRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -100,15 +109,13 @@ public class JobHistoryResourceIT {
     @BeforeEach
     public void initTest() {
         jobHistoryRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
         jobHistory = createEntity();
     }
 
     @Test
     public void createJobHistory() throws Exception {
         int databaseSizeBeforeCreate = jobHistoryRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockJobHistorySearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the JobHistory
         webTestClient.post().uri("/api/job-histories")
             .contentType(MediaType.APPLICATION_JSON)
@@ -124,8 +131,10 @@ public class JobHistoryResourceIT {
         assertThat(testJobHistory.getEndDate()).isEqualTo(DEFAULT_END_DATE);
         assertThat(testJobHistory.getLanguage()).isEqualTo(DEFAULT_LANGUAGE);
 
-        // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(1)).save(testJobHistory);
+        // Validate the JobHistory change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("JobHistory", testJobHistory.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -146,8 +155,8 @@ public class JobHistoryResourceIT {
         List<JobHistory> jobHistoryList = jobHistoryRepository.findAll().collectList().block();
         assertThat(jobHistoryList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(0)).save(jobHistory);
+        // Validate no JobHistory change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -168,6 +177,38 @@ public class JobHistoryResourceIT {
             .jsonPath("$.[*].endDate").value(hasItem(DEFAULT_END_DATE.toString()))
             .jsonPath("$.[*].language").value(hasItem(DEFAULT_LANGUAGE.toString()));
     }
+
+
+    @Test
+    public void getAllJobHistoriesAfterCursor() {
+        // Initialize the database
+        jobHistoryRepository.save(jobHistory).block();
+        JobHistory other = createEntity();
+        jobHistoryRepository.save(other).block();
+
+        // Get the first page
+        String link = webTestClient.get().uri("/api/job-histories?cursor=&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$.[0].id").isEqualTo(jobHistory.getId())
+            .returnResult()
+            .getResponseHeaders()
+            .getFirst(HttpHeaders.LINK);
+        assertThat(link).contains("rel=\"next\"");
+
+        // Follow the cursor to the last page
+        webTestClient.get().uri(URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().doesNotExist(HttpHeaders.LINK)
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$.[0].id").isEqualTo(other.getId());
+    }
     
     @Test
     public void getJobHistory() {
@@ -197,9 +238,6 @@ public class JobHistoryResourceIT {
 
     @Test
     public void updateJobHistory() throws Exception {
-        // Configure the mock search repository
-        when(mockJobHistorySearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         jobHistoryService.save(jobHistory).block();
 
@@ -226,8 +264,10 @@ public class JobHistoryResourceIT {
         assertThat(testJobHistory.getEndDate()).isEqualTo(UPDATED_END_DATE);
         assertThat(testJobHistory.getLanguage()).isEqualTo(UPDATED_LANGUAGE);
 
-        // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(2)).save(testJobHistory);
+        // Validate the JobHistory change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("JobHistory", testJobHistory.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.UPDATE);
     }
 
     @Test
@@ -245,16 +285,12 @@ public class JobHistoryResourceIT {
         List<JobHistory> jobHistoryList = jobHistoryRepository.findAll().collectList().block();
         assertThat(jobHistoryList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(0)).save(jobHistory);
+        // Validate no JobHistory change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteJobHistory() {
-        // Configure the mock search repository
-        when(mockJobHistorySearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockJobHistorySearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         jobHistoryService.save(jobHistory).block();
 
@@ -270,26 +306,26 @@ public class JobHistoryResourceIT {
         List<JobHistory> jobHistoryList = jobHistoryRepository.findAll().collectList().block();
         assertThat(jobHistoryList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(1)).deleteById(jobHistory.getId());
+        // Validate the JobHistory change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("JobHistory", jobHistory.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.DELETE);
     }
 
     @Test
     public void searchJobHistory() {
-        // Configure the mock search repository
-        when(mockJobHistorySearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockJobHistorySearchRepository.count()).thenReturn(Mono.just(1L));
         // Initialize the database
         jobHistoryService.save(jobHistory).block();
         when(mockJobHistorySearchRepository.search("id:" + jobHistory.getId(), PageRequest.of(0, 20)))
-            .thenReturn(Flux.just(jobHistory));
+            .thenReturn(Mono.just(new SearchPage<>(Collections.singletonList(jobHistory), PageRequest.of(0, 20), 1, false)));
 
         // Search the jobHistory
         webTestClient.get().uri("/api/_search/job-histories?query=id:" + jobHistory.getId())
             .exchange()
             .expectStatus().isOk()
             .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectHeader().valueEquals("X-Total-Count", "1")
+            .expectHeader().valueEquals("X-Total-Count-Relation", "eq")
             .expectBody()
             .jsonPath("$.[*].id").value(hasItem(jobHistory.getId()))
             .jsonPath("$.[*].startDate").value(hasItem(DEFAULT_START_DATE.toString()))
@@ -2,8 +2,14 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.Job;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.Task;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.JobRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
+import com.jhipsterdemo.company.repository.TaskRepository;
 import com.jhipsterdemo.company.repository.search.JobSearchRepository;
+import com.jhipsterdemo.company.repository.search.SearchPage;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,14 +21,17 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -62,6 +71,12 @@ public class JobResourceIT {
     @Autowired
     private JobSearchRepository mockJobSearchRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -97,15 +112,14 @@ public class JobResourceIT {
     @BeforeEach
     public void initTest() {
         jobRepository.deleteAll().block();
+        taskRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
         job = createEntity();
     }
 
     @Test
     public void createJob() throws Exception {
         int databaseSizeBeforeCreate = jobRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockJobSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the Job
         webTestClient.post().uri("/api/jobs")
             .contentType(MediaType.APPLICATION_JSON)
@@ -121,8 +135,10 @@ public class JobResourceIT {
         assertThat(testJob.getMinSalary()).isEqualTo(DEFAULT_MIN_SALARY);
         assertThat(testJob.getMaxSalary()).isEqualTo(DEFAULT_MAX_SALARY);
 
-        // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(1)).save(testJob);
+        // Validate the Job change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Job", testJob.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -143,8 +159,8 @@ public class JobResourceIT {
         List<Job> jobList = jobRepository.findAll().collectList().block();
         assertThat(jobList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(0)).save(job);
+        // Validate no Job change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -166,6 +182,55 @@ public class JobResourceIT {
             .jsonPath("$.[*].maxSalary").value(hasItem(DEFAULT_MAX_SALARY.intValue()));
     }
     
+    @Test
+    public void getAllJobsAfterCursor() {
+        // Initialize the database
+        jobRepository.save(job).block();
+        Job other = createEntity();
+        jobRepository.save(other).block();
+
+        // Get the first page
+        String link = webTestClient.get().uri("/api/jobs?cursor=&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$.[0].id").isEqualTo(job.getId())
+            .returnResult()
+            .getResponseHeaders()
+            .getFirst(HttpHeaders.LINK);
+        assertThat(link).contains("rel=\"next\"");
+
+        // Follow the cursor to the last page
+        webTestClient.get().uri(URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().doesNotExist(HttpHeaders.LINK)
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .jsonPath("$.[0].id").isEqualTo(other.getId());
+    }
+
+    @Test
+    public void getAllJobsWithEagerRelationshipsLoadsTasks() {
+        // Initialize the database
+        Task task = taskRepository.save(TaskResourceIT.createEntity()).block();
+        job.addTask(task);
+        jobRepository.save(job).block();
+
+        // Get all the jobList with their tasks
+        webTestClient.get().uri("/api/jobs?eagerload=true&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.[*].id").value(hasItem(job.getId()))
+            .jsonPath("$.[*].tasks[*].id").value(hasItem(task.getId()))
+            .jsonPath("$.[*].tasks[*].title").value(hasItem(task.getTitle()));
+    }
+
     @SuppressWarnings({"unchecked"})
     public void getAllJobsWithEagerRelationshipsIsEnabled() {
         when(jobRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(Flux.empty());
@@ -216,9 +281,6 @@ public class JobResourceIT {
 
     @Test
     public void updateJob() throws Exception {
-        // Configure the mock search repository
-        when(mockJobSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         jobRepository.save(job).block();
 
@@ -245,8 +307,10 @@ public class JobResourceIT {
         assertThat(testJob.getMinSalary()).isEqualTo(UPDATED_MIN_SALARY);
         assertThat(testJob.getMaxSalary()).isEqualTo(UPDATED_MAX_SALARY);
 
-        // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(1)).save(testJob);
+        // Validate the Job change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Job", testJob.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.UPDATE);
     }
 
     @Test
@@ -264,14 +328,13 @@ public class JobResourceIT {
         List<Job> jobList = jobRepository.findAll().collectList().block();
         assertThat(jobList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(0)).save(job);
+        // Validate no Job change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteJob() {
         // Configure the mock search repository
-        when(mockJobSearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         jobRepository.save(job).block();
 
@@ -287,26 +350,26 @@ public class JobResourceIT {
         List<Job> jobList = jobRepository.findAll().collectList().block();
         assertThat(jobList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(1)).deleteById(job.getId());
+        // Validate the Job change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Job", job.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.DELETE);
     }
 
     @Test
     public void searchJob() {
-        // Configure the mock search repository
-        when(mockJobSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockJobSearchRepository.count()).thenReturn(Mono.just(1L));
         // Initialize the database
         jobRepository.save(job).block();
         when(mockJobSearchRepository.search("id:" + job.getId(), PageRequest.of(0, 20)))
-            .thenReturn(Flux.just(job));
+            .thenReturn(Mono.just(new SearchPage<>(Collections.singletonList(job), PageRequest.of(0, 20), 1, false)));
 
         // Search the job
         webTestClient.get().uri("/api/_search/jobs?query=id:" + job.getId())
             .exchange()
             .expectStatus().isOk()
             .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectHeader().valueEquals("X-Total-Count", "1")
+            .expectHeader().valueEquals("X-Total-Count-Relation", "eq")
             .expectBody()
             .jsonPath("$.[*].id").value(hasItem(job.getId()))
             .jsonPath("$.[*].jobTitle").value(hasItem(DEFAULT_JOB_TITLE))
@@ -2,9 +2,13 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.Location;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.LocationRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
 import com.jhipsterdemo.company.repository.search.LocationSearchRepository;
 import com.jhipsterdemo.company.service.LocationService;
+import com.jhipsterdemo.company.service.ReferenceDataCache;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -63,6 +67,12 @@ public class LocationResourceIT {
     @Autowired
     private LocationSearchRepository mockLocationSearchRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -100,15 +110,14 @@ public class LocationResourceIT {
     @BeforeEach
     public void initTest() {
         locationRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
+        referenceDataCache.invalidateAll().block();
         location = createEntity();
     }
 
     @Test
     public void createLocation() throws Exception {
         int databaseSizeBeforeCreate = locationRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockLocationSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the Location
         webTestClient.post().uri("/api/locations")
             .contentType(MediaType.APPLICATION_JSON)
@@ -125,8 +134,10 @@ public class LocationResourceIT {
         assertThat(testLocation.getCity()).isEqualTo(DEFAULT_CITY);
         assertThat(testLocation.getStateProvince()).isEqualTo(DEFAULT_STATE_PROVINCE);
 
-        // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(1)).save(testLocation);
+        // Validate the Location change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Location", testLocation.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -147,8 +158,8 @@ public class LocationResourceIT {
         List<Location> locationList = locationRepository.findAll().collectList().block();
         assertThat(locationList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(0)).save(location);
+        // Validate no Location change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -225,9 +236,6 @@ public class LocationResourceIT {
 
     @Test
     public void updateLocation() throws Exception {
-        // Configure the mock search repository
-        when(mockLocationSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         locationService.save(location).block();
 
@@ -256,8 +264,10 @@ public class LocationResourceIT {
         assertThat(testLocation.getCity()).isEqualTo(UPDATED_CITY);
         assertThat(testLocation.getStateProvince()).isEqualTo(UPDATED_STATE_PROVINCE);
 
-        // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(2)).save(testLocation);
+        // Validate the Location change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Location", testLocation.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.UPDATE);
     }
 
     @Test
@@ -275,16 +285,12 @@ public class LocationResourceIT {
         List<Location> locationList = locationRepository.findAll().collectList().block();
         assertThat(locationList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(0)).save(location);
+        // Validate no Location change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteLocation() {
-        // Configure the mock search repository
-        when(mockLocationSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockLocationSearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         locationService.save(location).block();
 
@@ -300,15 +306,14 @@ public class LocationResourceIT {
         List<Location> locationList = locationRepository.findAll().collectList().block();
         assertThat(locationList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(1)).deleteById(location.getId());
+        // Validate the Location change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Location", location.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.DELETE);
     }
 
     @Test
     public void searchLocation() {
-        // Configure the mock search repository
-        when(mockLocationSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         locationService.save(location).block();
         when(mockLocationSearchRepository.search("id:" + location.getId()))
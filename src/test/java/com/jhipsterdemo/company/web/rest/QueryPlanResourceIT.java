@@ -0,0 +1,45 @@
+package com.jhipsterdemo.company.web.rest;
+
+import com.jhipsterdemo.company.CompanyApp;
+import com.jhipsterdemo.company.security.AuthoritiesConstants;
+import com.jhipsterdemo.company.service.dto.QueryPlanDTO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link QueryPlanResource} REST controller.
+ */
+@AutoConfigureWebTestClient
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@SpringBootTest(classes = CompanyApp.class)
+public class QueryPlanResourceIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void repositoryQueriesUseIndexes() {
+        List<QueryPlanDTO> queryPlans = webTestClient.get().uri("/management/query-plans")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(QueryPlanDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(queryPlans).isNotEmpty().noneMatch(QueryPlanDTO::isCollectionScan);
+        assertThat(queryPlans).filteredOn(queryPlan -> queryPlan.getQuery().endsWith("findOneByEmailIgnoreCase"))
+            .extracting(QueryPlanDTO::getIndex)
+            .containsExactly("email_case_insensitive");
+    }
+}
@@ -2,9 +2,13 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.Region;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.RegionRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
 import com.jhipsterdemo.company.repository.search.RegionSearchRepository;
 import com.jhipsterdemo.company.service.RegionService;
+import com.jhipsterdemo.company.service.ReferenceDataCache;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -54,6 +58,12 @@ public class RegionResourceIT {
     @Autowired
     private RegionSearchRepository mockRegionSearchRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -85,15 +95,14 @@ public class RegionResourceIT {
     @BeforeEach
     public void initTest() {
         regionRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
+        referenceDataCache.invalidateAll().block();
         region = createEntity();
     }
 
     @Test
     public void createRegion() throws Exception {
         int databaseSizeBeforeCreate = regionRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockRegionSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the Region
         webTestClient.post().uri("/api/regions")
             .contentType(MediaType.APPLICATION_JSON)
@@ -107,8 +116,10 @@ public class RegionResourceIT {
         Region testRegion = regionList.get(regionList.size() - 1);
         assertThat(testRegion.getRegionName()).isEqualTo(DEFAULT_REGION_NAME);
 
-        // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(1)).save(testRegion);
+        // Validate the Region change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Region", testRegion.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -129,8 +140,8 @@ public class RegionResourceIT {
         List<Region> regionList = regionRepository.findAll().collectList().block();
         assertThat(regionList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(0)).save(region);
+        // Validate no Region change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -198,9 +209,6 @@ public class RegionResourceIT {
 
     @Test
     public void updateRegion() throws Exception {
-        // Configure the mock search repository
-        when(mockRegionSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         regionService.save(region).block();
 
@@ -223,8 +231,10 @@ public class RegionResourceIT {
         Region testRegion = regionList.get(regionList.size() - 1);
         assertThat(testRegion.getRegionName()).isEqualTo(UPDATED_REGION_NAME);
 
-        // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(2)).save(testRegion);
+        // Validate the Region change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Region", testRegion.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.UPDATE);
     }
 
     @Test
@@ -242,16 +252,12 @@ public class RegionResourceIT {
         List<Region> regionList = regionRepository.findAll().collectList().block();
         assertThat(regionList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(0)).save(region);
+        // Validate no Region change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteRegion() {
-        // Configure the mock search repository
-        when(mockRegionSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockRegionSearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         regionService.save(region).block();
 
@@ -267,15 +273,14 @@ public class RegionResourceIT {
         List<Region> regionList = regionRepository.findAll().collectList().block();
         assertThat(regionList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(1)).deleteById(region.getId());
+        // Validate the Region change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Region", region.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.DELETE);
     }
 
     @Test
     public void searchRegion() {
-        // Configure the mock search repository
-        when(mockRegionSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         regionService.save(region).block();
         when(mockRegionSearchRepository.search("id:" + region.getId()))
@@ -2,7 +2,10 @@ package com.jhipsterdemo.company.web.rest;
 
 import com.jhipsterdemo.company.CompanyApp;
 import com.jhipsterdemo.company.domain.Task;
+import com.jhipsterdemo.company.domain.OutboxEvent;
+import com.jhipsterdemo.company.domain.enumeration.ChangeType;
 import com.jhipsterdemo.company.repository.TaskRepository;
+import com.jhipsterdemo.company.repository.OutboxEventRepository;
 import com.jhipsterdemo.company.repository.search.TaskSearchRepository;
 import com.jhipsterdemo.company.service.TaskService;
 
@@ -57,6 +60,9 @@ public class TaskResourceIT {
     @Autowired
     private TaskSearchRepository mockTaskSearchRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -90,15 +96,13 @@ public class TaskResourceIT {
     @BeforeEach
     public void initTest() {
         taskRepository.deleteAll().block();
+        outboxEventRepository.deleteAll().block();
         task = createEntity();
     }
 
     @Test
     public void createTask() throws Exception {
         int databaseSizeBeforeCreate = taskRepository.findAll().collectList().block().size();
-        // Configure the mock search repository
-        when(mockTaskSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Create the Task
         webTestClient.post().uri("/api/tasks")
             .contentType(MediaType.APPLICATION_JSON)
@@ -113,8 +117,10 @@ public class TaskResourceIT {
         assertThat(testTask.getTitle()).isEqualTo(DEFAULT_TITLE);
         assertThat(testTask.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
 
-        // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(1)).save(testTask);
+        // Validate the Task change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Task", testTask.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE);
     }
 
     @Test
@@ -135,8 +141,8 @@ public class TaskResourceIT {
         List<Task> taskList = taskRepository.findAll().collectList().block();
         assertThat(taskList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(0)).save(task);
+        // Validate no Task change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
 
@@ -207,9 +213,6 @@ public class TaskResourceIT {
 
     @Test
     public void updateTask() throws Exception {
-        // Configure the mock search repository
-        when(mockTaskSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         taskService.save(task).block();
 
@@ -234,8 +237,10 @@ public class TaskResourceIT {
         assertThat(testTask.getTitle()).isEqualTo(UPDATED_TITLE);
         assertThat(testTask.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
 
-        // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(2)).save(testTask);
+        // Validate the Task change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Task", testTask.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.UPDATE);
     }
 
     @Test
@@ -253,16 +258,12 @@ public class TaskResourceIT {
         List<Task> taskList = taskRepository.findAll().collectList().block();
         assertThat(taskList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(0)).save(task);
+        // Validate no Task change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.count().block()).isZero();
     }
 
     @Test
     public void deleteTask() {
-        // Configure the mock search repository
-        when(mockTaskSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
-        when(mockTaskSearchRepository.deleteById(anyString())).thenReturn(Mono.empty());
         // Initialize the database
         taskService.save(task).block();
 
@@ -278,15 +279,14 @@ public class TaskResourceIT {
         List<Task> taskList = taskRepository.findAll().collectList().block();
         assertThat(taskList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(1)).deleteById(task.getId());
+        // Validate the Task change is recorded for Elasticsearch
+        assertThat(outboxEventRepository.findAllByEntityTypeAndEntityId("Task", task.getId())
+            .map(OutboxEvent::getChangeType).collectList().block())
+            .containsExactly(ChangeType.CREATE, ChangeType.DELETE);
     }
 
     @Test
     public void searchTask() {
-        // Configure the mock search repository
-        when(mockTaskSearchRepository.save(any()))
-            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         // Initialize the database
         taskService.save(task).block();
         when(mockTaskSearchRepository.search("id:" + task.getId()))
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -31,6 +32,17 @@ public class ExceptionTranslatorIT {
             .jsonPath("$.message").isEqualTo(ErrorConstants.ERR_CONCURRENCY_FAILURE);
     }
 
+    @Test
+    public void testPasswordHashingRejected() {
+        webTestClient.get().uri("/api/exception-translator-test/password-hashing-rejected")
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+            .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+            .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+            .expectBody()
+            .jsonPath("$.message").isEqualTo(ErrorConstants.ERR_PASSWORD_HASHING_REJECTED);
+    }
+
     @Test
     public void testMethodArgumentNotValid() {
          webTestClient.post().uri("/api/exception-translator-test/method-argument")
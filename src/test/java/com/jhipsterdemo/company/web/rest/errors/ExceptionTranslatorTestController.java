@@ -1,5 +1,6 @@
 package com.jhipsterdemo.company.web.rest.errors;
 
+import com.jhipsterdemo.company.security.PasswordHashingRejectedException;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/exception-translator-test")
@@ -18,6 +20,11 @@ public class ExceptionTranslatorTestController {
         throw new ConcurrencyFailureException("test concurrency failure");
     }
 
+    @GetMapping("/password-hashing-rejected")
+    public void passwordHashingRejected() {
+        throw new PasswordHashingRejectedException(new RejectedExecutionException("test password hashing rejected"));
+    }
+
     @PostMapping("/method-argument")
     public void methodArgument(@Valid @RequestBody TestDTO testDTO) {
     }